@@ -0,0 +1,135 @@
+package net.coderodde.util;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Period;
+import jdk.jfr.StackTrace;
+
+/**
+ * This class defines the JDK Flight Recorder events of 
+ * {@link TreeInstrumentation}. It is compiled separately from the rest of the
+ * library, for Java 11, which has the Flight Recorder API, and instantiated
+ * reflectively only when the instrumentation is enabled, so that the rest of
+ * the library runs on Java 8 and on runtimes without the Flight Recorder.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+final class TreeEvents implements TreeInstrumentation.EventRecorder {
+    
+    /**
+     * Registers the periodic counter event with the Flight Recorder.
+     */
+    TreeEvents() {
+        FlightRecorder.addPeriodicEvent(CountersEvent.class, 
+                                        TreeEvents::emitCounters);
+    }
+    
+    @Override
+    public Object beginRender() {
+        RenderEvent event = new RenderEvent();
+        event.begin();
+        return event;
+    }
+    
+    @Override
+    public void endRender(Object token, 
+                          Object converter, 
+                          long nodes, 
+                          long characters) {
+        RenderEvent event = (RenderEvent) token;
+        event.end();
+        
+        if (event.shouldCommit()) {
+            event.converter = converter.getClass().getName();
+            event.nodes = nodes;
+            event.characters = characters;
+            event.commit();
+        }
+    }
+    
+    private static void emitCounters() {
+        CountersEvent event = new CountersEvent();
+        event.nodeAllocations = TreeInstrumentation.get(
+                TreeInstrumentation.Counter.NODE_ALLOCATIONS);
+        event.ancestorSteps = TreeInstrumentation.get(
+                TreeInstrumentation.Counter.ANCESTOR_STEPS);
+        event.reparents = TreeInstrumentation.get(
+                TreeInstrumentation.Counter.REPARENTS);
+        event.removals = TreeInstrumentation.get(
+                TreeInstrumentation.Counter.REMOVALS);
+        event.clears = TreeInstrumentation.get(
+                TreeInstrumentation.Counter.CLEARS);
+        event.renderedNodes = TreeInstrumentation.get(
+                TreeInstrumentation.Counter.RENDERED_NODES);
+        event.renderedCharacters = TreeInstrumentation.get(
+                TreeInstrumentation.Counter.RENDERED_CHARACTERS);
+        event.pooledAllocations = TreeInstrumentation.get(
+                TreeInstrumentation.Counter.POOLED_ALLOCATIONS);
+        event.releasedNodes = TreeInstrumentation.get(
+                TreeInstrumentation.Counter.RELEASED_NODES);
+        event.commit();
+    }
+    
+    /**
+     * This event records a single conversion of a tree to a string.
+     */
+    @Name("net.coderodde.util.TreeRender")
+    @Label("Tree Render")
+    @Category("Tree")
+    @Description("A conversion of a tree to its textual representation.")
+    static final class RenderEvent extends Event {
+        
+        @Label("Converter")
+        String converter;
+        
+        @Label("Nodes")
+        long nodes;
+        
+        @Label("Characters")
+        long characters;
+    }
+    
+    /**
+     * This event records the values of the instrumentation counters.
+     */
+    @Name("net.coderodde.util.TreeCounters")
+    @Label("Tree Counters")
+    @Category("Tree")
+    @Description("The totals of the tree instrumentation counters.")
+    @Period("1 s")
+    @StackTrace(false)
+    static final class CountersEvent extends Event {
+        
+        @Label("Node Allocations")
+        long nodeAllocations;
+        
+        @Label("Ancestor Steps")
+        long ancestorSteps;
+        
+        @Label("Reparents")
+        long reparents;
+        
+        @Label("Removals")
+        long removals;
+        
+        @Label("Clears")
+        long clears;
+        
+        @Label("Rendered Nodes")
+        long renderedNodes;
+        
+        @Label("Rendered Characters")
+        long renderedCharacters;
+        
+        @Label("Pooled Allocations")
+        long pooledAllocations;
+        
+        @Label("Released Nodes")
+        long releasedNodes;
+    }
+}
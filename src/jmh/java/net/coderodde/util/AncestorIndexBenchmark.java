@@ -0,0 +1,84 @@
+package net.coderodde.util;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * This class compares the cycle check of
+ * {@link TreeNodeChildrenView#add(TreeNode)} with and without the ancestor
+ * index of {@link Tree#enableAncestorIndex()} on a {@link TreeShape#CHAIN},
+ * where the parent walk is the longest.
+ * 
+ * <p>
+ * {@link #reparent()} moves the deepest node under the root and back under its
+ * original parent. {@link #rejectCycle()} tries to add the root of the chain
+ * as a child of the deepest node. {@link #isAncestorOf()} asks whether the
+ * root is an ancestor of the deepest node.
+ * </p>
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class AncestorIndexBenchmark {
+    
+    @Param({"false", "true"})
+    private boolean indexed;
+    
+    @Param({"100000", "1000000"})
+    private int size;
+    
+    private TreeNode<Integer> root;
+    private TreeNode<Integer> deepestNode;
+    private TreeNode<Integer> deepestNodeParent;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        Tree<Integer> tree = new Tree<>();
+        TreeNode<Integer>[] nodes = TreeShape.CHAIN.build(tree, size);
+        
+        if (indexed) {
+            tree.enableAncestorIndex();
+        }
+        
+        root = nodes[0];
+        deepestNode = nodes[nodes.length - 1];
+        deepestNodeParent = nodes[nodes.length - 2];
+    }
+    
+    @Benchmark
+    public boolean reparent() {
+        boolean moved = root.getChildren().add(deepestNode);
+        return deepestNodeParent.getChildren().add(deepestNode) & moved;
+    }
+    
+    @Benchmark
+    public boolean rejectCycle() {
+        try {
+            return deepestNode.getChildren().add(root);
+        } catch (IllegalStateException ex) {
+            return false;
+        }
+    }
+    
+    @Benchmark
+    public boolean isAncestorOf() {
+        return root.isAncestorOf(deepestNode);
+    }
+}
@@ -0,0 +1,94 @@
+package net.coderodde.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * This class benchmarks {@link BinaryTreeWriter} and {@link BinaryTreeReader}
+ * on trees of {@link Integer}s. {@link #write()} writes into an output stream
+ * that discards its input, and {@link #read()} reads the tree back from a 
+ * byte array, so that neither is bounded by I/O. {@link #writeText()} writes
+ * the same tree with {@link StreamingTreeToStringConverter} for comparison;
+ * since the indentation makes the text of a {@link TreeShape#CHAIN} quadratic
+ * in its length, it is best run on the other shapes only.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class BinaryTreeFormatBenchmark {
+    
+    @Param({"BALANCED", "CHAIN", "STAR"})
+    private TreeShape shape;
+    
+    @Param({"1000000"})
+    private int size;
+    
+    private Tree<Integer> tree;
+    private byte[] bytes;
+    
+    private final BinaryTreeWriter<Integer> writer = 
+            new BinaryTreeWriter<>(TreeElementCodecs.integers());
+    
+    private final BinaryTreeReader<Integer> reader = 
+            new BinaryTreeReader<>(TreeElementCodecs.integers());
+    
+    private final StreamingTreeToStringConverter<Integer> converter = 
+            new StreamingTreeToStringConverter<>();
+    
+    private final OutputStream nullOutputStream = new OutputStream() {
+        @Override
+        public void write(int b) {}
+        
+        @Override
+        public void write(byte[] b, int off, int len) {}
+    };
+    
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        tree = new Tree<>();
+        shape.build(tree, size);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        writer.write(tree, outputStream);
+        bytes = outputStream.toByteArray();
+    }
+    
+    @Benchmark
+    public OutputStream write() throws IOException {
+        writer.write(tree, nullOutputStream);
+        return nullOutputStream;
+    }
+    
+    @Benchmark
+    public Tree<Integer> read() throws IOException {
+        return reader.read(new ByteArrayInputStream(bytes));
+    }
+    
+    @Benchmark
+    public OutputStream writeText() throws IOException {
+        converter.write(tree, nullOutputStream, 
+                        StandardCharsets.UTF_8);
+        return nullOutputStream;
+    }
+}
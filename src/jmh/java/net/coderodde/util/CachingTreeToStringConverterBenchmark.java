@@ -0,0 +1,81 @@
+package net.coderodde.util;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * This class benchmarks re-rendering a balanced tree after replacing the 
+ * element of a single node. {@link #streaming()} renders the whole tree with
+ * {@link StreamingTreeToStringConverter}, {@link #caching()} renders the 
+ * changed fragments with {@link CachingTreeToStringConverter} and copies the
+ * text into a string, and {@link #cachingWrite()} writes the text to a 
+ * reused builder.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class CachingTreeToStringConverterBenchmark {
+    
+    @Param({"1000000"})
+    private int size;
+    
+    private Tree<Integer> tree;
+    private TreeNode<Integer>[] nodes;
+    private StreamingTreeToStringConverter<Integer> streamingConverter;
+    private CachingTreeToStringConverter<Integer> cachingConverter;
+    private StringBuilder stringBuilder;
+    private int counter;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        tree = new Tree<>();
+        nodes = TreeShape.BALANCED.build(tree, size);
+        streamingConverter = new StreamingTreeToStringConverter<>();
+        cachingConverter = new CachingTreeToStringConverter<>(tree);
+        cachingConverter.toString(tree);
+        stringBuilder = new StringBuilder();
+    }
+    
+    @Benchmark
+    public String streaming() {
+        modify();
+        return streamingConverter.toString(tree);
+    }
+    
+    @Benchmark
+    public String caching() {
+        modify();
+        return cachingConverter.toString(tree);
+    }
+    
+    @Benchmark
+    public int cachingWrite() throws Exception {
+        modify();
+        stringBuilder.setLength(0);
+        cachingConverter.write(tree, stringBuilder);
+        return stringBuilder.length();
+    }
+    
+    private void modify() {
+        // A multiplicative hash spreads the modifications over the tree.
+        int index = (int) ((counter++ * 0x9E3779B9L & 0xFFFFFFFFL) % size);
+        nodes[index].setElement(nodes[index].getElement());
+    }
+}
@@ -0,0 +1,86 @@
+package net.coderodde.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * This class benchmarks {@link CompactTree} on a tree made of identical
+ * balanced sections, one under each root. {@link #of()} compacts the tree.
+ * {@link #compactElementSum()} and {@link #compactNodeSum()} traverse
+ * the compacted tree without and with the node handles, and
+ * {@link #treeElementSum()} traverses the original tree, for comparison.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class CompactTreeBenchmark {
+    
+    @Param({"1000"})
+    private int sections;
+    
+    @Param({"1000"})
+    private int sectionSize;
+    
+    private Tree<Integer> tree;
+    private CompactTree<Integer> compactTree;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        tree = new Tree<>();
+        
+        for (int i = 0; i < sections; i++) {
+            List<TreeNode<Integer>> nodes = new ArrayList<>(sectionSize);
+            TreeNode<Integer> root = tree.getPseudoRoot().addChild(-1);
+            
+            for (int j = 0; j < sectionSize; j++) {
+                TreeNode<Integer> parent = j == 0 ? root : nodes.get(j / 4);
+                nodes.add(parent.addChild(j));
+            }
+        }
+        
+        compactTree = CompactTree.of(tree);
+    }
+    
+    @Benchmark
+    public CompactTree<Integer> of() {
+        return CompactTree.of(tree);
+    }
+    
+    @Benchmark
+    public long compactElementSum() {
+        return compactTree.elementStream().mapToLong(Integer::longValue).sum();
+    }
+    
+    @Benchmark
+    public long compactNodeSum() {
+        return compactTree.preorderStream()
+                          .mapToLong(node -> node.getElement())
+                          .sum();
+    }
+    
+    @Benchmark
+    public long treeElementSum() {
+        return tree.preorderStream()
+                   .mapToLong(node -> node.getElement())
+                   .sum();
+    }
+}
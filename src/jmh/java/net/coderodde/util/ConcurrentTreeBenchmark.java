@@ -0,0 +1,176 @@
+package net.coderodde.util;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * This class compares {@link ConcurrentTree} with a {@link Tree} guarded by a
+ * single lock under multiple threads. Every thread works in its own subtree of
+ * {@link #SUBTREE_SIZE} nodes: the churn benchmarks add a leaf and remove it,
+ * and the snapshot benchmarks collect the subtree in pre-order. The 
+ * {@code mixed} groups run two churning and two snapshotting threads at the 
+ * same time.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class ConcurrentTreeBenchmark {
+    
+    /**
+     * The number of nodes in the subtree of each thread.
+     */
+    static final int SUBTREE_SIZE = 100;
+    
+    /**
+     * The maximum number of threads, each given a subtree of its own.
+     */
+    static final int MAXIMUM_THREADS = 64;
+    
+    private final ConcurrentTree<Integer> concurrentTree = 
+            new ConcurrentTree<>();
+    private final Tree<Integer> lockedTree = new Tree<>();
+    private final Object lock = new Object();
+    private final List<ConcurrentTreeNode<Integer>> concurrentRoots = 
+            new ArrayList<>();
+    private final List<TreeNode<Integer>> lockedRoots = new ArrayList<>();
+    private final AtomicInteger threadCounter = new AtomicInteger();
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        for (int i = 0; i < MAXIMUM_THREADS; i++) {
+            List<ConcurrentTreeNode<Integer>> concurrentNodes = 
+                    new ArrayList<>();
+            List<TreeNode<Integer>> lockedNodes = new ArrayList<>();
+            concurrentNodes.add(concurrentTree.getPseudoRoot().addChild(i));
+            lockedNodes.add(lockedTree.getPseudoRoot().addChild(i));
+            
+            for (int j = 1; j < SUBTREE_SIZE; j++) {
+                int parent = (j - 1) / TreeShape.BRANCHING_FACTOR;
+                concurrentNodes.add(concurrentNodes.get(parent).addChild(j));
+                lockedNodes.add(lockedNodes.get(parent).addChild(j));
+            }
+            
+            concurrentRoots.add(concurrentNodes.get(0));
+            lockedRoots.add(lockedNodes.get(0));
+        }
+    }
+    
+    /**
+     * This class holds the subtree of a benchmark thread.
+     */
+    @State(Scope.Thread)
+    public static class ThreadState {
+        
+        ConcurrentTreeNode<Integer> concurrentRoot;
+        TreeNode<Integer> lockedRoot;
+        
+        @Setup(Level.Trial)
+        public void setUp(ConcurrentTreeBenchmark benchmark) {
+            int index = benchmark.threadCounter.getAndIncrement() % 
+                        MAXIMUM_THREADS;
+            concurrentRoot = benchmark.concurrentRoots.get(index);
+            lockedRoot = benchmark.lockedRoots.get(index);
+        }
+    }
+    
+    @Benchmark
+    @Threads(4)
+    public boolean concurrentChurn(ThreadState state) {
+        return churn(state);
+    }
+    
+    @Benchmark
+    @Threads(4)
+    public boolean lockedChurn(ThreadState state) {
+        return lockedChurnImpl(state);
+    }
+    
+    @Benchmark
+    @Threads(4)
+    public int concurrentSnapshot(ThreadState state) {
+        return state.concurrentRoot.preorderSnapshot().size();
+    }
+    
+    @Benchmark
+    @Threads(4)
+    public int lockedSnapshot(ThreadState state) {
+        return lockedSnapshotImpl(state);
+    }
+    
+    @Benchmark
+    @Group("concurrentMixed")
+    @GroupThreads(2)
+    public boolean concurrentMixedChurn(ThreadState state) {
+        return churn(state);
+    }
+    
+    @Benchmark
+    @Group("concurrentMixed")
+    @GroupThreads(2)
+    public int concurrentMixedSnapshot(ThreadState state) {
+        return state.concurrentRoot.preorderSnapshot().size();
+    }
+    
+    @Benchmark
+    @Group("lockedMixed")
+    @GroupThreads(2)
+    public boolean lockedMixedChurn(ThreadState state) {
+        return lockedChurnImpl(state);
+    }
+    
+    @Benchmark
+    @Group("lockedMixed")
+    @GroupThreads(2)
+    public int lockedMixedSnapshot(ThreadState state) {
+        return lockedSnapshotImpl(state);
+    }
+    
+    private static boolean churn(ThreadState state) {
+        ConcurrentTreeNode<Integer> root = state.concurrentRoot;
+        return root.removeChild(root.addChild(0));
+    }
+    
+    private boolean lockedChurnImpl(ThreadState state) {
+        synchronized (lock) {
+            TreeNode<Integer> root = state.lockedRoot;
+            return root.getChildren().remove(root.addChild(0));
+        }
+    }
+    
+    private int lockedSnapshotImpl(ThreadState state) {
+        synchronized (lock) {
+            List<TreeNode<Integer>> snapshot = new ArrayList<>();
+            Iterator<TreeNode<Integer>> iterator = 
+                    state.lockedRoot.preorderIterator();
+            
+            while (iterator.hasNext()) {
+                snapshot.add(iterator.next());
+            }
+            
+            return snapshot.size();
+        }
+    }
+}
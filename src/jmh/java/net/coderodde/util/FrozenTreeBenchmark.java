@@ -0,0 +1,111 @@
+package net.coderodde.util;
+
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * This class compares scanning a {@link FrozenTree} with scanning the 
+ * {@link Tree} it was taken from. {@link #treeScan()} and 
+ * {@link #frozenScan()} sum the elements of all the nodes in pre-order, and
+ * {@link #treeChildScan()} and {@link #frozenChildScan()} sum the elements
+ * of the children of every node by walking the child lists. 
+ * {@link #freeze()} measures taking the snapshot; its normalized allocation 
+ * rate reported by the GC profiler divided by {@code size} is the footprint 
+ * of the snapshot per node.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class FrozenTreeBenchmark {
+    
+    @Param({"BALANCED", "CHAIN", "STAR"})
+    private TreeShape shape;
+    
+    @Param({"100000", "10000000"})
+    private int size;
+    
+    private Tree<Integer> tree;
+    private FrozenTree<Integer> frozenTree;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        tree = new Tree<>();
+        shape.build(tree, size);
+        frozenTree = tree.freeze();
+    }
+    
+    @Benchmark
+    public FrozenTree<Integer> freeze() {
+        return tree.freeze();
+    }
+    
+    @Benchmark
+    public long treeScan() {
+        long sum = 0;
+        Iterator<TreeNode<Integer>> iterator = tree.preorderIterator();
+        
+        while (iterator.hasNext()) {
+            sum += iterator.next().getElement();
+        }
+        
+        return sum;
+    }
+    
+    @Benchmark
+    public long frozenScan() {
+        long sum = 0;
+        
+        for (int i = 0; i < frozenTree.size(); i++) {
+            sum += frozenTree.getElement(i);
+        }
+        
+        return sum;
+    }
+    
+    @Benchmark
+    public long treeChildScan() {
+        long sum = 0;
+        Iterator<TreeNode<Integer>> iterator = tree.preorderIterator();
+        
+        while (iterator.hasNext()) {
+            for (TreeNode<Integer> child : iterator.next().getChildren()) {
+                sum += child.getElement();
+            }
+        }
+        
+        return sum;
+    }
+    
+    @Benchmark
+    public long frozenChildScan() {
+        long sum = 0;
+        
+        for (int i = 0; i < frozenTree.size(); i++) {
+            for (int child = frozenTree.getFirstChild(i); 
+                    child != FrozenTree.NONE; 
+                    child = frozenTree.getNextSibling(child)) {
+                sum += frozenTree.getElement(child);
+            }
+        }
+        
+        return sum;
+    }
+}
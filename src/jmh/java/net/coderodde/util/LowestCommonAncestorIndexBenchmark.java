@@ -0,0 +1,124 @@
+package net.coderodde.util;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * This class compares the lowest common ancestor queries of 
+ * {@link LowestCommonAncestorIndex} with walking the parent pointers. Every
+ * benchmark method answers {@link #QUERIES} queries on random pairs of nodes.
+ * {@link #buildIndex()} measures the construction of the index.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class LowestCommonAncestorIndexBenchmark {
+    
+    private static final int QUERIES = 1024;
+    
+    @Param({"BALANCED", "CHAIN", "STAR"})
+    private TreeShape shape;
+    
+    @Param({"100000", "1000000"})
+    private int size;
+    
+    private Tree<Integer> tree;
+    private LowestCommonAncestorIndex<Integer> index;
+    private TreeNode<Integer>[] firstNodes;
+    private TreeNode<Integer>[] secondNodes;
+    
+    @Setup(Level.Trial)
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        tree = new Tree<>();
+        TreeNode<Integer>[] nodes = shape.build(tree, size);
+        index = new LowestCommonAncestorIndex<>(tree);
+        firstNodes = (TreeNode<Integer>[]) new TreeNode<?>[QUERIES];
+        secondNodes = (TreeNode<Integer>[]) new TreeNode<?>[QUERIES];
+        Random random = new Random(1L);
+        
+        for (int i = 0; i < QUERIES; i++) {
+            firstNodes[i] = nodes[random.nextInt(size)];
+            secondNodes[i] = nodes[random.nextInt(size)];
+        }
+    }
+    
+    @Benchmark
+    public LowestCommonAncestorIndex<Integer> buildIndex() {
+        return new LowestCommonAncestorIndex<>(tree);
+    }
+    
+    @Benchmark
+    public int indexedQueries() {
+        int sum = 0;
+        
+        for (int i = 0; i < QUERIES; i++) {
+            sum += index.lowestCommonAncestor(firstNodes[i], secondNodes[i])
+                        .getElement();
+        }
+        
+        return sum;
+    }
+    
+    @Benchmark
+    public int parentWalkQueries() {
+        int sum = 0;
+        
+        for (int i = 0; i < QUERIES; i++) {
+            sum += lowestCommonAncestorByWalk(firstNodes[i], secondNodes[i])
+                    .getElement();
+        }
+        
+        return sum;
+    }
+    
+    private static TreeNode<Integer> lowestCommonAncestorByWalk(
+            TreeNode<Integer> node1, 
+            TreeNode<Integer> node2) {
+        int depth1 = depth(node1);
+        int depth2 = depth(node2);
+        
+        for (; depth1 > depth2; depth1--) {
+            node1 = node1.getParent();
+        }
+        
+        for (; depth2 > depth1; depth2--) {
+            node2 = node2.getParent();
+        }
+        
+        while (node1 != node2) {
+            node1 = node1.getParent();
+            node2 = node2.getParent();
+        }
+        
+        return node1;
+    }
+    
+    private static int depth(TreeNode<Integer> node) {
+        int depth = 0;
+        
+        for (node = node.getParent(); node != null; node = node.getParent()) {
+            depth++;
+        }
+        
+        return depth;
+    }
+}
@@ -0,0 +1,116 @@
+package net.coderodde.util;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * This class benchmarks {@link MappedTree} on balanced trees. 
+ * {@link #write()} writes a tree to a file, {@link #open()} maps it, and
+ * {@link #rebuild()} builds the same tree on the heap for comparison with the
+ * startup cost of mapping. {@link #treeScan()} and {@link #mappedScan()} sum 
+ * the elements of all the nodes in pre-order, and {@link #mappedChildScan()}
+ * visits the children of every node in the mapped file.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class MappedTreeBenchmark {
+    
+    @Param({"1000000", "10000000"})
+    private int size;
+    
+    private Tree<Integer> tree;
+    private Path path;
+    private MappedTree<Integer> mappedTree;
+    
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        tree = rebuild();
+        path = Files.createTempFile("tree", ".bin");
+        MappedTree.write(tree, path, TreeElementCodecs.integers());
+        mappedTree = open();
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(path);
+    }
+    
+    @Benchmark
+    public Path write() throws IOException {
+        MappedTree.write(tree, path, TreeElementCodecs.integers());
+        return path;
+    }
+    
+    @Benchmark
+    public MappedTree<Integer> open() throws IOException {
+        return MappedTree.open(path, TreeElementCodecs.integers());
+    }
+    
+    @Benchmark
+    public Tree<Integer> rebuild() {
+        Tree<Integer> tree = new Tree<>();
+        TreeShape.BALANCED.build(tree, size);
+        return tree;
+    }
+    
+    @Benchmark
+    public long treeScan() {
+        long sum = 0;
+        Iterator<TreeNode<Integer>> iterator = tree.preorderIterator();
+        
+        while (iterator.hasNext()) {
+            sum += iterator.next().getElement();
+        }
+        
+        return sum;
+    }
+    
+    @Benchmark
+    public long mappedScan() {
+        long sum = 0;
+        
+        for (int i = 0; i < mappedTree.size(); i++) {
+            sum += mappedTree.getElement(i);
+        }
+        
+        return sum;
+    }
+    
+    @Benchmark
+    public long mappedChildScan() {
+        long sum = 0;
+        
+        for (int i = 0; i < mappedTree.size(); i++) {
+            for (int child = mappedTree.getFirstChild(i); 
+                    child != MappedTree.NONE; 
+                    child = mappedTree.getNextSibling(child)) {
+                sum += child;
+            }
+        }
+        
+        return sum;
+    }
+}
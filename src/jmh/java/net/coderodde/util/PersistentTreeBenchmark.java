@@ -0,0 +1,112 @@
+package net.coderodde.util;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * This class benchmarks {@link PersistentTree} on balanced trees. 
+ * {@link #persistentSetElement()} and {@link #persistentAddRemoveLeaf()} make
+ * new versions by updating the deepest node of the first branch, and 
+ * {@link #copySetElement()} keeps the old version of a mutable tree by 
+ * copying it before the update, for comparison. {@link #of()} and 
+ * {@link #toTree()} measure the conversions.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class PersistentTreeBenchmark {
+    
+    @Param({"1000000"})
+    private int size;
+    
+    private Tree<Integer> tree;
+    private PersistentTree<Integer> persistentTree;
+    private TreeNode<Integer> leaf;
+    private int[] leafPath;
+    private int counter;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        tree = new Tree<>();
+        TreeShape.BALANCED.build(tree, size);
+        persistentTree = PersistentTree.of(tree);
+        leaf = tree.getPseudoRoot();
+        int depth = 0;
+        
+        while (leaf.firstChild != null) {
+            leaf = leaf.firstChild;
+            depth++;
+        }
+        
+        leafPath = new int[depth];
+    }
+    
+    @Benchmark
+    public PersistentTree<Integer> persistentSetElement() {
+        return persistentTree.setElement(leafPath, counter++);
+    }
+    
+    @Benchmark
+    public PersistentTree<Integer> persistentAddRemoveLeaf() {
+        int[] path = Arrays.copyOf(leafPath, leafPath.length + 1);
+        return persistentTree.addChild(leafPath, counter++).remove(path);
+    }
+    
+    @Benchmark
+    public Tree<Integer> copySetElement() {
+        Tree<Integer> copy = copy(tree);
+        leaf.setElement(counter++);
+        return copy;
+    }
+    
+    @Benchmark
+    public PersistentTree<Integer> of() {
+        return PersistentTree.of(tree);
+    }
+    
+    @Benchmark
+    public Tree<Integer> toTree() {
+        return persistentTree.toTree();
+    }
+    
+    private static Tree<Integer> copy(Tree<Integer> tree) {
+        Tree<Integer> copy = new Tree<>();
+        ArrayDeque<TreeNode<Integer>> sources = new ArrayDeque<>();
+        ArrayDeque<TreeNode<Integer>> targets = new ArrayDeque<>();
+        sources.push(tree.getPseudoRoot());
+        targets.push(copy.getPseudoRoot());
+        
+        while (!sources.isEmpty()) {
+            TreeNode<Integer> source = sources.pop();
+            TreeNode<Integer> target = targets.pop();
+            
+            for (TreeNode<Integer> child = source.firstChild; 
+                    child != null; 
+                    child = child.nextSibling) {
+                sources.push(child);
+                targets.push(target.addChild(child.getElement()));
+            }
+        }
+        
+        return copy;
+    }
+}
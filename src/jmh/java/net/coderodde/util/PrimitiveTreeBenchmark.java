@@ -0,0 +1,131 @@
+package net.coderodde.util;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * This class compares {@link IntTree} with {@code Tree<Integer>} on balanced
+ * trees. {@link #buildGeneric()} and {@link #buildInt()} build the trees; their
+ * normalized allocation rates reported by the GC profiler divided by 
+ * {@code size} are the footprints per node. {@link #scanGeneric()} and 
+ * {@link #scanInt()} sum the elements in pre-order, and 
+ * {@link #writeGeneric()} and {@link #writeInt()} convert the trees to text
+ * into a writer that discards its input.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class PrimitiveTreeBenchmark {
+    
+    @Param({"100000", "1000000"})
+    private int size;
+    
+    private Tree<Integer> tree;
+    private IntTree intTree;
+    
+    private final StreamingTreeToStringConverter<Integer> converter = 
+            new StreamingTreeToStringConverter<>();
+    
+    private final PrimitiveTreeToStringConverter primitiveConverter = 
+            new PrimitiveTreeToStringConverter();
+    
+    private final Writer nullWriter = new Writer() {
+        @Override
+        public void write(int c) {}
+        
+        @Override
+        public void write(char[] cbuf, int off, int len) {}
+        
+        @Override
+        public void write(String str, int off, int len) {}
+        
+        @Override
+        public void flush() {}
+        
+        @Override
+        public void close() {}
+    };
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        tree = buildGeneric();
+        intTree = buildInt();
+    }
+    
+    @Benchmark
+    public Tree<Integer> buildGeneric() {
+        Tree<Integer> tree = new Tree<>();
+        TreeShape.BALANCED.build(tree, size);
+        return tree;
+    }
+    
+    @Benchmark
+    public IntTree buildInt() {
+        IntTree tree = new IntTree();
+        IntTreeNode[] nodes = new IntTreeNode[size];
+        nodes[0] = tree.getPseudoRoot().addChild(0);
+        
+        for (int i = 1; i < size; i++) {
+            nodes[i] = nodes[(i - 1) / TreeShape.BRANCHING_FACTOR]
+                    .addChild(i);
+        }
+        
+        return tree;
+    }
+    
+    @Benchmark
+    public long scanGeneric() {
+        long sum = 0;
+        Iterator<TreeNode<Integer>> iterator = tree.preorderIterator();
+        
+        while (iterator.hasNext()) {
+            sum += iterator.next().getElement();
+        }
+        
+        return sum;
+    }
+    
+    @Benchmark
+    public long scanInt() {
+        long sum = 0;
+        Iterator<IntTreeNode> iterator = intTree.preorderIterator();
+        
+        while (iterator.hasNext()) {
+            sum += iterator.next().getElement();
+        }
+        
+        return sum;
+    }
+    
+    @Benchmark
+    public Writer writeGeneric() throws IOException {
+        converter.write(tree, nullWriter);
+        return nullWriter;
+    }
+    
+    @Benchmark
+    public Writer writeInt() throws IOException {
+        primitiveConverter.write(intTree, nullWriter);
+        return nullWriter;
+    }
+}
@@ -0,0 +1,79 @@
+package net.coderodde.util;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * This class compares the maintained subtree sizes and depths with counting
+ * them by a traversal.
+ * 
+ * <p>
+ * {@link #sizeAfterChurn()} adds a leaf under the most recently created node,
+ * queries {@link Tree#size()} and removes the leaf again, so that every 
+ * query has to refresh the sizes along the path to the root. 
+ * {@link #sizeByTraversal()} counts the nodes with a pre-order stream. 
+ * {@link #depth()} and {@link #depthByTraversal()} do the same for the depth
+ * of the most recently created node.
+ * </p>
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class TreeAggregatesBenchmark {
+    
+    @Param({"BALANCED", "CHAIN", "STAR"})
+    private TreeShape shape;
+    
+    @Param({"100000", "1000000"})
+    private int size;
+    
+    private Tree<Integer> tree;
+    private TreeNode<Integer> lastNode;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        tree = new Tree<>();
+        TreeNode<Integer>[] nodes = shape.build(tree, size);
+        lastNode = nodes[nodes.length - 1];
+    }
+    
+    @Benchmark
+    public int sizeAfterChurn() {
+        TreeNode<Integer> leaf = lastNode.addChild(-1);
+        int result = tree.size();
+        lastNode.getChildren().remove(leaf);
+        return result;
+    }
+    
+    @Benchmark
+    public long sizeByTraversal() {
+        return tree.preorderStream().count();
+    }
+    
+    @Benchmark
+    public int depth() {
+        return lastNode.getDepth();
+    }
+    
+    @Benchmark
+    public long depthByTraversal() {
+        return lastNode.ancestorStream().count();
+    }
+}
@@ -0,0 +1,91 @@
+package net.coderodde.util;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * This class benchmarks {@link TreeAsyncVisitor} on a balanced tree whose
+ * node visits block for a fixed latency, standing in for I/O.
+ * {@link #sequential()} visits the nodes one after another on the calling
+ * thread, and {@link #unordered()} and {@link #parentsFirst()} visit them
+ * with the given parallelism in a thread pool large enough for it.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class TreeAsyncVisitorBenchmark {
+    
+    /**
+     * The latency of a single visit, 100 microseconds.
+     */
+    private static final long LATENCY_NANOS = 100_000;
+    
+    @Param({"1000"})
+    private int size;
+    
+    @Param({"1", "16", "64"})
+    private int parallelism;
+    
+    private Tree<Integer> tree;
+    private ExecutorService executor;
+    private TreeAsyncVisitor visitor;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        tree = new Tree<>();
+        TreeShape.BALANCED.build(tree, size);
+        executor = Executors.newFixedThreadPool(parallelism);
+        visitor = new TreeAsyncVisitor(executor, parallelism);
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        executor.shutdown();
+    }
+    
+    @Benchmark
+    public void sequential() {
+        tree.preorderIterator().forEachRemaining(node -> visit(node));
+    }
+    
+    @Benchmark
+    public void unordered() {
+        visitor.visit(tree,
+                      TreeAsyncVisitor.Order.UNORDERED,
+                      node -> visit(node))
+               .join();
+    }
+    
+    @Benchmark
+    public void parentsFirst() {
+        visitor.visit(tree,
+                      TreeAsyncVisitor.Order.PARENTS_FIRST,
+                      node -> visit(node))
+               .join();
+    }
+    
+    private static void visit(TreeNode<Integer> node) {
+        LockSupport.parkNanos(LATENCY_NANOS);
+    }
+}
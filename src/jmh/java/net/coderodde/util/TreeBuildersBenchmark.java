@@ -0,0 +1,126 @@
+package net.coderodde.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * This class benchmarks the bulk builders of {@link TreeBuilders} against 
+ * building the same random tree with {@link TreeNode#addChild(Object)}. The
+ * parents are shuffled, so that the nodes are not created in pre-order, as in
+ * a database dump. {@link #fromEdges()} maps {@code Long} identifiers.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class TreeBuildersBenchmark {
+    
+    @Param({"1000000", "10000000"})
+    private int size;
+    
+    private List<Integer> elements;
+    private int[] parents;
+    private int[] depths;
+    private long[] ids;
+    
+    /**
+     * The node indices in the order of creation, parents first.
+     */
+    private int[] order;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(15L);
+        elements = new ArrayList<>(size);
+        parents = new int[size];
+        depths = new int[size];
+        ids = new long[size];
+        
+        for (int i = 0; i < size; i++) {
+            elements.add(i);
+            ids[i] = random.nextLong();
+        }
+        
+        // Node 'order[k]' is the 'k'th one created; its parent was created 
+        // before it, at most 16 nodes earlier.
+        order = IntStream.range(0, size).toArray();
+        
+        for (int i = size - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = order[i];
+            order[i] = order[j];
+            order[j] = swap;
+        }
+        
+        parents[order[0]] = TreeBuilders.NO_PARENT;
+        
+        for (int k = 1; k < size; k++) {
+            parents[order[k]] = order[Math.max(0, k - 1 - random.nextInt(16))];
+        }
+        
+        Tree<Integer> tree = TreeBuilders.fromParentArray(elements, parents);
+        int index = 0;
+        
+        for (TreeNode<Integer> node : (Iterable<TreeNode<Integer>>) 
+                tree::preorderIterator) {
+            depths[index++] = node.getDepth();
+        }
+    }
+    
+    @Benchmark
+    @SuppressWarnings("unchecked")
+    public Tree<Integer> addChild() {
+        Tree<Integer> tree = new Tree<>();
+        TreeNode<Integer>[] nodes = (TreeNode<Integer>[]) new TreeNode<?>[size];
+        
+        for (int node : order) {
+            int parent = parents[node];
+            nodes[node] = parent == TreeBuilders.NO_PARENT ?
+                          tree.getPseudoRoot().addChild(elements.get(node)) :
+                          nodes[parent].addChild(elements.get(node));
+        }
+        
+        tree.size();
+        return tree;
+    }
+    
+    @Benchmark
+    public Tree<Integer> fromParentArray() {
+        return TreeBuilders.fromParentArray(elements, parents);
+    }
+    
+    @Benchmark
+    public Tree<Integer> fromPreorder() {
+        return TreeBuilders.fromPreorder(elements, depths);
+    }
+    
+    @Benchmark
+    public Tree<Integer> fromEdges() {
+        return TreeBuilders.fromEdges(
+                IntStream.range(0, size).boxed(),
+                i -> ids[i],
+                i -> parents[i] == TreeBuilders.NO_PARENT ? 
+                     null : ids[parents[i]],
+                i -> elements.get(i));
+    }
+}
@@ -0,0 +1,62 @@
+package net.coderodde.util;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * This class benchmarks the cost of the {@link TreeChangeListener}s when 
+ * building balanced trees: {@link #build()} without any listener, 
+ * {@link #buildListened()} delivering each change as it happens, and 
+ * {@link #buildInTransaction()} delivering a single coalesced batch.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class TreeChangeBenchmark {
+    
+    @Param({"1000000"})
+    private int size;
+    
+    @Benchmark
+    public Tree<Integer> build() {
+        Tree<Integer> tree = new Tree<>();
+        TreeShape.BALANCED.build(tree, size);
+        return tree;
+    }
+    
+    @Benchmark
+    public Tree<Integer> buildListened(Blackhole blackhole) {
+        Tree<Integer> tree = new Tree<>();
+        tree.addChangeListener(blackhole::consume);
+        TreeShape.BALANCED.build(tree, size);
+        return tree;
+    }
+    
+    @Benchmark
+    public Tree<Integer> buildInTransaction(Blackhole blackhole) {
+        Tree<Integer> tree = new Tree<>();
+        tree.addChangeListener(blackhole::consume);
+        
+        try (TreeTransaction transaction = tree.beginTransaction()) {
+            TreeShape.BALANCED.build(tree, size);
+        }
+        
+        return tree;
+    }
+}
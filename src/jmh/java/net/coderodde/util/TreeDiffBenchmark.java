@@ -0,0 +1,110 @@
+package net.coderodde.util;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * This class benchmarks comparing two equal balanced trees after replacing 
+ * the element of a single node of one of them. {@link #diff()} computes the
+ * edit script with {@link TreeDiff} over the cached subtree hashes, and 
+ * {@link #fullComparison()} walks both trees in lockstep comparing every 
+ * node. Both methods restore the element afterwards.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class TreeDiffBenchmark {
+    
+    @Param({"1000000"})
+    private int size;
+    
+    private Tree<Integer> source;
+    private Tree<Integer> target;
+    private TreeNode<Integer>[] targetNodes;
+    private TreeHashCache<Integer> sourceCache;
+    private TreeHashCache<Integer> targetCache;
+    private int counter;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        source = new Tree<>();
+        target = new Tree<>();
+        TreeShape.BALANCED.build(source, size);
+        targetNodes = TreeShape.BALANCED.build(target, size);
+        sourceCache = new TreeHashCache<>(source);
+        targetCache = new TreeHashCache<>(target);
+        sourceCache.getTreeHash();
+        targetCache.getTreeHash();
+    }
+    
+    @Benchmark
+    public int diff() {
+        TreeNode<Integer> node = modify();
+        int edits = TreeDiff.compute(sourceCache, targetCache)
+                            .getEdits()
+                            .size();
+        restore(node);
+        return edits;
+    }
+    
+    @Benchmark
+    public int fullComparison() {
+        TreeNode<Integer> node = modify();
+        int differences = compare(source.getPseudoRoot(), 
+                                  target.getPseudoRoot());
+        restore(node);
+        return differences;
+    }
+    
+    private TreeNode<Integer> modify() {
+        // A multiplicative hash spreads the modifications over the tree.
+        int index = (int) ((counter++ * 0x9E3779B9L & 0xFFFFFFFFL) % size);
+        TreeNode<Integer> node = targetNodes[index];
+        node.setElement(~node.getElement());
+        return node;
+    }
+    
+    private static void restore(TreeNode<Integer> node) {
+        node.setElement(~node.getElement());
+    }
+    
+    /**
+     * Counts the differing elements of two trees of the same shape, walking 
+     * them in pre-order in lockstep.
+     */
+    private static int compare(TreeNode<Integer> root1, 
+                               TreeNode<Integer> root2) {
+        int differences = 0;
+        TreeNode<Integer> node1 = root1.firstChild;
+        TreeNode<Integer> node2 = root2.firstChild;
+        
+        while (node1 != null) {
+            if (!Objects.equals(node1.getElement(), node2.getElement())) {
+                differences++;
+            }
+            
+            node1 = root1.nextInSubtree(node1);
+            node2 = root2.nextInSubtree(node2);
+        }
+        
+        return differences;
+    }
+}
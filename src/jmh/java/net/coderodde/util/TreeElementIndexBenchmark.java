@@ -0,0 +1,91 @@
+package net.coderodde.util;
+
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * This class benchmarks {@link TreeElementIndex} on balanced trees. 
+ * {@link #indexLookup()} and {@link #scanLookup()} find the node holding a 
+ * random element with and without the index, and {@link #build()} and 
+ * {@link #buildIndexed()} measure the cost of maintaining the index while 
+ * adding nodes.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class TreeElementIndexBenchmark {
+    
+    @Param({"1000000"})
+    private int size;
+    
+    private Tree<Integer> tree;
+    private TreeElementIndex<Integer, Integer> index;
+    private int counter;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        tree = new Tree<>();
+        TreeShape.BALANCED.build(tree, size);
+        index = tree.enableElementIndex(Function.identity(), true);
+    }
+    
+    @Benchmark
+    public TreeNode<Integer> indexLookup() {
+        return index.get(nextElement());
+    }
+    
+    @Benchmark
+    public TreeNode<Integer> scanLookup() {
+        Integer element = nextElement();
+        Iterator<TreeNode<Integer>> iterator = tree.preorderIterator();
+        
+        while (iterator.hasNext()) {
+            TreeNode<Integer> node = iterator.next();
+            
+            if (element.equals(node.getElement())) {
+                return node;
+            }
+        }
+        
+        return null;
+    }
+    
+    @Benchmark
+    public Tree<Integer> build() {
+        Tree<Integer> tree = new Tree<>();
+        TreeShape.BALANCED.build(tree, size);
+        return tree;
+    }
+    
+    @Benchmark
+    public Tree<Integer> buildIndexed() {
+        Tree<Integer> tree = new Tree<>();
+        tree.enableElementIndex(Function.identity(), true);
+        TreeShape.BALANCED.build(tree, size);
+        return tree;
+    }
+    
+    private Integer nextElement() {
+        // A multiplicative hash spreads the elements over the whole tree.
+        return (int) ((counter++ * 0x9E3779B9L & 0xFFFFFFFFL) % size);
+    }
+}
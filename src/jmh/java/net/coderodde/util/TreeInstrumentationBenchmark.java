@@ -0,0 +1,103 @@
+package net.coderodde.util;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * This class benchmarks the instrumented hot paths with 
+ * {@link TreeInstrumentation} disabled and enabled. The methods ending with
+ * {@code Disabled} run in a JVM without the instrumentation property and 
+ * those ending with {@code Enabled} in a JVM with it. {@code addRemove} 
+ * allocates a leaf and removes it, {@code reparent} moves the deepest node 
+ * under a root and back, and {@code render} converts the tree to a string 
+ * with {@link StreamingTreeToStringConverter}.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class TreeInstrumentationBenchmark {
+    
+    private static final String ENABLED = 
+            "-D" + TreeInstrumentation.PROPERTY + "=true";
+    
+    @Param({"100000"})
+    private int size;
+    
+    private Tree<Integer> tree;
+    private TreeNode<Integer> root;
+    private TreeNode<Integer> movedNode;
+    private TreeNode<Integer> movedNodeParent;
+    private StreamingTreeToStringConverter<Integer> converter;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        tree = new Tree<>();
+        TreeNode<Integer>[] nodes = TreeShape.BALANCED.build(tree, size);
+        root = nodes[0];
+        movedNode = nodes[nodes.length - 1];
+        movedNodeParent = movedNode.getParent();
+        converter = new StreamingTreeToStringConverter<>();
+    }
+    
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+    public boolean addRemoveDisabled() {
+        return addRemove();
+    }
+    
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g", ENABLED})
+    public boolean addRemoveEnabled() {
+        return addRemove();
+    }
+    
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+    public boolean reparentDisabled() {
+        return reparent();
+    }
+    
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g", ENABLED})
+    public boolean reparentEnabled() {
+        return reparent();
+    }
+    
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+    public String renderDisabled() {
+        return converter.toString(tree);
+    }
+    
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g", ENABLED})
+    public String renderEnabled() {
+        return converter.toString(tree);
+    }
+    
+    private boolean addRemove() {
+        TreeNode<Integer> leaf = root.addChild(0);
+        return root.getChildren().remove(leaf);
+    }
+    
+    private boolean reparent() {
+        boolean moved = root.getChildren().add(movedNode);
+        return movedNodeParent.getChildren().add(movedNode) & moved;
+    }
+}
@@ -0,0 +1,99 @@
+package net.coderodde.util;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * This class benchmarks building trees via {@link TreeNode#addChild(Object)} 
+ * and scanning them via {@link TreeNode#getChildren()} and the lazy
+ * traversals of {@link Tree}. Both operations touch
+ * every node of the tree, so the score divided by {@code size} gives the cost
+ * per node; the same applies to the normalized allocation rate reported by the
+ * GC profiler.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g", "-Xss512m"})
+public class TreeNodeBenchmark {
+    
+    @Param({"BALANCED", "CHAIN", "STAR"})
+    private TreeShape shape;
+    
+    @Param({"1000", "100000", "10000000"})
+    private int size;
+    
+    private Tree<Integer> tree;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        tree = new Tree<>();
+        shape.build(tree, size);
+    }
+    
+    @Benchmark
+    public TreeNode<Integer>[] addChild() {
+        return shape.build(new Tree<>(), size);
+    }
+    
+    @Benchmark
+    public void getChildrenIteration(Blackhole blackhole) {
+        ArrayDeque<TreeNode<Integer>> stack = new ArrayDeque<>();
+        stack.push(tree.getPseudoRoot());
+        
+        while (!stack.isEmpty()) {
+            for (TreeNode<Integer> child : stack.pop().getChildren()) {
+                blackhole.consume(child.getElement());
+                stack.push(child);
+            }
+        }
+    }
+    
+    @Benchmark
+    public void preorderIterator(Blackhole blackhole) {
+        consume(tree.preorderIterator(), blackhole);
+    }
+    
+    @Benchmark
+    public void postorderIterator(Blackhole blackhole) {
+        consume(tree.postorderIterator(), blackhole);
+    }
+    
+    @Benchmark
+    public void levelOrderIterator(Blackhole blackhole) {
+        consume(tree.levelOrderIterator(), blackhole);
+    }
+    
+    @Benchmark
+    public long preorderStream() {
+        return tree.preorderStream()
+                   .mapToLong(node -> node.getElement())
+                   .sum();
+    }
+    
+    private static void consume(Iterator<TreeNode<Integer>> iterator,
+                                Blackhole blackhole) {
+        while (iterator.hasNext()) {
+            blackhole.consume(iterator.next().getElement());
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package net.coderodde.util;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * This class benchmarks the positional operations of 
+ * {@link TreeNodeChildrenView} on a tree node with many children, at the 
+ * middle of the child list. {@link #get()} and {@link #indexOf()} locate a 
+ * child by the index, and {@link #walkToIndex()} does the same by iterating 
+ * over the children, for comparison. {@link #insertAndRemove()} inserts a 
+ * child and removes it, {@link #move()} moves a child to the front and back,
+ * and {@link #page()} iterates over a range of 100 children.
+ * {@link #toArray()} copies all the children to an array.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class TreeNodeChildIndexBenchmark {
+    
+    @Param({"100000"})
+    private int size;
+    
+    private TreeNodeChildrenView<Integer> children;
+    private TreeNode<Integer> middleChild;
+    private TreeNode<Integer> insertedChild;
+    private int middle;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        TreeNode<Integer> parent = new TreeNode<>(-1);
+        
+        for (int i = 0; i < size; i++) {
+            parent.addChild(i);
+        }
+        
+        children = parent.getChildren();
+        middle = size / 2;
+        middleChild = children.get(middle);
+        insertedChild = new TreeNode<>(-2);
+    }
+    
+    @Benchmark
+    public TreeNode<Integer> get() {
+        return children.get(middle);
+    }
+    
+    @Benchmark
+    public int indexOf() {
+        return children.indexOf(middleChild);
+    }
+    
+    @Benchmark
+    public TreeNode<Integer> walkToIndex() {
+        int index = 0;
+        
+        for (TreeNode<Integer> child : children) {
+            if (index++ == middle) {
+                return child;
+            }
+        }
+        
+        return null;
+    }
+    
+    @Benchmark
+    public boolean insertAndRemove() {
+        children.insert(middle, insertedChild);
+        return children.remove(insertedChild);
+    }
+    
+    @Benchmark
+    public void move() {
+        children.move(middle, 0);
+        children.move(0, middle);
+    }
+    
+    @Benchmark
+    public int page() {
+        List<TreeNode<Integer>> page = children.subList(middle, middle + 100);
+        int sum = 0;
+        
+        for (TreeNode<Integer> child : page) {
+            sum += child.getElement();
+        }
+        
+        return sum;
+    }
+    
+    @Benchmark
+    public Object[] toArray() {
+        return children.toArray();
+    }
+}
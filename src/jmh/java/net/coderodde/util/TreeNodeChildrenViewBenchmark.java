@@ -0,0 +1,109 @@
+package net.coderodde.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * This class benchmarks the mutating operations of 
+ * {@link TreeNodeChildrenView}. Each benchmark method restores the tree to 
+ * its original state before returning, so that all invocations operate on the
+ * same tree.
+ * 
+ * <p>
+ * {@link #reparent()} moves the most recently created node under the root and
+ * back under its original parent. In a {@link TreeShape#CHAIN} this is the
+ * deepest node, which makes the cycle check walk the entire chain; in a 
+ * {@link TreeShape#STAR} the moved node is a direct child of the root.
+ * </p>
+ * 
+ * <p>
+ * {@link #removeAll()} and {@link #retainAll()} detach every other child of 
+ * the node with the most children and reattach them via 
+ * {@link TreeNodeChildrenView#addAll(java.util.Collection)}.
+ * </p>
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class TreeNodeChildrenViewBenchmark {
+    
+    @Param({"BALANCED", "CHAIN", "STAR"})
+    private TreeShape shape;
+    
+    @Param({"1000", "100000", "10000000"})
+    private int size;
+    
+    private TreeNode<Integer> root;
+    private TreeNode<Integer> movedNode;
+    private TreeNode<Integer> movedNodeParent;
+    private TreeNode<Integer> widestNode;
+    private List<TreeNode<Integer>> evenChildren;
+    private List<TreeNode<Integer>> oddChildren;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        Tree<Integer> tree = new Tree<>();
+        TreeNode<Integer>[] nodes = shape.build(tree, size);
+        root = nodes[0];
+        movedNode = nodes[nodes.length - 1];
+        movedNodeParent = nodes[0];
+        widestNode = nodes[0];
+        
+        for (TreeNode<Integer> node : nodes) {
+            for (TreeNode<Integer> child : node.getChildren()) {
+                if (child == movedNode) {
+                    movedNodeParent = node;
+                }
+            }
+            
+            if (node.getChildren().size() > widestNode.getChildren().size()) {
+                widestNode = node;
+            }
+        }
+        
+        evenChildren = new ArrayList<>();
+        oddChildren = new ArrayList<>();
+        int index = 0;
+        
+        for (TreeNode<Integer> child : widestNode.getChildren()) {
+            (index++ % 2 == 0 ? evenChildren : oddChildren).add(child);
+        }
+    }
+    
+    @Benchmark
+    public boolean reparent() {
+        boolean moved = root.getChildren().add(movedNode);
+        return movedNodeParent.getChildren().add(movedNode) & moved;
+    }
+    
+    @Benchmark
+    public boolean removeAll() {
+        boolean removed = widestNode.getChildren().removeAll(evenChildren);
+        return widestNode.getChildren().addAll(evenChildren) & removed;
+    }
+    
+    @Benchmark
+    public boolean retainAll() {
+        boolean removed = widestNode.getChildren().retainAll(evenChildren);
+        return widestNode.getChildren().addAll(oddChildren) & removed;
+    }
+}
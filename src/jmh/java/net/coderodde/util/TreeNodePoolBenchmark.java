@@ -0,0 +1,90 @@
+package net.coderodde.util;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * This class benchmarks the churn of building a subtree under a tree node 
+ * and detaching it again. {@link #removeAndRebuild()} detaches the subtree 
+ * via {@link TreeNodeChildrenView#remove(Object)}, leaving its nodes to the
+ * garbage collector, and {@link #releaseAndRebuild()} releases it into the 
+ * node pool of the tree via {@link Tree#release(TreeNode)}, so that the 
+ * next build reuses the nodes. Run with {@code -prof gc} to compare the 
+ * allocation rates.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class TreeNodePoolBenchmark {
+    
+    private static final int BRANCHING_FACTOR = 4;
+    
+    @Param({"1000", "100000"})
+    private int size;
+    
+    private Tree<Integer> tree;
+    private Tree<Integer> pooledTree;
+    private TreeNode<Integer> subtreeRoot;
+    private TreeNode<Integer> pooledSubtreeRoot;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        tree = new Tree<>();
+        pooledTree = new Tree<>();
+        pooledTree.enableNodePool(size);
+        subtreeRoot = build(tree.getPseudoRoot());
+        pooledSubtreeRoot = build(pooledTree.getPseudoRoot());
+    }
+    
+    @Benchmark
+    public TreeNode<Integer> removeAndRebuild() {
+        tree.getPseudoRoot().getChildren().remove(subtreeRoot);
+        return subtreeRoot = build(tree.getPseudoRoot());
+    }
+    
+    @Benchmark
+    public TreeNode<Integer> releaseAndRebuild() {
+        pooledTree.release(pooledSubtreeRoot);
+        return pooledSubtreeRoot = build(pooledTree.getPseudoRoot());
+    }
+    
+    /**
+     * Builds a complete subtree under the input parent in pre-order. The 
+     * elements are taken from the {@link Integer} cache, so that the nodes 
+     * are the only allocations.
+     */
+    private TreeNode<Integer> build(TreeNode<Integer> parent) {
+        TreeNode<Integer> root = parent.addChild(0);
+        buildChildren(root, 0);
+        return root;
+    }
+    
+    private void buildChildren(TreeNode<Integer> node, int index) {
+        for (int i = 1; i <= BRANCHING_FACTOR; i++) {
+            int childIndex = BRANCHING_FACTOR * index + i;
+            
+            if (childIndex >= size) {
+                return;
+            }
+            
+            buildChildren(node.addChild(childIndex & 127), childIndex);
+        }
+    }
+}
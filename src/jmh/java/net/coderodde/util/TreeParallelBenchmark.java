@@ -0,0 +1,67 @@
+package net.coderodde.util;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * This class compares sequential and parallel folds over all the nodes of a
+ * tree: a sequential stream, a parallel stream and 
+ * {@link TreeMapReduce#mapReduce(Tree, Object, java.util.function.Function,
+ * java.util.function.BinaryOperator)}. Run it with different values of
+ * {@code -Djava.util.concurrent.ForkJoinPool.common.parallelism} to measure
+ * the scaling.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class TreeParallelBenchmark {
+    
+    @Param({"BALANCED", "CHAIN", "STAR"})
+    private TreeShape shape;
+    
+    @Param({"100000", "10000000"})
+    private int size;
+    
+    private Tree<Integer> tree;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        tree = new Tree<>();
+        shape.build(tree, size);
+    }
+    
+    @Benchmark
+    public long sequentialStream() {
+        return tree.stream().mapToLong(TreeNode::getElement).sum();
+    }
+    
+    @Benchmark
+    public long parallelStream() {
+        return tree.parallelStream().mapToLong(TreeNode::getElement).sum();
+    }
+    
+    @Benchmark
+    public long mapReduce() {
+        return TreeMapReduce.mapReduce(tree, 
+                                       0L,
+                                       node -> (long) node.getElement(), 
+                                       Long::sum);
+    }
+}
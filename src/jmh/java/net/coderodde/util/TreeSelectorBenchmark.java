@@ -0,0 +1,97 @@
+package net.coderodde.util;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * This class benchmarks {@link TreeSelector} on a balanced tree.
+ * {@link #selectDescendants()} selects the nodes of an element anywhere in
+ * the tree by name, which visits every node, and
+ * {@link #streamDescendants()} does the same with a filtered pre-order
+ * stream, for comparison.
+ * {@link #selectShallow()} selects the nodes on the fourth level, which
+ * skips the deeper subtrees, and {@link #streamShallow()} filters the
+ * pre-order stream by depth. {@link #compileCached()} and
+ * {@link #compileUncached()} compile a pattern with and without the cache.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class TreeSelectorBenchmark {
+    
+    private static final String PATTERN = "0/*/**{1,2}/*[even]/**/7";
+    
+    @Param({"1000000"})
+    private int size;
+    
+    private Tree<Integer> tree;
+    private TreeSelector<Integer> descendants;
+    private TreeSelector<Integer> shallow;
+    private TreeSelectorCompiler<Integer> cachingCompiler;
+    private TreeSelectorCompiler<Integer> nonCachingCompiler;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        tree = new Tree<>();
+        TreeShape.BALANCED.build(tree, size);
+        descendants = TreeSelector.compile("**/7");
+        shallow = TreeSelector.compile("*/*/*/*");
+        cachingCompiler = new TreeSelectorCompiler<>();
+        cachingCompiler.definePredicate("even", element -> element % 2 == 0);
+        nonCachingCompiler = new TreeSelectorCompiler<>(String::valueOf, 0);
+        nonCachingCompiler.definePredicate("even",
+                                           element -> element % 2 == 0);
+    }
+    
+    @Benchmark
+    public long selectDescendants() {
+        return descendants.select(tree).count();
+    }
+    
+    @Benchmark
+    public long streamDescendants() {
+        return tree.preorderStream()
+                   .filter(node -> "7".equals(
+                           String.valueOf(node.getElement())))
+                   .count();
+    }
+    
+    @Benchmark
+    public long selectShallow() {
+        return shallow.select(tree).count();
+    }
+    
+    @Benchmark
+    public long streamShallow() {
+        return tree.preorderStream()
+                   .filter(node -> node.getDepth() == 3)
+                   .count();
+    }
+    
+    @Benchmark
+    public TreeSelector<Integer> compileCached() {
+        return cachingCompiler.compile(PATTERN);
+    }
+    
+    @Benchmark
+    public TreeSelector<Integer> compileUncached() {
+        return nonCachingCompiler.compile(PATTERN);
+    }
+}
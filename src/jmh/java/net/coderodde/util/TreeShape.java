@@ -0,0 +1,91 @@
+package net.coderodde.util;
+
+/**
+ * This enumeration lists the tree shapes the benchmarks are run against. Each
+ * shape builds a tree with exactly the requested number of nodes, all of them
+ * descending from a single root under the pseudoroot. Node elements are the
+ * creation indices of the nodes.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+public enum TreeShape {
+    
+    /**
+     * A complete tree in which each node has {@link #BRANCHING_FACTOR} 
+     * children, filled level by level.
+     */
+    BALANCED {
+        @Override
+        public TreeNode<Integer>[] build(Tree<Integer> tree, int size) {
+            TreeNode<Integer>[] nodes = newNodeArray(size);
+            nodes[0] = tree.getPseudoRoot().addChild(0);
+            
+            for (int i = 1; i < size; i++) {
+                nodes[i] = nodes[(i - 1) / BRANCHING_FACTOR].addChild(i);
+            }
+            
+            return nodes;
+        }
+    },
+    
+    /**
+     * A degenerate tree in which each node has exactly one child, save the 
+     * deepest node.
+     */
+    CHAIN {
+        @Override
+        public TreeNode<Integer>[] build(Tree<Integer> tree, int size) {
+            TreeNode<Integer>[] nodes = newNodeArray(size);
+            nodes[0] = tree.getPseudoRoot().addChild(0);
+            
+            for (int i = 1; i < size; i++) {
+                nodes[i] = nodes[i - 1].addChild(i);
+            }
+            
+            return nodes;
+        }
+    },
+    
+    /**
+     * A tree consisting of a single root and {@code size - 1} leaves attached
+     * to it.
+     */
+    STAR {
+        @Override
+        public TreeNode<Integer>[] build(Tree<Integer> tree, int size) {
+            TreeNode<Integer>[] nodes = newNodeArray(size);
+            nodes[0] = tree.getPseudoRoot().addChild(0);
+            
+            for (int i = 1; i < size; i++) {
+                nodes[i] = nodes[0].addChild(i);
+            }
+            
+            return nodes;
+        }
+    };
+    
+    /**
+     * The number of children of each internal node in a balanced tree.
+     */
+    public static final int BRANCHING_FACTOR = 4;
+    
+    /**
+     * Builds a tree of this shape with {@code size} nodes into {@code tree}.
+     * 
+     * @param tree the tree to populate.
+     * @param size the number of nodes to create.
+     * @return all the created nodes in the order they were created.
+     */
+    public abstract TreeNode<Integer>[] build(Tree<Integer> tree, int size);
+    
+    @SuppressWarnings("unchecked")
+    private static TreeNode<Integer>[] newNodeArray(int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException(
+                    "The tree size must be positive: " + size);
+        }
+        
+        return (TreeNode<Integer>[]) new TreeNode<?>[size];
+    }
+}
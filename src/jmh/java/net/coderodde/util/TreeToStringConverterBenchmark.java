@@ -0,0 +1,99 @@
+package net.coderodde.util;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * This class benchmarks {@link SimpleTreeToStringConverter} and 
+ * {@link StreamingTreeToStringConverter}; the latter both into a string and
+ * into a writer that discards its input. Note that the simple converter 
+ * recurses once per tree level, so that deep 
+ * {@link TreeShape#CHAIN} trees require a large thread stack. Also, the 
+ * indentation makes the output of a chain quadratic in its length, so chains
+ * longer than {@link #MAXIMUM_CHAIN_SIZE} nodes would not fit into a string;
+ * such parameter combinations fail in the setup and are reported as errors.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g", "-Xss1g"})
+public class TreeToStringConverterBenchmark {
+    
+    /**
+     * The longest chain whose textual representation fits in a string.
+     */
+    static final int MAXIMUM_CHAIN_SIZE = 10_000;
+    
+    @Param({"BALANCED", "CHAIN", "STAR"})
+    private TreeShape shape;
+    
+    @Param({"1000", "10000", "100000", "10000000"})
+    private int size;
+    
+    private Tree<Integer> tree;
+    
+    private final TreeToStringConverter<Integer> converter = 
+            new SimpleTreeToStringConverter<>();
+    
+    private final StreamingTreeToStringConverter<Integer> streamingConverter = 
+            new StreamingTreeToStringConverter<>();
+    
+    private final Writer nullWriter = new Writer() {
+        
+        @Override
+        public void write(char[] cbuf, int off, int len) {}
+        
+        @Override
+        public void write(String str, int off, int len) {}
+        
+        @Override
+        public void flush() {}
+        
+        @Override
+        public void close() {}
+    };
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        if (shape == TreeShape.CHAIN && size > MAXIMUM_CHAIN_SIZE) {
+            throw new IllegalStateException(
+                    "The chain of " + size + " nodes is too long to render.");
+        }
+        
+        tree = new Tree<>();
+        shape.build(tree, size);
+    }
+    
+    @Benchmark
+    public String simpleToString() {
+        return converter.toString(tree);
+    }
+    
+    @Benchmark
+    public String streamingToString() {
+        return streamingConverter.toString(tree);
+    }
+    
+    @Benchmark
+    public void streamingWrite() throws IOException {
+        streamingConverter.write(tree, nullWriter);
+    }
+}
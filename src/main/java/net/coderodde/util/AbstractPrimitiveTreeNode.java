@@ -0,0 +1,238 @@
+package net.coderodde.util;
+
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * This abstract class implements the structure shared by the tree nodes
+ * storing primitive elements, {@link IntTreeNode} and {@link LongTreeNode}.
+ * The children are kept in the same kind of intrusive, doubly-linked list as
+ * in {@link TreeNode}, and the element is stored in a primitive field of the
+ * concrete subclass, so that a node is a single object without a boxed
+ * element.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ * @param <N> the concrete tree node type.
+ */
+abstract class AbstractPrimitiveTreeNode<
+        N extends AbstractPrimitiveTreeNode<N>> {
+    
+    /**
+     * The number of characters sufficient for the decimal representation of
+     * any {@code long}.
+     */
+    static final int MAXIMUM_ELEMENT_LENGTH = 20;
+    
+    N parent;
+    N firstChild;
+    N lastChild;
+    N previousSibling;
+    N nextSibling;
+    int childCount;
+    int modCount;
+    
+    /**
+     * Indicates whether this tree node is the pseudoroot of a tree.
+     */
+    private final boolean pseudoroot;
+    
+    AbstractPrimitiveTreeNode(boolean pseudoroot) {
+        this.pseudoroot = pseudoroot;
+    }
+    
+    /**
+     * Returns the parent of this tree node, or {@code null} if this tree node
+     * is a root or is not attached to a tree. The pseudoroot of a tree is
+     * never returned.
+     * 
+     * @return the parent of this tree node.
+     */
+    public N getParent() {
+        return parent == null || parent.isPseudoRoot() ? null : parent;
+    }
+    
+    /**
+     * Returns {@code true} only if this tree node is a proper ancestor of the
+     * input tree node. This walks the parent chain of the input tree node.
+     * 
+     * @param node the query tree node.
+     * @return {@code true} if this tree node is an ancestor of {@code node}.
+     */
+    public boolean isAncestorOf(N node) {
+        return node != this && isAncestorOrSelfOf(node);
+    }
+    
+    /**
+     * Returns a lazy iterator over the subtree rooted at this tree node in
+     * pre-order. This tree node is returned first, unless it is a pseudoroot.
+     * 
+     * @return a pre-order iterator.
+     */
+    public Iterator<N> preorderIterator() {
+        return new PreorderIterator();
+    }
+    
+    /**
+     * Writes the decimal representation of the element of this tree node to
+     * the end of the input buffer, which has at least
+     * {@link #MAXIMUM_ELEMENT_LENGTH} characters.
+     * 
+     * @param buffer the target buffer.
+     * @return the index of the first written character.
+     */
+    abstract int formatElement(char[] buffer);
+    
+    /**
+     * Writes the decimal representation of the input value to the end of the
+     * input buffer without allocating.
+     * 
+     * @param value  the value to format.
+     * @param buffer the target buffer.
+     * @return the index of the first written character.
+     */
+    static int formatDecimal(long value, char[] buffer) {
+        int index = buffer.length;
+        // Work with the non-positive value, so that Long.MIN_VALUE needs no
+        // special treatment.
+        long remaining = value < 0 ? value : -value;
+        
+        do {
+            buffer[--index] = (char) ('0' - remaining % 10);
+            remaining /= 10;
+        } while (remaining != 0);
+        
+        if (value < 0) {
+            buffer[--index] = '-';
+        }
+        
+        return index;
+    }
+    
+    boolean isPseudoRoot() {
+        return pseudoroot;
+    }
+    
+    boolean isAncestorOrSelfOf(N node) {
+        for (N current = node; current != null; current = current.parent) {
+            if (current == this) {
+                return true;
+            }
+        }
+        
+        return false;
+    }
+    
+    /**
+     * Returns the node following the input node in the pre-order of the
+     * subtree rooted at this tree node, or {@code null} if there is none.
+     * 
+     * @param node a node in the subtree of this tree node.
+     * @return the next node in pre-order.
+     */
+    N nextInSubtree(N node) {
+        if (node.firstChild != null) {
+            return node.firstChild;
+        }
+        
+        while (node != this && node.nextSibling == null) {
+            node = node.parent;
+        }
+        
+        return node == this ? null : node.nextSibling;
+    }
+    
+    /**
+     * Appends the input tree node to the end of the child list of this tree
+     * node. The input tree node must not have a parent.
+     * 
+     * @param child the tree node to append.
+     */
+    @SuppressWarnings("unchecked")
+    void linkLastChild(N child) {
+        child.parent = (N) this;
+        child.previousSibling = lastChild;
+        
+        if (lastChild == null) {
+            firstChild = child;
+        } else {
+            lastChild.nextSibling = child;
+        }
+        
+        lastChild = child;
+        childCount++;
+        modCount++;
+    }
+    
+    /**
+     * Removes the input tree node from the child list of this tree node. The
+     * input tree node must be a child of this tree node.
+     * 
+     * @param child the tree node to remove.
+     */
+    void unlinkChild(N child) {
+        if (child.previousSibling == null) {
+            firstChild = child.nextSibling;
+        } else {
+            child.previousSibling.nextSibling = child.nextSibling;
+        }
+        
+        if (child.nextSibling == null) {
+            lastChild = child.previousSibling;
+        } else {
+            child.nextSibling.previousSibling = child.previousSibling;
+        }
+        
+        child.parent = null;
+        child.previousSibling = null;
+        child.nextSibling = null;
+        childCount--;
+        modCount++;
+    }
+    
+    /**
+     * This inner class implements a fail-fast pre-order iterator over the
+     * subtree rooted at the enclosing tree node. It checks the modification
+     * count of the child list of the parent of the returned node.
+     */
+    private final class PreorderIterator implements Iterator<N> {
+        
+        private N next;
+        private N lastReturned;
+        private int expectedModCount;
+        
+        @SuppressWarnings("unchecked")
+        PreorderIterator() {
+            next = pseudoroot ? firstChild : (N) AbstractPrimitiveTreeNode.this;
+        }
+        
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+        
+        @Override
+        public N next() {
+            if (next == null) {
+                throw new NoSuchElementException(
+                        "No nodes left in this iteration.");
+            }
+            
+            if (lastReturned != null &&
+                    lastReturned.parent != null &&
+                    lastReturned.parent.modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            
+            lastReturned = next;
+            
+            if (lastReturned.parent != null) {
+                expectedModCount = lastReturned.parent.modCount;
+            }
+            
+            next = nextInSubtree(next);
+            return lastReturned;
+        }
+    }
+}
@@ -0,0 +1,255 @@
+package net.coderodde.util;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * This abstract class implements the view over the children of a tree node
+ * storing a primitive element. It behaves exactly like 
+ * {@link TreeNodeChildrenView}.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ * @param <N> the concrete tree node type.
+ */
+abstract class AbstractPrimitiveTreeNodeChildrenView<
+        N extends AbstractPrimitiveTreeNode<N>> implements Set<N> {
+    
+    /**
+     * The tree node that owns this view.
+     */
+    private final N ownerTreeNode;
+    
+    /**
+     * The concrete tree node class, used for type checks.
+     */
+    private final Class<N> treeNodeClass;
+    
+    AbstractPrimitiveTreeNodeChildrenView(N ownerTreeNode, 
+                                          Class<N> treeNodeClass) {
+        this.ownerTreeNode = ownerTreeNode;
+        this.treeNodeClass = treeNodeClass;
+    }
+    
+    @Override
+    public int size() {
+        return ownerTreeNode.childCount;
+    }
+    
+    @Override
+    public boolean isEmpty() {
+        return ownerTreeNode.childCount == 0;
+    }
+    
+    @Override
+    public boolean contains(Object o) {
+        return treeNodeClass.isInstance(o) && 
+               treeNodeClass.cast(o).parent == ownerTreeNode;
+    }
+    
+    @Override
+    public Iterator<N> iterator() {
+        return new ChildIterator();
+    }
+    
+    @Override
+    public boolean add(N treeNode) {
+        Objects.requireNonNull(treeNode, "The input tree node is null.");
+        
+        if (treeNode.isPseudoRoot()) {
+            throw new IllegalArgumentException(
+                    "The pseudoroot of a tree cannot be a child.");
+        }
+        
+        if (treeNode.isAncestorOrSelfOf(ownerTreeNode)) {
+            throw new IllegalStateException(
+                    "Trying to create a cycle in this tree.");
+        }
+        
+        if (treeNode.parent == ownerTreeNode) {
+            return false;
+        }
+        
+        if (treeNode.parent != null) {
+            treeNode.parent.unlinkChild(treeNode);
+        }
+        
+        ownerTreeNode.linkLastChild(treeNode);
+        return true;
+    }
+    
+    @Override
+    public boolean remove(Object o) {
+        if (!contains(o)) {
+            return false;
+        }
+        
+        ownerTreeNode.unlinkChild(treeNodeClass.cast(o));
+        return true;
+    }
+    
+    @Override
+    public boolean containsAll(Collection<?> c) {
+        for (Object o : c) {
+            if (!contains(o)) {
+                return false;
+            }
+        }
+        
+        return true;
+    }
+    
+    @Override
+    public boolean addAll(Collection<? extends N> c) {
+        boolean modified = false;
+        
+        for (N treeNode : c) {
+            if (add(treeNode)) {
+                modified = true;
+            }
+        }
+        
+        return modified;
+    }
+    
+    @Override
+    public boolean retainAll(Collection<?> c) {
+        int numberOfChildrenBefore = size();
+        Set<?> collectionAsSet = 
+                (c instanceof HashSet) ? (Set<?>) c : new HashSet<>(c);
+        N currentTreeNode = ownerTreeNode.firstChild;
+        
+        while (currentTreeNode != null) {
+            N nextTreeNode = currentTreeNode.nextSibling;
+            
+            if (!collectionAsSet.contains(currentTreeNode)) {
+                ownerTreeNode.unlinkChild(currentTreeNode);
+            }
+            
+            currentTreeNode = nextTreeNode;
+        }
+        
+        return size() < numberOfChildrenBefore;
+    }
+    
+    @Override
+    public boolean removeAll(Collection<?> c) {
+        boolean modified = false;
+        
+        for (Object o : c) {
+            if (remove(o)) {
+                modified = true;
+            }
+        }
+        
+        return modified;
+    }
+    
+    @Override
+    public void clear() {
+        while (ownerTreeNode.firstChild != null) {
+            ownerTreeNode.unlinkChild(ownerTreeNode.firstChild);
+        }
+    }
+    
+    /**
+     * Returns an array holding the children in their order.
+     * 
+     * @return the array of the children.
+     */
+    @Override
+    public Object[] toArray() {
+        return copyChildren(new Object[ownerTreeNode.childCount]);
+    }
+    
+    /**
+     * Returns an array holding the children in their order, using the input
+     * array if it is large enough.
+     * 
+     * @param <T> the component type of the array.
+     * @param a   the array to fill, if large enough.
+     * @return the array of the children.
+     */
+    @Override
+    public <T> T[] toArray(T[] a) {
+        int size = ownerTreeNode.childCount;
+        
+        if (a.length < size) {
+            a = Arrays.copyOf(a, size);
+        } else if (a.length > size) {
+            a[size] = null;
+        }
+        
+        return copyChildren(a);
+    }
+    
+    /**
+     * Copies the children to the beginning of the input array.
+     */
+    private <T> T[] copyChildren(T[] array) {
+        Object[] objects = array;
+        int index = 0;
+        
+        for (N node = ownerTreeNode.firstChild; 
+                node != null; 
+                node = node.nextSibling) {
+            objects[index++] = node;
+        }
+        
+        return array;
+    }
+    
+    /**
+     * This inner class implements a fail-fast iterator over the child list of
+     * the owner tree node.
+     */
+    private final class ChildIterator implements Iterator<N> {
+        
+        private N nextTreeNode = ownerTreeNode.firstChild;
+        private N lastReturnedTreeNode;
+        private int expectedModCount = ownerTreeNode.modCount;
+        
+        @Override
+        public boolean hasNext() {
+            return nextTreeNode != null;
+        }
+        
+        @Override
+        public N next() {
+            checkForComodification();
+            
+            if (nextTreeNode == null) {
+                throw new NoSuchElementException("No more children.");
+            }
+            
+            lastReturnedTreeNode = nextTreeNode;
+            nextTreeNode = nextTreeNode.nextSibling;
+            return lastReturnedTreeNode;
+        }
+        
+        @Override
+        public void remove() {
+            if (lastReturnedTreeNode == null) {
+                throw new IllegalStateException(
+                        "There is no child to remove.");
+            }
+            
+            checkForComodification();
+            ownerTreeNode.unlinkChild(lastReturnedTreeNode);
+            lastReturnedTreeNode = null;
+            expectedModCount = ownerTreeNode.modCount;
+        }
+        
+        private void checkForComodification() {
+            if (expectedModCount != ownerTreeNode.modCount) {
+                throw new ConcurrentModificationException();
+            }
+        }
+    }
+}
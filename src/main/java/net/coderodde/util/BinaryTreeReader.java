@@ -0,0 +1,410 @@
+package net.coderodde.util;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StreamCorruptedException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.ReadableByteChannel;
+import java.util.Objects;
+
+/**
+ * This class implements a streaming reader of the binary tree format written
+ * by {@link BinaryTreeWriter}. The nodes are attached to the tree as soon as
+ * their records arrive; apart from the tree being built, reading takes 
+ * constant extra memory beyond the encoding of a single element, and no 
+ * recursion.
+ * 
+ * <p>
+ * For incremental parsing, {@link #newParser(TreeNode, Listener)} returns a 
+ * {@link Parser} that accepts the input in arbitrary pieces, for example as 
+ * they are read from a non-blocking channel, and reports every node and every
+ * completed subtree to a {@link Listener}.
+ * </p>
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ * @param <E> the tree node element type.
+ */
+public final class BinaryTreeReader<E> {
+    
+    /**
+     * The default size of the input buffer in bytes.
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 8192;
+    
+    /**
+     * This interface defines the callbacks of an incremental read.
+     * 
+     * @param <E> the tree node element type.
+     */
+    public interface Listener<E> {
+        
+        /**
+         * Called when a node has been read and attached to its parent. Its 
+         * children have not been read yet.
+         * 
+         * @param node the node read.
+         */
+        void nodeRead(TreeNode<E> node);
+        
+        /**
+         * Called when the entire subtree of a node has been read.
+         * 
+         * @param node the root of the subtree read.
+         */
+        default void subtreeRead(TreeNode<E> node) {}
+    }
+    
+    private final TreeElementCodec<? extends E> codec;
+    private final int bufferSize;
+    
+    /**
+     * Constructs this reader with the default buffer size.
+     * 
+     * @param codec the codec for decoding the elements.
+     */
+    public BinaryTreeReader(TreeElementCodec<? extends E> codec) {
+        this(codec, DEFAULT_BUFFER_SIZE);
+    }
+    
+    /**
+     * Constructs this reader with the given buffer size.
+     * 
+     * @param codec      the codec for decoding the elements.
+     * @param bufferSize the size of the input buffer in bytes.
+     */
+    public BinaryTreeReader(TreeElementCodec<? extends E> codec, 
+                            int bufferSize) {
+        this.codec = Objects.requireNonNull(codec, "The codec is null.");
+        
+        if (bufferSize < 1) {
+            throw new IllegalArgumentException(
+                    "The buffer size must be positive: " + bufferSize);
+        }
+        
+        this.bufferSize = bufferSize;
+    }
+    
+    /**
+     * Reads a tree from the input stream. The stream is not closed. Since the
+     * input is buffered, bytes following the tree may be consumed as well.
+     * 
+     * @param inputStream the source input stream.
+     * @return the tree read.
+     * @throws IOException if the input stream throws, ends before the tree
+     *                     does, or does not hold a valid tree.
+     */
+    public Tree<E> read(InputStream inputStream) throws IOException {
+        Tree<E> tree = new Tree<>();
+        read(inputStream, tree.getPseudoRoot(), null);
+        return tree;
+    }
+    
+    /**
+     * Reads a tree from the input channel, which must be in blocking mode. The
+     * channel is not closed. Since the input is buffered, bytes following the
+     * tree may be consumed as well.
+     * 
+     * @param channel the source channel.
+     * @return the tree read.
+     * @throws IOException if the channel throws, ends before the tree does, or
+     *                     does not hold a valid tree.
+     */
+    public Tree<E> read(ReadableByteChannel channel) throws IOException {
+        Objects.requireNonNull(channel, "The input channel is null.");
+        Tree<E> tree = new Tree<>();
+        Parser parser = newParser(tree.getPseudoRoot(), null);
+        ByteBuffer buffer = ByteBuffer.allocate(bufferSize);
+        
+        while (!parser.isFinished()) {
+            if (channel.read(buffer) < 0) {
+                throw new EOFException("The tree stream ended prematurely.");
+            }
+            
+            buffer.flip();
+            parser.feed(buffer);
+            buffer.clear();
+        }
+        
+        return tree;
+    }
+    
+    /**
+     * Reads a tree from the input stream, attaching its roots as the last 
+     * children of the input target node and reporting the progress to the 
+     * input listener. The stream is not closed.
+     * 
+     * @param inputStream the source input stream.
+     * @param target      the node to attach the roots to.
+     * @param listener    the listener, or {@code null}.
+     * @throws IOException if the input stream throws, ends before the tree
+     *                     does, or does not hold a valid tree.
+     */
+    public void read(InputStream inputStream, 
+                     TreeNode<E> target, 
+                     Listener<E> listener) throws IOException {
+        Objects.requireNonNull(inputStream, "The input stream is null.");
+        Parser parser = newParser(target, listener);
+        byte[] bytes = new byte[bufferSize];
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        
+        while (!parser.isFinished()) {
+            int length = inputStream.read(bytes);
+            
+            if (length < 0) {
+                throw new EOFException("The tree stream ended prematurely.");
+            }
+            
+            buffer.limit(length).position(0);
+            parser.feed(buffer);
+        }
+    }
+    
+    /**
+     * Returns a new incremental parser attaching the roots of the tree it 
+     * reads as the last children of the input target node.
+     * 
+     * @param target   the node to attach the roots to.
+     * @param listener the listener, or {@code null}.
+     * @return a new parser.
+     */
+    public Parser newParser(TreeNode<E> target, Listener<E> listener) {
+        Objects.requireNonNull(target, "The target tree node is null.");
+        return new Parser(target, listener);
+    }
+    
+    /**
+     * This inner class implements an incremental parser of the binary tree
+     * format. It keeps the state of a partially read record between the 
+     * pieces of input it is fed.
+     */
+    public final class Parser {
+        
+        private static final int HEADER = 0;
+        private static final int ASCENT = 1;
+        private static final int LENGTH = 2;
+        private static final int ELEMENT = 3;
+        private static final int FINISHED = 4;
+        
+        private final TreeNode<E> target;
+        private final Listener<E> listener;
+        
+        /**
+         * The last node read, or the target if none was read yet.
+         */
+        private TreeNode<E> current;
+        
+        /**
+         * The parent of the node whose record is being read.
+         */
+        private TreeNode<E> parent;
+        
+        private int state = HEADER;
+        private int headerBytesRead;
+        private long varint;
+        private int varintShift;
+        private int elementLength;
+        private int elementBytesRead;
+        private byte[] elementBytes = new byte[16];
+        
+        private Parser(TreeNode<E> target, Listener<E> listener) {
+            this.target = target;
+            this.listener = listener;
+            this.current = target;
+        }
+        
+        /**
+         * Returns {@code true} only if the entire tree has been read.
+         * 
+         * @return {@code true} if this parser is finished.
+         */
+        public boolean isFinished() {
+            return state == FINISHED;
+        }
+        
+        /**
+         * Consumes the remaining bytes of the input buffer, attaching the nodes
+         * whose records are complete. Once the end of the tree is reached, 
+         * the bytes following it are left in the buffer.
+         * 
+         * @param input the next piece of the input.
+         * @return {@code true} if the entire tree has been read.
+         * @throws IOException if the input is not a valid tree.
+         */
+        public boolean feed(ByteBuffer input) throws IOException {
+            while (state != FINISHED && input.hasRemaining()) {
+                switch (state) {
+                    case HEADER:
+                        readHeader(input);
+                        break;
+                    
+                    case ASCENT:
+                        if (readVarint(input)) {
+                            ascend(toInt(varint));
+                        }
+                        
+                        break;
+                    
+                    case LENGTH:
+                        if (readVarint(input)) {
+                            elementLength = toInt(varint);
+                            elementBytesRead = 0;
+                            state = ELEMENT;
+                            
+                            if (elementLength == 0) {
+                                attach(ByteBuffer.allocate(0));
+                            }
+                        }
+                        
+                        break;
+                    
+                    default:
+                        readElement(input);
+                        break;
+                }
+            }
+            
+            return state == FINISHED;
+        }
+        
+        private void readHeader(ByteBuffer input) throws IOException {
+            byte b = input.get();
+            byte expected = 
+                    headerBytesRead < BinaryTreeWriter.MAGIC.length ?
+                    BinaryTreeWriter.MAGIC[headerBytesRead] :
+                    BinaryTreeWriter.FORMAT_VERSION;
+            
+            if (b != expected) {
+                throw new StreamCorruptedException(
+                        "Not a binary tree stream of a supported version.");
+            }
+            
+            if (++headerBytesRead == BinaryTreeWriter.MAGIC.length + 1) {
+                state = ASCENT;
+            }
+        }
+        
+        /**
+         * Accumulates an unsigned varint. Returns {@code true} once it is 
+         * complete, leaving its value in {@link #varint}.
+         */
+        private boolean readVarint(ByteBuffer input) throws IOException {
+            if (varintShift == 0) {
+                varint = 0;
+            }
+            
+            while (input.hasRemaining()) {
+                byte b = input.get();
+                
+                if (varintShift > 63) {
+                    throw new StreamCorruptedException("Malformed varint.");
+                }
+                
+                varint |= (long) (b & 0x7F) << varintShift;
+                
+                if (b >= 0) {
+                    varintShift = 0;
+                    return true;
+                }
+                
+                varintShift += 7;
+            }
+            
+            return false;
+        }
+        
+        /**
+         * Handles the ascent varint of a record: zero ends the tree, and 
+         * {@code a + 1} climbs {@code a} levels from the last node read.
+         */
+        private void ascend(int value) throws IOException {
+            if (value == 0) {
+                climb(Integer.MAX_VALUE);
+                state = FINISHED;
+                return;
+            }
+            
+            if (climb(value - 1) < value - 1) {
+                throw new StreamCorruptedException(
+                        "A record climbs above the target node.");
+            }
+            
+            parent = current;
+            state = LENGTH;
+        }
+        
+        /**
+         * Climbs at most {@code levels} levels up from the current node, but 
+         * not above the target, reporting each completed subtree. Returns the
+         * number of levels climbed.
+         */
+        private int climb(int levels) {
+            int climbed = 0;
+            
+            while (climbed < levels && current != target) {
+                if (listener != null) {
+                    listener.subtreeRead(current);
+                }
+                
+                current = current.parent;
+                climbed++;
+            }
+            
+            return climbed;
+        }
+        
+        private void readElement(ByteBuffer input) throws IOException {
+            if (elementBytesRead == 0 && input.remaining() >= elementLength) {
+                // Decode the element in place, narrowing the input to it:
+                int limit = input.limit();
+                int end = input.position() + elementLength;
+                ByteOrder order = input.order();
+                input.limit(end);
+                
+                try {
+                    attach(input);
+                } finally {
+                    input.limit(limit).position(end);
+                    input.order(order);
+                }
+                
+                return;
+            }
+            
+            if (elementBytes.length < elementLength) {
+                elementBytes = new byte[Math.max(elementLength, 
+                                                 2 * elementBytes.length)];
+            }
+            
+            int length = Math.min(input.remaining(), 
+                                  elementLength - elementBytesRead);
+            input.get(elementBytes, elementBytesRead, length);
+            elementBytesRead += length;
+            
+            if (elementBytesRead == elementLength) {
+                attach(ByteBuffer.wrap(elementBytes, 0, elementLength));
+            }
+        }
+        
+        private void attach(ByteBuffer element) {
+            current = parent.addChild(
+                    codec.decode(element.order(ByteOrder.BIG_ENDIAN)));
+            state = ASCENT;
+            
+            if (listener != null) {
+                listener.nodeRead(current);
+            }
+        }
+        
+        private int toInt(long value) throws IOException {
+            if (value < 0 || value > Integer.MAX_VALUE) {
+                throw new StreamCorruptedException(
+                        "A varint is out of range: " + value);
+            }
+            
+            return (int) value;
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package net.coderodde.util;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.util.Objects;
+
+/**
+ * This class implements a streaming writer of the binary tree format read by
+ * {@link BinaryTreeReader}. The tree is traversed in pre-order without 
+ * recursion, and the output goes through a buffer of fixed size, so that 
+ * writing a tree takes constant extra memory beyond the encoding of a single
+ * element.
+ * 
+ * <p>
+ * The format starts with the four bytes {@code "TRES"} and a version byte,
+ * followed by a record per node in pre-order and a terminating zero byte. A 
+ * record consists of an unsigned varint {@code a + 1}, where the node is a 
+ * child of the ancestor {@code a} levels above the previous node (the first
+ * node has {@code a = 0} and its parent is the target of the reading), the 
+ * varint length of the encoded element, and the element bytes produced by a
+ * {@link TreeElementCodec}. Thus, a reader keeps no stack: it climbs the 
+ * parent links of the nodes it has already built.
+ * </p>
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ * @param <E> the tree node element type.
+ */
+public final class BinaryTreeWriter<E> {
+    
+    /**
+     * The default size of the output buffer in bytes.
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 8192;
+    
+    /**
+     * The first bytes of the binary tree format, {@code "TRES"} in ASCII.
+     */
+    static final byte[] MAGIC = { 'T', 'R', 'E', 'S' };
+    
+    /**
+     * The version of the binary tree format.
+     */
+    static final byte FORMAT_VERSION = 1;
+    
+    /**
+     * The longest varint, that of a negative {@code long}, takes ten bytes.
+     */
+    private static final int MAXIMUM_VARINT_LENGTH = 10;
+    
+    private final TreeElementCodec<? super E> codec;
+    private final int bufferSize;
+    
+    /**
+     * Constructs this writer with the default buffer size.
+     * 
+     * @param codec the codec for encoding the elements.
+     */
+    public BinaryTreeWriter(TreeElementCodec<? super E> codec) {
+        this(codec, DEFAULT_BUFFER_SIZE);
+    }
+    
+    /**
+     * Constructs this writer with the given buffer size.
+     * 
+     * @param codec      the codec for encoding the elements.
+     * @param bufferSize the size of the output buffer in bytes.
+     */
+    public BinaryTreeWriter(TreeElementCodec<? super E> codec, 
+                            int bufferSize) {
+        this.codec = Objects.requireNonNull(codec, "The codec is null.");
+        
+        if (bufferSize < MAXIMUM_VARINT_LENGTH) {
+            throw new IllegalArgumentException(
+                    "The buffer size is too small: " + bufferSize);
+        }
+        
+        this.bufferSize = bufferSize;
+    }
+    
+    /**
+     * Writes the input tree to the input output stream. The stream is 
+     * flushed, but not closed.
+     * 
+     * @param tree         the tree to write.
+     * @param outputStream the target output stream.
+     * @throws IOException if the output stream throws.
+     */
+    public void write(Tree<E> tree, OutputStream outputStream) 
+            throws IOException {
+        Objects.requireNonNull(tree, "The input tree is null.");
+        Objects.requireNonNull(outputStream, "The output stream is null.");
+        Output output = new Output(outputStream, bufferSize);
+        ElementBuffer elementBuffer = new ElementBuffer();
+        DataOutputStream elementOutput = new DataOutputStream(elementBuffer);
+        
+        output.write(MAGIC, MAGIC.length);
+        output.writeByte(FORMAT_VERSION);
+        
+        TreeNode<E> pseudoroot = tree.getPseudoRoot();
+        TreeNode<E> node = pseudoroot.firstChild;
+        int ascent = 0;
+        
+        while (node != null) {
+            elementBuffer.reset();
+            codec.encode(node.getElement(), elementOutput);
+            output.writeVarint(ascent + 1L);
+            output.writeVarint(elementBuffer.size());
+            output.write(elementBuffer.getBuffer(), elementBuffer.size());
+            
+            if (node.firstChild != null) {
+                node = node.firstChild;
+                ascent = 0;
+                continue;
+            }
+            
+            // Climb up until a node with a next sibling is found:
+            ascent = 1;
+            
+            while (node.nextSibling == null && node.parent != pseudoroot) {
+                node = node.parent;
+                ascent++;
+            }
+            
+            node = node.nextSibling;
+        }
+        
+        output.writeByte(0);
+        output.flush();
+    }
+    
+    /**
+     * Writes the input tree to the input channel. The channel is not closed.
+     * 
+     * @param tree    the tree to write.
+     * @param channel the target channel.
+     * @throws IOException if the channel throws.
+     */
+    public void write(Tree<E> tree, WritableByteChannel channel) 
+            throws IOException {
+        Objects.requireNonNull(channel, "The input channel is null.");
+        write(tree, Channels.newOutputStream(channel));
+    }
+    
+    /**
+     * This static inner class implements an unsynchronized output buffer of
+     * fixed size over an output stream.
+     */
+    private static final class Output {
+        
+        private final OutputStream outputStream;
+        private final byte[] buffer;
+        private int size;
+        
+        Output(OutputStream outputStream, int bufferSize) {
+            this.outputStream = outputStream;
+            this.buffer = new byte[bufferSize];
+        }
+        
+        void writeByte(int b) throws IOException {
+            if (size == buffer.length) {
+                flushBuffer();
+            }
+            
+            buffer[size++] = (byte) b;
+        }
+        
+        void writeVarint(long value) throws IOException {
+            if (buffer.length - size < MAXIMUM_VARINT_LENGTH) {
+                flushBuffer();
+            }
+            
+            while ((value & ~0x7FL) != 0) {
+                buffer[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            
+            buffer[size++] = (byte) value;
+        }
+        
+        void write(byte[] bytes, int length) throws IOException {
+            if (length > buffer.length - size) {
+                flushBuffer();
+                
+                if (length > buffer.length) {
+                    outputStream.write(bytes, 0, length);
+                    return;
+                }
+            }
+            
+            System.arraycopy(bytes, 0, buffer, size, length);
+            size += length;
+        }
+        
+        void flush() throws IOException {
+            flushBuffer();
+            outputStream.flush();
+        }
+        
+        private void flushBuffer() throws IOException {
+            outputStream.write(buffer, 0, size);
+            size = 0;
+        }
+    }
+}
@@ -0,0 +1,419 @@
+package net.coderodde.util;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * This class implements a converter from a {@link net.coderodde.util.Tree} to
+ * the same textual format as {@link SimpleTreeToStringConverter}, which 
+ * caches the rendered text of each subtree between conversions. The converter
+ * is bound to a single tree and listens to its changes: a change marks the 
+ * cached text of the changed tree node and its ancestors stale, and the next
+ * conversion renders only the stale subtrees, reusing the cached text of all
+ * the others. After a single modification, a conversion takes time 
+ * proportional to the depth of the modified tree node times the number of 
+ * children of its ancestors, plus the time of copying the cached text into 
+ * the resulting string; the text of an unchanged tree is returned as is.
+ * 
+ * <p>
+ * The text of a subtree is a fragment: the line of its root followed by the
+ * fragments of the children. The fragments of up to {@link #CHUNK_LENGTH} 
+ * characters are flattened into single strings, so that the resulting string
+ * is mostly copied in chunks. A cached fragment is reused only at the depth 
+ * it was rendered at. The cache takes memory proportional to the size of the
+ * tree; {@link #detach()} releases it.
+ * </p>
+ * 
+ * <p>
+ * The changes made in an open {@link TreeTransaction} are not seen until the
+ * transaction is committed. The elements must not change their textual 
+ * representation other than through {@link TreeNode#setElement(Object)}.
+ * </p>
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ * @param <E> the tree node element type.
+ */
+public final class CachingTreeToStringConverter<E>
+implements TreeToStringConverter<E> {
+    
+    /**
+     * The maximum length of a flattened fragment.
+     */
+    static final int CHUNK_LENGTH = 1024;
+    
+    private final Tree<E> tree;
+    private final TreeChangeListener<E> listener = this::treeChanged;
+    
+    /**
+     * The cached fragments of the tree nodes, including the pseudoroot. If 
+     * the fragment of a tree node is missing or stale, so are the fragments
+     * of all its ancestors.
+     */
+    private final Map<TreeNode<E>, Fragment> fragments = 
+            new IdentityHashMap<>();
+    
+    /**
+     * The text of the entire tree, or {@code null} if it is stale.
+     */
+    private String text;
+    
+    /**
+     * Constructs this converter for the input tree and registers it as a 
+     * listener of the tree.
+     * 
+     * @param tree the tree to convert.
+     */
+    public CachingTreeToStringConverter(Tree<E> tree) {
+        this.tree = Objects.requireNonNull(tree, "The input tree is null.");
+        tree.addChangeListener(listener);
+    }
+    
+    /**
+     * Unregisters this converter from its tree and drops the cache. The 
+     * converter must not be used afterwards.
+     */
+    public void detach() {
+        tree.removeChangeListener(listener);
+        fragments.clear();
+        text = null;
+    }
+    
+    /**
+     * Returns the number of the cached fragments.
+     * 
+     * @return the number of the cached fragments.
+     */
+    int size() {
+        return fragments.size();
+    }
+    
+    /**
+     * {@inheritDoc }
+     * 
+     * @throws IllegalArgumentException if the input tree is not the tree of
+     *                                  this converter.
+     */
+    @Override
+    public String toString(Tree<E> tree) {
+        checkTree(tree);
+        Object renderToken = TreeInstrumentation.ENABLED ? 
+                             TreeInstrumentation.beginRender() : 
+                             null;
+        
+        if (text == null) {
+            Fragment root = render();
+            StringBuilder stringBuilder = new StringBuilder(root.length);
+            
+            try {
+                root.writeTo(stringBuilder);
+            } catch (IOException ex) {
+                // StringBuilder never throws IOException.
+                throw new UncheckedIOException(ex);
+            }
+            
+            text = stringBuilder.toString();
+        }
+        
+        if (TreeInstrumentation.ENABLED) {
+            countRender(renderToken, text.length());
+        }
+        
+        return text;
+    }
+    
+    /**
+     * Writes the textual representation of the input tree to the input 
+     * appendable.
+     * 
+     * @param tree       the tree to convert.
+     * @param appendable the target appendable.
+     * @throws IOException if the appendable throws.
+     * @throws IllegalArgumentException if the input tree is not the tree of
+     *                                  this converter.
+     */
+    public void write(Tree<E> tree, Appendable appendable) throws IOException {
+        checkTree(tree);
+        Objects.requireNonNull(appendable, "The input appendable is null.");
+        Object renderToken = TreeInstrumentation.ENABLED ? 
+                             TreeInstrumentation.beginRender() : 
+                             null;
+        int length;
+        
+        if (text != null) {
+            appendable.append(text);
+            length = text.length();
+        } else {
+            Fragment root = render();
+            root.writeTo(appendable);
+            length = root.length;
+        }
+        
+        if (TreeInstrumentation.ENABLED) {
+            countRender(renderToken, length);
+        }
+    }
+    
+    /**
+     * Marks the fragments affected by the input changes stale.
+     */
+    private void treeChanged(List<TreeChange<E>> changes) {
+        for (TreeChange<E> change : changes) {
+            switch (change.getType()) {
+                case ADDED:
+                    invalidate(change.getNewParent());
+                    // The fragments cached for a subtree detached in a 
+                    // transaction may be stale.
+                    change.getNode().preorderIterator()
+                                    .forEachRemaining(fragments::remove);
+                    break;
+                
+                case REMOVED:
+                    invalidate(change.getOldParent());
+                    change.getNode().preorderIterator()
+                                    .forEachRemaining(fragments::remove);
+                    break;
+                
+                case MOVED:
+                    invalidate(change.getOldParent());
+                    invalidate(change.getNewParent());
+                    break;
+                
+                case ELEMENT_CHANGED:
+                    Fragment fragment = fragments.get(change.getNode());
+                    
+                    if (fragment != null) {
+                        fragment.line = null;
+                    }
+                    
+                    invalidate(change.getNode());
+                    break;
+            }
+        }
+    }
+    
+    /**
+     * Marks the fragments of the input tree node and its ancestors stale. The
+     * walk stops at the first missing or stale fragment, as the fragments of
+     * its ancestors are stale as well.
+     */
+    private void invalidate(TreeNode<E> node) {
+        text = null;
+        
+        for (; node != null; node = node.parent) {
+            Fragment fragment = fragments.get(node);
+            
+            if (fragment == null || fragment.stale) {
+                return;
+            }
+            
+            fragment.stale = true;
+        }
+    }
+    
+    /**
+     * Renders the stale fragments of the tree without recursion and returns 
+     * the fragment of the pseudoroot.
+     */
+    private Fragment render() {
+        List<Frame<E>> stack = new ArrayList<>();
+        TreeNode<E> pseudoroot = tree.getPseudoRoot();
+        Fragment rootFragment = getValidFragment(pseudoroot, -1);
+        
+        if (rootFragment != null) {
+            return rootFragment;
+        }
+        
+        stack.add(new Frame<>(pseudoroot, -1));
+        
+        while (true) {
+            Frame<E> frame = stack.get(stack.size() - 1);
+            TreeNode<E> child = frame.nextChild;
+            
+            if (child != null) {
+                frame.nextChild = child.nextSibling;
+                Fragment fragment = 
+                        getValidFragment(child, frame.depth + 1);
+                
+                if (fragment != null) {
+                    frame.children.add(fragment);
+                } else {
+                    stack.add(new Frame<>(child, frame.depth + 1));
+                }
+                
+                continue;
+            }
+            
+            stack.remove(stack.size() - 1);
+            Fragment fragment = build(frame);
+            fragments.put(frame.node, fragment);
+            
+            if (stack.isEmpty()) {
+                return fragment;
+            }
+            
+            stack.get(stack.size() - 1).children.add(fragment);
+        }
+    }
+    
+    private Fragment getValidFragment(TreeNode<E> node, int depth) {
+        Fragment fragment = fragments.get(node);
+        return fragment != null && !fragment.stale && fragment.depth == depth ?
+               fragment : 
+               null;
+    }
+    
+    /**
+     * Builds the fragment of the tree node of the input frame, whose children
+     * are rendered.
+     */
+    private Fragment build(Frame<E> frame) {
+        Fragment old = fragments.get(frame.node);
+        String line;
+        
+        if (old != null && old.line != null && old.depth == frame.depth) {
+            line = old.line;
+        } else if (frame.depth < 0) {
+            line = "";
+        } else {
+            String element = Objects.toString(frame.node.getElement());
+            line = new StringBuilder(frame.depth + element.length() + 1)
+                    .append(StreamingTreeToStringConverter
+                            .getIndentation(frame.depth), 0, frame.depth)
+                    .append(element)
+                    .append('\n')
+                    .toString();
+        }
+        
+        int length = line.length();
+        
+        for (Fragment child : frame.children) {
+            length += child.length;
+        }
+        
+        Fragment fragment = new Fragment(line, frame.depth, length);
+        
+        if (length <= CHUNK_LENGTH) {
+            // All the children are flat, being even shorter.
+            StringBuilder stringBuilder = new StringBuilder(length);
+            stringBuilder.append(line);
+            
+            for (Fragment child : frame.children) {
+                stringBuilder.append(child.flatText);
+            }
+            
+            fragment.flatText = stringBuilder.toString();
+        } else {
+            fragment.children = 
+                    frame.children.toArray(new Fragment[frame.children.size()]);
+        }
+        
+        return fragment;
+    }
+    
+    private void countRender(Object renderToken, int length) {
+        TreeInstrumentation.endRender(
+                renderToken, 
+                this, 
+                tree.getPseudoRoot().getSubtreeSize() - 1, 
+                length);
+    }
+    
+    private void checkTree(Tree<E> tree) {
+        Objects.requireNonNull(tree, "The input tree is null.");
+        
+        if (tree != this.tree) {
+            throw new IllegalArgumentException(
+                    "The input tree is not the tree of this converter.");
+        }
+    }
+    
+    /**
+     * This static nested class implements the cached text of a subtree.
+     */
+    private static final class Fragment {
+        
+        /**
+         * The line of the root of the subtree, or {@code null} if the element
+         * was replaced.
+         */
+        String line;
+        
+        /**
+         * The depth of the root of the subtree the text was rendered at.
+         */
+        final int depth;
+        
+        /**
+         * The length of the text.
+         */
+        final int length;
+        
+        /**
+         * The entire text, if flattened.
+         */
+        String flatText;
+        
+        /**
+         * The fragments of the children, if not flattened.
+         */
+        Fragment[] children;
+        
+        /**
+         * Indicates whether the text must be rendered again.
+         */
+        boolean stale;
+        
+        Fragment(String line, int depth, int length) {
+            this.line = line;
+            this.depth = depth;
+            this.length = length;
+        }
+        
+        /**
+         * Writes the text of this fragment without recursion.
+         */
+        void writeTo(Appendable appendable) throws IOException {
+            List<Fragment> stack = new ArrayList<>();
+            stack.add(this);
+            
+            while (!stack.isEmpty()) {
+                Fragment fragment = stack.remove(stack.size() - 1);
+                
+                if (fragment.flatText != null) {
+                    appendable.append(fragment.flatText);
+                    continue;
+                }
+                
+                appendable.append(fragment.line);
+                
+                for (int i = fragment.children.length - 1; i >= 0; i--) {
+                    stack.add(fragment.children[i]);
+                }
+            }
+        }
+    }
+    
+    /**
+     * This static nested class holds the state of rendering a single tree 
+     * node.
+     */
+    private static final class Frame<E> {
+        
+        final TreeNode<E> node;
+        final int depth;
+        TreeNode<E> nextChild;
+        final List<Fragment> children = new ArrayList<>();
+        
+        Frame(TreeNode<E> node, int depth) {
+            this.node = node;
+            this.depth = depth;
+            this.nextChild = node.firstChild;
+        }
+    }
+}
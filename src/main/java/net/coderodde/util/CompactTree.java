@@ -0,0 +1,455 @@
+package net.coderodde.util;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * This class implements an immutable, compacted snapshot of a {@link Tree} in
+ * which the structurally identical subtrees are stored only once. Two
+ * subtrees are identical if their roots have equal elements and their
+ * children are identical subtrees, in the same order. The snapshot is a
+ * directed acyclic graph of the distinct subtrees, built bottom-up by
+ * hash-consing: the structural hash of a subtree, computed from its element
+ * and the indices of its already compacted children, selects the candidates,
+ * and the element equality together with the identities of the children
+ * confirms the match. The distinct subtrees are stored in flat
+ * arrays: the element, the subtree size, the height and the range of the
+ * children in a shared child array, which takes 16 bytes per distinct
+ * subtree plus 4 bytes per child link with compressed references.
+ * 
+ * <p>
+ * The tree is read through {@link CompactTreeNode} handles, which are created
+ * on demand while navigating and carry the parent, the position and the depth
+ * that a shared subtree does not store. On a tree made of repeated sections,
+ * the snapshot takes memory proportional to the number of distinct subtrees
+ * rather than to the number of nodes. The elements themselves are shared, not
+ * copied, and must not change in a way that affects their
+ * {@link Object#equals(Object)} while the snapshot is in use.
+ * </p>
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ * @param <E> the tree node element type.
+ */
+public final class CompactTree<E> {
+    
+    private final Object[] elements;
+    
+    /**
+     * The children of the distinct subtree {@code s} are
+     * {@code children[childOffsets[s]]} up to, but not including,
+     * {@code children[childOffsets[s + 1]]}.
+     */
+    private final int[] childOffsets;
+    private final int[] children;
+    private final int[] subtreeSizes;
+    private final int[] heights;
+    
+    /**
+     * The handle of the pseudoroot. Its distinct subtree is the last one and
+     * has the roots of this tree as children.
+     */
+    private final CompactTreeNode<E> pseudoroot;
+    
+    private CompactTree(Interner<E> interner) {
+        int count = interner.count;
+        this.elements = Arrays.copyOf(interner.elements, count);
+        this.childOffsets = Arrays.copyOf(interner.childOffsets, count + 1);
+        this.children = Arrays.copyOf(interner.children,
+                                      interner.childOffsets[count]);
+        this.subtreeSizes = Arrays.copyOf(interner.subtreeSizes, count);
+        this.heights = Arrays.copyOf(interner.heights, count);
+        this.pseudoroot = new CompactTreeNode<>(this, count - 1, null, -1, -1);
+    }
+    
+    /**
+     * Returns a compacted snapshot of the input tree. The elements are
+     * compared with {@link Object#equals(Object)} and hashed with
+     * {@link Object#hashCode()}. This runs in expected time linear in the
+     * size of the tree, without recursion.
+     * 
+     * @param <E>  the tree node element type.
+     * @param tree the tree to compact.
+     * @return the compacted snapshot.
+     */
+    public static <E> CompactTree<E> of(Tree<E> tree) {
+        Objects.requireNonNull(tree, "The input tree is null.");
+        return build(tree);
+    }
+    
+    private static <E> CompactTree<E> build(Tree<E> tree) {
+        // In post-order, the distinct subtrees of the children of a node are
+        // the topmost entries of the stack when the node is visited.
+        Interner<E> interner = new Interner<>();
+        int[] stack = new int[16];
+        int stackSize = 0;
+        Iterator<TreeNode<E>> iterator = tree.postorderIterator();
+        
+        while (iterator.hasNext()) {
+            TreeNode<E> node = iterator.next();
+            int childCount = node.childCount;
+            stackSize -= childCount;
+            int subtree = interner.intern(node.getElement(),
+                                          stack,
+                                          stackSize,
+                                          childCount);
+            
+            if (stackSize == stack.length) {
+                stack = Arrays.copyOf(stack, 2 * stack.length);
+            }
+            
+            stack[stackSize++] = subtree;
+        }
+        
+        interner.append(null, stack, 0, stackSize);
+        return new CompactTree<>(interner);
+    }
+    
+    /**
+     * Returns the number of nodes in this tree, counting every occurrence of
+     * a shared subtree. This runs in constant time.
+     * 
+     * @return the number of nodes.
+     */
+    public int size() {
+        return pseudoroot.getSubtreeSize() - 1;
+    }
+    
+    /**
+     * Returns the number of distinct subtrees stored in this tree, which is
+     * the number of nodes of the underlying directed acyclic graph.
+     * 
+     * @return the number of distinct subtrees.
+     */
+    public int getDistinctSubtreeCount() {
+        return elements.length - 1;
+    }
+    
+    /**
+     * Returns the roots of this tree.
+     * 
+     * @return the list of the roots.
+     */
+    public List<CompactTreeNode<E>> getRoots() {
+        return pseudoroot.getChildren();
+    }
+    
+    /**
+     * Converts this tree to a new mutable tree, expanding the shared
+     * subtrees. This runs in time linear in the size of the tree, without
+     * recursion.
+     * 
+     * @return a new mutable tree.
+     */
+    @SuppressWarnings("unchecked")
+    public Tree<E> toTree() {
+        Tree<E> tree = new Tree<>();
+        ArrayDeque<Integer> subtrees = new ArrayDeque<>();
+        ArrayDeque<TreeNode<E>> treeNodes = new ArrayDeque<>();
+        subtrees.push(pseudoroot.id);
+        treeNodes.push(tree.getPseudoRoot());
+        
+        while (!subtrees.isEmpty()) {
+            int subtree = subtrees.pop();
+            TreeNode<E> treeNode = treeNodes.pop();
+            
+            for (int i = childOffsets[subtree];
+                    i < childOffsets[subtree + 1];
+                    i++) {
+                int child = children[i];
+                TreeNode<E> treeChild =
+                        treeNode.addChild((E) elements[child]);
+                
+                if (childOffsets[child] < childOffsets[child + 1]) {
+                    subtrees.push(child);
+                    treeNodes.push(treeChild);
+                }
+            }
+        }
+        
+        return tree;
+    }
+    
+    /**
+     * Returns a lazy iterator over this tree in pre-order.
+     * 
+     * @return a pre-order iterator.
+     */
+    public Iterator<CompactTreeNode<E>> preorderIterator() {
+        return new CompactTreeNode.PreorderIterator<>(pseudoroot, false);
+    }
+    
+    /**
+     * Returns a lazy iterator over this tree in post-order.
+     * 
+     * @return a post-order iterator.
+     */
+    public Iterator<CompactTreeNode<E>> postorderIterator() {
+        return new CompactTreeNode.PostorderIterator<>(pseudoroot, false);
+    }
+    
+    /**
+     * Returns a lazy iterator over this tree in level order.
+     * 
+     * @return a level-order iterator.
+     */
+    public Iterator<CompactTreeNode<E>> levelOrderIterator() {
+        return new CompactTreeNode.LevelOrderIterator<>(pseudoroot, false);
+    }
+    
+    /**
+     * Returns a sequential stream over this tree in pre-order.
+     * 
+     * @return a pre-order stream.
+     */
+    public Stream<CompactTreeNode<E>> preorderStream() {
+        return CompactTreeNode.stream(preorderIterator(), size());
+    }
+    
+    /**
+     * Returns a sequential stream over this tree in post-order.
+     * 
+     * @return a post-order stream.
+     */
+    public Stream<CompactTreeNode<E>> postorderStream() {
+        return CompactTreeNode.stream(postorderIterator(), size());
+    }
+    
+    /**
+     * Returns a sequential stream over this tree in level order.
+     * 
+     * @return a level-order stream.
+     */
+    public Stream<CompactTreeNode<E>> levelOrderStream() {
+        return CompactTreeNode.stream(levelOrderIterator(), size());
+    }
+    
+    /**
+     * Returns a sequential stream over the elements of this tree in
+     * pre-order. Unlike the node streams, this creates no node handles.
+     * 
+     * @return a pre-order element stream.
+     */
+    public Stream<E> elementStream() {
+        return StreamSupport.stream(
+                Spliterators.spliterator(new ElementIterator(),
+                                         size(),
+                                         Spliterator.ORDERED),
+                false);
+    }
+    
+    @SuppressWarnings("unchecked")
+    E getElement(int subtree) {
+        return (E) elements[subtree];
+    }
+    
+    int getChildCount(int subtree) {
+        return childOffsets[subtree + 1] - childOffsets[subtree];
+    }
+    
+    int getChild(int subtree, int index) {
+        return children[childOffsets[subtree] + index];
+    }
+    
+    int getSubtreeSize(int subtree) {
+        return subtreeSizes[subtree];
+    }
+    
+    int getHeight(int subtree) {
+        return heights[subtree];
+    }
+    
+    /**
+     * This class iterates over the elements in pre-order. The stack holds the
+     * distinct subtrees of the pending nodes, the topmost one coming next.
+     */
+    private final class ElementIterator implements Iterator<E> {
+        
+        private int[] stack = new int[16];
+        private int stackSize;
+        
+        ElementIterator() {
+            pushChildren(pseudoroot.id);
+        }
+        
+        @Override
+        public boolean hasNext() {
+            return stackSize > 0;
+        }
+        
+        @Override
+        public E next() {
+            if (stackSize == 0) {
+                throw new NoSuchElementException(
+                        "No elements left in this iteration.");
+            }
+            
+            int subtree = stack[--stackSize];
+            pushChildren(subtree);
+            return getElement(subtree);
+        }
+        
+        private void pushChildren(int subtree) {
+            int from = childOffsets[subtree];
+            int to = childOffsets[subtree + 1];
+            
+            if (stackSize + to - from > stack.length) {
+                stack = Arrays.copyOf(stack,
+                                      Math.max(2 * stack.length,
+                                               stackSize + to - from));
+            }
+            
+            for (int i = to - 1; i >= from; i--) {
+                stack[stackSize++] = children[i];
+            }
+        }
+    }
+    
+    /**
+     * This class assigns the distinct subtrees their indices. The subtrees
+     * are indexed in the order they are first met, so the children of a
+     * subtree always precede it. The subtrees are found by their hashes in an
+     * open-addressing table with linear probing, which holds the subtree
+     * index plus one in each occupied slot and is kept at most half full.
+     */
+    private static final class Interner<E> {
+        
+        Object[] elements = new Object[16];
+        int[] childOffsets = new int[17];
+        int[] children = new int[16];
+        int[] subtreeSizes = new int[16];
+        int[] heights = new int[16];
+        long[] hashes = new long[16];
+        int count;
+        
+        private int[] table = new int[32];
+        
+        /**
+         * Returns the distinct subtree with the input element and the input
+         * children, appending it if it is new. The children are already
+         * distinct, so their indices take the place of their structural
+         * hashes in the hash of the subtree.
+         */
+        int intern(E element, int[] source, int from, int childCount) {
+            long hash = mix(Objects.hashCode(element) ^ 0x9E3779B97F4A7C15L);
+            
+            for (int i = from; i < from + childCount; i++) {
+                hash = mix(hash + source[i] * 0xC2B2AE3D27D4EB4FL);
+            }
+            
+            hash = mix(hash ^ childCount);
+            int mask = table.length - 1;
+            int slot = (int) hash & mask;
+            
+            for (; table[slot] != 0; slot = (slot + 1) & mask) {
+                int subtree = table[slot] - 1;
+                
+                if (hashes[subtree] == hash &&
+                        Objects.equals(elements[subtree], element) &&
+                        hasChildren(subtree, source, from, childCount)) {
+                    return subtree;
+                }
+            }
+            
+            int subtree = append(element, source, from, childCount);
+            hashes[subtree] = hash;
+            table[slot] = subtree + 1;
+            
+            if (2 * count > table.length) {
+                rehash();
+            }
+            
+            return subtree;
+        }
+        
+        private void rehash() {
+            table = new int[2 * table.length];
+            int mask = table.length - 1;
+            
+            for (int subtree = 0; subtree < count; subtree++) {
+                int slot = (int) hashes[subtree] & mask;
+                
+                while (table[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                
+                table[slot] = subtree + 1;
+            }
+        }
+        
+        /**
+         * Appends a new distinct subtree without interning it.
+         */
+        int append(E element, int[] source, int from, int childCount) {
+            if (count == elements.length) {
+                int capacity = 2 * count;
+                elements = Arrays.copyOf(elements, capacity);
+                childOffsets = Arrays.copyOf(childOffsets, capacity + 1);
+                subtreeSizes = Arrays.copyOf(subtreeSizes, capacity);
+                heights = Arrays.copyOf(heights, capacity);
+                hashes = Arrays.copyOf(hashes, capacity);
+            }
+            
+            int offset = childOffsets[count];
+            
+            if (offset + childCount > children.length) {
+                children = Arrays.copyOf(children,
+                                         Math.max(2 * children.length,
+                                                  offset + childCount));
+            }
+            
+            int subtreeSize = 1;
+            int height = childCount == 0 ? 0 : 1;
+            
+            for (int i = 0; i < childCount; i++) {
+                int child = source[from + i];
+                children[offset + i] = child;
+                subtreeSize += subtreeSizes[child];
+                height = Math.max(height, heights[child] + 1);
+            }
+            
+            elements[count] = element;
+            childOffsets[count + 1] = offset + childCount;
+            subtreeSizes[count] = subtreeSize;
+            heights[count] = height;
+            return count++;
+        }
+        
+        private boolean hasChildren(int subtree,
+                                    int[] source,
+                                    int from,
+                                    int childCount) {
+            int offset = childOffsets[subtree];
+            
+            if (childOffsets[subtree + 1] - offset != childCount) {
+                return false;
+            }
+            
+            for (int i = 0; i < childCount; i++) {
+                if (children[offset + i] != source[from + i]) {
+                    return false;
+                }
+            }
+            
+            return true;
+        }
+        
+        /**
+         * The finalizer of the SplitMix64 generator, as in
+         * {@link TreeHashCache}, which makes the low bits usable as a slot.
+         */
+        private static long mix(long hash) {
+            hash = (hash ^ (hash >>> 30)) * 0xBF58476D1CE4E5B9L;
+            hash = (hash ^ (hash >>> 27)) * 0x94D049BB133111EBL;
+            return hash ^ (hash >>> 31);
+        }
+    }
+}
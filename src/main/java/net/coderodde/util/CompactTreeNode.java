@@ -0,0 +1,461 @@
+package net.coderodde.util;
+
+import java.util.AbstractList;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * This class implements a node handle of a {@link CompactTree}. Since a
+ * subtree of a compacted tree may occur at many positions, a handle stands
+ * for a single occurrence: it refers to the shared subtree together with the
+ * handle of the parent, the position among its siblings and the depth. The
+ * handles are created on demand and are not cached, so two handles of the
+ * same position are equal but not necessarily identical.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ * @param <E> the tree node element type.
+ */
+public final class CompactTreeNode<E> {
+    
+    private final CompactTree<E> tree;
+    
+    /**
+     * The index of the distinct subtree this handle refers to.
+     */
+    final int id;
+    
+    /**
+     * The handle of the parent, or {@code null} for the pseudoroot.
+     */
+    private final CompactTreeNode<E> parent;
+    private final int index;
+    private final int depth;
+    
+    CompactTreeNode(CompactTree<E> tree,
+                    int id,
+                    CompactTreeNode<E> parent,
+                    int index,
+                    int depth) {
+        this.tree = tree;
+        this.id = id;
+        this.parent = parent;
+        this.index = index;
+        this.depth = depth;
+    }
+    
+    /**
+     * Returns the element of this node.
+     * 
+     * @return the element.
+     */
+    public E getElement() {
+        return tree.getElement(id);
+    }
+    
+    /**
+     * Returns the parent of this node, or {@code null} if this node is a
+     * root.
+     * 
+     * @return the parent of this node.
+     */
+    public CompactTreeNode<E> getParent() {
+        return parent == null || parent.parent == null ? null : parent;
+    }
+    
+    /**
+     * Returns the position of this node among its siblings.
+     * 
+     * @return the child index of this node.
+     */
+    public int getIndex() {
+        return index;
+    }
+    
+    /**
+     * Returns the number of children of this node.
+     * 
+     * @return the number of children.
+     */
+    public int getChildCount() {
+        return tree.getChildCount(id);
+    }
+    
+    /**
+     * Returns the child at the input index.
+     * 
+     * @param index the index of the child.
+     * @return the child at {@code index}.
+     * @throws IndexOutOfBoundsException if there is no child at the index.
+     */
+    public CompactTreeNode<E> getChild(int index) {
+        if (index < 0 || index >= getChildCount()) {
+            throw new IndexOutOfBoundsException(
+                    "Child index " + index + " out of bounds for " +
+                    getChildCount() + " children.");
+        }
+        
+        return new CompactTreeNode<>(tree,
+                                     tree.getChild(id, index),
+                                     this,
+                                     index,
+                                     depth + 1);
+    }
+    
+    /**
+     * Returns an unmodifiable list of the children of this node. The list
+     * creates the child handles on access.
+     * 
+     * @return the children.
+     */
+    public List<CompactTreeNode<E>> getChildren() {
+        return new AbstractList<CompactTreeNode<E>>() {
+            
+            @Override
+            public CompactTreeNode<E> get(int index) {
+                return getChild(index);
+            }
+            
+            @Override
+            public int size() {
+                return getChildCount();
+            }
+        };
+    }
+    
+    /**
+     * Returns the number of nodes in the subtree rooted at this node,
+     * including this node. This runs in constant time.
+     * 
+     * @return the size of the subtree rooted at this node.
+     */
+    public int getSubtreeSize() {
+        return tree.getSubtreeSize(id);
+    }
+    
+    /**
+     * Returns the height of this node, i.e., the number of edges on the
+     * longest downward path to a leaf. The height of a leaf is zero. This
+     * runs in constant time.
+     * 
+     * @return the height of this node.
+     */
+    public int getHeight() {
+        return tree.getHeight(id);
+    }
+    
+    /**
+     * Returns the depth of this node, i.e., the number of its proper
+     * ancestors. The roots have depth zero. This runs in constant time.
+     * 
+     * @return the depth of this node.
+     */
+    public int getDepth() {
+        return depth;
+    }
+    
+    /**
+     * Returns {@code true} only if this node is a proper ancestor of the input
+     * node. This walks up from the input node to the depth of this node.
+     * 
+     * @param node the query node.
+     * @return {@code true} if this node is an ancestor of {@code node}.
+     */
+    public boolean isAncestorOf(CompactTreeNode<E> node) {
+        Objects.requireNonNull(node, "The input node is null.");
+        
+        if (node.tree != tree || node.depth <= depth) {
+            return false;
+        }
+        
+        while (node.depth > depth) {
+            node = node.parent;
+        }
+        
+        return equals(node);
+    }
+    
+    /**
+     * Returns {@code true} only if the subtrees rooted at this node and the
+     * input node of the same compacted tree are structurally identical, and
+     * thus stored once. This runs in constant time.
+     * 
+     * @param node the query node.
+     * @return {@code true} if the two subtrees are shared.
+     */
+    public boolean sharesSubtreeWith(CompactTreeNode<E> node) {
+        Objects.requireNonNull(node, "The input node is null.");
+        return node.tree == tree && node.id == id;
+    }
+    
+    /**
+     * Returns a lazy iterator over the subtree rooted at this node in
+     * pre-order. This node is returned first.
+     * 
+     * @return a pre-order iterator.
+     */
+    public Iterator<CompactTreeNode<E>> preorderIterator() {
+        return new PreorderIterator<>(this, true);
+    }
+    
+    /**
+     * Returns a lazy iterator over the subtree rooted at this node in
+     * post-order. This node is returned last.
+     * 
+     * @return a post-order iterator.
+     */
+    public Iterator<CompactTreeNode<E>> postorderIterator() {
+        return new PostorderIterator<>(this, true);
+    }
+    
+    /**
+     * Returns a lazy iterator over the subtree rooted at this node in
+     * breadth-first order.
+     * 
+     * @return a level-order iterator.
+     */
+    public Iterator<CompactTreeNode<E>> levelOrderIterator() {
+        return new LevelOrderIterator<>(this, true);
+    }
+    
+    /**
+     * Returns a sequential stream over the subtree rooted at this node in
+     * pre-order.
+     * 
+     * @return a pre-order stream.
+     */
+    public Stream<CompactTreeNode<E>> preorderStream() {
+        return stream(preorderIterator(), getSubtreeSize());
+    }
+    
+    /**
+     * Returns a sequential stream over the subtree rooted at this node in
+     * post-order.
+     * 
+     * @return a post-order stream.
+     */
+    public Stream<CompactTreeNode<E>> postorderStream() {
+        return stream(postorderIterator(), getSubtreeSize());
+    }
+    
+    /**
+     * Returns a sequential stream over the subtree rooted at this node in
+     * breadth-first order.
+     * 
+     * @return a level-order stream.
+     */
+    public Stream<CompactTreeNode<E>> levelOrderStream() {
+        return stream(levelOrderIterator(), getSubtreeSize());
+    }
+    
+    /**
+     * Returns {@code true} only if the input object is a handle of the same
+     * position of the same compacted tree. This walks up the two parent
+     * chains.
+     * 
+     * @param o the object to compare to.
+     * @return {@code true} if both handles stand for the same node.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof CompactTreeNode)) {
+            return false;
+        }
+        
+        CompactTreeNode<?> node = this;
+        CompactTreeNode<?> other = (CompactTreeNode<?>) o;
+        
+        while (node != other) {
+            if (node == null || other == null ||
+                    node.tree != other.tree ||
+                    node.id != other.id ||
+                    node.index != other.index ||
+                    node.depth != other.depth) {
+                return false;
+            }
+            
+            node = node.parent;
+            other = other.parent;
+        }
+        
+        return true;
+    }
+    
+    @Override
+    public int hashCode() {
+        return 31 * (31 * id + index) + depth;
+    }
+    
+    @Override
+    public String toString() {
+        return Objects.toString(getElement());
+    }
+    
+    static <E> Stream<CompactTreeNode<E>> stream(
+            Iterator<CompactTreeNode<E>> iterator,
+            int size) {
+        return StreamSupport.stream(
+                Spliterators.spliterator(iterator,
+                                         size,
+                                         Spliterator.ORDERED |
+                                         Spliterator.DISTINCT |
+                                         Spliterator.NONNULL),
+                false);
+    }
+    
+    /**
+     * Pushes the children of the input node to the input stack in reverse
+     * order, so that the first child is on top.
+     */
+    private static <E> void pushChildren(ArrayDeque<CompactTreeNode<E>> stack,
+                                         CompactTreeNode<E> node) {
+        for (int i = node.getChildCount() - 1; i >= 0; i--) {
+            stack.push(node.getChild(i));
+        }
+    }
+    
+    static final class PreorderIterator<E>
+            implements Iterator<CompactTreeNode<E>> {
+        
+        private final ArrayDeque<CompactTreeNode<E>> stack =
+                new ArrayDeque<>();
+        
+        PreorderIterator(CompactTreeNode<E> root, boolean includeRoot) {
+            if (includeRoot) {
+                stack.push(root);
+            } else {
+                pushChildren(stack, root);
+            }
+        }
+        
+        @Override
+        public boolean hasNext() {
+            return !stack.isEmpty();
+        }
+        
+        @Override
+        public CompactTreeNode<E> next() {
+            if (stack.isEmpty()) {
+                throw new NoSuchElementException(
+                        "No nodes left in this iteration.");
+            }
+            
+            CompactTreeNode<E> node = stack.pop();
+            pushChildren(stack, node);
+            return node;
+        }
+    }
+    
+    /**
+     * This class iterates in post-order. The path holds the nodes from the
+     * traversal root to the current node, each with the index of its next
+     * child to descend into.
+     */
+    static final class PostorderIterator<E>
+            implements Iterator<CompactTreeNode<E>> {
+        
+        private final List<CompactTreeNode<E>> path = new ArrayList<>();
+        private int[] nextChildIndices = new int[16];
+        private final boolean includeRoot;
+        
+        PostorderIterator(CompactTreeNode<E> root, boolean includeRoot) {
+            this.includeRoot = includeRoot;
+            path.add(root);
+            descend();
+        }
+        
+        @Override
+        public boolean hasNext() {
+            return path.size() > (includeRoot ? 0 : 1);
+        }
+        
+        @Override
+        public CompactTreeNode<E> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException(
+                        "No nodes left in this iteration.");
+            }
+            
+            CompactTreeNode<E> node = path.remove(path.size() - 1);
+            
+            if (!path.isEmpty()) {
+                descend();
+            }
+            
+            return node;
+        }
+        
+        /**
+         * Descends from the last node of the path to the first leaf of its
+         * unvisited children.
+         */
+        private void descend() {
+            while (true) {
+                int top = path.size() - 1;
+                CompactTreeNode<E> node = path.get(top);
+                int childIndex = nextChildIndices[top];
+                
+                if (childIndex == node.getChildCount()) {
+                    return;
+                }
+                
+                nextChildIndices[top]++;
+                
+                if (top + 1 == nextChildIndices.length) {
+                    nextChildIndices = Arrays.copyOf(nextChildIndices,
+                                                     2 * (top + 1));
+                }
+                
+                nextChildIndices[top + 1] = 0;
+                path.add(node.getChild(childIndex));
+            }
+        }
+    }
+    
+    static final class LevelOrderIterator<E>
+            implements Iterator<CompactTreeNode<E>> {
+        
+        private final ArrayDeque<CompactTreeNode<E>> queue =
+                new ArrayDeque<>();
+        
+        LevelOrderIterator(CompactTreeNode<E> root, boolean includeRoot) {
+            if (includeRoot) {
+                queue.add(root);
+            } else {
+                enqueueChildren(root);
+            }
+        }
+        
+        @Override
+        public boolean hasNext() {
+            return !queue.isEmpty();
+        }
+        
+        @Override
+        public CompactTreeNode<E> next() {
+            if (queue.isEmpty()) {
+                throw new NoSuchElementException(
+                        "No nodes left in this iteration.");
+            }
+            
+            CompactTreeNode<E> node = queue.remove();
+            enqueueChildren(node);
+            return node;
+        }
+        
+        private void enqueueChildren(CompactTreeNode<E> node) {
+            for (int i = 0; i < node.getChildCount(); i++) {
+                queue.add(node.getChild(i));
+            }
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package net.coderodde.util;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * This class implements a thread-safe general tree. Reading an element, a 
+ * parent or a child list of a {@link ConcurrentTreeNode} is wait-free, and a
+ * pre-order snapshot of a subtree is taken optimistically without locking and
+ * is consistent: it is the subtree as it was at a single point in time.
+ * 
+ * <p>
+ * The child lists are copy-on-write arrays, so that a mutation of a child 
+ * list takes time linear in its length. Each node is assigned to one of 
+ * {@link #STRIPES} lock stripes; a mutation locks the stripes of the nodes 
+ * whose child lists it changes, so that mutations in disjoint subtrees 
+ * proceed in parallel. Each stripe also carries a sequence number bumped by 
+ * every mutation, against which the snapshots validate the child lists they
+ * have read; a snapshot that keeps failing validation locks all the stripes
+ * instead.
+ * </p>
+ * 
+ * <p>
+ * Moving a node that is already attached to a tree is atomic: no snapshot 
+ * sees it in both or in neither of its parents. Since two moves that are 
+ * acyclic on their own may create a cycle together, moves additionally hold a
+ * per-tree move lock across the cycle check and the relinking; adding new 
+ * nodes, removing nodes and setting elements do not take it.
+ * </p>
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ * @param <E> the tree node element type.
+ */
+public final class ConcurrentTree<E> {
+    
+    /**
+     * The number of lock stripes per tree. A power of two.
+     */
+    public static final int STRIPES = 64;
+    
+    /**
+     * The stripes of this tree.
+     */
+    private final Stripe[] stripes = new Stripe[STRIPES];
+    
+    /**
+     * The lock serializing the moves of attached nodes.
+     */
+    final ReentrantLock moveLock = new ReentrantLock();
+    
+    /**
+     * The root node. This node does not logically belong to this tree as it
+     * merely provides a way of having multiple "roots".
+     */
+    private final ConcurrentTreeNode<E> pseudoroot;
+    
+    /**
+     * Constructs an empty tree.
+     */
+    public ConcurrentTree() {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+        
+        this.pseudoroot = new ConcurrentTreeNode<>(this, null, true);
+    }
+    
+    /**
+     * Returns the root node. It is <b>not</b> considered to belong to the
+     * actual tree.
+     * 
+     * @return the pseudoroot of this tree.
+     */
+    public ConcurrentTreeNode<E> getPseudoRoot() {
+        return pseudoroot;
+    }
+    
+    /**
+     * Returns a consistent snapshot of all the nodes of this tree in 
+     * pre-order. See {@link ConcurrentTreeNode#preorderSnapshot()}.
+     * 
+     * @return the list of the nodes in pre-order.
+     */
+    public List<ConcurrentTreeNode<E>> preorderSnapshot() {
+        return pseudoroot.preorderSnapshot();
+    }
+    
+    /**
+     * Returns the current sequence number of the input stripe. An odd number
+     * means that a mutation is in progress.
+     */
+    long getStripeVersion(int stripe) {
+        return stripes[stripe].version;
+    }
+    
+    /**
+     * Locks the two input stripes in ascending order, and marks them as being
+     * mutated. Either stripe may be -1 for none, and they may be equal.
+     */
+    void lockStripes(int stripe1, int stripe2) {
+        int low = Math.min(stripe1, stripe2);
+        int high = Math.max(stripe1, stripe2);
+        
+        if (low >= 0 && low != high) {
+            stripes[low].lock();
+            stripes[low].version++;
+        }
+        
+        stripes[high].lock();
+        stripes[high].version++;
+    }
+    
+    /**
+     * Marks the two input stripes as no longer being mutated and unlocks 
+     * them.
+     */
+    void unlockStripes(int stripe1, int stripe2) {
+        int low = Math.min(stripe1, stripe2);
+        int high = Math.max(stripe1, stripe2);
+        
+        stripes[high].release();
+        
+        if (low >= 0 && low != high) {
+            stripes[low].release();
+        }
+    }
+    
+    void lockAllStripes() {
+        for (Stripe stripe : stripes) {
+            stripe.lock();
+        }
+    }
+    
+    void unlockAllStripes() {
+        for (int i = STRIPES - 1; i >= 0; i--) {
+            stripes[i].unlock();
+        }
+    }
+    
+    /**
+     * This static inner class implements a lock stripe with a sequence number
+     * that is odd while a mutation holding the lock is in progress.
+     */
+    private static final class Stripe extends ReentrantLock {
+        
+        private static final long serialVersionUID = 1L;
+        
+        private static final AtomicLongFieldUpdater<Stripe> VERSION = 
+                AtomicLongFieldUpdater.newUpdater(Stripe.class, "version");
+        
+        // Only written by the holder of the lock.
+        volatile long version;
+        
+        /**
+         * Ends the mutation and unlocks this stripe. The closing sequence 
+         * number only needs to be ordered after the mutation, so it is 
+         * published without a full fence.
+         */
+        void release() {
+            VERSION.lazySet(this, version + 1);
+            unlock();
+        }
+    }
+}
@@ -0,0 +1,392 @@
+package net.coderodde.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+/**
+ * This class implements a tree node of a {@link ConcurrentTree}. All the 
+ * methods are thread-safe; see {@link ConcurrentTree} for the locking scheme.
+ * The nodes are bound to the tree they were created in.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ * @param <E> the tree node element type.
+ */
+public final class ConcurrentTreeNode<E> {
+    
+    /**
+     * The number of optimistic attempts of a snapshot before it locks all the
+     * stripes.
+     */
+    static final int MAXIMUM_OPTIMISTIC_ATTEMPTS = 8;
+    
+    @SuppressWarnings("rawtypes")
+    private static final ConcurrentTreeNode[] NO_CHILDREN = 
+            new ConcurrentTreeNode[0];
+    
+    // The child lists and parents are written under the stripe locks, which
+    // order the writes, so they are published without a full fence.
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<ConcurrentTreeNode, 
+                                                     ConcurrentTreeNode[]> 
+            CHILDREN = AtomicReferenceFieldUpdater.newUpdater(
+                    ConcurrentTreeNode.class, 
+                    ConcurrentTreeNode[].class, 
+                    "children");
+    
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<ConcurrentTreeNode, 
+                                                     ConcurrentTreeNode> 
+            PARENT = AtomicReferenceFieldUpdater.newUpdater(
+                    ConcurrentTreeNode.class, 
+                    ConcurrentTreeNode.class, 
+                    "parent");
+    
+    private final ConcurrentTree<E> tree;
+    
+    /**
+     * The lock stripe of this node, guarding its child list.
+     */
+    private final int stripe;
+    
+    /**
+     * Indicates whether this node is the pseudoroot of a tree.
+     */
+    private final boolean pseudoroot;
+    
+    private volatile E element;
+    private volatile ConcurrentTreeNode<E> parent;
+    
+    /**
+     * The children of this node. The array is never modified after it is 
+     * published; a mutation publishes a new one.
+     */
+    @SuppressWarnings("unchecked")
+    private volatile ConcurrentTreeNode<E>[] children = NO_CHILDREN;
+    
+    ConcurrentTreeNode(ConcurrentTree<E> tree, E element, boolean pseudoroot) {
+        this.tree = tree;
+        this.element = element;
+        this.pseudoroot = pseudoroot;
+        
+        this.stripe = 
+                ThreadLocalRandom.current().nextInt(ConcurrentTree.STRIPES);
+    }
+    
+    /**
+     * Returns the element of this tree node.
+     * 
+     * @return the element.
+     */
+    public E getElement() {
+        return element;
+    }
+    
+    /**
+     * Sets the element of this tree node.
+     * 
+     * @param element the new element.
+     */
+    public void setElement(E element) {
+        this.element = element;
+    }
+    
+    /**
+     * Returns the parent of this tree node, or {@code null} if this tree node
+     * is a root or is not attached. The pseudoroot is never returned.
+     * 
+     * @return the parent of this tree node.
+     */
+    public ConcurrentTreeNode<E> getParent() {
+        ConcurrentTreeNode<E> currentParent = parent;
+        return currentParent == null || currentParent.pseudoroot ? 
+               null : 
+               currentParent;
+    }
+    
+    /**
+     * Returns an unmodifiable snapshot of the children of this tree node. 
+     * This is wait-free.
+     * 
+     * @return the list of the children.
+     */
+    public List<ConcurrentTreeNode<E>> getChildren() {
+        return Collections.unmodifiableList(Arrays.asList(children));
+    }
+    
+    /**
+     * Returns the number of children of this tree node.
+     * 
+     * @return the number of children.
+     */
+    public int getChildCount() {
+        return children.length;
+    }
+    
+    /**
+     * Creates a new tree node holding the input element and appends it to the
+     * children of this tree node.
+     * 
+     * @param element the element of the new child.
+     * @return the new child tree node.
+     */
+    public ConcurrentTreeNode<E> addChild(E element) {
+        ConcurrentTreeNode<E> child = 
+                new ConcurrentTreeNode<>(tree, element, false);
+        tree.lockStripes(stripe, stripe);
+        
+        try {
+            PARENT.lazySet(child, this);
+            CHILDREN.lazySet(this, append(children, child));
+        } finally {
+            tree.unlockStripes(stripe, stripe);
+        }
+        
+        return child;
+    }
+    
+    /**
+     * Appends the input tree node to the children of this tree node, 
+     * atomically detaching it from its current parent, if any.
+     * 
+     * @param child the tree node to adopt.
+     * @return {@code false} if the input tree node is already a child of this
+     *         tree node, {@code true} otherwise.
+     * @throws IllegalArgumentException if the input tree node is a pseudoroot
+     *                                  or belongs to another tree.
+     * @throws IllegalStateException    if the input tree node is this tree 
+     *                                  node or one of its ancestors.
+     */
+    public boolean adoptChild(ConcurrentTreeNode<E> child) {
+        Objects.requireNonNull(child, "The input tree node is null.");
+        
+        if (child.pseudoroot) {
+            throw new IllegalArgumentException(
+                    "The pseudoroot of a tree cannot be a child.");
+        }
+        
+        if (child.tree != tree) {
+            throw new IllegalArgumentException(
+                    "The input tree node belongs to another tree.");
+        }
+        
+        tree.moveLock.lock();
+        
+        try {
+            // No other move may run, so the ancestors of this node cannot 
+            // change, save for being detached.
+            if (child.isAncestorOrSelfOf(this)) {
+                throw new IllegalStateException(
+                        "Trying to create a cycle in this tree.");
+            }
+            
+            while (true) {
+                ConcurrentTreeNode<E> oldParent = child.parent;
+                
+                if (oldParent == this) {
+                    return false;
+                }
+                
+                int oldStripe = oldParent == null ? -1 : oldParent.stripe;
+                tree.lockStripes(oldStripe, stripe);
+                
+                try {
+                    // The child may have been removed in the meantime:
+                    if (child.parent != oldParent) {
+                        continue;
+                    }
+                    
+                    if (oldParent != null) {
+                        CHILDREN.lazySet(oldParent, 
+                                         remove(oldParent.children, child));
+                    }
+                    
+                    PARENT.lazySet(child, this);
+                    CHILDREN.lazySet(this, append(children, child));
+                    return true;
+                } finally {
+                    tree.unlockStripes(oldStripe, stripe);
+                }
+            }
+        } finally {
+            tree.moveLock.unlock();
+        }
+    }
+    
+    /**
+     * Detaches the input tree node from this tree node, if it is a child of 
+     * it. The detached node and its subtree may be adopted later.
+     * 
+     * @param child the child to remove.
+     * @return {@code true} if the input tree node was a child of this tree 
+     *         node.
+     */
+    public boolean removeChild(ConcurrentTreeNode<E> child) {
+        Objects.requireNonNull(child, "The input tree node is null.");
+        tree.lockStripes(stripe, stripe);
+        
+        try {
+            if (child.parent != this) {
+                return false;
+            }
+            
+            CHILDREN.lazySet(this, remove(children, child));
+            PARENT.lazySet(child, null);
+            return true;
+        } finally {
+            tree.unlockStripes(stripe, stripe);
+        }
+    }
+    
+    /**
+     * Returns {@code true} only if this tree node is a proper ancestor of the
+     * input tree node. This walks the parent chain of the input tree node 
+     * without locking.
+     * 
+     * @param node the query tree node.
+     * @return {@code true} if this tree node is an ancestor of {@code node}.
+     */
+    public boolean isAncestorOf(ConcurrentTreeNode<E> node) {
+        return node != this && isAncestorOrSelfOf(node);
+    }
+    
+    /**
+     * Returns a consistent snapshot of the subtree rooted at this tree node in
+     * pre-order, excluding a pseudoroot. The structure of the snapshot is the
+     * structure of the subtree at a single point in time; the elements are 
+     * read when the snapshot is inspected. The snapshot is taken without 
+     * locking unless the subtree keeps being modified while it is taken.
+     * 
+     * @return the list of the nodes in pre-order.
+     */
+    public List<ConcurrentTreeNode<E>> preorderSnapshot() {
+        long[] versions = new long[ConcurrentTree.STRIPES];
+        
+        for (int attempt = 0; 
+                attempt < MAXIMUM_OPTIMISTIC_ATTEMPTS; 
+                attempt++) {
+            List<ConcurrentTreeNode<E>> snapshot = collect(versions);
+            
+            if (snapshot != null) {
+                return snapshot;
+            }
+            
+            Thread.yield();
+        }
+        
+        tree.lockAllStripes();
+        
+        try {
+            return collect(null);
+        } finally {
+            tree.unlockAllStripes();
+        }
+    }
+    
+    @Override
+    public String toString() {
+        return "[ConcurrentTreeNode: " + element + "]";
+    }
+    
+    boolean isAncestorOrSelfOf(ConcurrentTreeNode<E> node) {
+        for (ConcurrentTreeNode<E> current = node; 
+                current != null; 
+                current = current.parent) {
+            if (current == this) {
+                return true;
+            }
+        }
+        
+        return false;
+    }
+    
+    /**
+     * Collects the subtree in pre-order. With {@code versions} given, the 
+     * child lists are read optimistically and validated against the stripe 
+     * versions, returning {@code null} on a conflict.
+     */
+    private List<ConcurrentTreeNode<E>> collect(long[] versions) {
+        if (versions != null) {
+            Arrays.fill(versions, -1L);
+        }
+        
+        List<ConcurrentTreeNode<E>> snapshot = new ArrayList<>();
+        ArrayDeque<ConcurrentTreeNode<E>> stack = new ArrayDeque<>();
+        stack.push(this);
+        
+        while (!stack.isEmpty()) {
+            ConcurrentTreeNode<E> node = stack.pop();
+            
+            if (!node.pseudoroot) {
+                snapshot.add(node);
+            }
+            
+            if (versions != null) {
+                long version = tree.getStripeVersion(node.stripe);
+                long recordedVersion = versions[node.stripe];
+                
+                if ((version & 1) != 0 || 
+                        (recordedVersion != -1L && 
+                         recordedVersion != version)) {
+                    return null;
+                }
+                
+                versions[node.stripe] = version;
+            }
+            
+            ConcurrentTreeNode<E>[] nodeChildren = node.children;
+            
+            for (int i = nodeChildren.length - 1; i >= 0; i--) {
+                stack.push(nodeChildren[i]);
+            }
+        }
+        
+        if (versions != null) {
+            for (int i = 0; i < versions.length; i++) {
+                if (versions[i] != -1L && 
+                        versions[i] != tree.getStripeVersion(i)) {
+                    return null;
+                }
+            }
+        }
+        
+        return snapshot;
+    }
+    
+    private static <E> ConcurrentTreeNode<E>[] append(
+            ConcurrentTreeNode<E>[] array, 
+            ConcurrentTreeNode<E> node) {
+        ConcurrentTreeNode<E>[] result = 
+                Arrays.copyOf(array, array.length + 1);
+        result[array.length] = node;
+        return result;
+    }
+    
+    @SuppressWarnings("unchecked")
+    private static <E> ConcurrentTreeNode<E>[] remove(
+            ConcurrentTreeNode<E>[] array, 
+            ConcurrentTreeNode<E> node) {
+        int index = 0;
+        
+        while (array[index] != node) {
+            index++;
+        }
+        
+        if (array.length == 1) {
+            return NO_CHILDREN;
+        }
+        
+        ConcurrentTreeNode<E>[] result = Arrays.copyOf(array, 
+                                                       array.length - 1);
+        System.arraycopy(array, index + 1, 
+                         result, index, 
+                         array.length - index - 1);
+        return result;
+    }
+}
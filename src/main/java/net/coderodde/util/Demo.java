@@ -24,6 +24,7 @@ public final class Demo {
         
         // Print the entire tree in a simple format:
         System.out.println("(Indentation communicates node depth.)");
-        System.out.println(new SimpleTreeToStringConverter().toString(tree));
+        System.out.println(
+                new SimpleTreeToStringConverter<Integer>().toString(tree));
     }
 }
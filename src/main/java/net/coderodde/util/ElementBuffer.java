@@ -0,0 +1,24 @@
+package net.coderodde.util;
+
+import java.io.ByteArrayOutputStream;
+
+/**
+ * This class implements a reusable buffer for encoding tree node elements,
+ * exposing its content without copying. The binary tree formats encode each 
+ * element into it before writing the framed encoding to their output.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+final class ElementBuffer extends ByteArrayOutputStream {
+    
+    /**
+     * Returns the internal array of this buffer. Only the first 
+     * {@link #size()} bytes are valid.
+     * 
+     * @return the internal array.
+     */
+    byte[] getBuffer() {
+        return buf;
+    }
+}
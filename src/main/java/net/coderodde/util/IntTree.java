@@ -0,0 +1,55 @@
+package net.coderodde.util;
+
+import java.util.Iterator;
+import java.util.function.IntConsumer;
+
+/**
+ * This class implements a general tree storing primitive {@code int} 
+ * elements. It is the counterpart of {@code Tree<Integer>} without 
+ * boxing; see {@link IntTreeNode}.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+public final class IntTree {
+    
+    /**
+     * The root node. This node does not logically belong to this tree as it
+     * merely provides a way of having multiple "roots".
+     */
+    private final IntTreeNode pseudoroot = new IntTreeNode(0, true);
+    
+    /**
+     * Returns the root node. It is <b>not</b> considered to belong to the
+     * actual tree.
+     * 
+     * @return the pseudoroot of this tree.
+     */
+    public IntTreeNode getPseudoRoot() {
+        return pseudoroot;
+    }
+    
+    /**
+     * Passes the elements of all the nodes of this tree to the input action
+     * in pre-order.
+     * 
+     * @param action the action to perform.
+     */
+    public void forEachElement(IntConsumer action) {
+        pseudoroot.forEachElementInSubtree(action);
+    }
+    
+    /**
+     * Returns a lazy iterator over all the nodes of this tree in pre-order.
+     * 
+     * @return a pre-order iterator.
+     */
+    public Iterator<IntTreeNode> preorderIterator() {
+        return pseudoroot.preorderIterator();
+    }
+    
+    @Override
+    public String toString() {
+        return "";
+    }
+}
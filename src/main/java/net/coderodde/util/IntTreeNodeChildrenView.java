@@ -0,0 +1,17 @@
+package net.coderodde.util;
+
+/**
+ * This class provides a view over the children of an {@link IntTreeNode}. It
+ * behaves exactly like {@link TreeNodeChildrenView}: adding a node attached
+ * elsewhere moves it, and adding an ancestor of the owner node is rejected.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+public final class IntTreeNodeChildrenView 
+extends AbstractPrimitiveTreeNodeChildrenView<IntTreeNode> {
+    
+    IntTreeNodeChildrenView(IntTreeNode ownerTreeNode) {
+        super(ownerTreeNode, IntTreeNode.class);
+    }
+}
@@ -0,0 +1,158 @@
+package net.coderodde.util;
+
+/**
+ * This class implements a node of a link-cut tree (Sleator and Tarjan). A
+ * link-cut forest mirrors the parent relation of the indexed tree nodes and 
+ * answers "is X an ancestor of Y" in amortized logarithmic time, while 
+ * linking and cutting subtrees also take amortized logarithmic time.
+ * 
+ * <p>
+ * The represented forest is split into preferred paths, each stored in an 
+ * auxiliary splay tree ordered by depth. The {@link #parent} field of a node 
+ * points either to its parent in the splay tree, or, for the root of a splay 
+ * tree, to the parent of the topmost node of the path in the represented 
+ * forest (the <i>path-parent</i>).
+ * </p>
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+final class LinkCutNode {
+    
+    /**
+     * The left child in the splay tree. Holds shallower nodes of the path.
+     */
+    private LinkCutNode left;
+    
+    /**
+     * The right child in the splay tree. Holds deeper nodes of the path.
+     */
+    private LinkCutNode right;
+    
+    /**
+     * The splay tree parent or the path-parent of this node.
+     */
+    private LinkCutNode parent;
+    
+    /**
+     * Makes this node, which must be a root of the represented forest, a 
+     * child of the input node.
+     * 
+     * @param newParent the new parent of this node.
+     */
+    void link(LinkCutNode newParent) {
+        access();
+        // Being a root, this node has no shallower path nodes, and after the
+        // access it has no deeper ones either.
+        parent = newParent;
+    }
+    
+    /**
+     * Makes this node a root of the represented forest by cutting the edge to
+     * its parent.
+     */
+    void cut() {
+        access();
+        
+        if (left != null) {
+            left.parent = null;
+            left = null;
+        }
+    }
+    
+    /**
+     * Returns {@code true} only if this node is the input node or one of its
+     * ancestors in the represented forest.
+     * 
+     * @param node the query node.
+     * @return {@code true} if this node is an ancestor of {@code node} or is 
+     *         {@code node} itself.
+     */
+    boolean isAncestorOrSelfOf(LinkCutNode node) {
+        access();
+        // After accessing this node, the path from its root ends at this node.
+        // Accessing the query node returns the deepest node on that path that
+        // is also an ancestor of the query node.
+        return node.access() == this;
+    }
+    
+    /**
+     * Makes the path from the root of the represented tree to this node 
+     * preferred, and splays this node to the root of its splay tree.
+     * 
+     * @return the last path-parent jumped over, i.e., the node where the path
+     *         joined the previously preferred path.
+     */
+    private LinkCutNode access() {
+        LinkCutNode last = null;
+        
+        for (LinkCutNode node = this; node != null; node = node.parent) {
+            node.splay();
+            node.right = last;
+            last = node;
+        }
+        
+        splay();
+        return last;
+    }
+    
+    private boolean isSplayRoot() {
+        return parent == null || (parent.left != this && parent.right != this);
+    }
+    
+    private void splay() {
+        while (!isSplayRoot()) {
+            LinkCutNode p = parent;
+            
+            if (!p.isSplayRoot()) {
+                LinkCutNode g = p.parent;
+                
+                if ((g.left == p) == (p.left == this)) {
+                    p.rotate(); // zig-zig
+                } else {
+                    rotate();   // zig-zag
+                }
+            }
+            
+            rotate();
+        }
+    }
+    
+    /**
+     * Rotates this node above its splay tree parent.
+     */
+    private void rotate() {
+        LinkCutNode p = parent;
+        LinkCutNode g = p.parent;
+        boolean parentWasRoot = p.isSplayRoot();
+        
+        if (p.left == this) {
+            p.left = right;
+            
+            if (right != null) {
+                right.parent = p;
+            }
+            
+            right = p;
+        } else {
+            p.right = left;
+            
+            if (left != null) {
+                left.parent = p;
+            }
+            
+            left = p;
+        }
+        
+        p.parent = this;
+        parent = g;
+        
+        if (!parentWasRoot) {
+            if (g.left == p) {
+                g.left = this;
+            } else {
+                g.right = this;
+            }
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package net.coderodde.util;
+
+import java.util.Objects;
+import java.util.function.LongConsumer;
+
+/**
+ * This class implements a tree node storing a primitive {@code long} element.
+ * It is the counterpart of {@code TreeNode<Long>} without boxing: 
+ * the element is read and written without allocation, and a node costs a 
+ * single object.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+public final class LongTreeNode 
+extends AbstractPrimitiveTreeNode<LongTreeNode> {
+    
+    /**
+     * The element of this tree node.
+     */
+    private long element;
+    
+    /**
+     * The children view of this tree node. Created lazily.
+     */
+    private LongTreeNodeChildrenView childrenView;
+    
+    LongTreeNode(long element) {
+        this(element, false);
+    }
+    
+    LongTreeNode(long element, boolean pseudoroot) {
+        super(pseudoroot);
+        this.element = element;
+    }
+    
+    /**
+     * Returns the element of this tree node.
+     * 
+     * @return the element.
+     */
+    public long getElement() {
+        return element;
+    }
+    
+    /**
+     * Sets the element of this tree node.
+     * 
+     * @param element the new element.
+     */
+    public void setElement(long element) {
+        this.element = element;
+    }
+    
+    /**
+     * Creates a new tree node holding the input element and appends it to the
+     * children of this tree node.
+     * 
+     * @param element the element of the new child.
+     * @return the new child tree node.
+     */
+    public LongTreeNode addChild(long element) {
+        LongTreeNode child = new LongTreeNode(element);
+        linkLastChild(child);
+        return child;
+    }
+    
+    /**
+     * Returns the view over the children of this tree node.
+     * 
+     * @return the children view.
+     */
+    public LongTreeNodeChildrenView getChildren() {
+        if (childrenView == null) {
+            childrenView = new LongTreeNodeChildrenView(this);
+        }
+        
+        return childrenView;
+    }
+    
+    /**
+     * Passes the elements of the subtree rooted at this tree node to the input
+     * action in pre-order. The element of a pseudoroot is skipped. This 
+     * neither recurses nor allocates.
+     * 
+     * @param action the action to perform.
+     */
+    public void forEachElementInSubtree(LongConsumer action) {
+        Objects.requireNonNull(action, "The input action is null.");
+        LongTreeNode node = isPseudoRoot() ? firstChild : this;
+        
+        while (node != null) {
+            action.accept(node.element);
+            node = nextInSubtree(node);
+        }
+    }
+    
+    @Override
+    int formatElement(char[] buffer) {
+        return formatDecimal(element, buffer);
+    }
+    
+    @Override
+    public String toString() {
+        return Long.toString(element);
+    }
+}
@@ -0,0 +1,387 @@
+package net.coderodde.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * This class implements a static index over a {@link Tree} answering lowest
+ * common ancestor, ancestor and distance queries. Building the index takes
+ * linear time; an ancestor query runs in constant time, and a lowest common
+ * ancestor or distance query in constant time with a small constant factor.
+ * 
+ * <p>
+ * The nodes are numbered in pre-order. A node is an ancestor of another if the
+ * number of the other falls within the range of the subtree of the former.
+ * For two nodes numbered {@code i < j}, their lowest common ancestor is the
+ * parent with the smallest number among the parents of the nodes numbered
+ * {@code i + 1, ..., j}, which is found with a range minimum query over the
+ * parent numbers: a sparse table over blocks of {@link #BLOCK_SIZE} numbers,
+ * plus a scan of at most two partial blocks. The index takes 40 to 60 bytes
+ * per node.
+ * </p>
+ * 
+ * <p>
+ * The index describes the tree at the time it was built. Any structural
+ * modification of the tree made afterwards makes the index invalid, after 
+ * which all the queries throw a {@link ConcurrentModificationException}, and
+ * a new index must be built. The modifications are tracked in the hooks of 
+ * the tree, which building the index creates if needed, so modifying other 
+ * trees does not invalidate the index. Changing the elements does not 
+ * invalidate the index either.
+ * </p>
+ * 
+ * <p>
+ * The hooks stay with the tree after the index is discarded. Like the element
+ * index and the change listeners, they make attaching a subtree to or 
+ * detaching it from the tree take time linear in the size of the subtree,
+ * instead of constant time; moving a subtree within the tree is not 
+ * affected. An index built over a tree that has no hooks yet also takes time
+ * linear in the size of the tree for creating them.
+ * </p>
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ * @param <E> the tree node element type.
+ */
+public final class LowestCommonAncestorIndex<E> {
+    
+    /**
+     * The number of parent numbers per block of the range minimum structure.
+     */
+    static final int BLOCK_SIZE = 16;
+    
+    private static final int BLOCK_SHIFT = 4;
+    
+    /**
+     * The tree nodes in pre-order. The pseudoroot has number zero.
+     */
+    private final TreeNode<E>[] nodes;
+    
+    /**
+     * The numbers of the parents of the nodes. The entry of the pseudoroot is
+     * zero.
+     */
+    private final int[] parentNumbers;
+    
+    /**
+     * The number of the last node in the subtree of each node.
+     */
+    private final int[] subtreeEnds;
+    
+    /**
+     * The depths of the nodes. The roots have depth zero.
+     */
+    private final int[] depths;
+    
+    /**
+     * The map from the nodes to their numbers.
+     */
+    private final TreeNodeNumberMap numberMap;
+    
+    /**
+     * The range minima of the parent numbers over the blocks: row {@code k}
+     * holds the minima over {@code 2^k} consecutive blocks.
+     */
+    private final int[][] blockMinima;
+    
+    /**
+     * The structure version of the indexed tree.
+     */
+    private final StructureVersion structureVersion;
+    
+    /**
+     * The structure version the index was built in.
+     */
+    private final long version;
+    
+    /**
+     * Builds the index over the input tree, creating the hooks of the tree if
+     * it has none.
+     * 
+     * @param tree the tree to index.
+     */
+    @SuppressWarnings("unchecked")
+    public LowestCommonAncestorIndex(Tree<E> tree) {
+        Objects.requireNonNull(tree, "The input tree is null.");
+        this.structureVersion = tree.getHooks().indexVersion;
+        this.version = structureVersion.observe();
+        
+        TreeNode<E> pseudoroot = tree.getPseudoRoot();
+        int size = pseudoroot.getSubtreeSize();
+        
+        this.nodes = (TreeNode<E>[]) new TreeNode<?>[size];
+        this.parentNumbers = new int[size];
+        this.subtreeEnds = new int[size];
+        this.depths = new int[size];
+        this.numberMap = new TreeNodeNumberMap(size);
+        
+        // 'path[d + 1]' is the number of the node at depth 'd' on the path
+        // from the pseudoroot to the current node.
+        int[] path = new int[16];
+        TreeNode<E> node = pseudoroot;
+        int depth = -1;
+        
+        for (int number = 0; ; number++) {
+            nodes[number] = node;
+            parentNumbers[number] = path[depth + 1];
+            subtreeEnds[number] = number + node.getSubtreeSize() - 1;
+            depths[number] = depth;
+            numberMap.put(node, number);
+            
+            if (depth + 2 == path.length) {
+                path = Arrays.copyOf(path, 2 * path.length);
+            }
+            
+            path[depth + 2] = number;
+            
+            // Move to the next node in pre-order:
+            if (node.firstChild != null) {
+                node = node.firstChild;
+                depth++;
+                continue;
+            }
+            
+            while (node != pseudoroot && node.nextSibling == null) {
+                node = node.parent;
+                depth--;
+            }
+            
+            if (node == pseudoroot) {
+                break;
+            }
+            
+            node = node.nextSibling;
+        }
+        
+        this.blockMinima = buildBlockMinima(parentNumbers);
+    }
+    
+    /**
+     * Returns {@code true} only if the indexed tree was not structurally 
+     * modified after this index was built.
+     * 
+     * @return {@code true} if this index is valid.
+     */
+    public boolean isValid() {
+        return structureVersion.isCurrent(version);
+    }
+    
+    /**
+     * Returns the number of the nodes in the indexed tree.
+     * 
+     * @return the number of the indexed nodes.
+     */
+    public int size() {
+        return nodes.length - 1;
+    }
+    
+    /**
+     * Returns the lowest common ancestor of the two input nodes. A node is
+     * considered an ancestor of itself.
+     * 
+     * @param node1 the first node.
+     * @param node2 the second node.
+     * @return the lowest common ancestor, or {@code null} if the two nodes
+     *         are in subtrees of different roots.
+     */
+    public TreeNode<E> lowestCommonAncestor(TreeNode<E> node1,
+                                            TreeNode<E> node2) {
+        checkValid();
+        int number = lowestCommonAncestorNumber(getNumber(node1),
+                                                getNumber(node2));
+        return number == 0 ? null : nodes[number];
+    }
+    
+    /**
+     * Returns {@code true} only if the first input node is a proper ancestor
+     * of the second one.
+     * 
+     * @param ancestor the candidate ancestor.
+     * @param node     the candidate descendant.
+     * @return {@code true} if {@code ancestor} is an ancestor of
+     *         {@code node}.
+     */
+    public boolean isAncestor(TreeNode<E> ancestor, TreeNode<E> node) {
+        checkValid();
+        int ancestorNumber = getNumber(ancestor);
+        int number = getNumber(node);
+        return ancestorNumber < number && 
+               number <= subtreeEnds[ancestorNumber];
+    }
+    
+    /**
+     * Returns the number of edges on the path between the two input nodes.
+     * 
+     * @param node1 the first node.
+     * @param node2 the second node.
+     * @return the distance between the nodes, or -1 if the nodes are in
+     *         subtrees of different roots.
+     */
+    public int distance(TreeNode<E> node1, TreeNode<E> node2) {
+        checkValid();
+        return distanceByNumbers(getNumber(node1), getNumber(node2));
+    }
+    
+    /**
+     * Returns the lowest common ancestors of the pairs of nodes at the same
+     * positions of the two input lists. The validity of the index is checked
+     * only once for the entire batch.
+     * 
+     * @param nodes1 the first nodes of the pairs.
+     * @param nodes2 the second nodes of the pairs.
+     * @return the list of the lowest common ancestors, with {@code null} for
+     *         the pairs in subtrees of different roots.
+     */
+    public List<TreeNode<E>> lowestCommonAncestors(
+            List<? extends TreeNode<E>> nodes1,
+            List<? extends TreeNode<E>> nodes2) {
+        checkValid();
+        checkBatch(nodes1, nodes2);
+        List<TreeNode<E>> result = new ArrayList<>(nodes1.size());
+        
+        for (int i = 0; i < nodes1.size(); i++) {
+            int number = lowestCommonAncestorNumber(getNumber(nodes1.get(i)),
+                                                    getNumber(nodes2.get(i)));
+            result.add(number == 0 ? null : nodes[number]);
+        }
+        
+        return result;
+    }
+    
+    /**
+     * Returns the distances between the pairs of nodes at the same positions
+     * of the two input lists. The validity of the index is checked only once
+     * for the entire batch.
+     * 
+     * @param nodes1 the first nodes of the pairs.
+     * @param nodes2 the second nodes of the pairs.
+     * @return the array of the distances, with -1 for the pairs in subtrees of
+     *         different roots.
+     */
+    public int[] distances(List<? extends TreeNode<E>> nodes1,
+                           List<? extends TreeNode<E>> nodes2) {
+        checkValid();
+        checkBatch(nodes1, nodes2);
+        int[] result = new int[nodes1.size()];
+        
+        for (int i = 0; i < result.length; i++) {
+            result[i] = distanceByNumbers(getNumber(nodes1.get(i)),
+                                          getNumber(nodes2.get(i)));
+        }
+        
+        return result;
+    }
+    
+    private int distanceByNumbers(int number1, int number2) {
+        int ancestorNumber = lowestCommonAncestorNumber(number1, number2);
+        
+        if (ancestorNumber == 0) {
+            return -1;
+        }
+        
+        return depths[number1] + depths[number2] - 2 * depths[ancestorNumber];
+    }
+    
+    /**
+     * Returns the number of the lowest common ancestor of the two nodes with
+     * the input numbers.
+     */
+    private int lowestCommonAncestorNumber(int number1, int number2) {
+        if (number1 == number2) {
+            return number1;
+        }
+        
+        int from = Math.min(number1, number2) + 1;
+        int to = Math.max(number1, number2);
+        int fromBlock = from >>> BLOCK_SHIFT;
+        int toBlock = to >>> BLOCK_SHIFT;
+        
+        if (toBlock - fromBlock <= 1) {
+            return scanMinimum(from, to);
+        }
+        
+        int minimum = Math.min(scanMinimum(from,
+                                           (fromBlock + 1 << BLOCK_SHIFT) - 1),
+                               scanMinimum(toBlock << BLOCK_SHIFT, to));
+        
+        // The full blocks in between:
+        int firstBlock = fromBlock + 1;
+        int blocks = toBlock - firstBlock;
+        int level = 31 - Integer.numberOfLeadingZeros(blocks);
+        int[] row = blockMinima[level];
+        
+        return Math.min(minimum,
+                        Math.min(row[firstBlock],
+                                 row[toBlock - (1 << level)]));
+    }
+    
+    private int scanMinimum(int from, int to) {
+        int minimum = Integer.MAX_VALUE;
+        
+        for (int i = from; i <= to; i++) {
+            minimum = Math.min(minimum, parentNumbers[i]);
+        }
+        
+        return minimum;
+    }
+    
+    private static int[][] buildBlockMinima(int[] values) {
+        int blocks = (values.length + BLOCK_SIZE - 1) >>> BLOCK_SHIFT;
+        int levels = 32 - Integer.numberOfLeadingZeros(blocks);
+        int[][] minima = new int[levels][];
+        minima[0] = new int[blocks];
+        Arrays.fill(minima[0], Integer.MAX_VALUE);
+        
+        for (int i = 0; i < values.length; i++) {
+            int block = i >>> BLOCK_SHIFT;
+            minima[0][block] = Math.min(minima[0][block], values[i]);
+        }
+        
+        for (int level = 1; level < levels; level++) {
+            int span = 1 << (level - 1);
+            int[] previous = minima[level - 1];
+            int[] row = new int[blocks - 2 * span + 1];
+            
+            for (int i = 0; i < row.length; i++) {
+                row[i] = Math.min(previous[i], previous[i + span]);
+            }
+            
+            minima[level] = row;
+        }
+        
+        return minima;
+    }
+    
+    private int getNumber(TreeNode<E> node) {
+        Objects.requireNonNull(node, "The input tree node is null.");
+        int number = numberMap.get(node);
+        
+        if (number <= 0) {
+            throw new IllegalArgumentException(
+                    "The input tree node is not in the indexed tree.");
+        }
+        
+        return number;
+    }
+    
+    private void checkValid() {
+        if (!isValid()) {
+            throw new ConcurrentModificationException(
+                    "A tree was modified after the index was built.");
+        }
+    }
+    
+    private static void checkBatch(List<?> nodes1, List<?> nodes2) {
+        Objects.requireNonNull(nodes1, "The first node list is null.");
+        Objects.requireNonNull(nodes2, "The second node list is null.");
+        
+        if (nodes1.size() != nodes2.size()) {
+            throw new IllegalArgumentException(
+                    "The node lists have different sizes: " + nodes1.size() +
+                    " and " + nodes2.size() + ".");
+        }
+    }
+}
@@ -0,0 +1,508 @@
+package net.coderodde.util;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.IntConsumer;
+
+/**
+ * This class implements a read-only tree stored in a binary file and accessed
+ * through memory mapping. Opening a file reads only its header: the nodes are
+ * navigated directly in the mapped file, without creating any 
+ * {@link TreeNode}s, so that the tree resides off the heap and in the page
+ * cache, and only the elements that are asked for are decoded with a 
+ * {@link TreeElementCodec}.
+ * 
+ * <p>
+ * As in {@link FrozenTree}, the nodes are identified by their indices in the
+ * pre-order of the tree. A file consists of a header of 
+ * {@value #HEADER_SIZE} bytes, followed by the parent index and the subtree
+ * end index of each node, the offsets of the encoded elements, and the encoded
+ * elements themselves; the first child and the next sibling of a node are 
+ * derived from the subtree ends. The numbers are stored in little-endian byte
+ * order, and the structure takes 16 bytes per node. Files larger than 2 GB 
+ * are mapped in several chunks.
+ * </p>
+ * 
+ * <p>
+ * A mapping stays valid until this object is garbage collected, even after the
+ * file is deleted. The file must not be modified while it is mapped.
+ * </p>
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ * @param <E> the element type.
+ */
+public final class MappedTree<E> {
+    
+    /**
+     * The value denoting a missing node.
+     */
+    public static final int NONE = -1;
+    
+    /**
+     * The number of bytes in the file header.
+     */
+    public static final int HEADER_SIZE = 32;
+    
+    /**
+     * The first four bytes of a mapped tree file, {@code "TREE"} in ASCII.
+     */
+    static final int MAGIC = 0x45455254;
+    
+    /**
+     * The version of the file format.
+     */
+    static final int FORMAT_VERSION = 1;
+    
+    /**
+     * The binary logarithm of the default number of bytes per mapped chunk.
+     */
+    static final int DEFAULT_CHUNK_SHIFT = 30;
+    
+    /**
+     * The number of bytes buffered per file section while writing.
+     */
+    private static final int SECTION_BUFFER_SIZE = 1 << 16;
+    
+    private final MappedByteBuffer[] chunks;
+    private final int chunkShift;
+    private final long chunkMask;
+    private final TreeElementCodec<? extends E> codec;
+    private final int size;
+    private final long subtreeEndsStart;
+    private final long offsetsStart;
+    private final long dataStart;
+    
+    private MappedTree(MappedByteBuffer[] chunks,
+                       int chunkShift,
+                       long fileSize,
+                       TreeElementCodec<? extends E> codec) 
+            throws IOException {
+        this.chunks = chunks;
+        this.chunkShift = chunkShift;
+        this.chunkMask = (1L << chunkShift) - 1;
+        this.codec = codec;
+        
+        if (fileSize < HEADER_SIZE || getInt(0) != MAGIC) {
+            throw new IOException("Not a mapped tree file.");
+        }
+        
+        if (getInt(4) != FORMAT_VERSION) {
+            throw new IOException(
+                    "Unsupported mapped tree format version: " + getInt(4));
+        }
+        
+        this.size = getInt(8);
+        this.subtreeEndsStart = HEADER_SIZE + 4L * size;
+        this.offsetsStart = HEADER_SIZE + 8L * size;
+        this.dataStart = getLong(16);
+        
+        if (size < 0 || 
+                dataStart != offsetsStart + 8L * (size + 1) ||
+                dataStart + getLong(24) != fileSize) {
+            throw new IOException("The mapped tree file is corrupted.");
+        }
+    }
+    
+    /**
+     * Writes the input tree to the file at the input path, replacing its 
+     * content. The tree is traversed once, without recursion, and written 
+     * through buffers of constant size.
+     * 
+     * @param <E>   the element type.
+     * @param tree  the tree to write.
+     * @param path  the path of the target file.
+     * @param codec the codec for encoding the elements.
+     * @throws IOException if writing the file fails.
+     */
+    public static <E> void write(Tree<E> tree, 
+                                 Path path, 
+                                 TreeElementCodec<? super E> codec) 
+            throws IOException {
+        Objects.requireNonNull(tree, "The input tree is null.");
+        Objects.requireNonNull(path, "The input path is null.");
+        Objects.requireNonNull(codec, "The input codec is null.");
+        
+        TreeNode<E> pseudoroot = tree.getPseudoRoot();
+        int size = pseudoroot.getSubtreeSize() - 1;
+        long dataStart = HEADER_SIZE + 16L * size + 8L;
+        
+        try (FileChannel channel = 
+                FileChannel.open(path, 
+                                 StandardOpenOption.CREATE,
+                                 StandardOpenOption.WRITE,
+                                 StandardOpenOption.TRUNCATE_EXISTING)) {
+            SectionWriter parents = new SectionWriter(channel, HEADER_SIZE);
+            SectionWriter subtreeEnds = 
+                    new SectionWriter(channel, HEADER_SIZE + 4L * size);
+            SectionWriter offsets = 
+                    new SectionWriter(channel, HEADER_SIZE + 8L * size);
+            SectionWriter data = new SectionWriter(channel, dataStart);
+            ElementBuffer elementBuffer = new ElementBuffer();
+            DataOutputStream elementOutput = 
+                    new DataOutputStream(elementBuffer);
+            long dataLength = 0;
+            
+            // 'nodePath[d]' is the index of the last visited node at depth 'd'.
+            int[] nodePath = new int[16];
+            TreeNode<E> node = pseudoroot.firstChild;
+            int depth = 0;
+            
+            for (int index = 0; node != null; index++) {
+                parents.putInt(depth == 0 ? NONE : nodePath[depth - 1]);
+                subtreeEnds.putInt(index + node.getSubtreeSize());
+                offsets.putLong(dataLength);
+                
+                elementBuffer.reset();
+                codec.encode(node.getElement(), elementOutput);
+                data.put(elementBuffer.getBuffer(), elementBuffer.size());
+                dataLength += elementBuffer.size();
+                
+                if (depth + 1 == nodePath.length) {
+                    nodePath = Arrays.copyOf(nodePath, 2 * nodePath.length);
+                }
+                
+                nodePath[depth] = index;
+                
+                // Move to the next node in pre-order:
+                if (node.firstChild != null) {
+                    node = node.firstChild;
+                    depth++;
+                    continue;
+                }
+                
+                while (node.nextSibling == null && depth > 0) {
+                    node = node.parent;
+                    depth--;
+                }
+                
+                node = node.nextSibling;
+            }
+            
+            offsets.putLong(dataLength);
+            parents.flush();
+            subtreeEnds.flush();
+            offsets.flush();
+            data.flush();
+            
+            SectionWriter header = new SectionWriter(channel, 0L);
+            header.putInt(MAGIC);
+            header.putInt(FORMAT_VERSION);
+            header.putInt(size);
+            header.putInt(0);
+            header.putLong(dataStart);
+            header.putLong(dataLength);
+            header.flush();
+        }
+    }
+    
+    /**
+     * Maps the tree file at the input path. This runs in constant time 
+     * regardless of the size of the tree.
+     * 
+     * @param <E>   the element type.
+     * @param path  the path of the tree file.
+     * @param codec the codec for decoding the elements.
+     * @return the mapped tree.
+     * @throws IOException if the file cannot be mapped or is not a valid tree
+     *                     file.
+     */
+    public static <E> MappedTree<E> open(Path path, 
+                                         TreeElementCodec<? extends E> codec)
+            throws IOException {
+        return open(path, codec, DEFAULT_CHUNK_SHIFT);
+    }
+    
+    static <E> MappedTree<E> open(Path path, 
+                                  TreeElementCodec<? extends E> codec,
+                                  int chunkShift) throws IOException {
+        Objects.requireNonNull(path, "The input path is null.");
+        Objects.requireNonNull(codec, "The input codec is null.");
+        
+        try (FileChannel channel = 
+                FileChannel.open(path, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            long chunkSize = 1L << chunkShift;
+            int chunkCount = (int) ((fileSize + chunkSize - 1) >>> chunkShift);
+            MappedByteBuffer[] chunks = new MappedByteBuffer[chunkCount];
+            
+            for (int i = 0; i < chunkCount; i++) {
+                long start = (long) i << chunkShift;
+                chunks[i] = channel.map(FileChannel.MapMode.READ_ONLY,
+                                        start,
+                                        Math.min(chunkSize, fileSize - start));
+                chunks[i].order(ByteOrder.LITTLE_ENDIAN);
+            }
+            
+            // The mapping stays valid after the channel is closed.
+            return new MappedTree<>(chunks, chunkShift, fileSize, codec);
+        }
+    }
+    
+    /**
+     * Returns the number of nodes in this tree.
+     * 
+     * @return the number of nodes.
+     */
+    public int size() {
+        return size;
+    }
+    
+    /**
+     * Decodes and returns the element of the node with the input index.
+     * 
+     * @param node the index of the node.
+     * @return the element of the node.
+     */
+    public E getElement(int node) {
+        checkNode(node);
+        long begin = getLong(offsetsStart + 8L * node);
+        int length = (int) (getLong(offsetsStart + 8L * node + 8) - begin);
+        long position = dataStart + begin;
+        int chunk = (int) (position >>> chunkShift);
+        int chunkPosition = (int) (position & chunkMask);
+        ByteBuffer buffer;
+        
+        if (chunkPosition + length <= chunks[chunk].limit()) {
+            buffer = chunks[chunk].duplicate();
+            buffer.limit(chunkPosition + length).position(chunkPosition);
+        } else {
+            // The encoding spans a chunk boundary:
+            byte[] bytes = new byte[length];
+            
+            for (int copied = 0; copied < length; ) {
+                ByteBuffer source = chunks[chunk++].duplicate();
+                source.position(chunkPosition);
+                int chunkLength = Math.min(length - copied, 
+                                           source.remaining());
+                source.get(bytes, copied, chunkLength);
+                copied += chunkLength;
+                chunkPosition = 0;
+            }
+            
+            buffer = ByteBuffer.wrap(bytes);
+        }
+        
+        return codec.decode(buffer.order(ByteOrder.BIG_ENDIAN));
+    }
+    
+    /**
+     * Returns the index of the parent of the input node, or {@link #NONE} if
+     * the node is a root.
+     * 
+     * @param node the index of the node.
+     * @return the index of the parent.
+     */
+    public int getParent(int node) {
+        checkNode(node);
+        return getInt(HEADER_SIZE + 4L * node);
+    }
+    
+    /**
+     * Returns the index of the first child of the input node, or 
+     * {@link #NONE} if the node is a leaf.
+     * 
+     * @param node the index of the node.
+     * @return the index of the first child.
+     */
+    public int getFirstChild(int node) {
+        return getSubtreeEnd(node) > node + 1 ? node + 1 : NONE;
+    }
+    
+    /**
+     * Returns the index of the next sibling of the input node, or 
+     * {@link #NONE} if the node is the last child of its parent or the last
+     * root.
+     * 
+     * @param node the index of the node.
+     * @return the index of the next sibling.
+     */
+    public int getNextSibling(int node) {
+        int subtreeEnd = getSubtreeEnd(node);
+        int parent = getParent(node);
+        int parentSubtreeEnd = parent == NONE ? size : getSubtreeEnd(parent);
+        return subtreeEnd < parentSubtreeEnd ? subtreeEnd : NONE;
+    }
+    
+    /**
+     * Returns the exclusive end index of the subtree of the input node.
+     * 
+     * @param node the index of the node.
+     * @return the end index of the subtree.
+     */
+    public int getSubtreeEnd(int node) {
+        checkNode(node);
+        return getInt(subtreeEndsStart + 4L * node);
+    }
+    
+    /**
+     * Returns the number of nodes in the subtree of the input node, including
+     * the node itself.
+     * 
+     * @param node the index of the node.
+     * @return the size of the subtree.
+     */
+    public int getSubtreeSize(int node) {
+        return getSubtreeEnd(node) - node;
+    }
+    
+    /**
+     * Returns the depth of the input node. The roots have depth zero. This
+     * walks the parent indices.
+     * 
+     * @param node the index of the node.
+     * @return the depth of the node.
+     */
+    public int getDepth(int node) {
+        int depth = 0;
+        
+        for (int parent = getParent(node); 
+                parent != NONE; 
+                parent = getParent(parent)) {
+            depth++;
+        }
+        
+        return depth;
+    }
+    
+    /**
+     * Returns {@code true} only if the first input node is a proper ancestor
+     * of the second one. This runs in constant time.
+     * 
+     * @param ancestor the index of the candidate ancestor.
+     * @param node     the index of the candidate descendant.
+     * @return {@code true} if {@code ancestor} is an ancestor of {@code node}.
+     */
+    public boolean isAncestor(int ancestor, int node) {
+        checkNode(node);
+        return ancestor < node && node < getSubtreeEnd(ancestor);
+    }
+    
+    /**
+     * Passes the indices of the nodes in the subtree of the input node to the
+     * input action in pre-order.
+     * 
+     * @param node   the index of the subtree root.
+     * @param action the action to perform.
+     */
+    public void forEachInSubtree(int node, IntConsumer action) {
+        for (int i = node, end = getSubtreeEnd(node); i < end; i++) {
+            action.accept(i);
+        }
+    }
+    
+    /**
+     * Passes the indices of the children of the input node to the input 
+     * action in order. The children are found by skipping over the subtrees,
+     * so only the subtree ends of the children are read.
+     * 
+     * @param node   the index of the parent node.
+     * @param action the action to perform.
+     */
+    public void forEachChild(int node, IntConsumer action) {
+        int end = getSubtreeEnd(node);
+        
+        for (int child = node + 1; child < end; child = getSubtreeEnd(child)) {
+            action.accept(child);
+        }
+    }
+    
+    /**
+     * Passes the indices of the proper ancestors of the input node to the 
+     * input action, starting from the parent.
+     * 
+     * @param node   the index of the node.
+     * @param action the action to perform.
+     */
+    public void forEachAncestor(int node, IntConsumer action) {
+        for (int parent = getParent(node);
+                parent != NONE;
+                parent = getParent(parent)) {
+            action.accept(parent);
+        }
+    }
+    
+    private void checkNode(int node) {
+        if (node < 0 || node >= size) {
+            throw new IndexOutOfBoundsException(
+                    "Node index " + node + " is out of range [0, " + size + 
+                    ").");
+        }
+    }
+    
+    // The sections are aligned so that no number spans a chunk boundary.
+    private int getInt(long position) {
+        return chunks[(int) (position >>> chunkShift)]
+                .getInt((int) (position & chunkMask));
+    }
+    
+    private long getLong(long position) {
+        return chunks[(int) (position >>> chunkShift)]
+                .getLong((int) (position & chunkMask));
+    }
+    
+    /**
+     * This static inner class implements a buffered sequential writer of a
+     * single section of a file.
+     */
+    private static final class SectionWriter {
+        
+        private final FileChannel channel;
+        private final ByteBuffer buffer = 
+                ByteBuffer.allocateDirect(SECTION_BUFFER_SIZE)
+                          .order(ByteOrder.LITTLE_ENDIAN);
+        private long position;
+        
+        SectionWriter(FileChannel channel, long position) {
+            this.channel = channel;
+            this.position = position;
+        }
+        
+        void putInt(int value) throws IOException {
+            if (buffer.remaining() < 4) {
+                flush();
+            }
+            
+            buffer.putInt(value);
+        }
+        
+        void putLong(long value) throws IOException {
+            if (buffer.remaining() < 8) {
+                flush();
+            }
+            
+            buffer.putLong(value);
+        }
+        
+        void put(byte[] bytes, int length) throws IOException {
+            for (int offset = 0; offset < length; ) {
+                if (!buffer.hasRemaining()) {
+                    flush();
+                }
+                
+                int chunkLength = Math.min(length - offset, 
+                                           buffer.remaining());
+                buffer.put(bytes, offset, chunkLength);
+                offset += chunkLength;
+            }
+        }
+        
+        void flush() throws IOException {
+            buffer.flip();
+            
+            while (buffer.hasRemaining()) {
+                position += channel.write(buffer, position);
+            }
+            
+            buffer.clear();
+        }
+    }
+}
@@ -0,0 +1,301 @@
+package net.coderodde.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.UnaryOperator;
+
+/**
+ * This class implements a persistent general tree. A tree is immutable: each
+ * mutation returns a new version of the tree and leaves the original intact.
+ * A new version copies only the nodes on the path from the pseudoroot to the
+ * mutated node and shares all the other subtrees with the original, so that a
+ * mutation takes time proportional to the depth of the node times the number
+ * of children of the nodes on its path, instead of the size of the tree. 
+ * Since the versions never change, they may be read by any number of threads
+ * while new versions are being made.
+ * 
+ * <p>
+ * A node is addressed by its path: the indices of the children to descend 
+ * into, starting from the pseudoroot. For example, {@code {1, 0}} denotes the
+ * first child of the second root, and the empty path denotes the pseudoroot.
+ * </p>
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ * @param <E> the tree node element type.
+ */
+public final class PersistentTree<E> {
+    
+    private static final PersistentTree<?> EMPTY = 
+            new PersistentTree<>(new PersistentTreeNode<>(null));
+    
+    /**
+     * The root node. Its children are the roots of this tree.
+     */
+    private final PersistentTreeNode<E> pseudoroot;
+    
+    private PersistentTree(PersistentTreeNode<E> pseudoroot) {
+        this.pseudoroot = pseudoroot;
+    }
+    
+    /**
+     * Returns the empty persistent tree.
+     * 
+     * @param <E> the tree node element type.
+     * @return the empty tree.
+     */
+    @SuppressWarnings("unchecked")
+    public static <E> PersistentTree<E> empty() {
+        return (PersistentTree<E>) EMPTY;
+    }
+    
+    /**
+     * Returns a persistent tree with the structure and the elements of the 
+     * input tree. This runs in time linear in the size of the tree, without
+     * recursion.
+     * 
+     * @param <E>  the tree node element type.
+     * @param tree the tree to convert.
+     * @return the persistent tree.
+     */
+    @SuppressWarnings("unchecked")
+    public static <E> PersistentTree<E> of(Tree<E> tree) {
+        Objects.requireNonNull(tree, "The input tree is null.");
+        
+        // In post-order, the children of a node are the topmost entries of
+        // the stack when the node is visited.
+        List<PersistentTreeNode<E>> stack = new ArrayList<>();
+        Iterator<TreeNode<E>> iterator = tree.postorderIterator();
+        
+        while (iterator.hasNext()) {
+            TreeNode<E> node = iterator.next();
+            stack.add(build(node.getElement(), stack, node.childCount));
+        }
+        
+        return new PersistentTree<>(
+                build(null, stack, tree.getPseudoRoot().childCount));
+    }
+    
+    /**
+     * Converts this persistent tree to a new mutable tree. This runs in time
+     * linear in the size of the tree, without recursion.
+     * 
+     * @return a new mutable tree.
+     */
+    public Tree<E> toTree() {
+        Tree<E> tree = new Tree<>();
+        ArrayDeque<PersistentTreeNode<E>> persistentNodes = 
+                new ArrayDeque<>();
+        ArrayDeque<TreeNode<E>> treeNodes = new ArrayDeque<>();
+        persistentNodes.push(pseudoroot);
+        treeNodes.push(tree.getPseudoRoot());
+        
+        while (!persistentNodes.isEmpty()) {
+            PersistentTreeNode<E> persistentNode = persistentNodes.pop();
+            TreeNode<E> treeNode = treeNodes.pop();
+            
+            for (int i = 0; i < persistentNode.getChildCount(); i++) {
+                PersistentTreeNode<E> child = persistentNode.getChild(i);
+                TreeNode<E> treeChild = treeNode.addChild(child.getElement());
+                
+                if (child.getChildCount() > 0) {
+                    persistentNodes.push(child);
+                    treeNodes.push(treeChild);
+                }
+            }
+        }
+        
+        return tree;
+    }
+    
+    /**
+     * Returns the number of nodes in this tree. This runs in constant time.
+     * 
+     * @return the number of nodes.
+     */
+    public int size() {
+        return pseudoroot.getSubtreeSize() - 1;
+    }
+    
+    /**
+     * Returns the roots of this tree.
+     * 
+     * @return the list of the roots.
+     */
+    public List<PersistentTreeNode<E>> getRoots() {
+        return pseudoroot.getChildren();
+    }
+    
+    /**
+     * Returns the node at the input path.
+     * 
+     * @param path the path of the node.
+     * @return the node at the path.
+     * @throws IndexOutOfBoundsException if there is no node at the path.
+     */
+    public PersistentTreeNode<E> getNode(int... path) {
+        PersistentTreeNode<E> node = pseudoroot;
+        
+        for (int index : path) {
+            node = node.getChild(index);
+        }
+        
+        return node;
+    }
+    
+    /**
+     * Returns a new version of this tree in which a node holding the input 
+     * element is appended to the children of the node at the input path. The
+     * empty path appends a new root.
+     * 
+     * @param parentPath the path of the parent node.
+     * @param element    the element of the new node.
+     * @return the new version.
+     */
+    public PersistentTree<E> addChild(int[] parentPath, E element) {
+        PersistentTreeNode<E> child = new PersistentTreeNode<>(element);
+        return update(parentPath, 
+                      parentPath.length, 
+                      parent -> parent.withAddedChild(child));
+    }
+    
+    /**
+     * Returns a new version of this tree in which the node at the input path
+     * holds the input element.
+     * 
+     * @param path    the path of the node.
+     * @param element the new element.
+     * @return the new version.
+     */
+    public PersistentTree<E> setElement(int[] path, E element) {
+        checkNotPseudoRoot(path);
+        return update(path, path.length, node -> node.withElement(element));
+    }
+    
+    /**
+     * Returns a new version of this tree without the subtree rooted at the 
+     * node at the input path.
+     * 
+     * @param path the path of the subtree root.
+     * @return the new version.
+     */
+    public PersistentTree<E> remove(int[] path) {
+        checkNotPseudoRoot(path);
+        int index = path[path.length - 1];
+        getNode(path);
+        return update(path, 
+                      path.length - 1, 
+                      parent -> parent.withoutChild(index));
+    }
+    
+    /**
+     * Returns a new version of this tree in which the subtree rooted at the 
+     * node at the input path is moved to the end of the children of the node
+     * at the input parent path. The parent path refers to this version.
+     * 
+     * @param path          the path of the subtree root.
+     * @param newParentPath the path of the new parent.
+     * @return the new version.
+     * @throws IllegalStateException if the new parent is in the moved 
+     *                               subtree.
+     */
+    public PersistentTree<E> move(int[] path, int[] newParentPath) {
+        checkNotPseudoRoot(path);
+        PersistentTreeNode<E> node = getNode(path);
+        getNode(newParentPath);
+        int depth = path.length - 1;
+        
+        if (isPrefix(path, path.length, newParentPath)) {
+            throw new IllegalStateException(
+                    "Trying to create a cycle in this tree.");
+        }
+        
+        // Removing the node shifts its later siblings, one of which may be on
+        // the path of the new parent.
+        int[] adjustedParentPath = newParentPath;
+        
+        if (newParentPath.length > depth && 
+                isPrefix(path, depth, newParentPath) && 
+                newParentPath[depth] > path[depth]) {
+            adjustedParentPath = newParentPath.clone();
+            adjustedParentPath[depth]--;
+        }
+        
+        return remove(path).update(adjustedParentPath,
+                                   adjustedParentPath.length,
+                                   parent -> parent.withAddedChild(node));
+    }
+    
+    /**
+     * Returns a new version in which the node at the first {@code length} 
+     * indices of the input path is replaced by the result of the input 
+     * operation, copying its ancestors.
+     */
+    private PersistentTree<E> update(
+            int[] path, 
+            int length, 
+            UnaryOperator<PersistentTreeNode<E>> operation) {
+        PersistentTreeNode<E>[] nodes = newNodeArray(length + 1);
+        nodes[0] = pseudoroot;
+        
+        for (int i = 0; i < length; i++) {
+            nodes[i + 1] = nodes[i].getChild(path[i]);
+        }
+        
+        PersistentTreeNode<E> replacement = operation.apply(nodes[length]);
+        
+        for (int i = length - 1; i >= 0; i--) {
+            replacement = nodes[i].withChild(path[i], replacement);
+        }
+        
+        return new PersistentTree<>(replacement);
+    }
+    
+    /**
+     * Pops the input number of children from the end of the stack and 
+     * returns a new node holding them.
+     */
+    private static <E> PersistentTreeNode<E> build(
+            E element, 
+            List<PersistentTreeNode<E>> stack, 
+            int childCount) {
+        if (childCount == 0) {
+            return new PersistentTreeNode<>(element);
+        }
+        
+        List<PersistentTreeNode<E>> childList = 
+                stack.subList(stack.size() - childCount, stack.size());
+        PersistentTreeNode<E>[] children = 
+                childList.toArray(newNodeArray(childCount));
+        childList.clear();
+        int subtreeSize = 1;
+        
+        for (PersistentTreeNode<E> child : children) {
+            subtreeSize += child.getSubtreeSize();
+        }
+        
+        return new PersistentTreeNode<>(element, children, subtreeSize);
+    }
+    
+    private static void checkNotPseudoRoot(int[] path) {
+        if (path.length == 0) {
+            throw new IllegalArgumentException(
+                    "The empty path denotes the pseudoroot.");
+        }
+    }
+    
+    private static boolean isPrefix(int[] prefix, int length, int[] path) {
+        return path.length >= length && 
+               Arrays.equals(Arrays.copyOf(prefix, length), 
+                             Arrays.copyOf(path, length));
+    }
+    
+    @SuppressWarnings("unchecked")
+    private static <E> PersistentTreeNode<E>[] newNodeArray(int length) {
+        return (PersistentTreeNode<E>[]) new PersistentTreeNode<?>[length];
+    }
+}
@@ -0,0 +1,132 @@
+package net.coderodde.util;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * This class implements an immutable node of a {@link PersistentTree}. A node
+ * may be shared by many versions of a tree, so it has no parent link; the 
+ * nodes are addressed by their paths of child indices from the pseudoroot.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ * @param <E> the tree node element type.
+ */
+public final class PersistentTreeNode<E> {
+    
+    @SuppressWarnings("rawtypes")
+    private static final PersistentTreeNode[] NO_CHILDREN = 
+            new PersistentTreeNode[0];
+    
+    private final E element;
+    private final PersistentTreeNode<E>[] children;
+    
+    /**
+     * The number of nodes in the subtree rooted at this node, including this
+     * node.
+     */
+    private final int subtreeSize;
+    
+    @SuppressWarnings("unchecked")
+    PersistentTreeNode(E element) {
+        this(element, NO_CHILDREN, 1);
+    }
+    
+    PersistentTreeNode(E element, 
+                       PersistentTreeNode<E>[] children, 
+                       int subtreeSize) {
+        this.element = element;
+        this.children = children;
+        this.subtreeSize = subtreeSize;
+    }
+    
+    /**
+     * Returns the element of this node.
+     * 
+     * @return the element.
+     */
+    public E getElement() {
+        return element;
+    }
+    
+    /**
+     * Returns the number of children of this node.
+     * 
+     * @return the number of children.
+     */
+    public int getChildCount() {
+        return children.length;
+    }
+    
+    /**
+     * Returns the child at the input index.
+     * 
+     * @param index the index of the child.
+     * @return the child at {@code index}.
+     */
+    public PersistentTreeNode<E> getChild(int index) {
+        return children[index];
+    }
+    
+    /**
+     * Returns an unmodifiable list of the children of this node.
+     * 
+     * @return the children.
+     */
+    public List<PersistentTreeNode<E>> getChildren() {
+        return Collections.unmodifiableList(Arrays.asList(children));
+    }
+    
+    /**
+     * Returns the number of nodes in the subtree rooted at this node, 
+     * including this node. This runs in constant time.
+     * 
+     * @return the size of the subtree.
+     */
+    public int getSubtreeSize() {
+        return subtreeSize;
+    }
+    
+    @Override
+    public String toString() {
+        return "[PersistentTreeNode: " + element + "]";
+    }
+    
+    PersistentTreeNode<E> withElement(E newElement) {
+        return new PersistentTreeNode<>(newElement, children, subtreeSize);
+    }
+    
+    PersistentTreeNode<E> withChild(int index, PersistentTreeNode<E> child) {
+        PersistentTreeNode<E>[] newChildren = children.clone();
+        newChildren[index] = child;
+        return new PersistentTreeNode<>(element, 
+                                        newChildren,
+                                        subtreeSize - 
+                                                children[index].subtreeSize + 
+                                                child.subtreeSize);
+    }
+    
+    PersistentTreeNode<E> withAddedChild(PersistentTreeNode<E> child) {
+        PersistentTreeNode<E>[] newChildren = 
+                Arrays.copyOf(children, children.length + 1);
+        newChildren[children.length] = child;
+        return new PersistentTreeNode<>(element, 
+                                        newChildren, 
+                                        subtreeSize + child.subtreeSize);
+    }
+    
+    @SuppressWarnings("unchecked")
+    PersistentTreeNode<E> withoutChild(int index) {
+        PersistentTreeNode<E> child = children[index];
+        PersistentTreeNode<E>[] newChildren = children.length == 1 ?
+                NO_CHILDREN : 
+                Arrays.copyOf(children, children.length - 1);
+        System.arraycopy(children, index + 1, 
+                         newChildren, index, 
+                         children.length - index - 1);
+        return new PersistentTreeNode<>(element, 
+                                        newChildren, 
+                                        subtreeSize - child.subtreeSize);
+    }
+}
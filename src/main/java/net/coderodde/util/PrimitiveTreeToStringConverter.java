@@ -0,0 +1,267 @@
+package net.coderodde.util;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.util.Objects;
+
+/**
+ * This class implements a converter from an {@link IntTree} or a 
+ * {@link LongTree} to the same textual format as 
+ * {@link StreamingTreeToStringConverter}. The elements are formatted into a 
+ * scratch buffer allocated once per conversion, so that, apart from the 
+ * output itself, converting a tree does not allocate per node.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+public final class PrimitiveTreeToStringConverter {
+    
+    /**
+     * The size of the output buffers used when writing to streams and 
+     * unbuffered writers.
+     */
+    private final int bufferSize;
+    
+    /**
+     * Constructs this converter with the default buffer size.
+     */
+    public PrimitiveTreeToStringConverter() {
+        this(StreamingTreeToStringConverter.DEFAULT_BUFFER_SIZE);
+    }
+    
+    /**
+     * Constructs this converter with the given buffer size.
+     * 
+     * @param bufferSize the size of the output buffer in characters.
+     */
+    public PrimitiveTreeToStringConverter(int bufferSize) {
+        if (bufferSize < 1) {
+            throw new IllegalArgumentException(
+                    "The buffer size must be positive: " + bufferSize);
+        }
+        
+        this.bufferSize = bufferSize;
+    }
+    
+    /**
+     * Returns the textual representation of the input tree.
+     * 
+     * @param tree the tree to convert.
+     * @return the textual representation of the tree.
+     */
+    public String toString(IntTree tree) {
+        Objects.requireNonNull(tree, "The input tree is null.");
+        return toString(tree.getPseudoRoot());
+    }
+    
+    /**
+     * Returns the textual representation of the input tree.
+     * 
+     * @param tree the tree to convert.
+     * @return the textual representation of the tree.
+     */
+    public String toString(LongTree tree) {
+        Objects.requireNonNull(tree, "The input tree is null.");
+        return toString(tree.getPseudoRoot());
+    }
+    
+    /**
+     * Writes the textual representation of the input tree to the input 
+     * appendable. No buffering is done.
+     * 
+     * @param tree       the tree to convert.
+     * @param appendable the target appendable.
+     * @throws IOException if the appendable throws.
+     */
+    public void write(IntTree tree, Appendable appendable) 
+            throws IOException {
+        Objects.requireNonNull(tree, "The input tree is null.");
+        writeNodes(tree.getPseudoRoot(), appendable);
+    }
+    
+    /**
+     * Writes the textual representation of the input tree to the input 
+     * appendable. No buffering is done.
+     * 
+     * @param tree       the tree to convert.
+     * @param appendable the target appendable.
+     * @throws IOException if the appendable throws.
+     */
+    public void write(LongTree tree, Appendable appendable) 
+            throws IOException {
+        Objects.requireNonNull(tree, "The input tree is null.");
+        writeNodes(tree.getPseudoRoot(), appendable);
+    }
+    
+    /**
+     * Writes the textual representation of the input tree to the input 
+     * writer through a buffer of bounded size. The writer is flushed, but not
+     * closed.
+     * 
+     * @param tree   the tree to convert.
+     * @param writer the target writer.
+     * @throws IOException if the writer throws.
+     */
+    public void write(IntTree tree, Writer writer) throws IOException {
+        Objects.requireNonNull(tree, "The input tree is null.");
+        writeBuffered(tree.getPseudoRoot(), writer);
+    }
+    
+    /**
+     * Writes the textual representation of the input tree to the input 
+     * writer through a buffer of bounded size. The writer is flushed, but not
+     * closed.
+     * 
+     * @param tree   the tree to convert.
+     * @param writer the target writer.
+     * @throws IOException if the writer throws.
+     */
+    public void write(LongTree tree, Writer writer) throws IOException {
+        Objects.requireNonNull(tree, "The input tree is null.");
+        writeBuffered(tree.getPseudoRoot(), writer);
+    }
+    
+    /**
+     * Writes the textual representation of the input tree to the input output
+     * stream using the given charset. The stream is flushed, but not closed.
+     * 
+     * @param tree         the tree to convert.
+     * @param outputStream the target output stream.
+     * @param charset      the charset for encoding the text.
+     * @throws IOException if the output stream throws.
+     */
+    public void write(IntTree tree, 
+                      OutputStream outputStream, 
+                      Charset charset) throws IOException {
+        Objects.requireNonNull(tree, "The input tree is null.");
+        writeBuffered(tree.getPseudoRoot(), 
+                      toWriter(outputStream, charset));
+    }
+    
+    /**
+     * Writes the textual representation of the input tree to the input output
+     * stream using the given charset. The stream is flushed, but not closed.
+     * 
+     * @param tree         the tree to convert.
+     * @param outputStream the target output stream.
+     * @param charset      the charset for encoding the text.
+     * @throws IOException if the output stream throws.
+     */
+    public void write(LongTree tree, 
+                      OutputStream outputStream, 
+                      Charset charset) throws IOException {
+        Objects.requireNonNull(tree, "The input tree is null.");
+        writeBuffered(tree.getPseudoRoot(), 
+                      toWriter(outputStream, charset));
+    }
+    
+    private String toString(AbstractPrimitiveTreeNode<?> pseudoroot) {
+        StringBuilder stringBuilder = new StringBuilder();
+        
+        try {
+            writeNodes(pseudoroot, stringBuilder);
+        } catch (IOException ex) {
+            // StringBuilder never throws IOException.
+            throw new UncheckedIOException(ex);
+        }
+        
+        return stringBuilder.toString();
+    }
+    
+    private void writeBuffered(AbstractPrimitiveTreeNode<?> pseudoroot, 
+                               Writer writer) throws IOException {
+        Objects.requireNonNull(writer, "The input writer is null.");
+        Writer bufferedWriter = 
+                new StreamingTreeToStringConverter.BoundedBufferWriter(
+                        writer, 
+                        bufferSize);
+        writeNodes(pseudoroot, bufferedWriter);
+        bufferedWriter.flush();
+    }
+    
+    private static Writer toWriter(OutputStream outputStream, 
+                                   Charset charset) {
+        Objects.requireNonNull(outputStream, "The output stream is null.");
+        Objects.requireNonNull(charset, "The charset is null.");
+        return new OutputStreamWriter(outputStream, charset);
+    }
+    
+    /**
+     * Writes the nodes below the input pseudoroot in pre-order, one line per
+     * node, without recursion.
+     */
+    private static <N extends AbstractPrimitiveTreeNode<N>> 
+        void writeNodes(AbstractPrimitiveTreeNode<N> pseudoroot,
+                        Appendable appendable) throws IOException {
+        Objects.requireNonNull(appendable, "The input appendable is null.");
+        char[] buffer = 
+                new char[AbstractPrimitiveTreeNode.MAXIMUM_ELEMENT_LENGTH];
+        N node = pseudoroot.firstChild;
+        int nodeDepth = 0;
+        String prefix = StreamingTreeToStringConverter.getIndentation(0);
+        
+        while (node != null) {
+            int begin = node.formatElement(buffer);
+            prefix = StreamingTreeToStringConverter.getIndentation(prefix, 
+                                                                   nodeDepth);
+            appendLine(appendable, prefix, nodeDepth, buffer, begin);
+            
+            if (node.firstChild != null) {
+                node = node.firstChild;
+                nodeDepth++;
+                continue;
+            }
+            
+            // Climb up until a node with a next sibling is found:
+            while (node != pseudoroot && node.nextSibling == null) {
+                node = node.parent;
+                nodeDepth--;
+            }
+            
+            node = node == pseudoroot ? null : node.nextSibling;
+        }
+    }
+    
+    /**
+     * Appends a single line to the input appendable. Writers and string 
+     * builders are written to directly from the buffer; other appendables 
+     * receive the element one character at a time.
+     * 
+     * @param appendable the target appendable.
+     * @param prefix     an indentation prefix of at least the node depth.
+     * @param nodeDepth  the depth of the node, i.e., the indentation length.
+     * @param buffer     the buffer holding the formatted element at its end.
+     * @param begin      the index of the first character of the element.
+     * @throws IOException if the appendable throws.
+     */
+    private static void appendLine(Appendable appendable, 
+                                   String prefix,
+                                   int nodeDepth, 
+                                   char[] buffer, 
+                                   int begin) throws IOException {
+        int length = buffer.length - begin;
+        
+        if (appendable instanceof Writer) {
+            Writer writer = (Writer) appendable;
+            writer.write(prefix, 0, nodeDepth);
+            writer.write(buffer, begin, length);
+            writer.write('\n');
+        } else if (appendable instanceof StringBuilder) {
+            ((StringBuilder) appendable).append(prefix, 0, nodeDepth)
+                                        .append(buffer, begin, length)
+                                        .append('\n');
+        } else {
+            appendable.append(prefix, 0, nodeDepth);
+            
+            for (int i = begin; i < buffer.length; i++) {
+                appendable.append(buffer[i]);
+            }
+            
+            appendable.append('\n');
+        }
+    }
+}
@@ -18,12 +18,23 @@ implements TreeToStringConverter<E> {
     @Override
     public String toString(Tree<E> tree) {
         Objects.requireNonNull(tree, "The input tree is null.");
+        Object renderToken = TreeInstrumentation.ENABLED ? 
+                             TreeInstrumentation.beginRender() : 
+                             null;
         StringBuilder stringBuilder = new StringBuilder();        
         
         for (TreeNode<E> root : tree.getPseudoRoot().getChildren()) {
             toString(stringBuilder, root, 0);
         }
         
+        if (TreeInstrumentation.ENABLED) {
+            TreeInstrumentation.endRender(
+                    renderToken,
+                    this,
+                    tree.getPseudoRoot().getSubtreeSize() - 1,
+                    stringBuilder.length());
+        }
+        
         return stringBuilder.toString();
     }
     
@@ -0,0 +1,327 @@
+package net.coderodde.util;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.util.Objects;
+
+/**
+ * This class implements a converter from a {@link net.coderodde.util.Tree} to
+ * the same textual format as {@link SimpleTreeToStringConverter}, yet writes 
+ * the output incrementally to an {@link Appendable}, a {@link Writer} or an
+ * {@link OutputStream}. The tree is traversed without recursion, so that 
+ * arbitrarily deep trees may be converted, and the indentation of each line is
+ * copied from a cached prefix instead of being appended one space at a time.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ * @param <E> the tree node element type.
+ */
+public final class StreamingTreeToStringConverter<E>
+implements TreeToStringConverter<E> {
+    
+    /**
+     * The default size of the output buffer in characters.
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 8192;
+    
+    /**
+     * The length of the longest indentation prefix shared between 
+     * conversions. A deeper conversion builds its own longer prefix, which is
+     * dropped when the conversion is done.
+     */
+    static final int MAXIMUM_SHARED_INDENTATION = 1024;
+    
+    /**
+     * The shared indentation prefix of at most 
+     * {@link #MAXIMUM_SHARED_INDENTATION} spaces. It only ever holds spaces, 
+     * so that any thread reading it sees a valid prefix.
+     */
+    private static volatile String indentation = "                ";
+    
+    /**
+     * The size of the output buffers used when writing to streams and 
+     * unbuffered writers.
+     */
+    private final int bufferSize;
+    
+    /**
+     * Constructs this converter with the default buffer size.
+     */
+    public StreamingTreeToStringConverter() {
+        this(DEFAULT_BUFFER_SIZE);
+    }
+    
+    /**
+     * Constructs this converter with the given buffer size.
+     * 
+     * @param bufferSize the size of the output buffer in characters.
+     */
+    public StreamingTreeToStringConverter(int bufferSize) {
+        if (bufferSize < 1) {
+            throw new IllegalArgumentException(
+                    "The buffer size must be positive: " + bufferSize);
+        }
+        
+        this.bufferSize = bufferSize;
+    }
+    
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public String toString(Tree<E> tree) {
+        Objects.requireNonNull(tree, "The input tree is null.");
+        StringBuilder stringBuilder = new StringBuilder();
+        
+        try {
+            write(tree, stringBuilder);
+        } catch (IOException ex) {
+            // StringBuilder never throws IOException.
+            throw new UncheckedIOException(ex);
+        }
+        
+        return stringBuilder.toString();
+    }
+    
+    /**
+     * Writes the textual representation of the input tree to the input 
+     * appendable. No buffering is done; callers writing to an I/O sink should
+     * use {@link #write(Tree, Writer)} or 
+     * {@link #write(Tree, OutputStream, Charset)}.
+     * 
+     * @param tree       the tree to convert.
+     * @param appendable the target appendable.
+     * @throws IOException if the appendable throws.
+     */
+    public void write(Tree<E> tree, Appendable appendable) throws IOException {
+        Objects.requireNonNull(tree, "The input tree is null.");
+        Objects.requireNonNull(appendable, "The input appendable is null.");
+        
+        Object renderToken = TreeInstrumentation.ENABLED ? 
+                             TreeInstrumentation.beginRender() : 
+                             null;
+        long nodes = 0;
+        long characters = 0;
+        
+        TreeNode<E> pseudoroot = tree.getPseudoRoot();
+        TreeNode<E> node = pseudoroot.firstChild;
+        int nodeDepth = 0;
+        String prefix = indentation;
+        
+        while (node != null) {
+            String text = Objects.toString(node.getElement());
+            prefix = getIndentation(prefix, nodeDepth);
+            appendLine(appendable, prefix, nodeDepth, text);
+            
+            if (TreeInstrumentation.ENABLED) {
+                nodes++;
+                characters += nodeDepth + text.length() + 1;
+            }
+            
+            if (node.firstChild != null) {
+                node = node.firstChild;
+                nodeDepth++;
+                continue;
+            }
+            
+            // Climb up until a node with a next sibling is found:
+            while (node != pseudoroot && node.nextSibling == null) {
+                node = node.parent;
+                nodeDepth--;
+            }
+            
+            node = node == pseudoroot ? null : node.nextSibling;
+        }
+        
+        if (TreeInstrumentation.ENABLED) {
+            TreeInstrumentation.endRender(renderToken, 
+                                          this, 
+                                          nodes, 
+                                          characters);
+        }
+    }
+    
+    /**
+     * Writes the textual representation of the input tree to the input 
+     * writer. The output is collected in a buffer of bounded size, which is
+     * handed over to the writer whenever it fills up. The writer is flushed,
+     * but not closed.
+     * 
+     * @param tree   the tree to convert.
+     * @param writer the target writer.
+     * @throws IOException if the writer throws.
+     */
+    public void write(Tree<E> tree, Writer writer) throws IOException {
+        Objects.requireNonNull(writer, "The input writer is null.");
+        Writer bufferedWriter = new BoundedBufferWriter(writer, bufferSize);
+        write(tree, (Appendable) bufferedWriter);
+        bufferedWriter.flush();
+    }
+    
+    /**
+     * Writes the textual representation of the input tree to the input output
+     * stream using the given charset. The output is buffered in a buffer of 
+     * bounded size. The stream is flushed, but not closed.
+     * 
+     * @param tree         the tree to convert.
+     * @param outputStream the target output stream.
+     * @param charset      the charset for encoding the text.
+     * @throws IOException if the output stream throws.
+     */
+    public void write(Tree<E> tree, 
+                      OutputStream outputStream,
+                      Charset charset) throws IOException {
+        Objects.requireNonNull(outputStream, "The output stream is null.");
+        Objects.requireNonNull(charset, "The charset is null.");
+        write(tree, new OutputStreamWriter(outputStream, charset));
+    }
+    
+    /**
+     * Appends a single line to the input appendable. Writers are written to
+     * directly, since {@link Writer#append(CharSequence, int, int)} creates a
+     * substring for each call.
+     * 
+     * @param appendable the target appendable.
+     * @param prefix     an indentation prefix of at least the node depth.
+     * @param nodeDepth  the depth of the node, i.e., the indentation length.
+     * @param text       the textual representation of the node element.
+     * @throws IOException if the appendable throws.
+     */
+    private static void appendLine(Appendable appendable, 
+                                   String prefix,
+                                   int nodeDepth, 
+                                   String text) throws IOException {
+        if (appendable instanceof Writer) {
+            Writer writer = (Writer) appendable;
+            writer.write(prefix, 0, nodeDepth);
+            writer.write(text);
+            writer.write('\n');
+        } else {
+            appendable.append(prefix, 0, nodeDepth)
+                      .append(text)
+                      .append('\n');
+        }
+    }
+    
+    /**
+     * Returns an indentation prefix of at least {@code length} spaces.
+     * 
+     * @param length the minimum length of the prefix.
+     * @return the indentation prefix.
+     */
+    static String getIndentation(int length) {
+        return getIndentation(indentation, length);
+    }
+    
+    /**
+     * Returns the input indentation prefix if it has at least {@code length}
+     * spaces, and a longer prefix otherwise. Only prefixes of at most 
+     * {@link #MAXIMUM_SHARED_INDENTATION} spaces are kept for later 
+     * conversions; a caller rendering a deeper tree should hold on to the 
+     * returned prefix for the rest of its conversion.
+     * 
+     * @param prefix the indentation prefix of the caller.
+     * @param length the minimum length of the prefix.
+     * @return the indentation prefix.
+     */
+    static String getIndentation(String prefix, int length) {
+        if (prefix.length() >= length) {
+            return prefix;
+        }
+        
+        String shared = indentation;
+        StringBuilder stringBuilder = 
+                new StringBuilder(shared.length() > prefix.length() ? 
+                                  shared : 
+                                  prefix);
+        
+        while (stringBuilder.length() < length) {
+            stringBuilder.append(stringBuilder);
+        }
+        
+        prefix = stringBuilder.toString();
+        
+        if (prefix.length() <= MAXIMUM_SHARED_INDENTATION) {
+            indentation = prefix;
+        }
+        
+        return prefix;
+    }
+    
+    /**
+     * This static inner class implements an unsynchronized writer that 
+     * collects the output in a fixed-size buffer and passes full buffers to
+     * the underlying writer. Unlike {@link java.io.BufferedWriter}, it takes
+     * no lock per written string.
+     */
+    static final class BoundedBufferWriter extends Writer {
+        
+        private final Writer writer;
+        private final char[] buffer;
+        private int size;
+        
+        BoundedBufferWriter(Writer writer, int bufferSize) {
+            this.writer = writer;
+            this.buffer = new char[bufferSize];
+        }
+        
+        @Override
+        public void write(int c) throws IOException {
+            if (size == buffer.length) {
+                flushBuffer();
+            }
+            
+            buffer[size++] = (char) c;
+        }
+        
+        @Override
+        public void write(String str, int off, int len) throws IOException {
+            while (len > 0) {
+                if (size == buffer.length) {
+                    flushBuffer();
+                }
+                
+                int chunkLength = Math.min(len, buffer.length - size);
+                str.getChars(off, off + chunkLength, buffer, size);
+                size += chunkLength;
+                off += chunkLength;
+                len -= chunkLength;
+            }
+        }
+        
+        @Override
+        public void write(char[] cbuf, int off, int len) throws IOException {
+            while (len > 0) {
+                if (size == buffer.length) {
+                    flushBuffer();
+                }
+                
+                int chunkLength = Math.min(len, buffer.length - size);
+                System.arraycopy(cbuf, off, buffer, size, chunkLength);
+                size += chunkLength;
+                off += chunkLength;
+                len -= chunkLength;
+            }
+        }
+        
+        @Override
+        public void flush() throws IOException {
+            flushBuffer();
+            writer.flush();
+        }
+        
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+        
+        private void flushBuffer() throws IOException {
+            writer.write(buffer, 0, size);
+            size = 0;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package net.coderodde.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This class implements a version number of the tree structure, used for
+ * validating data derived from trees, such as cached depths and query 
+ * indexes. A modification only marks the version stale, and the next 
+ * observation draws a new version, so that modifying trees nobody derives 
+ * data from never touches the shared counter.
+ * 
+ * <p>
+ * Each tree with hooks has its own versions, kept in its hooks, so that 
+ * modifying a tree invalidates only the data derived from it. The trees 
+ * without hooks share a single depth version. The versions are drawn from a 
+ * counter common to all the instances, so that a version observed in one 
+ * instance is never current in another one, and a subtree moved to another 
+ * tree keeps no valid data. Independent trees may be used by different 
+ * threads.
+ * </p>
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+final class StructureVersion {
+    
+    /**
+     * The next version to draw. Starts at one so that zero is never a 
+     * version.
+     */
+    private static final AtomicLong NEXT_VERSION = new AtomicLong(1L);
+    
+    /**
+     * The current version, or zero if it is stale and a new one must be 
+     * drawn.
+     */
+    private volatile long version;
+    
+    /**
+     * Returns the current version. Data derived from a tree after this call 
+     * is valid as long as {@link #isCurrent(long)} returns {@code true} for 
+     * the returned version.
+     * 
+     * @return the current version.
+     */
+    long observe() {
+        long current = version;
+        
+        if (current == 0L) {
+            current = NEXT_VERSION.getAndIncrement();
+            version = current;
+        }
+        
+        return current;
+    }
+    
+    /**
+     * Returns {@code true} only if the input version is current.
+     * 
+     * @param observedVersion a version returned by {@link #observe()}.
+     * @return {@code true} if no structural modification was recorded since.
+     */
+    boolean isCurrent(long observedVersion) {
+        return observedVersion != 0L && version == observedVersion;
+    }
+    
+    /**
+     * Records a structural modification.
+     */
+    void increment() {
+        // Write only if the version was observed since the last modification.
+        if (version != 0L) {
+            version = 0L;
+        }
+    }
+}
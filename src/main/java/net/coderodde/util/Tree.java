@@ -1,5 +1,11 @@
 package net.coderodde.util;
 
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
 /**
  * This class implements a general tree data structure.
  * 
@@ -8,12 +14,12 @@ package net.coderodde.util;
  * @param <E> the tree node element type.
  */
 public final class Tree<E> {
-   
+    
     /**
      * The root node. This node does not logically belong to this tree as it
      * merely provides a way of having multiple "roots". 
      */
-    private final TreeNode<E> pseudoroot = new TreeNode<>(null);
+    private final TreeNode<E> pseudoroot = new TreeNode<>(null, true);
     
     /**
      * Returns the root node. It is <b>not</b> considered to belong to the
@@ -25,6 +31,397 @@ public final class Tree<E> {
         return pseudoroot;
     }
     
+    /**
+     * Returns the number of nodes in this tree. The pseudoroot is not counted.
+     * See {@link TreeNode#getSubtreeSize()} for the complexity.
+     * 
+     * @return the number of nodes in this tree.
+     */
+    public int size() {
+        return pseudoroot.getSubtreeSize() - 1;
+    }
+    
+    /**
+     * Returns an immutable snapshot of this tree in a compact, array-based 
+     * representation. Later modifications of this tree do not affect the 
+     * snapshot. This runs in time linear in the size of this tree.
+     * 
+     * @return a frozen snapshot of this tree.
+     */
+    public FrozenTree<E> freeze() {
+        return new FrozenTree<>(this);
+    }
+    
+    /**
+     * Enables the ancestor index of this tree. With the index enabled, the
+     * cycle check in {@link TreeNodeChildrenView#add(TreeNode)} and 
+     * {@link TreeNode#isAncestorOf(TreeNode)} run in amortized logarithmic 
+     * time instead of walking the parent chain, at the expense of an extra 
+     * object per node and amortized logarithmic time for attaching and 
+     * detaching nodes. Enabling the index takes time linear in the size of 
+     * this tree. Nodes moved into an indexed tree are indexed when they are 
+     * attached; nodes moved from an indexed tree into a tree without the index
+     * lose their index entries.
+     */
+    public void enableAncestorIndex() {
+        if (pseudoroot.linkCutNode == null) {
+            pseudoroot.indexSubtree();
+        }
+    }
+    
+    /**
+     * Returns {@code true} only if the ancestor index of this tree is enabled.
+     * 
+     * @return {@code true} if the ancestor index is enabled.
+     */
+    public boolean isAncestorIndexEnabled() {
+        return pseudoroot.linkCutNode != null;
+    }
+    
+    /**
+     * Enables the element index of this tree, which maps the keys extracted 
+     * from the elements to the tree nodes holding them. The index is kept 
+     * current through all the modifications of this tree; see 
+     * {@link TreeElementIndex} for the costs. Enabling the index takes time 
+     * linear in the size of this tree.
+     * 
+     * @param <K>          the key type.
+     * @param keyExtractor the function mapping an element to its key.
+     * @param unique       whether a key may map to at most one tree node.
+     * @return the element index.
+     * @throws IllegalStateException    if the element index is already 
+     *                                  enabled.
+     * @throws IllegalArgumentException if the index is unique and two 
+     *                                  elements have the same key.
+     */
+    public <K> TreeElementIndex<E, K> enableElementIndex(
+            Function<? super E, ? extends K> keyExtractor, 
+            boolean unique) {
+        TreeHooks<E> hooks = getHooks();
+        
+        if (hooks.elementIndex != null) {
+            throw new IllegalStateException(
+                    "The element index is already enabled.");
+        }
+        
+        TreeElementIndex<E, K> index = 
+                new TreeElementIndex<>(keyExtractor, unique);
+        index.checkAttach(pseudoroot);
+        
+        for (Iterator<TreeNode<E>> iterator = preorderIterator(); 
+                iterator.hasNext();) {
+            index.add(iterator.next());
+        }
+        
+        hooks.elementIndex = index;
+        return index;
+    }
+    
+    /**
+     * Disables the element index of this tree, if enabled.
+     */
+    public void disableElementIndex() {
+        TreeHooks<E> hooks = pseudoroot.hooks;
+        
+        if (hooks != null && hooks.elementIndex != null) {
+            hooks.elementIndex.clear();
+            hooks.elementIndex = null;
+        }
+    }
+    
+    /**
+     * Returns the element index of this tree, or {@code null} if it is not
+     * enabled.
+     * 
+     * @return the element index.
+     */
+    public TreeElementIndex<E, ?> getElementIndex() {
+        return pseudoroot.hooks == null ? null : pseudoroot.hooks.elementIndex;
+    }
+    
+    /**
+     * Enables the node pool of this tree. With the pool enabled, 
+     * {@link TreeNode#addChild(Object)} called on the tree nodes of this tree
+     * reuses the tree nodes released by {@link #release(TreeNode)} before 
+     * allocating new ones, together with their children views, so that a 
+     * tree whose subtrees are repeatedly built and released allocates next to
+     * nothing once the pool has filled up. The nodes of a released subtree 
+     * are handed out in its pre-order, so that a subtree rebuilt in 
+     * pre-order keeps the memory layout of the released one. The tree nodes
+     * released beyond the capacity of the pool are left to the garbage 
+     * collector. Like the 
+     * element index, the pool makes attaching a subtree to or detaching it 
+     * from this tree take time linear in the size of the subtree. Enabling 
+     * the pool takes time linear in the size of this tree unless the element
+     * index or a listener is already there.
+     * 
+     * @param capacity the maximum number of the pooled tree nodes.
+     * @throws IllegalArgumentException if the capacity is negative.
+     * @throws IllegalStateException    if the node pool is already enabled.
+     */
+    public void enableNodePool(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException(
+                    "The pool capacity must not be negative, was " + 
+                    capacity + ".");
+        }
+        
+        TreeHooks<E> hooks = getHooks();
+        
+        if (hooks.nodePool != null) {
+            throw new IllegalStateException(
+                    "The node pool is already enabled.");
+        }
+        
+        hooks.nodePool = new TreeNodePool<>(capacity);
+    }
+    
+    /**
+     * Disables the node pool of this tree, if enabled, dropping the pooled 
+     * tree nodes.
+     */
+    public void disableNodePool() {
+        if (pseudoroot.hooks != null) {
+            pseudoroot.hooks.nodePool = null;
+        }
+    }
+    
+    /**
+     * Returns {@code true} only if the node pool of this tree is enabled.
+     * 
+     * @return {@code true} if the node pool is enabled.
+     */
+    public boolean isNodePoolEnabled() {
+        return pseudoroot.hooks != null && pseudoroot.hooks.nodePool != null;
+    }
+    
+    /**
+     * Returns the number of the released tree nodes in the node pool of this
+     * tree, ready for reuse. Zero if the pool is not enabled.
+     * 
+     * @return the number of the pooled tree nodes.
+     */
+    public int getPooledNodeCount() {
+        return isNodePoolEnabled() ? pseudoroot.hooks.nodePool.size() : 0;
+    }
+    
+    /**
+     * Detaches the subtree rooted at the input tree node from this tree and 
+     * releases its nodes: their links, elements and cached data are cleared,
+     * so that the detached nodes keep nothing reachable, and they are 
+     * returned to the node pool of this tree, if enabled. The released tree 
+     * nodes must not be used afterwards, as they may be handed out again by 
+     * {@link TreeNode#addChild(Object)}. The change listeners see the root 
+     * of the subtree removed, with the subtree still intact; in a 
+     * transaction, the subtree is released once the transaction commits. 
+     * This runs in time linear in the size of the subtree.
+     * 
+     * @param node the root of the subtree to release.
+     * @throws IllegalArgumentException if the tree node is the pseudoroot or
+     *                                  does not belong to this tree.
+     */
+    public void release(TreeNode<E> node) {
+        Objects.requireNonNull(node, "The input tree node is null.");
+        
+        if (node.isPseudoRoot()) {
+            throw new IllegalArgumentException(
+                    "The pseudoroot of a tree cannot be released.");
+        }
+        
+        // The tree nodes of a tree with hooks point to them, so the check is
+        // constant time then.
+        TreeHooks<E> hooks = pseudoroot.hooks;
+        
+        if (hooks != null ? 
+                node.hooks != hooks : 
+                node.hooks != null || !pseudoroot.isAncestorOf(node)) {
+            throw new IllegalArgumentException(
+                    "The input tree node does not belong to this tree.");
+        }
+        
+        if (hooks != null && hooks.isRecording()) {
+            // The listeners may walk the removed subtree, so it is removed as
+            // usual and cleared only after the removal is delivered.
+            node.parent.unlinkChild(node);
+            
+            if (hooks.isInTransaction()) {
+                hooks.deferRelease(node);
+            } else {
+                node.releaseSubtree(null, hooks.nodePool);
+            }
+            
+            return;
+        }
+        
+        // Unlink as if moving, so that the subtree stays in the hooks until
+        // the release pass detaches it.
+        node.parent.unlinkChild(node, true);
+        
+        if (hooks != null) {
+            node.releaseSubtree(hooks.elementIndex, hooks.nodePool);
+        } else {
+            node.releaseSubtree(null, null);
+        }
+    }
+    
+    /**
+     * Registers a listener of the changes of this tree: attaching, detaching 
+     * and moving subtrees and replacing elements. Registering the first 
+     * listener, enabling the element index or the node pool, or building a 
+     * {@link LowestCommonAncestorIndex} takes time linear in the size of this
+     * tree, after which attaching a subtree to or detaching it from this tree
+     * takes time linear in the size of the subtree, even once the listeners
+     * are removed. A tree that never had any of them pays a single 
+     * {@code null} check per modification.
+     * 
+     * @param listener the listener to register.
+     */
+    public void addChangeListener(TreeChangeListener<E> listener) {
+        Objects.requireNonNull(listener, "The input listener is null.");
+        getHooks().addListener(listener);
+    }
+    
+    /**
+     * Unregisters a listener of the changes of this tree.
+     * 
+     * @param listener the listener to unregister.
+     */
+    public void removeChangeListener(TreeChangeListener<E> listener) {
+        if (pseudoroot.hooks != null) {
+            pseudoroot.hooks.removeListener(listener);
+        }
+    }
+    
+    /**
+     * Begins a transaction, during which the changes of this tree are 
+     * collected and then delivered to the listeners as a single coalesced
+     * batch on commit.
+     * 
+     * @return the new transaction.
+     */
+    public TreeTransaction beginTransaction() {
+        TreeHooks<E> hooks = getHooks();
+        hooks.beginTransaction();
+        return new TreeTransaction(hooks);
+    }
+    
+    /**
+     * Returns a lazy iterator over all the nodes of this tree in pre-order.
+     * 
+     * @return a pre-order iterator.
+     */
+    public Iterator<TreeNode<E>> preorderIterator() {
+        return pseudoroot.preorderIterator();
+    }
+    
+    /**
+     * Returns a lazy iterator over all the nodes of this tree in post-order.
+     * 
+     * @return a post-order iterator.
+     */
+    public Iterator<TreeNode<E>> postorderIterator() {
+        return pseudoroot.postorderIterator();
+    }
+    
+    /**
+     * Returns a lazy iterator over all the nodes of this tree in 
+     * breadth-first order.
+     * 
+     * @return a level-order iterator.
+     */
+    public Iterator<TreeNode<E>> levelOrderIterator() {
+        return pseudoroot.levelOrderIterator();
+    }
+    
+    /**
+     * Returns a spliterator over all the nodes of this tree in pre-order.
+     * 
+     * @return a pre-order spliterator.
+     */
+    public Spliterator<TreeNode<E>> preorderSpliterator() {
+        return pseudoroot.preorderSpliterator();
+    }
+    
+    /**
+     * Returns a spliterator over all the nodes of this tree in post-order.
+     * 
+     * @return a post-order spliterator.
+     */
+    public Spliterator<TreeNode<E>> postorderSpliterator() {
+        return pseudoroot.postorderSpliterator();
+    }
+    
+    /**
+     * Returns a spliterator over all the nodes of this tree in breadth-first
+     * order.
+     * 
+     * @return a level-order spliterator.
+     */
+    public Spliterator<TreeNode<E>> levelOrderSpliterator() {
+        return pseudoroot.levelOrderSpliterator();
+    }
+    
+    /**
+     * Returns a sequential stream over all the nodes of this tree in 
+     * pre-order.
+     * 
+     * @return a pre-order stream.
+     */
+    public Stream<TreeNode<E>> preorderStream() {
+        return pseudoroot.preorderStream();
+    }
+    
+    /**
+     * Returns a sequential stream over all the nodes of this tree in 
+     * post-order.
+     * 
+     * @return a post-order stream.
+     */
+    public Stream<TreeNode<E>> postorderStream() {
+        return pseudoroot.postorderStream();
+    }
+    
+    /**
+     * Returns a sequential stream over all the nodes of this tree in 
+     * breadth-first order.
+     * 
+     * @return a level-order stream.
+     */
+    public Stream<TreeNode<E>> levelOrderStream() {
+        return pseudoroot.levelOrderStream();
+    }
+    
+    /**
+     * Returns a sequential stream over all the nodes of this tree in 
+     * pre-order. This is the same as {@link #preorderStream()}.
+     * 
+     * @return a stream over the nodes of this tree.
+     */
+    public Stream<TreeNode<E>> stream() {
+        return pseudoroot.preorderStream();
+    }
+    
+    /**
+     * Returns a parallel stream over all the nodes of this tree in pre-order.
+     * The underlying spliterator splits at child list boundaries.
+     * 
+     * @return a parallel stream over the nodes of this tree.
+     */
+    public Stream<TreeNode<E>> parallelStream() {
+        return pseudoroot.parallelPreorderStream();
+    }
+    
+    /**
+     * Returns the hooks of this tree, creating them if needed.
+     */
+    TreeHooks<E> getHooks() {
+        if (pseudoroot.hooks == null) {
+            new TreeHooks<E>().attach(pseudoroot);
+        }
+        
+        return pseudoroot.hooks;
+    }
+    
     @Override
     public String toString() {
         return "";
@@ -0,0 +1,585 @@
+package net.coderodde.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * This class implements an asynchronous traversal of a tree with bounded
+ * concurrency, meant for the per-node work that waits for I/O. A visit of a
+ * node is a task run in the executor of this visitor; the visit is complete
+ * when the {@link CompletionStage} returned by the task completes, so the
+ * task may either block until its work is done or start an asynchronous
+ * operation and return at once. At most {@link #getParallelism()} visits are
+ * in progress at a time, and a new node is scheduled only when a visit
+ * completes, so that slow visits hold back the traversal instead of piling
+ * up tasks in the executor.
+ * 
+ * <p>
+ * The nodes are scheduled depth-first, and a traversal keeps track only of
+ * the sibling lists it has started but not finished: in addition to the
+ * visits in progress, it takes memory proportional to the height of the tree
+ * times the parallelism rather than to the size of the tree. A traversal
+ * neither recurses on the thread stack nor on the executor, so arbitrarily
+ * deep trees and even the caller-runs executor {@code Runnable::run} are
+ * supported.
+ * </p>
+ * 
+ * <p>
+ * The default executor runs each visit on a new virtual thread on the Java
+ * versions that offer them, and falls back to the common fork/join pool
+ * otherwise. Blocking visits on the common pool should be avoided; with no
+ * virtual threads, an executor with enough threads for the parallelism
+ * should be passed instead.
+ * </p>
+ * 
+ * <p>
+ * The first failed visit completes the traversal exceptionally, after which
+ * no new visits are scheduled; the visits in progress are not interrupted.
+ * Cancelling the returned future stops the traversal likewise. The tree must
+ * not be modified while a traversal is in progress.
+ * </p>
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+public final class TreeAsyncVisitor {
+    
+    /**
+     * This enumeration lists the orders in which a traversal may schedule the
+     * nodes.
+     */
+    public enum Order {
+        
+        /**
+         * The children of a node are scheduled as soon as the node is, so the
+         * visits of a parent and its children may overlap.
+         */
+        UNORDERED,
+        
+        /**
+         * The children of a node are scheduled only after the visit of the
+         * node is complete.
+         */
+        PARENTS_FIRST
+    }
+    
+    private static final CompletableFuture<Void> COMPLETED =
+            CompletableFuture.completedFuture(null);
+    
+    private final Executor executor;
+    private final int parallelism;
+    
+    /**
+     * Constructs a visitor running the visits in the default executor.
+     * 
+     * @param parallelism the maximum number of visits in progress.
+     * @see #defaultExecutor()
+     */
+    public TreeAsyncVisitor(int parallelism) {
+        this(defaultExecutor(), parallelism);
+    }
+    
+    /**
+     * Constructs a visitor running the visits in the input executor.
+     * 
+     * @param executor    the executor to run the visits in.
+     * @param parallelism the maximum number of visits in progress.
+     */
+    public TreeAsyncVisitor(Executor executor, int parallelism) {
+        this.executor = Objects.requireNonNull(executor,
+                                               "The executor is null.");
+        
+        if (parallelism < 1) {
+            throw new IllegalArgumentException(
+                    "The parallelism must be positive, was " +
+                    parallelism + ".");
+        }
+        
+        this.parallelism = parallelism;
+    }
+    
+    /**
+     * Returns the executor starting a new virtual thread for each task if the
+     * Java runtime supports virtual threads, or the common fork/join pool
+     * otherwise.
+     * 
+     * @return the default executor.
+     */
+    public static Executor defaultExecutor() {
+        return DefaultExecutorHolder.EXECUTOR;
+    }
+    
+    /**
+     * Returns {@code true} only if the default executor runs the tasks on
+     * virtual threads.
+     * 
+     * @return {@code true} if virtual threads are available.
+     */
+    public static boolean isVirtualThreadExecutorAvailable() {
+        return DefaultExecutorHolder.EXECUTOR != ForkJoinPool.commonPool();
+    }
+    
+    /**
+     * Returns the executor of this visitor.
+     * 
+     * @return the executor.
+     */
+    public Executor getExecutor() {
+        return executor;
+    }
+    
+    /**
+     * Returns the maximum number of visits in progress.
+     * 
+     * @return the parallelism.
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+    
+    /**
+     * Visits each node of the input tree with a blocking action.
+     * 
+     * @param <E>    the tree node element type.
+     * @param tree   the tree to traverse.
+     * @param order  the scheduling order.
+     * @param action the action to run for each node.
+     * @return the future completed when all the visits are complete.
+     */
+    public <E> CompletableFuture<Void> visit(
+            Tree<E> tree,
+            Order order,
+            Consumer<? super TreeNode<E>> action) {
+        Objects.requireNonNull(tree, "The input tree is null.");
+        return visit(tree.getPseudoRoot(), order, action);
+    }
+    
+    /**
+     * Visits each node in the subtree rooted at the input node with a
+     * blocking action. The pseudoroot of a tree is not visited.
+     * 
+     * @param <E>    the tree node element type.
+     * @param root   the root of the subtree.
+     * @param order  the scheduling order.
+     * @param action the action to run for each node.
+     * @return the future completed when all the visits are complete.
+     */
+    public <E> CompletableFuture<Void> visit(
+            TreeNode<E> root,
+            Order order,
+            Consumer<? super TreeNode<E>> action) {
+        Objects.requireNonNull(action, "The action is null.");
+        return visitAsync(root, order, node -> {
+            action.accept(node);
+            return COMPLETED;
+        });
+    }
+    
+    /**
+     * Visits each node of the input tree with an asynchronous action. The
+     * visit of a node is complete when the stage returned for it completes.
+     * 
+     * @param <E>    the tree node element type.
+     * @param tree   the tree to traverse.
+     * @param order  the scheduling order.
+     * @param action the action to start for each node.
+     * @return the future completed when all the visits are complete.
+     */
+    public <E> CompletableFuture<Void> visitAsync(
+            Tree<E> tree,
+            Order order,
+            Function<? super TreeNode<E>,
+                     ? extends CompletionStage<?>> action) {
+        Objects.requireNonNull(tree, "The input tree is null.");
+        return visitAsync(tree.getPseudoRoot(), order, action);
+    }
+    
+    /**
+     * Visits each node in the subtree rooted at the input node with an
+     * asynchronous action. The visit of a node is complete when the stage
+     * returned for it completes. The pseudoroot of a tree is not visited.
+     * 
+     * @param <E>    the tree node element type.
+     * @param root   the root of the subtree.
+     * @param order  the scheduling order.
+     * @param action the action to start for each node.
+     * @return the future completed when all the visits are complete.
+     */
+    public <E> CompletableFuture<Void> visitAsync(
+            TreeNode<E> root,
+            Order order,
+            Function<? super TreeNode<E>,
+                     ? extends CompletionStage<?>> action) {
+        Objects.requireNonNull(root, "The root node is null.");
+        Objects.requireNonNull(order, "The order is null.");
+        Objects.requireNonNull(action, "The action is null.");
+        Traversal<TreeNode<E>, Void> traversal =
+                new VisitTraversal<>(root, order, action);
+        traversal.drain();
+        return traversal.result;
+    }
+    
+    /**
+     * Combines the results of the children of each node in the subtree rooted
+     * at the input node into the result of the node, in post-order. The
+     * combiner of a node is started only after the results of all its
+     * children are complete, and receives them in the order of the children;
+     * the combiners of the unrelated subtrees run concurrently.
+     * 
+     * @param <E>      the tree node element type.
+     * @param <R>      the result type.
+     * @param root     the root of the subtree. Must not be a pseudoroot.
+     * @param combiner the function starting the computation of the result of
+     *                 a node from the results of its children.
+     * @return the future of the result of the root.
+     */
+    public <E, R> CompletableFuture<R> aggregate(
+            TreeNode<E> root,
+            BiFunction<? super TreeNode<E>,
+                       ? super List<R>,
+                       ? extends CompletionStage<R>> combiner) {
+        Objects.requireNonNull(root, "The root node is null.");
+        Objects.requireNonNull(combiner, "The combiner is null.");
+        
+        if (root.isPseudoRoot()) {
+            throw new IllegalArgumentException(
+                    "The root node must not be a pseudoroot.");
+        }
+        
+        Traversal<PendingNode<E, R>, R> traversal =
+                new AggregateTraversal<>(root, combiner);
+        traversal.drain();
+        return traversal.result;
+    }
+    
+    /**
+     * Holds the default executor, which is looked up reflectively so that
+     * this class runs on Java 8.
+     */
+    private static final class DefaultExecutorHolder {
+        
+        static final Executor EXECUTOR = createExecutor();
+        
+        private static Executor createExecutor() {
+            try {
+                return (Executor) Executors.class
+                        .getMethod("newVirtualThreadPerTaskExecutor")
+                        .invoke(null);
+            } catch (ReflectiveOperationException | RuntimeException ex) {
+                // No virtual threads, or only as a preview feature.
+                return ForkJoinPool.commonPool();
+            }
+        }
+    }
+    
+    /**
+     * This class implements the scheduling shared by the traversals. A
+     * traversal hands out the tasks ready to start under its lock, and starts
+     * them outside of it. Only one thread drains the ready tasks at a time;
+     * a visit completing meanwhile leaves its successors to the draining
+     * thread, which keeps the executor {@code Runnable::run} from recursing.
+     * 
+     * @param <T> the task type.
+     * @param <R> the result type.
+     */
+    private abstract class Traversal<T, R> {
+        
+        final CompletableFuture<R> result = new CompletableFuture<>();
+        
+        /**
+         * The number of visits in progress.
+         */
+        int active;
+        
+        private boolean draining;
+        
+        /**
+         * Returns the next task ready to start, or {@code null} if there is
+         * none. Called under the lock of this traversal.
+         */
+        abstract T nextTask();
+        
+        /**
+         * Starts the input task and returns the stage of its completion.
+         */
+        abstract CompletionStage<?> start(T task);
+        
+        /**
+         * Records the completion of the input task. Called under the lock of
+         * this traversal.
+         */
+        abstract void completed(T task, Object value);
+        
+        /**
+         * Called under the lock of this traversal when no tasks are in
+         * progress and none is ready.
+         */
+        void idle() {}
+        
+        final void drain() {
+            synchronized (this) {
+                if (draining) {
+                    return;
+                }
+                
+                draining = true;
+            }
+            
+            List<T> tasks = new ArrayList<>();
+            
+            while (true) {
+                synchronized (this) {
+                    while (!result.isDone() && active < parallelism) {
+                        T task = nextTask();
+                        
+                        if (task == null) {
+                            break;
+                        }
+                        
+                        tasks.add(task);
+                        active++;
+                    }
+                    
+                    if (tasks.isEmpty()) {
+                        draining = false;
+                        
+                        if (active == 0 && !result.isDone()) {
+                            idle();
+                        }
+                        
+                        return;
+                    }
+                }
+                
+                for (T task : tasks) {
+                    execute(task);
+                }
+                
+                tasks.clear();
+            }
+        }
+        
+        private void execute(T task) {
+            try {
+                executor.execute(() -> {
+                    CompletionStage<?> stage;
+                    
+                    try {
+                        stage = Objects.requireNonNull(
+                                start(task),
+                                "The action returned a null stage.");
+                    } catch (Throwable ex) {
+                        result.completeExceptionally(ex);
+                        return;
+                    }
+                    
+                    stage.whenComplete((value, ex) -> {
+                        if (ex != null) {
+                            result.completeExceptionally(ex);
+                            return;
+                        }
+                        
+                        synchronized (this) {
+                            active--;
+                            completed(task, value);
+                        }
+                        
+                        drain();
+                    });
+                });
+            } catch (RuntimeException ex) {
+                result.completeExceptionally(ex);
+            }
+        }
+    }
+    
+    /**
+     * This class implements a traversal visiting the nodes. The stack holds
+     * the cursors of the sibling lists still to be scheduled: the topmost
+     * cursor is the next node to schedule, and its next sibling replaces it.
+     */
+    private final class VisitTraversal<E>
+            extends Traversal<TreeNode<E>, Void> {
+        
+        private final TreeNode<E> root;
+        private final Order order;
+        private final Function<? super TreeNode<E>,
+                               ? extends CompletionStage<?>> action;
+        private final ArrayDeque<TreeNode<E>> cursors = new ArrayDeque<>();
+        
+        VisitTraversal(TreeNode<E> root,
+                       Order order,
+                       Function<? super TreeNode<E>,
+                                ? extends CompletionStage<?>> action) {
+            this.root = root;
+            this.order = order;
+            this.action = action;
+            
+            if (!root.isPseudoRoot()) {
+                cursors.push(root);
+            } else if (root.firstChild != null) {
+                cursors.push(root.firstChild);
+            }
+        }
+        
+        @Override
+        TreeNode<E> nextTask() {
+            TreeNode<E> node = cursors.poll();
+            
+            if (node == null) {
+                return null;
+            }
+            
+            if (node != root && node.nextSibling != null) {
+                cursors.push(node.nextSibling);
+            }
+            
+            if (order == Order.UNORDERED && node.firstChild != null) {
+                cursors.push(node.firstChild);
+            }
+            
+            return node;
+        }
+        
+        @Override
+        CompletionStage<?> start(TreeNode<E> node) {
+            return action.apply(node);
+        }
+        
+        @Override
+        void completed(TreeNode<E> node, Object value) {
+            if (order == Order.PARENTS_FIRST && node.firstChild != null) {
+                cursors.push(node.firstChild);
+            }
+        }
+        
+        @Override
+        void idle() {
+            result.complete(null);
+        }
+    }
+    
+    /**
+     * This class holds a node of an aggregation whose result is not yet
+     * complete.
+     */
+    private static final class PendingNode<E, R> {
+        
+        final TreeNode<E> node;
+        final PendingNode<E, R> parent;
+        final int index;
+        final Object[] childResults;
+        int pendingChildren;
+        
+        /**
+         * The child of this node to explore next, if any, and its index.
+         */
+        TreeNode<E> nextChild;
+        int nextChildIndex;
+        
+        PendingNode(TreeNode<E> node, PendingNode<E, R> parent, int index) {
+            this.node = node;
+            this.parent = parent;
+            this.index = index;
+            this.childResults = new Object[node.childCount];
+            this.pendingChildren = node.childCount;
+            this.nextChild = node.firstChild;
+        }
+        
+        @SuppressWarnings("unchecked")
+        List<R> getChildResults() {
+            return childResults.length == 0 ?
+                   Collections.emptyList() :
+                   Collections.unmodifiableList(
+                           Arrays.asList((R[]) childResults));
+        }
+    }
+    
+    /**
+     * This class implements a post-order aggregation. The nodes are explored
+     * depth-first from the stack of the nodes with unexplored children, and
+     * a node becomes ready once the results of all its children are
+     * complete. The ready nodes are preferred to exploring, so that the
+     * finished subtrees release their memory as early as possible.
+     */
+    private final class AggregateTraversal<E, R>
+            extends Traversal<PendingNode<E, R>, R> {
+        
+        private final BiFunction<? super TreeNode<E>,
+                                 ? super List<R>,
+                                 ? extends CompletionStage<R>> combiner;
+        private final ArrayDeque<PendingNode<E, R>> exploring =
+                new ArrayDeque<>();
+        private final ArrayDeque<PendingNode<E, R>> ready =
+                new ArrayDeque<>();
+        
+        AggregateTraversal(TreeNode<E> root,
+                           BiFunction<? super TreeNode<E>,
+                                      ? super List<R>,
+                                      ? extends CompletionStage<R>> combiner) {
+            this.combiner = combiner;
+            enqueue(new PendingNode<>(root, null, 0));
+        }
+        
+        @Override
+        PendingNode<E, R> nextTask() {
+            while (ready.isEmpty() && !exploring.isEmpty()) {
+                PendingNode<E, R> parent = exploring.peek();
+                TreeNode<E> child = parent.nextChild;
+                int index = parent.nextChildIndex++;
+                parent.nextChild = child.nextSibling;
+                
+                if (parent.nextChild == null) {
+                    exploring.pop();
+                }
+                
+                enqueue(new PendingNode<>(child, parent, index));
+            }
+            
+            return ready.poll();
+        }
+        
+        @Override
+        CompletionStage<?> start(PendingNode<E, R> pendingNode) {
+            return combiner.apply(pendingNode.node,
+                                  pendingNode.getChildResults());
+        }
+        
+        @Override
+        @SuppressWarnings("unchecked")
+        void completed(PendingNode<E, R> pendingNode, Object value) {
+            PendingNode<E, R> parent = pendingNode.parent;
+            
+            if (parent == null) {
+                result.complete((R) value);
+                return;
+            }
+            
+            parent.childResults[pendingNode.index] = value;
+            
+            if (--parent.pendingChildren == 0) {
+                ready.push(parent);
+            }
+        }
+        
+        private void enqueue(PendingNode<E, R> pendingNode) {
+            if (pendingNode.nextChild == null) {
+                ready.push(pendingNode);
+            } else {
+                exploring.push(pendingNode);
+            }
+        }
+    }
+}
@@ -0,0 +1,294 @@
+package net.coderodde.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * This class provides the bulk builders of {@link Tree}s. A builder takes the
+ * entire structure at once, as a parent index array, a stream of 
+ * {@code (id, parentId)} records or a pre-order depth sequence, and builds 
+ * the tree in a single linear pass: the input is checked for cycles once, and
+ * the nodes are linked bottom-up with their subtree sizes and heights 
+ * computed on the way, instead of paying for the cycle check and the 
+ * ancestor updates of {@link TreeNodeChildrenView#add(TreeNode)} and 
+ * {@link TreeNode#addChild(Object)} on every node.
+ * 
+ * <p>
+ * The children of each node are ordered by their indices in the input. The
+ * built tree is the same as if the nodes were added one by one in that order.
+ * </p>
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+public final class TreeBuilders {
+    
+    /**
+     * The parent index denoting a root.
+     */
+    public static final int NO_PARENT = -1;
+    
+    private TreeBuilders() {}
+    
+    /**
+     * Builds a tree from a parent index array. Node {@code i} holds the 
+     * element {@code elements.get(i)} and is a child of the node 
+     * {@code parents[i]}, or a root if the parent is {@link #NO_PARENT}. This
+     * runs in time linear in the number of nodes.
+     * 
+     * @param <E>      the tree node element type.
+     * @param elements the elements of the nodes.
+     * @param parents  the parent indices of the nodes.
+     * @return the built tree.
+     * @throws IllegalArgumentException if the lengths of the input differ, a
+     *                                  parent index is out of range, or the 
+     *                                  parent indices form a cycle.
+     */
+    public static <E> Tree<E> fromParentArray(List<? extends E> elements,
+                                              int[] parents) {
+        Objects.requireNonNull(elements, "The element list is null.");
+        Objects.requireNonNull(parents, "The parent array is null.");
+        
+        if (elements.size() != parents.length) {
+            throw new IllegalArgumentException(
+                    "The number of elements " + elements.size() + 
+                    " does not match the number of parents " + 
+                    parents.length + ".");
+        }
+        
+        return build(elements, parents);
+    }
+    
+    /**
+     * Builds a tree from a stream of records, each describing a node by its
+     * identifier, the identifier of its parent and its element. A record with
+     * the {@code null} parent identifier describes a root. The records may 
+     * come in any order; the children of a node are ordered by the order of
+     * their records. This runs in expected time linear in the number of 
+     * records.
+     * 
+     * @param <T>      the record type.
+     * @param <K>      the node identifier type.
+     * @param <E>      the tree node element type.
+     * @param records  the node records.
+     * @param id       the function mapping a record to the node identifier.
+     * @param parentId the function mapping a record to the parent identifier.
+     * @param element  the function mapping a record to the element.
+     * @return the built tree.
+     * @throws IllegalArgumentException if an identifier is {@code null} or 
+     *                                  duplicate, a parent is missing, or the
+     *                                  records form a cycle.
+     */
+    public static <T, K, E> Tree<E> fromEdges(
+            Stream<? extends T> records,
+            Function<? super T, ? extends K> id,
+            Function<? super T, ? extends K> parentId,
+            Function<? super T, ? extends E> element) {
+        Objects.requireNonNull(records, "The record stream is null.");
+        Objects.requireNonNull(id, "The identifier function is null.");
+        Objects.requireNonNull(parentId, "The parent function is null.");
+        Objects.requireNonNull(element, "The element function is null.");
+        
+        // Pre-size the containers if the number of records is known.
+        Spliterator<? extends T> spliterator = records.spliterator();
+        int capacity = (int) Math.min(spliterator.getExactSizeIfKnown(), 
+                                      Integer.MAX_VALUE / 2);
+        capacity = Math.max(capacity, 16);
+        Map<K, Integer> indices = new HashMap<>(2 * capacity);
+        List<K> parentIds = new ArrayList<>(capacity);
+        List<E> elements = new ArrayList<>(capacity);
+        Iterator<? extends T> iterator = Spliterators.iterator(spliterator);
+        
+        while (iterator.hasNext()) {
+            T record = iterator.next();
+            K key = id.apply(record);
+            
+            if (key == null) {
+                throw new IllegalArgumentException(
+                        "The node identifier is null.");
+            }
+            
+            if (indices.putIfAbsent(key, elements.size()) != null) {
+                throw new IllegalArgumentException(
+                        "Duplicate node identifier: " + key + ".");
+            }
+            
+            parentIds.add(parentId.apply(record));
+            elements.add(element.apply(record));
+        }
+        
+        int[] parents = new int[elements.size()];
+        
+        for (int i = 0; i < parents.length; i++) {
+            K key = parentIds.get(i);
+            
+            if (key == null) {
+                parents[i] = NO_PARENT;
+                continue;
+            }
+            
+            Integer parent = indices.get(key);
+            
+            if (parent == null) {
+                throw new IllegalArgumentException(
+                        "Missing parent node: " + key + ".");
+            }
+            
+            parents[i] = parent;
+        }
+        
+        return build(elements, parents);
+    }
+    
+    /**
+     * Builds a tree from the pre-order sequence of its nodes. Node {@code i} 
+     * holds the element {@code elements.get(i)} and has the depth 
+     * {@code depths[i]}, the roots having depth zero, which is the sequence 
+     * produced by a pre-order traversal. Such a sequence can not describe a
+     * cycle. This runs in time linear in the number of nodes.
+     * 
+     * @param <E>      the tree node element type.
+     * @param elements the elements of the nodes in pre-order.
+     * @param depths   the depths of the nodes in pre-order.
+     * @return the built tree.
+     * @throws IllegalArgumentException if the lengths of the input differ, or
+     *                                  a depth is negative or more than one 
+     *                                  greater than the preceding depth.
+     */
+    public static <E> Tree<E> fromPreorder(List<? extends E> elements,
+                                           int[] depths) {
+        Objects.requireNonNull(elements, "The element list is null.");
+        Objects.requireNonNull(depths, "The depth array is null.");
+        
+        if (elements.size() != depths.length) {
+            throw new IllegalArgumentException(
+                    "The number of elements " + elements.size() + 
+                    " does not match the number of depths " + 
+                    depths.length + ".");
+        }
+        
+        // 'path[d]' is the index of the last node at depth 'd'.
+        int[] path = new int[16];
+        int[] parents = new int[depths.length];
+        int previousDepth = -1;
+        
+        for (int i = 0; i < depths.length; i++) {
+            int depth = depths[i];
+            
+            if (depth < 0 || depth > previousDepth + 1) {
+                throw new IllegalArgumentException(
+                        "Invalid depth " + depth + " at index " + i + 
+                        " after depth " + previousDepth + ".");
+            }
+            
+            if (depth == path.length) {
+                path = Arrays.copyOf(path, 2 * path.length);
+            }
+            
+            parents[i] = depth == 0 ? NO_PARENT : path[depth - 1];
+            path[depth] = i;
+            previousDepth = depth;
+        }
+        
+        return build(elements, parents);
+    }
+    
+    /**
+     * Builds the tree described by the input parent index array.
+     */
+    @SuppressWarnings("unchecked")
+    private static <E> Tree<E> build(List<? extends E> elements, 
+                                     int[] parents) {
+        int size = parents.length;
+        
+        // Group the child indices by the parent with a counting sort. The 
+        // children of node 'i' are 'children[offsets[i]]' through 
+        // 'children[offsets[i + 1] - 1]', and the roots come last as the
+        // children of the pseudoroot with index 'size'.
+        int[] offsets = new int[size + 3];
+        
+        for (int i = 0; i < size; i++) {
+            int parent = parents[i];
+            
+            if (parent < NO_PARENT || parent >= size) {
+                throw new IllegalArgumentException(
+                        "Parent index " + parent + " of node " + i + 
+                        " is out of range.");
+            }
+            
+            offsets[(parent == NO_PARENT ? size : parent) + 2]++;
+        }
+        
+        for (int i = 2; i < offsets.length; i++) {
+            offsets[i] += offsets[i - 1];
+        }
+        
+        int[] children = new int[size];
+        
+        for (int i = 0; i < size; i++) {
+            int parent = parents[i] == NO_PARENT ? size : parents[i];
+            children[offsets[parent + 1]++] = i;
+        }
+        
+        // Now 'offsets[i]' is the start of the children of node 'i'. Order
+        // the nodes breadth-first from the roots, so that the children of 
+        // each node get consecutive positions: the children of the node at
+        // position 'p' are at the positions from 'childStarts[p]' up to 
+        // 'childStarts[p + 1]'. The nodes not reached are on cycles or below
+        // them.
+        int[] order = new int[size];
+        int[] childStarts = new int[size + 1];
+        int ordered = 0;
+        
+        for (int i = offsets[size]; i < size; i++) {
+            order[ordered++] = children[i];
+        }
+        
+        int rootCount = ordered;
+        
+        for (int head = 0; head < ordered; head++) {
+            int node = order[head];
+            childStarts[head] = ordered;
+            
+            for (int i = offsets[node]; i < offsets[node + 1]; i++) {
+                order[ordered++] = children[i];
+            }
+        }
+        
+        if (ordered < size) {
+            throw new IllegalArgumentException(
+                    "The input contains a cycle through " + 
+                    (size - ordered) + " nodes.");
+        }
+        
+        childStarts[size] = size;
+        
+        // Create the nodes by their positions, so that siblings are adjacent
+        // in memory, and link them bottom-up, so that the aggregates of the
+        // children are ready when their parent is linked.
+        TreeNode<E>[] nodes = (TreeNode<E>[]) new TreeNode<?>[size];
+        
+        for (int i = 0; i < size; i++) {
+            nodes[i] = new TreeNode<>(elements.get(order[i]));
+        }
+        
+        for (int i = size - 1; i >= 0; i--) {
+            nodes[i].linkBuiltChildren(nodes, 
+                                       childStarts[i], 
+                                       childStarts[i + 1]);
+        }
+        
+        Tree<E> tree = new Tree<>();
+        tree.getPseudoRoot().linkBuiltChildren(nodes, 0, rootCount);
+        return tree;
+    }
+}
@@ -0,0 +1,212 @@
+package net.coderodde.util;
+
+/**
+ * This class describes a change of a {@link Tree}, as delivered to the 
+ * {@link TreeChangeListener}s of the tree. A structural change concerns the
+ * entire subtree rooted at its node: an added or moved subtree is attached 
+ * with all its current descendants, and a removed one is detached with them.
+ * The parents are reported as they are, so the pseudoroot of the tree stands
+ * for the root level. An added or moved subtree is placed before its 
+ * {@linkplain #getSuccessor() successor} among the children of its new 
+ * parent, or after all of them if there is no successor.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ * @param <E> the tree node element type.
+ */
+public final class TreeChange<E> {
+    
+    /**
+     * This enumeration lists the change types.
+     */
+    public enum Type {
+        
+        /**
+         * A subtree was attached to the tree, before the successor among the
+         * children of its new parent or at their end.
+         */
+        ADDED,
+        
+        /**
+         * A subtree was detached from the tree.
+         */
+        REMOVED,
+        
+        /**
+         * A subtree was moved before the successor among the children of a 
+         * parent in the tree, possibly the same one, or to their end.
+         */
+        MOVED,
+        
+        /**
+         * The element of a tree node was replaced.
+         */
+        ELEMENT_CHANGED
+    }
+    
+    private final Type type;
+    private final TreeNode<E> node;
+    private final TreeNode<E> oldParent;
+    private final TreeNode<E> newParent;
+    private final TreeNode<E> successor;
+    private final E oldElement;
+    private final E newElement;
+    
+    TreeChange(Type type, 
+               TreeNode<E> node, 
+               TreeNode<E> oldParent, 
+               TreeNode<E> newParent,
+               TreeNode<E> successor,
+               E oldElement,
+               E newElement) {
+        this.type = type;
+        this.node = node;
+        this.oldParent = oldParent;
+        this.newParent = newParent;
+        this.successor = successor;
+        this.oldElement = oldElement;
+        this.newElement = newElement;
+    }
+    
+    static <E> TreeChange<E> added(TreeNode<E> node, 
+                                   TreeNode<E> parent,
+                                   TreeNode<E> successor) {
+        return new TreeChange<>(Type.ADDED, 
+                                node, 
+                                null, 
+                                parent, 
+                                successor, 
+                                null, 
+                                null);
+    }
+    
+    static <E> TreeChange<E> removed(TreeNode<E> node, TreeNode<E> parent) {
+        return new TreeChange<>(Type.REMOVED, 
+                                node, 
+                                parent, 
+                                null, 
+                                null, 
+                                null, 
+                                null);
+    }
+    
+    static <E> TreeChange<E> moved(TreeNode<E> node, 
+                                   TreeNode<E> oldParent, 
+                                   TreeNode<E> newParent,
+                                   TreeNode<E> successor) {
+        return new TreeChange<>(Type.MOVED, 
+                                node, 
+                                oldParent, 
+                                newParent, 
+                                successor, 
+                                null, 
+                                null);
+    }
+    
+    static <E> TreeChange<E> elementChanged(TreeNode<E> node, 
+                                            E oldElement, 
+                                            E newElement) {
+        return new TreeChange<>(Type.ELEMENT_CHANGED, 
+                                node, 
+                                null, 
+                                null, 
+                                null, 
+                                oldElement, 
+                                newElement);
+    }
+    
+    /**
+     * Returns the type of this change.
+     * 
+     * @return the change type.
+     */
+    public Type getType() {
+        return type;
+    }
+    
+    /**
+     * Returns the changed tree node: the root of the added, removed or moved
+     * subtree, or the tree node whose element was replaced.
+     * 
+     * @return the changed tree node.
+     */
+    public TreeNode<E> getNode() {
+        return node;
+    }
+    
+    /**
+     * Returns the parent the subtree was removed or moved from, or 
+     * {@code null} for the other change types.
+     * 
+     * @return the old parent.
+     */
+    public TreeNode<E> getOldParent() {
+        return oldParent;
+    }
+    
+    /**
+     * Returns the parent the subtree was added or moved to, or {@code null}
+     * for the other change types.
+     * 
+     * @return the new parent.
+     */
+    public TreeNode<E> getNewParent() {
+        return newParent;
+    }
+    
+    /**
+     * Returns the child of the new parent the subtree was added or moved 
+     * before, or {@code null} if it was added or moved to the end of the 
+     * children, and for the other change types. In a coalesced batch, the
+     * successor is the nearest next sibling of the subtree at the end of the
+     * transaction that is not added or moved later in the batch.
+     * 
+     * @return the successor.
+     */
+    public TreeNode<E> getSuccessor() {
+        return successor;
+    }
+    
+    /**
+     * Returns the replaced element of an {@link Type#ELEMENT_CHANGED} change,
+     * or {@code null} for the other change types.
+     * 
+     * @return the old element.
+     */
+    public E getOldElement() {
+        return oldElement;
+    }
+    
+    /**
+     * Returns the new element of an {@link Type#ELEMENT_CHANGED} change, or 
+     * {@code null} for the other change types.
+     * 
+     * @return the new element.
+     */
+    public E getNewElement() {
+        return newElement;
+    }
+    
+    @Override
+    public String toString() {
+        switch (type) {
+            case ADDED:
+                return "ADDED " + node + " to " + newParent + 
+                       successorToString();
+            
+            case REMOVED:
+                return "REMOVED " + node + " from " + oldParent;
+            
+            case MOVED:
+                return "MOVED " + node + " from " + oldParent + 
+                       " to " + newParent + successorToString();
+            
+            default:
+                return "ELEMENT_CHANGED " + oldElement + " to " + newElement;
+        }
+    }
+    
+    private String successorToString() {
+        return successor == null ? "" : " before " + successor;
+    }
+}
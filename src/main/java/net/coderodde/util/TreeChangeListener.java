@@ -0,0 +1,37 @@
+package net.coderodde.util;
+
+import java.util.List;
+
+/**
+ * This interface defines the listeners of the changes of a {@link Tree}. A 
+ * listener is registered with {@link Tree#addChangeListener}.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ * @param <E> the tree node element type.
+ */
+@FunctionalInterface
+public interface TreeChangeListener<E> {
+    
+    /**
+     * Called after the tree was changed. Outside a {@link TreeTransaction},
+     * each modification is delivered as a batch of its own. A transaction
+     * delivers a single batch on commit, in which the changes are coalesced 
+     * per tree node: each tree node appears in at most one structural change
+     * and one element change, describing the net effect of the transaction.
+     * The only exception is a subtree that was removed and attached again 
+     * within the transaction: the modifications of a detached subtree are not
+     * recorded, so it is reported as removed and then added instead of moved.
+     * The structural changes are ordered by the last structural modification
+     * of their tree nodes, each followed by the element change of its tree 
+     * node, if any; the tree nodes whose elements changed only are ordered by
+     * their last element change. Applying the changes in order, each 
+     * referring to the current state of its subtree and placing an added or
+     * moved subtree before its {@linkplain TreeChange#getSuccessor() 
+     * successor}, brings a copy of the tree up to date. A batch may mention 
+     * the tree nodes the listener has never seen.
+     * 
+     * @param changes the batch of changes.
+     */
+    void treeChanged(List<TreeChange<E>> changes);
+}
@@ -0,0 +1,563 @@
+package net.coderodde.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * This class implements an edit script transforming one {@link Tree}, the
+ * source, into another one, the target, computed from the subtree hashes of
+ * the two trees. The trees may be independent, or a tree and a copy of an
+ * earlier version of it, such as a replica being brought up to date.
+ * 
+ * <p>
+ * The trees are compared top-down from the pseudoroots, descending only into
+ * the pairs of tree nodes whose subtree hashes differ. The children of such a
+ * pair are matched first by equal subtree hashes, which leaves the matched
+ * subtrees out of the comparison altogether, then by equal elements, and 
+ * finally by equal numbers of children. The pairs matched in the last two 
+ * ways are compared in turn, and their elements are updated if they differ.
+ * The unmatched children of the source are deleted and those of the target
+ * are inserted, except that a deleted subtree equal to an inserted one 
+ * anywhere in the compared region is moved instead. The matched children that
+ * are out of order are moved as well, keeping the longest sequence of 
+ * children in order in place. With the hashes cached, the comparison takes 
+ * time proportional to the number of the compared pairs times the number of
+ * their children, i.e., to the changed region of the trees rather than to 
+ * their size.
+ * </p>
+ * 
+ * <p>
+ * The script is not guaranteed to be the shortest possible: finding one is
+ * at least quadratic in the size of the trees. Equal subtrees are never
+ * edited, however, and an edit of a single tree node of the target yields a
+ * single edit. Since the comparison relies on the hashes, two different
+ * subtrees with colliding hashes are taken as equal, which happens with
+ * negligible probability.
+ * </p>
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ * @param <E> the tree node element type.
+ */
+public final class TreeDiff<E> {
+    
+    private final List<TreeEdit<E>> edits;
+    
+    private TreeDiff(List<TreeEdit<E>> edits) {
+        this.edits = Collections.unmodifiableList(edits);
+    }
+    
+    /**
+     * Computes the edit script transforming the tree of the first input cache
+     * into the tree of the second one. The caches must hash the elements in
+     * the same way.
+     * 
+     * @param <E>    the tree node element type.
+     * @param source the hash cache of the source tree.
+     * @param target the hash cache of the target tree.
+     * @return the edit script.
+     */
+    public static <E> TreeDiff<E> compute(TreeHashCache<E> source,
+                                          TreeHashCache<E> target) {
+        Objects.requireNonNull(source, "The source hash cache is null.");
+        Objects.requireNonNull(target, "The target hash cache is null.");
+        return new Differ<>(source, target).run();
+    }
+    
+    /**
+     * Computes the edit script transforming the first input tree into the
+     * second one. This hashes both trees from scratch, so the comparison takes
+     * linear time; the trees compared repeatedly should be compared through
+     * their {@link TreeHashCache}s instead.
+     * 
+     * @param <E>    the tree node element type.
+     * @param source the source tree.
+     * @param target the target tree.
+     * @return the edit script.
+     */
+    public static <E> TreeDiff<E> compute(Tree<E> source, Tree<E> target) {
+        TreeHashCache<E> sourceCache = new TreeHashCache<>(source);
+        TreeHashCache<E> targetCache = new TreeHashCache<>(target);
+        
+        try {
+            return compute(sourceCache, targetCache);
+        } finally {
+            sourceCache.detach();
+            targetCache.detach();
+        }
+    }
+    
+    /**
+     * Returns the edits of this script. The updates and the deletions come
+     * first, followed by the insertions and the moves, which are ordered by
+     * their indices under each source parent.
+     * 
+     * @return the list of the edits.
+     */
+    public List<TreeEdit<E>> getEdits() {
+        return edits;
+    }
+    
+    /**
+     * Returns {@code true} only if the trees compared equal.
+     * 
+     * @return {@code true} if this script has no edits.
+     */
+    public boolean isEmpty() {
+        return edits.isEmpty();
+    }
+    
+    /**
+     * Applies this edit script to the source tree, which makes it equal to
+     * the target tree. The inserted subtrees are copied from the target tree,
+     * which is not modified. Both trees must be in the state this script was
+     * computed in.
+     */
+    public void apply() {
+        Set<TreeNode<E>> movedNodes =
+                Collections.newSetFromMap(new IdentityHashMap<>());
+        Map<TreeNode<E>, List<TreeEdit<E>>> attachments =
+                new LinkedHashMap<>();
+        
+        for (TreeEdit<E> edit : edits) {
+            switch (edit.getType()) {
+                case UPDATE:
+                    edit.getSourceNode()
+                        .setElement(edit.getTargetNode().getElement());
+                    break;
+                
+                case DELETE:
+                    TreeNode<E> node = edit.getSourceNode();
+                    node.parent.getChildren().remove(node);
+                    break;
+                
+                case MOVE:
+                case INSERT:
+                    if (edit.getType() == TreeEdit.Type.MOVE) {
+                        movedNodes.add(edit.getSourceNode());
+                    }
+                    
+                    attachments.computeIfAbsent(edit.getSourceParent(),
+                                                parent -> new ArrayList<>())
+                               .add(edit);
+                    break;
+            }
+        }
+        
+        for (Map.Entry<TreeNode<E>, List<TreeEdit<E>>> entry :
+                attachments.entrySet()) {
+            attach(entry.getKey(), entry.getValue(), movedNodes);
+        }
+    }
+    
+    /**
+     * Attaches the inserted and moved subtrees under the input parent, whose
+     * staying children are in order.
+     */
+    private void attach(TreeNode<E> parent,
+                        List<TreeEdit<E>> parentEdits,
+                        Set<TreeNode<E>> movedNodes) {
+        // The final children of the parent; 'null' marks an insertion.
+        List<TreeNode<E>> children = new ArrayList<>();
+        
+        for (TreeNode<E> child = parent.firstChild;
+                child != null;
+                child = child.nextSibling) {
+            if (!movedNodes.contains(child)) {
+                children.add(child);
+            }
+        }
+        
+        for (TreeEdit<E> edit : parentEdits) {
+            children.add(edit.getIndex(), edit.getSourceNode());
+        }
+        
+        // Keep the longest prefix of the children in place. The children
+        // moving away are skipped, as they leave later.
+        int keep = 0;
+        
+        for (TreeNode<E> child = parent.firstChild;
+                child != null && keep < children.size();
+                child = child.nextSibling) {
+            if (!movedNodes.contains(child)) {
+                if (children.get(keep) != child) {
+                    break;
+                }
+                
+                keep++;
+            }
+        }
+        
+        Deque<TreeEdit<E>> insertions = new ArrayDeque<>();
+        
+        for (TreeEdit<E> edit : parentEdits) {
+            if (edit.getType() == TreeEdit.Type.INSERT &&
+                    edit.getIndex() >= keep) {
+                insertions.add(edit);
+            }
+        }
+        
+        TreeNodeChildrenView<E> view = parent.getChildren();
+        
+        for (int i = keep; i < children.size(); i++) {
+            TreeNode<E> child = children.get(i);
+            
+            if (child == null) {
+                copy(insertions.removeFirst().getTargetNode(), parent);
+            } else {
+                // Re-append the child, which moves it to the end.
+                if (child.parent == parent) {
+                    view.remove(child);
+                }
+                
+                view.add(child);
+            }
+        }
+    }
+    
+    /**
+     * Appends a copy of the subtree of the input tree node to the children of
+     * the input parent, without recursion.
+     */
+    private static <E> void copy(TreeNode<E> node, TreeNode<E> parent) {
+        Deque<TreeNode<E>> nodes = new ArrayDeque<>();
+        Deque<TreeNode<E>> parents = new ArrayDeque<>();
+        nodes.push(node);
+        parents.push(parent);
+        
+        while (!nodes.isEmpty()) {
+            TreeNode<E> current = nodes.pop();
+            TreeNode<E> copy = parents.pop().addChild(current.getElement());
+            
+            for (TreeNode<E> child = current.lastChild;
+                    child != null;
+                    child = child.previousSibling) {
+                nodes.push(child);
+                parents.push(copy);
+            }
+        }
+    }
+    
+    /**
+     * This static nested class implements the computation of an edit script.
+     */
+    private static final class Differ<E> {
+        
+        private final TreeHashCache<E> sourceCache;
+        private final TreeHashCache<E> targetCache;
+        
+        private final List<TreeEdit<E>> updatesAndDeletions =
+                new ArrayList<>();
+        private final List<TreeEdit<E>> attachments = new ArrayList<>();
+        
+        /**
+         * The deletions by the hashes of the deleted subtrees, for turning
+         * deletions and insertions of equal subtrees into moves.
+         */
+        private final Map<Long, Deque<TreeEdit<E>>> deletions =
+                new HashMap<>();
+        
+        /**
+         * The pairs of tree nodes with differing hashes left to compare.
+         */
+        private final Deque<TreeNode<E>> pendingSources = new ArrayDeque<>();
+        private final Deque<TreeNode<E>> pendingTargets = new ArrayDeque<>();
+        
+        Differ(TreeHashCache<E> sourceCache, TreeHashCache<E> targetCache) {
+            this.sourceCache = sourceCache;
+            this.targetCache = targetCache;
+        }
+        
+        TreeDiff<E> run() {
+            TreeNode<E> sourceRoot = sourceCache.getTree().getPseudoRoot();
+            TreeNode<E> targetRoot = targetCache.getTree().getPseudoRoot();
+            
+            if (sourceCache.getHash(sourceRoot) !=
+                    targetCache.getHash(targetRoot)) {
+                pendingSources.push(sourceRoot);
+                pendingTargets.push(targetRoot);
+            }
+            
+            while (!pendingSources.isEmpty()) {
+                compare(pendingSources.pop(), pendingTargets.pop());
+            }
+            
+            // Turn the insertions of deleted subtrees into moves:
+            Set<TreeEdit<E>> movedDeletions =
+                    Collections.newSetFromMap(new IdentityHashMap<>());
+            
+            for (int i = 0; i < attachments.size(); i++) {
+                TreeEdit<E> edit = attachments.get(i);
+                
+                if (edit.getType() != TreeEdit.Type.INSERT ||
+                        deletions.isEmpty()) {
+                    continue;
+                }
+                
+                Deque<TreeEdit<E>> deque = deletions.get(
+                        targetCache.getHash(edit.getTargetNode()));
+                
+                if (deque != null && !deque.isEmpty()) {
+                    TreeEdit<E> deletion = deque.removeFirst();
+                    movedDeletions.add(deletion);
+                    attachments.set(i, TreeEdit.move(deletion.getSourceNode(),
+                                                     edit.getTargetNode(),
+                                                     edit.getSourceParent(),
+                                                     edit.getIndex()));
+                }
+            }
+            
+            List<TreeEdit<E>> edits = new ArrayList<>(
+                    updatesAndDeletions.size() + attachments.size());
+            
+            for (TreeEdit<E> edit : updatesAndDeletions) {
+                if (!movedDeletions.contains(edit)) {
+                    edits.add(edit);
+                }
+            }
+            
+            edits.addAll(attachments);
+            return new TreeDiff<>(edits);
+        }
+        
+        /**
+         * Compares the input pair of tree nodes with differing hashes.
+         */
+        private void compare(TreeNode<E> sourceNode, TreeNode<E> targetNode) {
+            if (!sourceNode.isPseudoRoot() &&
+                    !Objects.equals(sourceNode.getElement(),
+                                    targetNode.getElement())) {
+                updatesAndDeletions.add(TreeEdit.update(sourceNode,
+                                                        targetNode));
+            }
+            
+            TreeNode<E>[] sourceChildren = toArray(sourceNode);
+            TreeNode<E>[] targetChildren = toArray(targetNode);
+            
+            // The index of the matching source child of each target child:
+            int[] matches = new int[targetChildren.length];
+            Arrays.fill(matches, -1);
+            boolean[] matched = new boolean[sourceChildren.length];
+            long[] sourceHashes = new long[sourceChildren.length];
+            Map<Long, Deque<Integer>> byHash = new HashMap<>();
+            
+            for (int i = 0; i < sourceChildren.length; i++) {
+                sourceHashes[i] = sourceCache.getHash(sourceChildren[i]);
+                byHash.computeIfAbsent(sourceHashes[i],
+                                       hash -> new ArrayDeque<>())
+                      .add(i);
+            }
+            
+            int unmatched = 0;
+            
+            for (int i = 0; i < targetChildren.length; i++) {
+                Deque<Integer> deque =
+                        byHash.get(targetCache.getHash(targetChildren[i]));
+                
+                if (deque != null && !deque.isEmpty()) {
+                    matches[i] = deque.removeFirst();
+                    matched[matches[i]] = true;
+                } else {
+                    unmatched++;
+                }
+            }
+            
+            if (unmatched > 0) {
+                matchByElements(sourceChildren,
+                                targetChildren,
+                                matches,
+                                matched);
+                matchByChildCounts(sourceChildren,
+                                   targetChildren,
+                                   matches,
+                                   matched);
+            }
+            
+            for (int i = 0; i < sourceChildren.length; i++) {
+                if (!matched[i]) {
+                    TreeEdit<E> deletion = TreeEdit.delete(sourceChildren[i]);
+                    updatesAndDeletions.add(deletion);
+                    deletions.computeIfAbsent(sourceHashes[i],
+                                              hash -> new ArrayDeque<>())
+                             .add(deletion);
+                }
+            }
+            
+            boolean[] inOrder = longestIncreasingSubsequence(matches);
+            
+            for (int i = 0; i < targetChildren.length; i++) {
+                if (matches[i] == -1) {
+                    attachments.add(TreeEdit.insert(targetChildren[i],
+                                                    sourceNode,
+                                                    i));
+                } else if (!inOrder[i]) {
+                    attachments.add(TreeEdit.move(sourceChildren[matches[i]],
+                                                  targetChildren[i],
+                                                  sourceNode,
+                                                  i));
+                }
+            }
+        }
+        
+        /**
+         * Matches the unmatched children with equal elements, in order, and
+         * schedules the matched pairs for comparison.
+         */
+        private void matchByElements(TreeNode<E>[] sourceChildren,
+                                     TreeNode<E>[] targetChildren,
+                                     int[] matches,
+                                     boolean[] matched) {
+            Map<E, Deque<Integer>> byElement = new HashMap<>();
+            
+            for (int i = 0; i < sourceChildren.length; i++) {
+                if (!matched[i]) {
+                    byElement.computeIfAbsent(sourceChildren[i].getElement(),
+                                              element -> new ArrayDeque<>())
+                             .add(i);
+                }
+            }
+            
+            if (byElement.isEmpty()) {
+                return;
+            }
+            
+            for (int i = 0; i < targetChildren.length; i++) {
+                if (matches[i] != -1) {
+                    continue;
+                }
+                
+                Deque<Integer> deque =
+                        byElement.get(targetChildren[i].getElement());
+                
+                if (deque != null && !deque.isEmpty()) {
+                    match(i, deque.removeFirst(),
+                          sourceChildren, targetChildren, matches, matched);
+                }
+            }
+        }
+        
+        /**
+         * Matches the unmatched children with equal numbers of children, in
+         * order, and schedules the matched pairs for comparison. This pairs
+         * up the tree nodes whose elements were replaced.
+         */
+        private void matchByChildCounts(TreeNode<E>[] sourceChildren,
+                                        TreeNode<E>[] targetChildren,
+                                        int[] matches,
+                                        boolean[] matched) {
+            Map<Integer, Deque<Integer>> byChildCount = new HashMap<>();
+            
+            for (int i = 0; i < sourceChildren.length; i++) {
+                if (!matched[i]) {
+                    byChildCount.computeIfAbsent(sourceChildren[i].childCount,
+                                                 count -> new ArrayDeque<>())
+                                .add(i);
+                }
+            }
+            
+            if (byChildCount.isEmpty()) {
+                return;
+            }
+            
+            for (int i = 0; i < targetChildren.length; i++) {
+                if (matches[i] != -1) {
+                    continue;
+                }
+                
+                Deque<Integer> deque =
+                        byChildCount.get(targetChildren[i].childCount);
+                
+                if (deque != null && !deque.isEmpty()) {
+                    match(i, deque.removeFirst(),
+                          sourceChildren, targetChildren, matches, matched);
+                }
+            }
+        }
+        
+        private void match(int targetIndex,
+                           int sourceIndex,
+                           TreeNode<E>[] sourceChildren,
+                           TreeNode<E>[] targetChildren,
+                           int[] matches,
+                           boolean[] matched) {
+            matches[targetIndex] = sourceIndex;
+            matched[sourceIndex] = true;
+            pendingSources.push(sourceChildren[sourceIndex]);
+            pendingTargets.push(targetChildren[targetIndex]);
+        }
+        
+        @SuppressWarnings("unchecked")
+        private static <E> TreeNode<E>[] toArray(TreeNode<E> node) {
+            TreeNode<E>[] children =
+                    (TreeNode<E>[]) new TreeNode<?>[node.childCount];
+            int i = 0;
+            
+            for (TreeNode<E> child = node.firstChild;
+                    child != null;
+                    child = child.nextSibling) {
+                children[i++] = child;
+            }
+            
+            return children;
+        }
+        
+        /**
+         * Marks the entries of a longest strictly increasing subsequence of
+         * the non-negative entries of the input array. Runs in
+         * {@code O(n log n)} time.
+         */
+        private static boolean[] longestIncreasingSubsequence(int[] values) {
+            // 'tails[k]' is the index of the smallest tail of an increasing
+            // subsequence of length 'k + 1'.
+            int[] tails = new int[values.length];
+            int[] predecessors = new int[values.length];
+            int length = 0;
+            
+            for (int i = 0; i < values.length; i++) {
+                if (values[i] < 0) {
+                    continue;
+                }
+                
+                int low = 0;
+                int high = length;
+                
+                while (low < high) {
+                    int middle = (low + high) >>> 1;
+                    
+                    if (values[tails[middle]] < values[i]) {
+                        low = middle + 1;
+                    } else {
+                        high = middle;
+                    }
+                }
+                
+                predecessors[i] = low > 0 ? tails[low - 1] : -1;
+                tails[low] = i;
+                
+                if (low == length) {
+                    length++;
+                }
+            }
+            
+            boolean[] inSubsequence = new boolean[values.length];
+            
+            for (int i = length > 0 ? tails[length - 1] : -1;
+                    i >= 0;
+                    i = predecessors[i]) {
+                inSubsequence[i] = true;
+            }
+            
+            return inSubsequence;
+        }
+    }
+}
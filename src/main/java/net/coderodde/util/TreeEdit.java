@@ -0,0 +1,163 @@
+package net.coderodde.util;
+
+/**
+ * This class describes a single edit of an edit script computed by
+ * {@link TreeDiff}. An edit refers to the tree nodes of both trees: the
+ * source node is the tree node of the source tree the edit applies to, and
+ * the target node is its counterpart in the target tree. An insertion or a
+ * move attaches a subtree under a tree node of the source tree, the source
+ * parent, at the position the target node has among its siblings.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ * @param <E> the tree node element type.
+ */
+public final class TreeEdit<E> {
+    
+    /**
+     * This enumeration lists the edit types.
+     */
+    public enum Type {
+        
+        /**
+         * A copy of the subtree of the target node is inserted under the
+         * source parent. There is no source node.
+         */
+        INSERT,
+        
+        /**
+         * The subtree of the source node is deleted. There is no target node.
+         */
+        DELETE,
+        
+        /**
+         * The subtree of the source node is moved under the source parent,
+         * possibly the same one.
+         */
+        MOVE,
+        
+        /**
+         * The element of the source node is replaced with the element of the
+         * target node.
+         */
+        UPDATE
+    }
+    
+    private final Type type;
+    private final TreeNode<E> sourceNode;
+    private final TreeNode<E> targetNode;
+    private final TreeNode<E> sourceParent;
+    private final int index;
+    
+    private TreeEdit(Type type,
+                     TreeNode<E> sourceNode,
+                     TreeNode<E> targetNode,
+                     TreeNode<E> sourceParent,
+                     int index) {
+        this.type = type;
+        this.sourceNode = sourceNode;
+        this.targetNode = targetNode;
+        this.sourceParent = sourceParent;
+        this.index = index;
+    }
+    
+    static <E> TreeEdit<E> insert(TreeNode<E> targetNode, 
+                                  TreeNode<E> sourceParent, 
+                                  int index) {
+        return new TreeEdit<>(Type.INSERT, 
+                              null, 
+                              targetNode, 
+                              sourceParent, 
+                              index);
+    }
+    
+    static <E> TreeEdit<E> delete(TreeNode<E> sourceNode) {
+        return new TreeEdit<>(Type.DELETE, sourceNode, null, null, -1);
+    }
+    
+    static <E> TreeEdit<E> move(TreeNode<E> sourceNode, 
+                                TreeNode<E> targetNode,
+                                TreeNode<E> sourceParent,
+                                int index) {
+        return new TreeEdit<>(Type.MOVE, 
+                              sourceNode, 
+                              targetNode, 
+                              sourceParent, 
+                              index);
+    }
+    
+    static <E> TreeEdit<E> update(TreeNode<E> sourceNode, 
+                                  TreeNode<E> targetNode) {
+        return new TreeEdit<>(Type.UPDATE, sourceNode, targetNode, null, -1);
+    }
+    
+    /**
+     * Returns the type of this edit.
+     * 
+     * @return the edit type.
+     */
+    public Type getType() {
+        return type;
+    }
+    
+    /**
+     * Returns the tree node of the source tree this edit applies to, or
+     * {@code null} for an insertion.
+     * 
+     * @return the source node.
+     */
+    public TreeNode<E> getSourceNode() {
+        return sourceNode;
+    }
+    
+    /**
+     * Returns the counterpart of the source node in the target tree, or
+     * {@code null} for a deletion.
+     * 
+     * @return the target node.
+     */
+    public TreeNode<E> getTargetNode() {
+        return targetNode;
+    }
+    
+    /**
+     * Returns the tree node of the source tree an inserted or moved subtree
+     * is attached under, or {@code null} for the other edits. The pseudoroot
+     * of the source tree stands for the root level.
+     * 
+     * @return the source parent.
+     */
+    public TreeNode<E> getSourceParent() {
+        return sourceParent;
+    }
+    
+    /**
+     * Returns the position of an inserted or moved subtree among the children
+     * of the source parent once the edit script is applied, or -1 for the
+     * other edits.
+     * 
+     * @return the child index.
+     */
+    public int getIndex() {
+        return index;
+    }
+    
+    @Override
+    public String toString() {
+        switch (type) {
+            case INSERT:
+                return "INSERT " + targetNode + " under " + sourceParent + 
+                       " at " + index;
+            
+            case DELETE:
+                return "DELETE " + sourceNode;
+            
+            case MOVE:
+                return "MOVE " + sourceNode + " under " + sourceParent + 
+                       " at " + index;
+            
+            default:
+                return "UPDATE " + sourceNode + " to " + targetNode;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package net.coderodde.util;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * This interface defines the conversion of tree node elements to and from 
+ * bytes, used by the binary tree formats. The encoding of an element is 
+ * framed by the format, so that it needs to carry neither its own length nor
+ * a terminator. See {@link TreeElementCodecs} for the codecs of common 
+ * element types.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ * @param <E> the tree node element type.
+ */
+public interface TreeElementCodec<E> {
+    
+    /**
+     * Writes the encoding of the input element to the input output.
+     * 
+     * @param element the element to encode.
+     * @param output  the target output.
+     * @throws IOException if the output throws.
+     */
+    void encode(E element, DataOutput output) throws IOException;
+    
+    /**
+     * Decodes an element from the input buffer. The remaining bytes of the 
+     * buffer are exactly the bytes written by 
+     * {@link #encode(Object, DataOutput)}, in big-endian byte order. The 
+     * codec may read the buffer relative or absolute, but must not retain it.
+     * 
+     * @param buffer the buffer holding the encoding of the element.
+     * @return the decoded element.
+     */
+    E decode(ByteBuffer buffer);
+}
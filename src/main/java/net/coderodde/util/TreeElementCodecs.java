@@ -0,0 +1,96 @@
+package net.coderodde.util;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * This class provides the {@link TreeElementCodec}s of common element types.
+ * The elements must not be {@code null}.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+public final class TreeElementCodecs {
+    
+    private static final TreeElementCodec<Integer> INTEGER_CODEC = 
+            new TreeElementCodec<Integer>() {
+        @Override
+        public void encode(Integer element, DataOutput output) 
+                throws IOException {
+            output.writeInt(element);
+        }
+        
+        @Override
+        public Integer decode(ByteBuffer buffer) {
+            return buffer.getInt(buffer.position());
+        }
+    };
+    
+    private static final TreeElementCodec<Long> LONG_CODEC = 
+            new TreeElementCodec<Long>() {
+        @Override
+        public void encode(Long element, DataOutput output) 
+                throws IOException {
+            output.writeLong(element);
+        }
+        
+        @Override
+        public Long decode(ByteBuffer buffer) {
+            return buffer.getLong(buffer.position());
+        }
+    };
+    
+    private static final TreeElementCodec<String> STRING_CODEC = 
+            new TreeElementCodec<String>() {
+        @Override
+        public void encode(String element, DataOutput output) 
+                throws IOException {
+            output.write(element.getBytes(StandardCharsets.UTF_8));
+        }
+        
+        @Override
+        public String decode(ByteBuffer buffer) {
+            if (buffer.hasArray()) {
+                return new String(buffer.array(), 
+                                  buffer.arrayOffset() + buffer.position(), 
+                                  buffer.remaining(), 
+                                  StandardCharsets.UTF_8);
+            }
+            
+            byte[] bytes = new byte[buffer.remaining()];
+            buffer.duplicate().get(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    };
+    
+    private TreeElementCodecs() {}
+    
+    /**
+     * Returns the codec encoding an {@link Integer} in four bytes.
+     * 
+     * @return the integer codec.
+     */
+    public static TreeElementCodec<Integer> integers() {
+        return INTEGER_CODEC;
+    }
+    
+    /**
+     * Returns the codec encoding a {@link Long} in eight bytes.
+     * 
+     * @return the long codec.
+     */
+    public static TreeElementCodec<Long> longs() {
+        return LONG_CODEC;
+    }
+    
+    /**
+     * Returns the codec encoding a {@link String} in UTF-8.
+     * 
+     * @return the string codec.
+     */
+    public static TreeElementCodec<String> strings() {
+        return STRING_CODEC;
+    }
+}
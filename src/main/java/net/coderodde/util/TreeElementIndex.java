@@ -0,0 +1,259 @@
+package net.coderodde.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * This class implements a hash index mapping the keys of the elements of a 
+ * {@link Tree} to the tree nodes holding them. The key of an element is 
+ * extracted by a function given to 
+ * {@link Tree#enableElementIndex(Function, boolean)}; the identity function 
+ * indexes the elements themselves. A unique index holds at most one node per
+ * key, and a multi-valued index holds any number of them.
+ * 
+ * <p>
+ * The index is kept current by the tree: {@link TreeNode#setElement(Object)}
+ * rekeys the node, and attaching a subtree with 
+ * {@link TreeNode#addChild(Object)} or {@link TreeNodeChildrenView} adds its 
+ * nodes, while detaching it removes them. Moving a subtree within the indexed
+ * tree does not touch the index; moving it between trees costs time linear 
+ * in the size of the subtree. A lookup runs in expected constant time. In a 
+ * unique index, a mutation that would map a key to two nodes throws an 
+ * {@link IllegalArgumentException} and leaves both the tree and the index 
+ * unchanged.
+ * </p>
+ * 
+ * <p>
+ * The keys must not change while their elements are in the tree, other than
+ * through {@code setElement}.
+ * </p>
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ * @param <E> the tree node element type.
+ * @param <K> the key type.
+ */
+public final class TreeElementIndex<E, K> {
+    
+    private final Function<? super E, ? extends K> keyExtractor;
+    private final boolean unique;
+    
+    /**
+     * Maps each key to its tree node, or to the set of its tree nodes in a 
+     * multi-valued index if there is more than one.
+     */
+    private final Map<K, Object> map = new HashMap<>();
+    
+    /**
+     * The number of indexed tree nodes.
+     */
+    private int size;
+    
+    TreeElementIndex(Function<? super E, ? extends K> keyExtractor, 
+                     boolean unique) {
+        this.keyExtractor = 
+                Objects.requireNonNull(keyExtractor, 
+                                       "The key extractor is null.");
+        this.unique = unique;
+    }
+    
+    /**
+     * Returns {@code true} only if this index maps each key to at most one
+     * tree node.
+     * 
+     * @return {@code true} if this index is unique.
+     */
+    public boolean isUnique() {
+        return unique;
+    }
+    
+    /**
+     * Returns the number of indexed tree nodes, which is the size of the tree.
+     * 
+     * @return the number of indexed tree nodes.
+     */
+    public int size() {
+        return size;
+    }
+    
+    /**
+     * Returns a tree node whose element has the input key, or {@code null} if
+     * there is none. If several tree nodes have the key, any of them may be
+     * returned.
+     * 
+     * @param key the key to look up.
+     * @return a tree node with the key, or {@code null}.
+     */
+    @SuppressWarnings("unchecked")
+    public TreeNode<E> get(Object key) {
+        Object value = map.get(key);
+        
+        if (value instanceof Set) {
+            return ((Set<TreeNode<E>>) value).iterator().next();
+        }
+        
+        return (TreeNode<E>) value;
+    }
+    
+    /**
+     * Returns all the tree nodes whose elements have the input key, in no 
+     * particular order.
+     * 
+     * @param key the key to look up.
+     * @return the list of the tree nodes with the key.
+     */
+    @SuppressWarnings("unchecked")
+    public List<TreeNode<E>> getAll(Object key) {
+        Object value = map.get(key);
+        
+        if (value == null) {
+            return Collections.emptyList();
+        }
+        
+        if (value instanceof Set) {
+            return new ArrayList<>((Set<TreeNode<E>>) value);
+        }
+        
+        return Collections.singletonList((TreeNode<E>) value);
+    }
+    
+    /**
+     * Returns {@code true} only if some tree node has the input key.
+     * 
+     * @param key the key to look up.
+     * @return {@code true} if the key is indexed.
+     */
+    public boolean containsKey(Object key) {
+        return map.containsKey(key);
+    }
+    
+    /**
+     * Checks that the nodes of the subtree rooted at the input tree node can 
+     * be added to this index. Only a unique index may reject them.
+     * 
+     * @param root the root of the subtree.
+     * @throws IllegalArgumentException if a key would map to two nodes in a
+     *                                  unique index.
+     */
+    void checkAttach(TreeNode<E> root) {
+        if (!unique) {
+            return;
+        }
+        
+        // A single node, such as a new leaf, can not clash with itself.
+        Set<K> keys = root.firstChild == null ? null : new HashSet<>();
+        
+        for (TreeNode<E> node = root; 
+                node != null; 
+                node = root.nextInSubtree(node)) {
+            if (!node.isPseudoRoot()) {
+                K key = keyExtractor.apply(node.getElement());
+                
+                if (map.containsKey(key) || (keys != null && !keys.add(key))) {
+                    throw duplicateKey(key);
+                }
+            }
+        }
+    }
+    
+    /**
+     * Adds the input tree node to this index. The tree node must have passed
+     * {@link #checkAttach(TreeNode)}.
+     * 
+     * @param node the tree node to add.
+     */
+    void add(TreeNode<E> node) {
+        put(keyExtractor.apply(node.getElement()), node);
+    }
+    
+    /**
+     * Removes the input tree node from this index.
+     * 
+     * @param node the tree node to remove.
+     */
+    void remove(TreeNode<E> node) {
+        remove(keyExtractor.apply(node.getElement()), node);
+    }
+    
+    /**
+     * Removes all the tree nodes from this index.
+     */
+    void clear() {
+        map.clear();
+        size = 0;
+    }
+    
+    /**
+     * Rekeys the input tree node, which is about to get the input element.
+     * 
+     * @param node       the indexed tree node.
+     * @param newElement the new element of the tree node.
+     * @throws IllegalArgumentException if the new key would map to two nodes
+     *                                  in a unique index.
+     */
+    void update(TreeNode<E> node, E newElement) {
+        K oldKey = keyExtractor.apply(node.getElement());
+        K newKey = keyExtractor.apply(newElement);
+        
+        if (Objects.equals(oldKey, newKey)) {
+            return;
+        }
+        
+        if (unique && map.containsKey(newKey)) {
+            throw duplicateKey(newKey);
+        }
+        
+        remove(oldKey, node);
+        put(newKey, node);
+    }
+    
+    @SuppressWarnings("unchecked")
+    private void put(K key, TreeNode<E> node) {
+        Object value = map.putIfAbsent(key, node);
+        size++;
+        
+        if (value == null) {
+            return;
+        }
+        
+        if (value instanceof Set) {
+            ((Set<TreeNode<E>>) value).add(node);
+        } else {
+            Set<TreeNode<E>> nodes = 
+                    Collections.newSetFromMap(new IdentityHashMap<>(4));
+            nodes.add((TreeNode<E>) value);
+            nodes.add(node);
+            map.put(key, nodes);
+        }
+    }
+    
+    @SuppressWarnings("unchecked")
+    private void remove(K key, TreeNode<E> node) {
+        Object value = map.get(key);
+        size--;
+        
+        if (value instanceof Set) {
+            Set<TreeNode<E>> nodes = (Set<TreeNode<E>>) value;
+            nodes.remove(node);
+            
+            if (nodes.size() == 1) {
+                map.put(key, nodes.iterator().next());
+            }
+        } else {
+            map.remove(key);
+        }
+    }
+    
+    private static IllegalArgumentException duplicateKey(Object key) {
+        return new IllegalArgumentException(
+                "The key " + key + " is already in the unique index.");
+    }
+}
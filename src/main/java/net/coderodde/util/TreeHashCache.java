@@ -0,0 +1,240 @@
+package net.coderodde.util;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.ToLongFunction;
+
+/**
+ * This class implements a cache of the structural hashes of the subtrees of a
+ * {@link Tree}, also known as Merkle hashes. The hash of a subtree is computed
+ * from the hash of the element of its root and the hashes of the subtrees of
+ * the children, in order, so that two subtrees with equal elements in the
+ * same shape have the same hash, and two different subtrees have different
+ * hashes with high probability. The hash of the pseudoroot stands for the
+ * entire tree.
+ * 
+ * <p>
+ * The cache is bound to a single tree and listens to its changes: a change
+ * drops the cached hashes of the changed tree node and its ancestors, and the
+ * next query recomputes only the dropped hashes. After a single modification,
+ * a query takes time proportional to the depth of the modified tree node
+ * times the number of children of its ancestors. The cache takes memory
+ * proportional to the size of the tree; {@link #detach()} releases it.
+ * </p>
+ * 
+ * <p>
+ * The changes made in an open {@link TreeTransaction} are not seen until the
+ * transaction is committed. The elements must not change their hashes other
+ * than through {@link TreeNode#setElement(Object)}.
+ * </p>
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ * @param <E> the tree node element type.
+ */
+public final class TreeHashCache<E> {
+    
+    private final Tree<E> tree;
+    private final ToLongFunction<? super E> elementHasher;
+    private final TreeChangeListener<E> listener = this::treeChanged;
+    
+    /**
+     * The cached hashes of the tree nodes, including the pseudoroot. If the
+     * hash of a tree node is cached, so are the hashes of all its
+     * descendants.
+     */
+    private final Map<TreeNode<E>, Long> hashes = new IdentityHashMap<>();
+    
+    /**
+     * Constructs this cache for the input tree, hashing the elements with
+     * their {@link Object#hashCode()}, and registers it as a listener of the
+     * tree.
+     * 
+     * @param tree the tree to hash.
+     */
+    public TreeHashCache(Tree<E> tree) {
+        this(tree, element -> Objects.hashCode(element));
+    }
+    
+    /**
+     * Constructs this cache for the input tree and registers it as a listener
+     * of the tree. The element hasher must be consistent with the
+     * {@link Object#equals(Object)} of the elements, and it must accept
+     * {@code null} if the tree contains {@code null} elements.
+     * 
+     * @param tree          the tree to hash.
+     * @param elementHasher the hash function of the elements.
+     */
+    public TreeHashCache(Tree<E> tree,
+                         ToLongFunction<? super E> elementHasher) {
+        this.tree = Objects.requireNonNull(tree, "The input tree is null.");
+        this.elementHasher =
+                Objects.requireNonNull(elementHasher,
+                                       "The element hasher is null.");
+        tree.addChangeListener(listener);
+    }
+    
+    /**
+     * Returns the tree of this cache.
+     * 
+     * @return the tree.
+     */
+    public Tree<E> getTree() {
+        return tree;
+    }
+    
+    /**
+     * Unregisters this cache from its tree and drops the cached hashes. The
+     * cache must not be used afterwards.
+     */
+    public void detach() {
+        tree.removeChangeListener(listener);
+        hashes.clear();
+    }
+    
+    /**
+     * Returns the number of the cached hashes.
+     * 
+     * @return the number of the cached hashes.
+     */
+    int size() {
+        return hashes.size();
+    }
+    
+    /**
+     * Returns the hash of the entire tree.
+     * 
+     * @return the hash of the tree.
+     */
+    public long getTreeHash() {
+        return getHash(tree.getPseudoRoot());
+    }
+    
+    /**
+     * Returns the hash of the subtree rooted at the input tree node.
+     * 
+     * @param node the root of the subtree.
+     * @return the hash of the subtree.
+     * @throws IllegalArgumentException if the input tree node is not in the
+     *                                  tree of this cache.
+     */
+    public long getHash(TreeNode<E> node) {
+        Objects.requireNonNull(node, "The input tree node is null.");
+        
+        if (node.hooks != tree.getPseudoRoot().hooks) {
+            throw new IllegalArgumentException(
+                    "The input tree node is not in the tree of this cache.");
+        }
+        
+        Long hash = hashes.get(node);
+        return hash != null ? hash : computeHash(node);
+    }
+    
+    /**
+     * Computes the hashes missing in the subtree rooted at the input tree
+     * node without recursion, in post-order.
+     */
+    private long computeHash(TreeNode<E> root) {
+        List<TreeNode<E>> stack = new ArrayList<>();
+        stack.add(root);
+        
+        while (!stack.isEmpty()) {
+            TreeNode<E> node = stack.get(stack.size() - 1);
+            boolean childrenHashed = true;
+            
+            for (TreeNode<E> child = node.lastChild;
+                    child != null;
+                    child = child.previousSibling) {
+                if (!hashes.containsKey(child)) {
+                    stack.add(child);
+                    childrenHashed = false;
+                }
+            }
+            
+            if (childrenHashed) {
+                stack.remove(stack.size() - 1);
+                hashes.put(node, hashNode(node));
+            }
+        }
+        
+        return hashes.get(root);
+    }
+    
+    /**
+     * Combines the element hash of the input tree node with the hashes of its
+     * children, which must be cached.
+     */
+    private long hashNode(TreeNode<E> node) {
+        long hash = node.isPseudoRoot() ?
+                    0L :
+                    elementHasher.applyAsLong(node.getElement());
+        hash = mix(hash ^ 0x9E3779B97F4A7C15L);
+        
+        for (TreeNode<E> child = node.firstChild;
+                child != null;
+                child = child.nextSibling) {
+            hash = mix(hash + hashes.get(child) * 0xC2B2AE3D27D4EB4FL);
+        }
+        
+        return mix(hash ^ node.childCount);
+    }
+    
+    /**
+     * The finalizer of the SplitMix64 generator, which spreads every input
+     * bit over the entire output.
+     */
+    private static long mix(long hash) {
+        hash = (hash ^ (hash >>> 30)) * 0xBF58476D1CE4E5B9L;
+        hash = (hash ^ (hash >>> 27)) * 0x94D049BB133111EBL;
+        return hash ^ (hash >>> 31);
+    }
+    
+    /**
+     * Drops the hashes affected by the input changes.
+     */
+    private void treeChanged(List<TreeChange<E>> changes) {
+        for (TreeChange<E> change : changes) {
+            switch (change.getType()) {
+                case ADDED:
+                    invalidate(change.getNewParent());
+                    // The hashes cached for a subtree detached in a 
+                    // transaction may be stale.
+                    change.getNode().preorderIterator()
+                                    .forEachRemaining(hashes::remove);
+                    break;
+                
+                case REMOVED:
+                    invalidate(change.getOldParent());
+                    change.getNode().preorderIterator()
+                                    .forEachRemaining(hashes::remove);
+                    break;
+                
+                case MOVED:
+                    // The hashes of the moved subtree stay valid.
+                    invalidate(change.getOldParent());
+                    invalidate(change.getNewParent());
+                    break;
+                
+                case ELEMENT_CHANGED:
+                    invalidate(change.getNode());
+                    break;
+            }
+        }
+    }
+    
+    /**
+     * Drops the hashes of the input tree node and its ancestors. The walk
+     * stops at the first missing hash, as the hashes of its ancestors are
+     * missing as well.
+     */
+    private void invalidate(TreeNode<E> node) {
+        for (; node != null; node = node.parent) {
+            if (hashes.remove(node) == null) {
+                return;
+            }
+        }
+    }
+}
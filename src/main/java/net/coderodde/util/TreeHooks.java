@@ -0,0 +1,405 @@
+package net.coderodde.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * This class holds the optional services of a {@link Tree} that observe the
+ * modifications of its tree nodes: the element index and the change 
+ * listeners, and the node pool the new tree nodes are taken from. All the 
+ * tree nodes of a tree with hooks point to them, so that a modification 
+ * reaches them in constant time, and the tree nodes of a tree without hooks
+ * point to nothing, so that a modification costs a single {@code null} 
+ * check. Attaching a subtree to or detaching it from a tree with
+ * hooks updates the pointers in time linear in the size of the subtree; 
+ * moving a subtree within the tree does not.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ * @param <E> the tree node element type.
+ */
+final class TreeHooks<E> {
+    
+    /**
+     * The element index of the tree, or {@code null} if it is not enabled.
+     */
+    TreeElementIndex<E, ?> elementIndex;
+    
+    /**
+     * The node pool of the tree, or {@code null} if it is not enabled.
+     */
+    TreeNodePool<E> nodePool;
+    
+    /**
+     * The version of the structure of the tree the query indexes, such as 
+     * {@link LowestCommonAncestorIndex}, are validated against. It is 
+     * incremented on every structural modification of the tree.
+     */
+    final StructureVersion indexVersion = new StructureVersion();
+    
+    /**
+     * The version of the structure of the tree the cached depths of its tree
+     * nodes are validated against.
+     */
+    final StructureVersion depthVersion = new StructureVersion();
+    
+    /**
+     * The change listeners. The list is copied on modification, so that the
+     * listeners may unregister themselves while being notified.
+     */
+    private List<TreeChangeListener<E>> listeners = Collections.emptyList();
+    
+    /**
+     * The number of open transactions.
+     */
+    private int transactionDepth;
+    
+    /**
+     * The changes made in the open transactions.
+     */
+    private final List<TreeChange<E>> pendingChanges = new ArrayList<>();
+    
+    /**
+     * The roots of the subtrees released in the open transactions. They are
+     * cleared only after their removals are delivered.
+     */
+    private final List<TreeNode<E>> pendingReleases = new ArrayList<>();
+    
+    /**
+     * Makes the nodes of the subtree rooted at the input tree node point to 
+     * these hooks and adds them to the element index. The subtree must have
+     * passed {@link #checkAttach(TreeNode)}.
+     * 
+     * @param root the root of the subtree.
+     */
+    void attach(TreeNode<E> root) {
+        for (TreeNode<E> node = root; 
+                node != null; 
+                node = root.nextInSubtree(node)) {
+            if (elementIndex != null && !node.isPseudoRoot()) {
+                elementIndex.add(node);
+            }
+            
+            node.hooks = this;
+        }
+    }
+    
+    /**
+     * Removes the nodes of the subtree rooted at the input tree node from the
+     * element index and makes them point to no hooks.
+     * 
+     * @param root the root of the subtree.
+     */
+    void detach(TreeNode<E> root) {
+        for (TreeNode<E> node = root; 
+                node != null; 
+                node = root.nextInSubtree(node)) {
+            if (elementIndex != null && !node.isPseudoRoot()) {
+                elementIndex.remove(node);
+            }
+            
+            node.hooks = null;
+        }
+    }
+    
+    /**
+     * Checks that the subtree rooted at the input tree node can be attached.
+     * 
+     * @param root the root of the subtree.
+     * @throws IllegalArgumentException if the subtree violates the unique 
+     *                                  element index.
+     */
+    void checkAttach(TreeNode<E> root) {
+        if (elementIndex != null) {
+            elementIndex.checkAttach(root);
+        }
+    }
+    
+    /**
+     * Called before the element of the input tree node is replaced.
+     * 
+     * @param node       the tree node.
+     * @param newElement the new element.
+     * @throws IllegalArgumentException if the new element violates the unique
+     *                                  element index.
+     */
+    void beforeElementChange(TreeNode<E> node, E newElement) {
+        if (elementIndex != null) {
+            elementIndex.update(node, newElement);
+        }
+    }
+    
+    /**
+     * Records the input change if there are listeners.
+     * 
+     * @param change the change to record.
+     */
+    void record(TreeChange<E> change) {
+        if (listeners.isEmpty()) {
+            return;
+        }
+        
+        if (transactionDepth > 0) {
+            pendingChanges.add(change);
+        } else {
+            deliver(Collections.singletonList(change));
+        }
+    }
+    
+    /**
+     * Returns {@code true} only if changes are recorded.
+     * 
+     * @return {@code true} if there are listeners.
+     */
+    boolean isRecording() {
+        return !listeners.isEmpty();
+    }
+    
+    void addListener(TreeChangeListener<E> listener) {
+        List<TreeChangeListener<E>> newListeners = new ArrayList<>(listeners);
+        newListeners.add(listener);
+        listeners = newListeners;
+    }
+    
+    void removeListener(TreeChangeListener<E> listener) {
+        List<TreeChangeListener<E>> newListeners = new ArrayList<>(listeners);
+        newListeners.remove(listener);
+        listeners = newListeners;
+    }
+    
+    void beginTransaction() {
+        transactionDepth++;
+    }
+    
+    boolean isInTransaction() {
+        return transactionDepth > 0;
+    }
+    
+    /**
+     * Releases the input removed subtree once the open transactions commit.
+     * 
+     * @param root the root of the removed subtree.
+     */
+    void deferRelease(TreeNode<E> root) {
+        pendingReleases.add(root);
+    }
+    
+    void commitTransaction() {
+        if (--transactionDepth > 0) {
+            return;
+        }
+        
+        if (!pendingChanges.isEmpty()) {
+            List<TreeChange<E>> changes = coalesce(pendingChanges);
+            pendingChanges.clear();
+            
+            if (!changes.isEmpty()) {
+                deliver(Collections.unmodifiableList(changes));
+            }
+        }
+        
+        for (TreeNode<E> root : pendingReleases) {
+            root.releaseSubtree(null, nodePool);
+        }
+        
+        pendingReleases.clear();
+    }
+    
+    private void deliver(List<TreeChange<E>> changes) {
+        for (TreeChangeListener<E> listener : listeners) {
+            listener.treeChanged(changes);
+        }
+    }
+    
+    /**
+     * Coalesces the input changes into the net change of each tree node.
+     * 
+     * @param <E>     the tree node element type.
+     * @param changes the changes in the order they were made.
+     * @return the coalesced changes.
+     */
+    static <E> List<TreeChange<E>> coalesce(List<TreeChange<E>> changes) {
+        Map<TreeNode<E>, NodeChanges<E>> map = new IdentityHashMap<>();
+        
+        for (int i = 0; i < changes.size(); i++) {
+            TreeChange<E> change = changes.get(i);
+            NodeChanges<E> nodeChanges = map.get(change.getNode());
+            
+            if (nodeChanges == null) {
+                nodeChanges = new NodeChanges<>(change.getNode());
+                map.put(change.getNode(), nodeChanges);
+            }
+            
+            nodeChanges.add(change, i);
+        }
+        
+        NodeChanges<E>[] ordered = newNodeChangesArray(changes.size());
+        
+        for (NodeChanges<E> nodeChanges : map.values()) {
+            ordered[nodeChanges.index] = nodeChanges;
+        }
+        
+        // A subtree is placed before its nearest next sibling that is in 
+        // place by then, skipping the siblings placed later in the batch. 
+        // Going backwards, the successors of those siblings are known, so
+        // a whole run of them is skipped at once.
+        for (int i = ordered.length - 1; i >= 0; i--) {
+            NodeChanges<E> nodeChanges = ordered[i];
+            
+            if (nodeChanges == null || !nodeChanges.isAttached()) {
+                continue;
+            }
+            
+            TreeNode<E> successor = nodeChanges.node.nextSibling;
+            
+            while (successor != null) {
+                NodeChanges<E> successorChanges = map.get(successor);
+                
+                if (successorChanges == null || 
+                        !successorChanges.isAttached() ||
+                        successorChanges.index < i) {
+                    break;
+                }
+                
+                successor = successorChanges.successor;
+            }
+            
+            nodeChanges.successor = successor;
+        }
+        
+        List<TreeChange<E>> result = new ArrayList<>();
+        
+        for (NodeChanges<E> nodeChanges : ordered) {
+            if (nodeChanges != null) {
+                nodeChanges.appendNetChanges(result);
+            }
+        }
+        
+        return result;
+    }
+    
+    @SuppressWarnings("unchecked")
+    private static <E> NodeChanges<E>[] newNodeChangesArray(int size) {
+        return (NodeChanges<E>[]) new NodeChanges<?>[size];
+    }
+    
+    /**
+     * This static nested class collects the changes of a single tree node.
+     */
+    private static final class NodeChanges<E> {
+        
+        final TreeNode<E> node;
+        private TreeChange<E> firstStructural;
+        private TreeChange<E> lastStructural;
+        private TreeChange<E> firstElementChange;
+        private TreeChange<E> lastElementChange;
+        
+        /**
+         * Indicates whether the tree node was detached from the tree at some
+         * point. A detached subtree may change without recording anything.
+         */
+        private boolean detached;
+        
+        /**
+         * The index of the last structural change of the tree node, or of its
+         * last element change if it has no structural changes. An element 
+         * change must not move the structural change of its tree node past 
+         * the structural changes of other tree nodes made in between.
+         */
+        int index;
+        
+        /**
+         * The successor of the tree node in the coalesced batch, if its net
+         * change attaches it.
+         */
+        TreeNode<E> successor;
+        
+        NodeChanges(TreeNode<E> node) {
+            this.node = node;
+        }
+        
+        /**
+         * Returns {@code true} only if the net change of the tree node 
+         * attaches it to the tree.
+         * 
+         * @return {@code true} if the tree node ends up attached.
+         */
+        boolean isAttached() {
+            return lastStructural != null && 
+                   lastStructural.getType() != TreeChange.Type.REMOVED;
+        }
+        
+        void add(TreeChange<E> change, int index) {
+            if (change.getType() == TreeChange.Type.ELEMENT_CHANGED) {
+                if (firstElementChange == null) {
+                    firstElementChange = change;
+                }
+                
+                lastElementChange = change;
+                
+                if (firstStructural == null) {
+                    this.index = index;
+                }
+            } else {
+                if (firstStructural == null) {
+                    firstStructural = change;
+                }
+                
+                lastStructural = change;
+                detached |= change.getType() == TreeChange.Type.REMOVED;
+                this.index = index;
+            }
+        }
+        
+        void appendNetChanges(List<TreeChange<E>> result) {
+            boolean wasAttached = firstStructural == null ||
+                    firstStructural.getType() != TreeChange.Type.ADDED;
+            
+            if (firstStructural != null) {
+                if (!isAttached()) {
+                    if (wasAttached) {
+                        result.add(TreeChange.removed(
+                                node, firstStructural.getOldParent()));
+                    }
+                    
+                    return;
+                }
+                
+                if (!wasAttached) {
+                    // The listener reads the current element of a new node.
+                    result.add(TreeChange.added(
+                            node, lastStructural.getNewParent(), successor));
+                    return;
+                }
+                
+                if (detached) {
+                    // The subtree may have changed while it was detached, so
+                    // it is reported as replaced.
+                    result.add(TreeChange.removed(
+                            node, firstStructural.getOldParent()));
+                    result.add(TreeChange.added(
+                            node, lastStructural.getNewParent(), successor));
+                    return;
+                }
+                
+                result.add(TreeChange.moved(node, 
+                                            firstStructural.getOldParent(), 
+                                            lastStructural.getNewParent(),
+                                            successor));
+            }
+            
+            if (firstElementChange != null && 
+                    !Objects.equals(firstElementChange.getOldElement(), 
+                                    lastElementChange.getNewElement())) {
+                result.add(TreeChange.elementChanged(
+                        node, 
+                        firstElementChange.getOldElement(), 
+                        lastElementChange.getNewElement()));
+            }
+        }
+    }
+}
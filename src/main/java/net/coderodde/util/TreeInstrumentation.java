@@ -0,0 +1,235 @@
+package net.coderodde.util;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This class implements the opt-in runtime instrumentation of the hot paths of
+ * the trees. The instrumentation is enabled by starting the JVM with the 
+ * system property {@value #PROPERTY} set to {@code true}, and it cannot be 
+ * switched on or off afterwards: the flag is a constant, so that the 
+ * just-in-time compiler removes the instrumentation code from the hot paths
+ * altogether when it is disabled.
+ * 
+ * <p>
+ * When enabled, the events listed in {@link Counter} are counted in striped
+ * counters, which scale under contention from many threads. In addition, 
+ * on Java 11 and later, unless the runtime lacks JDK Flight Recorder, each 
+ * conversion of a tree to a string is recorded as the 
+ * {@code net.coderodde.util.TreeRender} event, 
+ * and the counter values are recorded periodically as the 
+ * {@code net.coderodde.util.TreeCounters} event.
+ * </p>
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+public final class TreeInstrumentation {
+    
+    /**
+     * The name of the system property enabling the instrumentation.
+     */
+    public static final String PROPERTY = "net.coderodde.util.instrumentation";
+    
+    /**
+     * This enumeration lists the instrumented events.
+     */
+    public enum Counter {
+        
+        /**
+         * The allocations of {@link TreeNode} objects, including the 
+         * pseudoroots.
+         */
+        NODE_ALLOCATIONS,
+        
+        /**
+         * The parent links followed by the ancestor checks, including the 
+         * cycle checks of {@link TreeNodeChildrenView#add(TreeNode)}. Checks
+         * answered by the ancestor index of a tree take no steps.
+         */
+        ANCESTOR_STEPS,
+        
+        /**
+         * The tree nodes moved from one parent to another by 
+         * {@link TreeNodeChildrenView#add(TreeNode)}.
+         */
+        REPARENTS,
+        
+        /**
+         * The children removed through a {@link TreeNodeChildrenView} one by
+         * one.
+         */
+        REMOVALS,
+        
+        /**
+         * The calls to {@link TreeNodeChildrenView#clear()}.
+         */
+        CLEARS,
+        
+        /**
+         * The tree nodes emitted by the {@link TreeToStringConverter} 
+         * implementations.
+         */
+        RENDERED_NODES,
+        
+        /**
+         * The characters emitted by the {@link TreeToStringConverter} 
+         * implementations.
+         */
+        RENDERED_CHARACTERS,
+        
+        /**
+         * The tree nodes taken from the node pool of a tree instead of being
+         * allocated.
+         */
+        POOLED_ALLOCATIONS,
+        
+        /**
+         * The tree nodes released by {@link Tree#release(TreeNode)}.
+         */
+        RELEASED_NODES
+    }
+    
+    /**
+     * Indicates whether the instrumentation is enabled. The instrumented code
+     * checks this constant before doing any work.
+     */
+    static final boolean ENABLED = Boolean.getBoolean(PROPERTY);
+    
+    private static final LongAdder[] COUNTERS = 
+            new LongAdder[Counter.values().length];
+    
+    /**
+     * The name of the class recording the Flight Recorder events. It is 
+     * compiled separately for Java 11, so it is loaded reflectively.
+     */
+    private static final String EVENT_RECORDER_CLASS_NAME = 
+            "net.coderodde.util.TreeEvents";
+    
+    /**
+     * The recorder of the Flight Recorder events, or {@code null} if no 
+     * events are recorded.
+     */
+    private static final EventRecorder EVENT_RECORDER;
+    
+    static {
+        for (int i = 0; i < COUNTERS.length; i++) {
+            COUNTERS[i] = new LongAdder();
+        }
+        
+        EventRecorder eventRecorder = null;
+        
+        if (ENABLED) {
+            try {
+                eventRecorder = (EventRecorder) 
+                        Class.forName(EVENT_RECORDER_CLASS_NAME)
+                             .getDeclaredConstructor()
+                             .newInstance();
+            } catch (ReflectiveOperationException | LinkageError ex) {
+                // No Flight Recorder in this runtime; the counters still work.
+            }
+        }
+        
+        EVENT_RECORDER = eventRecorder;
+    }
+    
+    private TreeInstrumentation() {}
+    
+    /**
+     * Returns {@code true} only if the instrumentation is enabled.
+     * 
+     * @return {@code true} if the instrumentation is enabled.
+     */
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+    
+    /**
+     * Returns the current value of the input counter. The value is not an 
+     * atomic snapshot if the counter is updated concurrently. All the 
+     * counters stay at zero while the instrumentation is disabled.
+     * 
+     * @param counter the counter to read.
+     * @return the value of the counter.
+     */
+    public static long get(Counter counter) {
+        Objects.requireNonNull(counter, "The input counter is null.");
+        return COUNTERS[counter.ordinal()].sum();
+    }
+    
+    /**
+     * Resets all the counters to zero.
+     */
+    public static void reset() {
+        for (LongAdder counter : COUNTERS) {
+            counter.reset();
+        }
+    }
+    
+    static void increment(Counter counter) {
+        COUNTERS[counter.ordinal()].increment();
+    }
+    
+    static void add(Counter counter, long amount) {
+        COUNTERS[counter.ordinal()].add(amount);
+    }
+    
+    /**
+     * Starts timing a conversion of a tree to a string. The returned token is
+     * passed to {@link #endRender(Object, Object, long, long)}.
+     * 
+     * @return the token of the conversion, or {@code null} if no event is
+     *         recorded.
+     */
+    static Object beginRender() {
+        return EVENT_RECORDER != null ? EVENT_RECORDER.beginRender() : null;
+    }
+    
+    /**
+     * Counts a finished conversion of a tree to a string and records its 
+     * event.
+     * 
+     * @param token      the token returned by {@link #beginRender()}.
+     * @param converter  the converter.
+     * @param nodes      the number of the emitted tree nodes.
+     * @param characters the number of the emitted characters.
+     */
+    static void endRender(Object token, 
+                          Object converter, 
+                          long nodes, 
+                          long characters) {
+        add(Counter.RENDERED_NODES, nodes);
+        add(Counter.RENDERED_CHARACTERS, characters);
+        
+        if (token != null) {
+            EVENT_RECORDER.endRender(token, converter, nodes, characters);
+        }
+    }
+    
+    /**
+     * This interface is implemented by the recorder of the Flight Recorder 
+     * events.
+     */
+    interface EventRecorder {
+        
+        /**
+         * Starts the event of a conversion of a tree to a string.
+         * 
+         * @return the started event.
+         */
+        Object beginRender();
+        
+        /**
+         * Ends and commits the event of a conversion of a tree to a string.
+         * 
+         * @param token      the event returned by {@link #beginRender()}.
+         * @param converter  the converter.
+         * @param nodes      the number of the emitted tree nodes.
+         * @param characters the number of the emitted characters.
+         */
+        void endRender(Object token, 
+                       Object converter, 
+                       long nodes, 
+                       long characters);
+    }
+}
@@ -0,0 +1,313 @@
+package net.coderodde.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+
+/**
+ * This class implements a parallel map-reduce over subtrees on top of the 
+ * fork/join framework. Each node is mapped to a value, and the values are 
+ * combined in pre-order, so that the combiner must be associative, but needs 
+ * not be commutative.
+ * 
+ * <p>
+ * The work is split at child list boundaries: a range of sibling subtrees is
+ * cut in a single pass into chunks of about {@link #SEQUENTIAL_THRESHOLD}
+ * estimated nodes, which are folded sequentially, and a single subtree is 
+ * split into its root and the range of its children. The stale subtree sizes
+ * are recomputed by the first split that needs them. The tasks do not 
+ * recurse on the thread stack, so arbitrarily deep trees are supported.
+ * </p>
+ * 
+ * <p>
+ * The tree must not be modified while a map-reduce is in progress.
+ * </p>
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+public final class TreeMapReduce {
+    
+    /**
+     * The estimated number of nodes below which a range of subtrees is 
+     * processed sequentially.
+     */
+    public static final int SEQUENTIAL_THRESHOLD = 1024;
+    
+    
+    private TreeMapReduce() {}
+    
+    /**
+     * Maps each node in the subtree rooted at {@code root} and combines the 
+     * results in pre-order using the common fork/join pool.
+     * 
+     * @param <E>      the tree node element type.
+     * @param <R>      the result type.
+     * @param root     the root of the subtree. Must not be a pseudoroot.
+     * @param mapper   the mapping function. Must not return {@code null}.
+     * @param combiner the associative combining function.
+     * @return the combined result.
+     */
+    public static <E, R> R mapReduce(
+            TreeNode<E> root,
+            Function<? super TreeNode<E>, ? extends R> mapper,
+            BinaryOperator<R> combiner) {
+        return mapReduce(ForkJoinPool.commonPool(), root, mapper, combiner);
+    }
+    
+    /**
+     * Maps each node in the subtree rooted at {@code root} and combines the 
+     * results in pre-order using the given fork/join pool.
+     * 
+     * @param <E>      the tree node element type.
+     * @param <R>      the result type.
+     * @param pool     the fork/join pool to run the tasks in.
+     * @param root     the root of the subtree. Must not be a pseudoroot.
+     * @param mapper   the mapping function. Must not return {@code null}.
+     * @param combiner the associative combining function.
+     * @return the combined result.
+     */
+    public static <E, R> R mapReduce(
+            ForkJoinPool pool,
+            TreeNode<E> root,
+            Function<? super TreeNode<E>, ? extends R> mapper,
+            BinaryOperator<R> combiner) {
+        Objects.requireNonNull(pool, "The fork/join pool is null.");
+        Objects.requireNonNull(root, "The root node is null.");
+        Objects.requireNonNull(mapper, "The mapper is null.");
+        Objects.requireNonNull(combiner, "The combiner is null.");
+        
+        if (root.isPseudoRoot()) {
+            throw new IllegalArgumentException(
+                    "The root node must not be a pseudoroot.");
+        }
+        
+        return pool.invoke(new MapReduceTask<>(root, 
+                                               root,
+                                               1,
+                                               mapper, 
+                                               combiner));
+    }
+    
+    /**
+     * Maps each node of the input tree and combines the results in pre-order
+     * using the common fork/join pool.
+     * 
+     * @param <E>      the tree node element type.
+     * @param <R>      the result type.
+     * @param tree     the tree to process.
+     * @param identity the result for an empty tree.
+     * @param mapper   the mapping function. Must not return {@code null}.
+     * @param combiner the associative combining function.
+     * @return the combined result.
+     */
+    public static <E, R> R mapReduce(
+            Tree<E> tree,
+            R identity,
+            Function<? super TreeNode<E>, ? extends R> mapper,
+            BinaryOperator<R> combiner) {
+        return mapReduce(ForkJoinPool.commonPool(), 
+                         tree, 
+                         identity,
+                         mapper,
+                         combiner);
+    }
+    
+    /**
+     * Maps each node of the input tree and combines the results in pre-order
+     * using the given fork/join pool.
+     * 
+     * @param <E>      the tree node element type.
+     * @param <R>      the result type.
+     * @param pool     the fork/join pool to run the tasks in.
+     * @param tree     the tree to process.
+     * @param identity the result for an empty tree.
+     * @param mapper   the mapping function. Must not return {@code null}.
+     * @param combiner the associative combining function.
+     * @return the combined result.
+     */
+    public static <E, R> R mapReduce(
+            ForkJoinPool pool,
+            Tree<E> tree,
+            R identity,
+            Function<? super TreeNode<E>, ? extends R> mapper,
+            BinaryOperator<R> combiner) {
+        Objects.requireNonNull(pool, "The fork/join pool is null.");
+        Objects.requireNonNull(tree, "The input tree is null.");
+        Objects.requireNonNull(mapper, "The mapper is null.");
+        Objects.requireNonNull(combiner, "The combiner is null.");
+        TreeNode<E> pseudoroot = tree.getPseudoRoot();
+        
+        if (pseudoroot.firstChild == null) {
+            return identity;
+        }
+        
+        return pool.invoke(new MapReduceTask<>(pseudoroot.firstChild,
+                                               pseudoroot.lastChild,
+                                               pseudoroot.childCount,
+                                               mapper,
+                                               combiner));
+    }
+    
+    /**
+     * This class implements the task processing a range of sibling subtrees.
+     */
+    private static final class MapReduceTask<E, R> extends RecursiveTask<R> {
+        
+        private static final long serialVersionUID = 1L;
+        
+        private TreeNode<E> first;
+        private TreeNode<E> last;
+        private int count;
+        private final Function<? super TreeNode<E>, ? extends R> mapper;
+        private final BinaryOperator<R> combiner;
+        
+        MapReduceTask(TreeNode<E> first,
+                      TreeNode<E> last,
+                      int count,
+                      Function<? super TreeNode<E>, ? extends R> mapper,
+                      BinaryOperator<R> combiner) {
+            this.first = first;
+            this.last = last;
+            this.count = count;
+            this.mapper = mapper;
+            this.combiner = combiner;
+        }
+        
+        @Override
+        protected R compute() {
+            // The forked tasks; the topmost one comes first in pre-order.
+            ArrayDeque<MapReduceTask<E, R>> forkedTasks = new ArrayDeque<>();
+            List<MapReduceTask<E, R>> chunkTasks = new ArrayList<>();
+            R result = null;
+            
+            while (first != null) {
+                if (count == 1) {
+                    // Map the root and continue with its children.
+                    result = combine(result, mapper.apply(first));
+                    count = first.childCount;
+                    last = first.lastChild;
+                    first = first.firstChild;
+                    continue;
+                }
+                
+                if (!splitIntoChunks(chunkTasks)) {
+                    result = combine(result, computeSequentially());
+                    break;
+                }
+                
+                // Fork in the reverse pre-order so that the earliest chunk is
+                // on top of both the work queue and the stack of forked tasks,
+                // and can be joined without blocking.
+                for (int i = chunkTasks.size() - 1; i >= 0; i--) {
+                    MapReduceTask<E, R> task = chunkTasks.get(i);
+                    task.fork();
+                    forkedTasks.push(task);
+                }
+                
+                chunkTasks.clear();
+            }
+            
+            while (!forkedTasks.isEmpty()) {
+                result = combine(result, forkedTasks.pop().join());
+            }
+            
+            return result;
+        }
+        
+        /**
+         * Cuts the range of this task in a single pass into chunks of roughly
+         * {@link #SEQUENTIAL_THRESHOLD} estimated nodes, creates a task for 
+         * each chunk but the first one, and shrinks this task to the first 
+         * chunk. If the entire range fits in a single chunk, nothing is done.
+         * 
+         * @param chunkTasks the list for the new tasks in pre-order.
+         * @return {@code true} if the range was split.
+         */
+        private boolean splitIntoChunks(List<MapReduceTask<E, R>> chunkTasks) {
+            TreeNode<E> chunkFirst = null;
+            TreeNode<E> firstChunkLast = null;
+            int firstChunkCount = 0;
+            int chunkCount = 0;
+            long weight = 0;
+            
+            for (TreeNode<E> node = first; ; node = node.nextSibling) {
+                if (chunkFirst == null) {
+                    chunkFirst = node;
+                }
+                
+                weight += TreeNodeSpliterator.estimateSubtreeSize(node);
+                chunkCount++;
+                
+                if (weight >= SEQUENTIAL_THRESHOLD || node == last) {
+                    if (firstChunkLast == null) {
+                        if (node == last) {
+                            return false;
+                        }
+                        
+                        firstChunkLast = node;
+                        firstChunkCount = chunkCount;
+                    } else {
+                        chunkTasks.add(new MapReduceTask<>(chunkFirst,
+                                                           node, 
+                                                           chunkCount,
+                                                           mapper,
+                                                           combiner));
+                    }
+                    
+                    chunkFirst = null;
+                    chunkCount = 0;
+                    weight = 0;
+                }
+                
+                if (node == last) {
+                    break;
+                }
+            }
+            
+            last = firstChunkLast;
+            count = firstChunkCount;
+            return true;
+        }
+        
+        /**
+         * Folds the remaining range on the current thread.
+         * 
+         * @return the combined result of the range.
+         */
+        private R computeSequentially() {
+            R result = null;
+            TreeNode<E> parent = first.parent;
+            TreeNode<E> node = first;
+            
+            while (true) {
+                result = combine(result, mapper.apply(node));
+                
+                if (node.firstChild != null) {
+                    node = node.firstChild;
+                    continue;
+                }
+                
+                // Climb up until a node with a next sibling is found:
+                while (node.parent != parent && node.nextSibling == null) {
+                    node = node.parent;
+                }
+                
+                if (node == last) {
+                    return result;
+                }
+                
+                node = node.nextSibling;
+            }
+        }
+        
+        private R combine(R result, R value) {
+            return result == null ? value : combiner.apply(result, value);
+        }
+    }
+}
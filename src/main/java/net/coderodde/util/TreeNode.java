@@ -1,8 +1,10 @@
 package net.coderodde.util;
 
-import java.util.LinkedHashSet;
+import java.util.Iterator;
 import java.util.Objects;
-import java.util.Set;
+import java.util.Spliterator;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * This class implements a general tree node.
@@ -13,6 +15,22 @@ import java.util.Set;
  */
 public final class TreeNode<E> {
     
+    /**
+     * The version of the structure of the trees without hooks the cached 
+     * depths of their nodes are validated against. It is incremented whenever
+     * a subtree with possibly cached depths is attached or detached, which 
+     * invalidates all the cached depths at once. The trees with hooks have
+     * their own depth versions.
+     */
+    private static final StructureVersion SHARED_DEPTH_VERSION = 
+            new StructureVersion();
+    
+    /**
+     * The maximum number of ancestors the subtree sizes and heights are 
+     * updated in place for after a modification of a child list.
+     */
+    private static final int MAXIMUM_EAGER_UPDATE_LENGTH = 32;
+    
     /**
      * The element stored in this tree node. May be {@code null}.
      */
@@ -21,40 +39,138 @@ public final class TreeNode<E> {
     /**
      * The parent node of this tree node. We need this in order to make sure
      * that there is no cycles, i.e., a node cannot be both its own predecessor
-     * and successor.
-     * 
-     * This field is kept package-private so that the TODO
+     * and successor. Also, a tree node is a child of another tree node if and
+     * only if its parent is that another tree node, which gives us constant
+     * time membership queries in {@link TreeNodeChildrenView}.
      */
     TreeNode<E> parent;
     
     /**
-     * The set of child nodes. We will use {@link java.util.LinkedHashSet} for 
-     * the child set implementation. While this allows adding/removing in 
-     * average constant time, the child nodes will be ordered by their 
-     * insertion order, i.e., if 'A' is first added to a specific tree node 'N', 
-     * after which 'B' is added to 'N', when iterating over children of 'N', 'A'
-     * will be always returned before 'B'.
+     * The first child of this tree node, or {@code null} if this tree node is
+     * a leaf. The children of a tree node are kept in an intrusive, doubly-
+     * linked list threaded through the {@link #previousSibling} and
+     * {@link #nextSibling} fields of the children. This allows adding and 
+     * removing children in constant time, while the child nodes are ordered 
+     * by their insertion order, i.e., if 'A' is first added to a specific tree
+     * node 'N', after which 'B' is added to 'N', when iterating over children 
+     * of 'N', 'A' will be always returned before 'B'. Unlike a per-node child
+     * set, the list costs nothing for leaves and needs no extra objects for 
+     * internal nodes.
      * 
-     * This field is kept package-private so that the 
-     * {@link TreeNodeChildrenView} can access the actual set of child tree
-     * nodes.
+     * The child list fields are kept package-private so that the 
+     * {@link TreeNodeChildrenView} can access them.
      */
-    Set<TreeNode<E>> children;
+    TreeNode<E> firstChild;
     
     /**
-     * The view object over this tree node's children. It is kept 
-     * package-private so that {@link TreeNodeChildrenView} can access it.
+     * The last child of this tree node, or {@code null} if this tree node is
+     * a leaf.
+     */
+    TreeNode<E> lastChild;
+    
+    /**
+     * The previous node in the child list of the parent of this tree node.
+     */
+    TreeNode<E> previousSibling;
+    
+    /**
+     * The next node in the child list of the parent of this tree node.
+     */
+    TreeNode<E> nextSibling;
+    
+    /**
+     * The number of children of this tree node.
+     */
+    int childCount;
+    
+    /**
+     * The number of structural modifications made to the child list of this
+     * tree node. Used for making the child iterators fail-fast.
+     */
+    int modCount;
+    
+    /**
+     * The view object over this tree node's children. It is created lazily
+     * and kept package-private so that {@link TreeNodeChildrenView} can access
+     * it.
      */
     TreeNodeChildrenView<E> childrenView;
     
+    /**
+     * Indicates whether this tree node is the pseudoroot of a 
+     * {@link net.coderodde.util.Tree}.
+     */
+    private final boolean pseudoroot;
+    
+    /**
+     * The node of this tree node in the link-cut forest used for ancestor
+     * queries, or {@code null} if this tree node is not indexed. The indexed
+     * tree nodes always form entire trees: the parent and the children of an
+     * indexed tree node are indexed as well.
+     */
+    LinkCutNode linkCutNode;
+    
+    /**
+     * The hooks of the tree this tree node belongs to, or {@code null} if the
+     * tree has none. Like the link-cut nodes, the hooks are shared by entire
+     * trees.
+     */
+    TreeHooks<E> hooks;
+    
+    /**
+     * The number of nodes in the subtree rooted at this tree node, or zero if
+     * it is stale and must be recomputed. If the subtree size of a tree node 
+     * is stale, so are the subtree sizes of all its ancestors. A new tree node
+     * starts stale.
+     */
+    int subtreeSize;
+    
+    /**
+     * The height of this tree node, or -1 if it is stale and must be 
+     * recomputed. Stale heights follow the same rules as the subtree sizes.
+     */
+    private int height = -1;
+    
+    /**
+     * The cached depth of this tree node. Valid only if 
+     * {@link #depthVersion} is current in {@link #getDepthVersion()}.
+     */
+    private int depth;
+    
+    /**
+     * The version of the tree structure {@link #depth} was computed in. 
+     * {@link #getDepth()} may run in several threads at once, for example in
+     * a parallel stream, so the version is volatile, written after the depth
+     * and read before it: a thread that sees the version also sees the depth
+     * computed in it.
+     */
+    private volatile long depthVersion;
+    
     /**
      * The constructor of this tree node.
      * 
      * @param element the element to set to this tree node. May be {@code null}.
      */
     TreeNode(E element) {
+        this(element, false);
+    }
+    
+    /**
+     * The constructor of this tree node.
+     * 
+     * @param element    the element to set to this tree node. May be 
+     *                   {@code null}.
+     * @param pseudoroot whether the node is the pseudoroot of a tree.
+     */
+    TreeNode(E element, boolean pseudoroot) {
         this.element = element;
         this.parent = null;
+        this.pseudoroot = pseudoroot;
+        
+        if (TreeInstrumentation.ENABLED) {
+            TreeInstrumentation.increment(
+                    TreeInstrumentation.Counter.NODE_ALLOCATIONS);
+        }
     }
     
     /**
@@ -66,14 +182,10 @@ public final class TreeNode<E> {
      *         operate on it.
      */
     public TreeNode<E> addChild(E element) {
-        if (children == null) {
-            children = new LinkedHashSet<>();
-            childrenView = new TreeNodeChildrenView<>(this);
-        }
-        
-        TreeNode<E> child = new TreeNode<>(element);
-        child.parent = this;
-        children.add(child);
+        TreeNode<E> child = hooks != null && hooks.nodePool != null ?
+                            hooks.nodePool.allocate(element) :
+                            new TreeNode<>(element);
+        linkLastChild(child);
         return child;
     }
     
@@ -84,24 +196,880 @@ public final class TreeNode<E> {
      * @return the children of this tree node. 
      */
     public TreeNodeChildrenView<E> getChildren() {
-        if (children == null) {
-            children = new LinkedHashSet<>();
+        if (childrenView == null) {
             childrenView = new TreeNodeChildrenView<>(this);
         }
         
         return childrenView;
     }
     
+    /**
+     * Returns the parent of this tree node, or {@code null} if this tree node
+     * is a root or is not attached to a tree. The pseudoroot of a tree is 
+     * never returned.
+     * 
+     * @return the parent of this tree node.
+     */
+    public TreeNode<E> getParent() {
+        return parent == null || parent.pseudoroot ? null : parent;
+    }
+    
+    /**
+     * Returns the number of nodes in the subtree rooted at this tree node, 
+     * including this tree node. The sizes are maintained lazily: after the 
+     * tree is modified, the query recomputes the sizes only for the modified
+     * nodes and their ancestors, after which it runs in constant time until 
+     * the next modification.
+     * 
+     * @return the size of the subtree rooted at this tree node.
+     */
+    public int getSubtreeSize() {
+        refreshSubtreeAggregate(true);
+        return subtreeSize;
+    }
+    
+    /**
+     * Returns the height of this tree node, i.e., the number of edges on the
+     * longest downward path to a leaf. The height of a leaf is zero. Heights 
+     * are maintained lazily in the same way as the subtree sizes.
+     * 
+     * @return the height of this tree node.
+     */
+    public int getHeight() {
+        refreshSubtreeAggregate(false);
+        return height;
+    }
+    
+    /**
+     * Returns the depth of this tree node, i.e., the number of its proper 
+     * ancestors. The roots of a tree and the nodes not attached to a tree 
+     * have depth zero. The depths are cached until a subtree is detached or 
+     * moved, so that after such a modification the first query walks up to 
+     * the root, and the following queries on the nodes of the walked path run
+     * in constant time. If the tree has hooks, only the modifications of the
+     * tree itself drop its cached depths. The depths may be queried by 
+     * several threads at once, as long as nobody modifies the tree.
+     * 
+     * @return the depth of this tree node.
+     */
+    public int getDepth() {
+        if (pseudoroot) {
+            return -1;
+        }
+        
+        StructureVersion structureVersion = getDepthVersion();
+        
+        if (structureVersion.isCurrent(depthVersion)) {
+            return depth;
+        }
+        
+        long version = structureVersion.observe();
+        
+        // Find the closest ancestor with a valid depth, counting the hops:
+        int hops = 0;
+        int baseDepth = -1;
+        
+        for (TreeNode<E> node = parent; 
+                node != null && !node.pseudoroot; 
+                node = node.parent) {
+            if (node.depthVersion == version) {
+                baseDepth = node.depth;
+                break;
+            }
+            
+            hops++;
+        }
+        
+        // Assign the depths on the walked path, each before its version:
+        int currentDepth = baseDepth + hops + 1;
+        
+        for (TreeNode<E> node = this; 
+                currentDepth > baseDepth; 
+                node = node.parent) {
+            node.depth = currentDepth--;
+            node.depthVersion = version;
+        }
+        
+        return depth;
+    }
+    
+    /**
+     * Returns the depth version of the tree of this tree node: the one in its
+     * hooks, or the shared one if the tree has none.
+     * 
+     * @return the depth version.
+     */
+    private StructureVersion getDepthVersion() {
+        return hooks != null ? hooks.depthVersion : SHARED_DEPTH_VERSION;
+    }
+    
+    /**
+     * Returns {@code true} only if this tree node is a proper ancestor of the
+     * input tree node. The pseudoroot of a tree is an ancestor of all the 
+     * nodes in the tree. If the tree has the ancestor index enabled, this runs
+     * in amortized logarithmic time, otherwise the parent chain of the input
+     * tree node is walked.
+     * 
+     * @param node the query tree node.
+     * @return {@code true} if this tree node is an ancestor of {@code node}.
+     */
+    public boolean isAncestorOf(TreeNode<E> node) {
+        Objects.requireNonNull(node, "The input tree node is null.");
+        return node != this && isAncestorOrSelfOf(node);
+    }
+    
+    /**
+     * Returns a lazy iterator over the subtree rooted at this tree node in 
+     * pre-order. This tree node is returned first.
+     * 
+     * @return a pre-order iterator.
+     */
+    public Iterator<TreeNode<E>> preorderIterator() {
+        return new TreeNodeIterators.PreorderIterator<>(this, !pseudoroot);
+    }
+    
+    /**
+     * Returns a lazy iterator over the subtree rooted at this tree node in 
+     * post-order. This tree node is returned last.
+     * 
+     * @return a post-order iterator.
+     */
+    public Iterator<TreeNode<E>> postorderIterator() {
+        return new TreeNodeIterators.PostorderIterator<>(this, !pseudoroot);
+    }
+    
+    /**
+     * Returns a lazy iterator over the subtree rooted at this tree node in 
+     * breadth-first order. This tree node is returned first.
+     * 
+     * @return a level-order iterator.
+     */
+    public Iterator<TreeNode<E>> levelOrderIterator() {
+        return new TreeNodeIterators.LevelOrderIterator<>(this, !pseudoroot);
+    }
+    
+    /**
+     * Returns a lazy iterator over the proper ancestors of this tree node, 
+     * starting from the parent and ending at the root.
+     * 
+     * @return an ancestor iterator.
+     */
+    public Iterator<TreeNode<E>> ancestorIterator() {
+        return new TreeNodeIterators.AncestorIterator<>(this);
+    }
+    
+    /**
+     * Returns a spliterator over the subtree rooted at this tree node in 
+     * pre-order. The spliterator splits at child list boundaries, which makes
+     * it suitable for parallel streams.
+     * 
+     * @return a pre-order spliterator.
+     */
+    public Spliterator<TreeNode<E>> preorderSpliterator() {
+        return new TreeNodeSpliterator<>(this, !pseudoroot);
+    }
+    
+    /**
+     * Returns a spliterator over the subtree rooted at this tree node in 
+     * post-order.
+     * 
+     * @return a post-order spliterator.
+     */
+    public Spliterator<TreeNode<E>> postorderSpliterator() {
+        return TreeNodeIterators.spliterator(postorderIterator());
+    }
+    
+    /**
+     * Returns a spliterator over the subtree rooted at this tree node in 
+     * breadth-first order.
+     * 
+     * @return a level-order spliterator.
+     */
+    public Spliterator<TreeNode<E>> levelOrderSpliterator() {
+        return TreeNodeIterators.spliterator(levelOrderIterator());
+    }
+    
+    /**
+     * Returns a spliterator over the proper ancestors of this tree node.
+     * 
+     * @return an ancestor spliterator.
+     */
+    public Spliterator<TreeNode<E>> ancestorSpliterator() {
+        return TreeNodeIterators.spliterator(ancestorIterator());
+    }
+    
+    /**
+     * Returns a sequential stream over the subtree rooted at this tree node in
+     * pre-order.
+     * 
+     * @return a pre-order stream.
+     */
+    public Stream<TreeNode<E>> preorderStream() {
+        return StreamSupport.stream(preorderSpliterator(), false);
+    }
+    
+    /**
+     * Returns a parallel stream over the subtree rooted at this tree node in
+     * pre-order.
+     * 
+     * @return a parallel pre-order stream.
+     */
+    public Stream<TreeNode<E>> parallelPreorderStream() {
+        return StreamSupport.stream(preorderSpliterator(), true);
+    }
+    
+    /**
+     * Returns a sequential stream over the subtree rooted at this tree node in
+     * post-order.
+     * 
+     * @return a post-order stream.
+     */
+    public Stream<TreeNode<E>> postorderStream() {
+        return TreeNodeIterators.stream(postorderIterator());
+    }
+    
+    /**
+     * Returns a sequential stream over the subtree rooted at this tree node in
+     * breadth-first order.
+     * 
+     * @return a level-order stream.
+     */
+    public Stream<TreeNode<E>> levelOrderStream() {
+        return TreeNodeIterators.stream(levelOrderIterator());
+    }
+    
+    /**
+     * Returns a sequential stream over the proper ancestors of this tree node.
+     * 
+     * @return an ancestor stream.
+     */
+    public Stream<TreeNode<E>> ancestorStream() {
+        return TreeNodeIterators.stream(ancestorIterator());
+    }
+    
     public E getElement() {
         return element;
     }
     
+    /**
+     * Sets the element of this tree node. If the tree has an element index, 
+     * the tree node is rekeyed in it.
+     * 
+     * @param element the new element. May be {@code null}.
+     * @throws IllegalArgumentException if the new element has the key of 
+     *                                  another tree node in a unique element
+     *                                  index.
+     */
     public void setElement(E element) {
+        if (hooks == null || pseudoroot) {
+            this.element = element;
+            return;
+        }
+        
+        hooks.beforeElementChange(this, element);
+        E oldElement = this.element;
         this.element = element;
+        
+        if (hooks.isRecording()) {
+            hooks.record(TreeChange.elementChanged(this, oldElement, element));
+        }
     }
     
     @Override
     public String toString() {
         return Objects.toString(element);
     }
+    
+    /**
+     * Returns {@code true} only if this tree node is the pseudoroot of a tree.
+     * 
+     * @return {@code true} if this tree node is a pseudoroot.
+     */
+    boolean isPseudoRoot() {
+        return pseudoroot;
+    }
+    
+    /**
+     * Recomputes the subtree size or the height of this tree node if it is 
+     * stale. Only the descendants with stale values are visited, and the walk
+     * uses the parent and sibling pointers instead of recursion.
+     * 
+     * @param sizes {@code true} for the subtree sizes, {@code false} for the 
+     *              heights.
+     */
+    private void refreshSubtreeAggregate(boolean sizes) {
+        if (!isStale(sizes)) {
+            return;
+        }
+        
+        TreeNode<E> node = this;
+        TreeNode<E> child = firstChild;
+        
+        while (true) {
+            while (child != null && !child.isStale(sizes)) {
+                child = child.nextSibling;
+            }
+            
+            if (child != null) {
+                // Descend to the next stale child.
+                node = child;
+                child = node.firstChild;
+                continue;
+            }
+            
+            // All the children of 'node' are up to date:
+            int value = sizes ? 1 : 0;
+            
+            for (child = node.firstChild; 
+                    child != null; 
+                    child = child.nextSibling) {
+                if (sizes) {
+                    value += child.subtreeSize;
+                } else {
+                    value = Math.max(value, child.height + 1);
+                }
+            }
+            
+            if (sizes) {
+                node.subtreeSize = value;
+            } else {
+                node.height = value;
+            }
+            
+            if (node == this) {
+                return;
+            }
+            
+            child = node.nextSibling;
+            node = node.parent;
+        }
+    }
+    
+    private boolean isStale(boolean sizes) {
+        return sizes ? subtreeSize == 0 : height == -1;
+    }
+    
+    /**
+     * Updates the subtree sizes and the heights of this tree node and its 
+     * ancestors after the input child was linked or unlinked. The new values
+     * are propagated eagerly through the up to date ancestors, at most 
+     * {@link #MAXIMUM_EAGER_UPDATE_LENGTH} of them; the ancestors above are
+     * marked stale. The propagation stops at the first stale ancestor, as its
+     * ancestors are stale as well, and the propagation of the heights also 
+     * stops at the first ancestor whose height does not change. If the lowered
+     * height of the tallest child makes the height of an ancestor unknown, the
+     * ancestor is marked stale. Since new nodes start stale, building a tree 
+     * does not propagate anything.
+     * 
+     * @param child  the linked or unlinked child.
+     * @param linked {@code true} if the child was linked.
+     */
+    private void updateSubtreeAggregates(TreeNode<E> child, boolean linked) {
+        if (linked && child.firstChild == null) {
+            // Keep the new leaf up to date if this tree node is.
+            if (subtreeSize != 0) {
+                child.subtreeSize = 1;
+            }
+            
+            if (height != -1) {
+                child.height = 0;
+            }
+        }
+        
+        boolean propagateSize = subtreeSize != 0;
+        boolean propagateHeight = height != -1;
+        
+        if (propagateSize && child.subtreeSize == 0) {
+            invalidateSubtreeAggregate(true);
+            propagateSize = false;
+        }
+        
+        if (propagateHeight && child.height == -1) {
+            invalidateSubtreeAggregate(false);
+            propagateHeight = false;
+        }
+        
+        int sizeDelta = linked ? child.subtreeSize : -child.subtreeSize;
+        int oldChildHeight = linked ? -1 : child.height;
+        int newChildHeight = linked ? child.height : -1;
+        TreeNode<E> node = this;
+        
+        for (int i = 0; 
+                node != null && (propagateSize || propagateHeight); 
+                i++, node = node.parent) {
+            if (propagateSize) {
+                if (node.subtreeSize == 0) {
+                    propagateSize = false;
+                } else if (i == MAXIMUM_EAGER_UPDATE_LENGTH) {
+                    node.invalidateSubtreeAggregate(true);
+                    propagateSize = false;
+                } else {
+                    node.subtreeSize += sizeDelta;
+                }
+            }
+            
+            if (propagateHeight) {
+                int oldHeight = node.height;
+                
+                if (oldHeight == -1) {
+                    propagateHeight = false;
+                } else if (i == MAXIMUM_EAGER_UPDATE_LENGTH) {
+                    node.invalidateSubtreeAggregate(false);
+                    propagateHeight = false;
+                } else {
+                    if (newChildHeight + 1 > oldHeight) {
+                        node.height = newChildHeight + 1;
+                    } else if (oldChildHeight + 1 == oldHeight && 
+                               newChildHeight < oldChildHeight) {
+                        // The tallest child got lower.
+                        if (newChildHeight == -1 && oldChildHeight == 0) {
+                            // A removed leaf; the other children are leaves.
+                            node.height = node.childCount == 0 ? 0 : 1;
+                        } else {
+                            node.invalidateSubtreeAggregate(false);
+                        }
+                    }
+                    
+                    propagateHeight = node.height != -1 && 
+                                      node.height != oldHeight;
+                    oldChildHeight = oldHeight;
+                    newChildHeight = node.height;
+                }
+            }
+        }
+    }
+    
+    /**
+     * Marks the subtree sizes or the heights of this tree node and its 
+     * ancestors stale.
+     * 
+     * @param sizes {@code true} for the subtree sizes, {@code false} for the 
+     *              heights.
+     */
+    private void invalidateSubtreeAggregate(boolean sizes) {
+        for (TreeNode<E> node = this; 
+                node != null && !node.isStale(sizes); 
+                node = node.parent) {
+            if (sizes) {
+                node.subtreeSize = 0;
+            } else {
+                node.height = -1;
+            }
+        }
+    }
+    
+    /**
+     * Returns {@code true} only if this tree node is the input tree node or
+     * one of its ancestors.
+     * 
+     * @param node the query tree node.
+     * @return {@code true} if this tree node is an ancestor of {@code node} or
+     *         is {@code node} itself.
+     */
+    boolean isAncestorOrSelfOf(TreeNode<E> node) {
+        if (node.linkCutNode != null) {
+            // The entire tree of the query node is indexed, so unless this 
+            // tree node is indexed, it is not in the same tree.
+            return linkCutNode != null && 
+                   linkCutNode.isAncestorOrSelfOf(node.linkCutNode);
+        }
+        
+        int steps = 0;
+        
+        for (TreeNode<E> current = node; 
+                current != null; 
+                current = current.parent, steps++) {
+            if (current == this) {
+                countAncestorSteps(steps);
+                return true;
+            }
+        }
+        
+        countAncestorSteps(steps);
+        return false;
+    }
+    
+    private static void countAncestorSteps(int steps) {
+        if (TreeInstrumentation.ENABLED) {
+            TreeInstrumentation.add(TreeInstrumentation.Counter.ANCESTOR_STEPS,
+                                    steps);
+        }
+    }
+    
+    /**
+     * Adds this tree node and all its descendants to the link-cut forest. 
+     * Also links this tree node to its parent if the parent is indexed. This 
+     * tree node must not be indexed.
+     */
+    void indexSubtree() {
+        TreeNode<E> node = this;
+        
+        while (node != null) {
+            node.linkCutNode = new LinkCutNode();
+            
+            if (node.parent != null && node.parent.linkCutNode != null) {
+                node.linkCutNode.link(node.parent.linkCutNode);
+            }
+            
+            node = nextInSubtree(node);
+        }
+    }
+    
+    /**
+     * Removes this tree node and all its descendants from the link-cut forest.
+     * This tree node must not be linked to an indexed parent.
+     */
+    private void unindexSubtree() {
+        for (TreeNode<E> node = this; 
+                node != null; 
+                node = nextInSubtree(node)) {
+            node.linkCutNode = null;
+        }
+    }
+    
+    /**
+     * Returns the node following the input node in the pre-order of the 
+     * subtree rooted at this tree node, or {@code null} if there is none.
+     * 
+     * @param node a node in the subtree of this tree node.
+     * @return the next node in pre-order.
+     */
+    TreeNode<E> nextInSubtree(TreeNode<E> node) {
+        if (node.firstChild != null) {
+            return node.firstChild;
+        }
+        
+        while (node != this && node.nextSibling == null) {
+            node = node.parent;
+        }
+        
+        return node == this ? null : node.nextSibling;
+    }
+    
+    /**
+     * Releases the subtree rooted at this tree node, just unlinked from its 
+     * parent: removes its nodes from the input element index, if the subtree
+     * is still in it, clears their links and cached data, so that they keep 
+     * neither each other nor their elements reachable, and adds them to the
+     * input node pool, if any. The nodes are released in post-order, visiting
+     * the children from the last one, so that the pool hands them out in the
+     * pre-order of the released subtree: a subtree rebuilt in pre-order gets
+     * its nodes back in the same memory order. Given the element index, this
+     * does the work of {@link TreeHooks#detach(TreeNode)} in the same pass. 
+     * The modification counts are kept and incremented, so that the iterators
+     * over the released nodes fail fast. This runs in time linear in the size
+     * of the subtree and needs no extra space.
+     * 
+     * @param elementIndex the element index holding the subtree, or 
+     *                     {@code null}.
+     * @param pool         the node pool, or {@code null}.
+     */
+    void releaseSubtree(TreeElementIndex<E, ?> elementIndex, 
+                        TreeNodePool<E> pool) {
+        int count = 0;
+        TreeNode<E> node = this;
+        
+        while (true) {
+            while (node.lastChild != null) {
+                node = node.lastChild;
+            }
+            
+            // All the children of 'node' are released. Continue from its
+            // previous sibling, or from its parent, whose children are then 
+            // all released as well.
+            TreeNode<E> next;
+            
+            if (node == this) {
+                next = null;
+            } else if (node.previousSibling != null) {
+                next = node.previousSibling;
+            } else {
+                next = node.parent;
+                next.lastChild = null;
+            }
+            
+            if (elementIndex != null) {
+                elementIndex.remove(node);
+            }
+            
+            node.element = null;
+            node.parent = null;
+            node.firstChild = null;
+            node.lastChild = null;
+            node.previousSibling = null;
+            node.nextSibling = null;
+            node.childCount = 0;
+            node.modCount++;
+            node.subtreeSize = 0;
+            node.height = -1;
+            node.depth = 0;
+            node.depthVersion = 0L;
+            node.linkCutNode = null;
+            node.hooks = null;
+            
+            if (node.childrenView != null) {
+                node.childrenView.childIndex = null;
+            }
+            
+            if (pool != null) {
+                pool.free(node);
+            }
+            
+            count++;
+            
+            if (next == null) {
+                break;
+            }
+            
+            node = next;
+        }
+        
+        if (TreeInstrumentation.ENABLED) {
+            TreeInstrumentation.add(TreeInstrumentation.Counter.RELEASED_NODES,
+                                    count);
+        }
+    }
+    
+    /**
+     * Makes this released tree node hold the input element, so that it can
+     * be linked again as a new tree node.
+     * 
+     * @param element the element of this tree node.
+     */
+    void reuse(E element) {
+        this.element = element;
+    }
+    
+    /**
+     * Appends the input tree node to the end of the child list of this tree
+     * node. The input tree node must not have a parent.
+     * 
+     * @param child the tree node to append.
+     */
+    void linkLastChild(TreeNode<E> child) {
+        linkLastChild(child, null);
+    }
+    
+    /**
+     * Appends the input tree node to the end of the child list of this tree
+     * node. The input tree node must not have a parent.
+     * 
+     * @param child     the tree node to append.
+     * @param oldParent the parent the tree node was unlinked from for moving
+     *                  it here, or {@code null}.
+     */
+    void linkLastChild(TreeNode<E> child, TreeNode<E> oldParent) {
+        linkChildBefore(child, null, oldParent);
+    }
+    
+    /**
+     * Inserts the input tree node to the child list of this tree node before 
+     * the input successor, or at the end if the successor is {@code null}. 
+     * The input tree node must not have a parent.
+     * 
+     * @param child     the tree node to insert.
+     * @param successor the child to insert before, or {@code null}.
+     * @param oldParent the parent the tree node was unlinked from for moving
+     *                  it here, or {@code null}.
+     */
+    void linkChildBefore(TreeNode<E> child, 
+                         TreeNode<E> successor, 
+                         TreeNode<E> oldParent) {
+        TreeHooks<E> childHooks = child.hooks;
+        
+        if (childHooks != hooks) {
+            checkHooks(child);
+            
+            if (childHooks != null) {
+                // Moving from another tree with hooks.
+                childHooks.detach(child);
+                
+                if (childHooks.isRecording()) {
+                    childHooks.record(TreeChange.removed(child, oldParent));
+                }
+            }
+            
+            if (hooks != null) {
+                hooks.attach(child);
+            }
+        }
+        
+        child.parent = this;
+        
+        if (successor == null) {
+            child.previousSibling = lastChild;
+            
+            if (lastChild == null) {
+                firstChild = child;
+            } else {
+                lastChild.nextSibling = child;
+            }
+            
+            lastChild = child;
+        } else {
+            child.previousSibling = successor.previousSibling;
+            child.nextSibling = successor;
+            
+            if (successor.previousSibling == null) {
+                firstChild = child;
+            } else {
+                successor.previousSibling.nextSibling = child;
+            }
+            
+            successor.previousSibling = child;
+        }
+        
+        childCount++;
+        modCount++;
+        
+        if (childrenView != null && childrenView.childIndex != null) {
+            childrenView.childIndex.linked(child);
+        }
+        
+        updateSubtreeAggregates(child, true);
+        
+        if (hooks != null) {
+            hooks.indexVersion.increment();
+        }
+        
+        // A new leaf has no cached depths below it.
+        if (child.firstChild != null || child.depthVersion != 0L) {
+            getDepthVersion().increment();
+        }
+        
+        if (linkCutNode != null) {
+            if (child.linkCutNode == null) {
+                child.indexSubtree();
+            } else {
+                child.linkCutNode.link(linkCutNode);
+            }
+        } else if (child.linkCutNode != null) {
+            child.unindexSubtree();
+        }
+        
+        if (hooks != null && hooks.isRecording()) {
+            hooks.record(childHooks == hooks ? 
+                         TreeChange.moved(child, oldParent, this, successor) : 
+                         TreeChange.added(child, this, successor));
+        }
+    }
+    
+    /**
+     * Checks that the subtree rooted at the input tree node can be linked to
+     * this tree node without violating the unique element index of the tree,
+     * if any.
+     * 
+     * @param child the root of the subtree to link.
+     * @throws IllegalArgumentException if the subtree can not be indexed.
+     */
+    void checkHooks(TreeNode<E> child) {
+        if (hooks != null && child.hooks != hooks) {
+            hooks.checkAttach(child);
+        }
+    }
+    
+    /**
+     * Removes the input tree node from the child list of this tree node and 
+     * from the hooks of the tree. The input tree node must be a child of this
+     * tree node.
+     * 
+     * @param child the tree node to remove.
+     */
+    void unlinkChild(TreeNode<E> child) {
+        unlinkChild(child, false);
+    }
+    
+    /**
+     * Removes the input tree node from the child list of this tree node. The 
+     * input tree node must be a child of this tree node.
+     * 
+     * @param child  the tree node to remove.
+     * @param moving {@code true} if the tree node is about to be linked to 
+     *               another parent, in which case it is left in the hooks 
+     *               until then.
+     */
+    void unlinkChild(TreeNode<E> child, boolean moving) {
+        TreeHooks<E> childHooks = moving ? null : child.hooks;
+        
+        if (childHooks != null) {
+            childHooks.detach(child);
+        }
+        
+        if (child.previousSibling == null) {
+            firstChild = child.nextSibling;
+        } else {
+            child.previousSibling.nextSibling = child.nextSibling;
+        }
+        
+        if (child.nextSibling == null) {
+            lastChild = child.previousSibling;
+        } else {
+            child.nextSibling.previousSibling = child.previousSibling;
+        }
+        
+        if (child.linkCutNode != null) {
+            child.linkCutNode.cut();
+        }
+        
+        child.parent = null;
+        child.previousSibling = null;
+        child.nextSibling = null;
+        childCount--;
+        modCount++;
+        
+        if (childrenView != null && childrenView.childIndex != null) {
+            childrenView.childIndex.unlinked(child);
+        }
+        
+        updateSubtreeAggregates(child, false);
+        
+        if (hooks != null) {
+            hooks.indexVersion.increment();
+        }
+        
+        getDepthVersion().increment();
+        
+        if (childHooks != null && childHooks.isRecording()) {
+            childHooks.record(TreeChange.removed(child, this));
+        }
+    }
+    
+    /**
+     * Links the nodes in the input range of the input array as the children 
+     * of this tree node, in order, and computes the subtree size and the 
+     * height of this tree node from the ones of the children. This tree node
+     * must be new and childless, the children must be new and have up to 
+     * date aggregates, and nothing is propagated to the ancestors, so that a
+     * tree built bottom-up takes linear time in total. Used by 
+     * {@link TreeBuilders}.
+     * 
+     * @param nodes the array holding the children.
+     * @param from  the index of the first child.
+     * @param to    the index one past the last child.
+     */
+    void linkBuiltChildren(TreeNode<E>[] nodes, int from, int to) {
+        int size = 1;
+        int maximumChildHeight = -1;
+        
+        for (int i = from; i < to; i++) {
+            TreeNode<E> child = nodes[i];
+            child.parent = this;
+            child.previousSibling = lastChild;
+            
+            if (lastChild == null) {
+                firstChild = child;
+            } else {
+                lastChild.nextSibling = child;
+            }
+            
+            lastChild = child;
+            size += child.subtreeSize;
+            maximumChildHeight = Math.max(maximumChildHeight, child.height);
+        }
+        
+        childCount = to - from;
+        modCount++;
+        subtreeSize = size;
+        height = maximumChildHeight + 1;
+    }
 }
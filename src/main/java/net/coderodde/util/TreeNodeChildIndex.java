@@ -0,0 +1,320 @@
+package net.coderodde.util;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * This class implements a positional index over the child list of a tree
+ * node: an implicit treap whose in-order is the order of the children, with
+ * the subtree sizes in the treap nodes and parent pointers, together with a
+ * map from the children to their treap nodes. It finds the child at a given
+ * index and the index of a given child in expected logarithmic time.
+ * 
+ * <p>
+ * The index is kept up to date by the owner tree node as children are linked
+ * and unlinked, as long as it was current before the modification; any
+ * other modification of the child list leaves it stale, which
+ * {@link #isCurrent()} detects from the modification count of the owner, and
+ * it must then be rebuilt, in linear time.
+ * </p>
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ * @param <E> the tree node element type.
+ */
+final class TreeNodeChildIndex<E> {
+    
+    /**
+     * The tree node whose children are indexed.
+     */
+    private final TreeNode<E> ownerTreeNode;
+    
+    /**
+     * Maps each child to its treap node.
+     */
+    private final Map<TreeNode<E>, Entry<E>> entries;
+    
+    /**
+     * The root of the treap, or {@code null} if there are no children.
+     */
+    private Entry<E> root;
+    
+    /**
+     * The modification count of the owner the index reflects.
+     */
+    private int expectedModCount;
+    
+    /**
+     * Builds the index over the current children of the input tree node in
+     * linear time.
+     * 
+     * @param ownerTreeNode the tree node whose children to index.
+     */
+    @SuppressWarnings("unchecked")
+    TreeNodeChildIndex(TreeNode<E> ownerTreeNode) {
+        this.ownerTreeNode = ownerTreeNode;
+        this.entries = new IdentityHashMap<>(ownerTreeNode.childCount);
+        this.expectedModCount = ownerTreeNode.modCount;
+        
+        // Build the treap as a Cartesian tree with a stack holding its right
+        // spine. A node popped from the spine gets no more descendants, so
+        // its size is final.
+        Entry<E>[] spine = (Entry<E>[]) new Entry<?>[ownerTreeNode.childCount];
+        int spineSize = 0;
+        
+        for (TreeNode<E> child = ownerTreeNode.firstChild;
+                child != null;
+                child = child.nextSibling) {
+            Entry<E> entry = new Entry<>(child);
+            Entry<E> last = null;
+            
+            while (spineSize > 0 &&
+                    spine[spineSize - 1].priority < entry.priority) {
+                last = spine[--spineSize];
+                last.updateSize();
+            }
+            
+            entry.left = last;
+            
+            if (last != null) {
+                last.parent = entry;
+            }
+            
+            if (spineSize > 0) {
+                spine[spineSize - 1].right = entry;
+                entry.parent = spine[spineSize - 1];
+            }
+            
+            spine[spineSize++] = entry;
+            entries.put(child, entry);
+        }
+        
+        while (spineSize > 0) {
+            spine[--spineSize].updateSize();
+        }
+        
+        root = ownerTreeNode.childCount == 0 ? null : spine[0];
+    }
+    
+    /**
+     * Returns {@code true} only if this index reflects the current child list
+     * of the owner tree node.
+     * 
+     * @return {@code true} if this index is current.
+     */
+    boolean isCurrent() {
+        return expectedModCount == ownerTreeNode.modCount;
+    }
+    
+    /**
+     * Returns the child at the input index. This index must be current and
+     * the input index within range.
+     * 
+     * @param index the index of the child.
+     * @return the child at the index.
+     */
+    TreeNode<E> get(int index) {
+        Entry<E> entry = root;
+        
+        while (true) {
+            int leftSize = size(entry.left);
+            
+            if (index < leftSize) {
+                entry = entry.left;
+            } else if (index == leftSize) {
+                return entry.child;
+            } else {
+                index -= leftSize + 1;
+                entry = entry.right;
+            }
+        }
+    }
+    
+    /**
+     * Returns the index of the input child. This index must be current and
+     * the input tree node a child of the owner.
+     * 
+     * @param child the child to locate.
+     * @return the index of the child.
+     */
+    int indexOf(TreeNode<E> child) {
+        Entry<E> entry = entries.get(child);
+        int index = size(entry.left);
+        
+        for (; entry.parent != null; entry = entry.parent) {
+            if (entry == entry.parent.right) {
+                index += size(entry.parent.left) + 1;
+            }
+        }
+        
+        return index;
+    }
+    
+    /**
+     * Adds the input child, just linked to the owner before its next sibling,
+     * to this index if it was current before the linking.
+     * 
+     * @param child the linked child.
+     */
+    void linked(TreeNode<E> child) {
+        if (expectedModCount + 1 != ownerTreeNode.modCount) {
+            return;
+        }
+        
+        expectedModCount++;
+        Entry<E> entry = new Entry<>(child);
+        entries.put(child, entry);
+        
+        if (root == null) {
+            root = entry;
+            return;
+        }
+        
+        // Attach the entry as the rightmost leaf of the left subtree of its
+        // successor, or of the entire treap when appended.
+        Entry<E> parent;
+        
+        if (child.nextSibling == null) {
+            parent = rightmost(root);
+            parent.right = entry;
+        } else {
+            Entry<E> successor = entries.get(child.nextSibling);
+            
+            if (successor.left == null) {
+                parent = successor;
+                parent.left = entry;
+            } else {
+                parent = rightmost(successor.left);
+                parent.right = entry;
+            }
+        }
+        
+        entry.parent = parent;
+        
+        for (Entry<E> e = parent; e != null; e = e.parent) {
+            e.size++;
+        }
+        
+        while (entry.parent != null &&
+                entry.parent.priority < entry.priority) {
+            rotateUp(entry);
+        }
+    }
+    
+    /**
+     * Removes the input child, just unlinked from the owner, from this index
+     * if it was current before the unlinking.
+     * 
+     * @param child the unlinked child.
+     */
+    void unlinked(TreeNode<E> child) {
+        if (expectedModCount + 1 != ownerTreeNode.modCount) {
+            return;
+        }
+        
+        expectedModCount++;
+        Entry<E> entry = entries.remove(child);
+        
+        while (entry.left != null && entry.right != null) {
+            rotateUp(entry.left.priority > entry.right.priority ?
+                     entry.left :
+                     entry.right);
+        }
+        
+        Entry<E> replacement = entry.left != null ? entry.left : entry.right;
+        Entry<E> parent = entry.parent;
+        
+        if (replacement != null) {
+            replacement.parent = parent;
+        }
+        
+        if (parent == null) {
+            root = replacement;
+            return;
+        }
+        
+        if (parent.left == entry) {
+            parent.left = replacement;
+        } else {
+            parent.right = replacement;
+        }
+        
+        for (Entry<E> e = parent; e != null; e = e.parent) {
+            e.size--;
+        }
+    }
+    
+    /**
+     * Rotates the input treap node above its parent.
+     */
+    private void rotateUp(Entry<E> entry) {
+        Entry<E> parent = entry.parent;
+        Entry<E> grandparent = parent.parent;
+        
+        if (entry == parent.left) {
+            parent.left = entry.right;
+            
+            if (entry.right != null) {
+                entry.right.parent = parent;
+            }
+            
+            entry.right = parent;
+        } else {
+            parent.right = entry.left;
+            
+            if (entry.left != null) {
+                entry.left.parent = parent;
+            }
+            
+            entry.left = parent;
+        }
+        
+        parent.parent = entry;
+        entry.parent = grandparent;
+        
+        if (grandparent == null) {
+            root = entry;
+        } else if (grandparent.left == parent) {
+            grandparent.left = entry;
+        } else {
+            grandparent.right = entry;
+        }
+        
+        entry.size = parent.size;
+        parent.updateSize();
+    }
+    
+    private static <E> Entry<E> rightmost(Entry<E> entry) {
+        while (entry.right != null) {
+            entry = entry.right;
+        }
+        
+        return entry;
+    }
+    
+    private static int size(Entry<?> entry) {
+        return entry == null ? 0 : entry.size;
+    }
+    
+    /**
+     * This class implements a treap node holding a single child.
+     */
+    private static final class Entry<E> {
+        
+        final TreeNode<E> child;
+        final int priority = ThreadLocalRandom.current().nextInt();
+        Entry<E> parent;
+        Entry<E> left;
+        Entry<E> right;
+        int size = 1;
+        
+        Entry(TreeNode<E> child) {
+            this.child = child;
+        }
+        
+        void updateSize() {
+            size = 1 + size(left) + size(right);
+        }
+    }
+}
@@ -1,8 +1,13 @@
 package net.coderodde.util;
 
+import java.lang.reflect.Array;
+import java.util.AbstractList;
 import java.util.Collection;
+import java.util.ConcurrentModificationException;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Set;
 
@@ -10,17 +15,40 @@ import java.util.Set;
  * This class provides a view over a tree nodes children. The client programmer
  * can manipulate it to his/her own liking.
  * 
+ * <p>
+ * Besides the set operations, the view offers positional access to the 
+ * children in their order: {@link #get(int)}, {@link #indexOf(Object)}, 
+ * {@link #insert(int, TreeNode)}, {@link #move(int, int)} and 
+ * {@link #subList(int, int)}. On a tree node with many children these run in
+ * expected logarithmic time via a {@link TreeNodeChildIndex}, built on the 
+ * first positional access and maintained by the later modifications of the 
+ * child list. Membership stays a constant time check of the parent.
+ * </p>
+ * 
  * @author Rodion "rodde" Efremov
  * @version 1.6 (Mar 27, 2018)
  * @param <E> the tree node element type.
  */
 public final class TreeNodeChildrenView<E> implements Set<TreeNode<E>> {
-
+    
     /**
      * The tree node that owns this view.
      */
     private final TreeNode<E> ownerTreeNode;
     
+    /**
+     * The positional index over the children, or {@code null} if none has 
+     * been needed yet. Kept package-private so that the owner tree node can 
+     * update it.
+     */
+    TreeNodeChildIndex<E> childIndex;
+    
+    /**
+     * The minimum number of children for which the positional operations use
+     * the index instead of walking the child list.
+     */
+    static final int MINIMUM_INDEXED_CHILD_COUNT = 32;
+    
     /**
      * Constructs this view for the input tree node.
      * 
@@ -37,9 +65,9 @@ public final class TreeNodeChildrenView<E> implements Set<TreeNode<E>> {
      */
     @Override
     public int size() {
-        return ownerTreeNode.children.size();
+        return ownerTreeNode.childCount;
     }
-
+    
     /**
      * Returns {@code true} only if this view has no child tree nodes.
      * 
@@ -47,9 +75,9 @@ public final class TreeNodeChildrenView<E> implements Set<TreeNode<E>> {
      */
     @Override
     public boolean isEmpty() {
-        return ownerTreeNode.children.isEmpty();
+        return ownerTreeNode.childCount == 0;
     }
-
+    
     /**
      * Returns {@code true} only if this tree node children view contains a 
      * given tree node.
@@ -64,10 +92,10 @@ public final class TreeNodeChildrenView<E> implements Set<TreeNode<E>> {
         } else if (!(o instanceof TreeNode)) {
             return false;
         } else {
-            return ownerTreeNode.children.contains(o);
+            return ((TreeNode<?>) o).parent == ownerTreeNode;
         }
     }
-
+    
     /**
      * Returns an iterator over this view's children.
      * 
@@ -75,44 +103,178 @@ public final class TreeNodeChildrenView<E> implements Set<TreeNode<E>> {
      */
     @Override
     public Iterator<TreeNode<E>> iterator() {
-        return ownerTreeNode.children.iterator();
+        return new ChildIterator();
     }
-
+    
     @Override
     public boolean add(TreeNode<E> treeNode) {
-        Objects.requireNonNull(treeNode, "The input tree node is null.");
-        checkInputTreeNodeIsNotPredecessorOfThisTreeNode(treeNode);
+        checkInputTreeNode(treeNode);
         
         // Return {@code false} whenever the input tree node is already in this
         // tree.
-        if (ownerTreeNode.children.contains(treeNode)) {
+        if (treeNode.parent == ownerTreeNode) {
             return false;
         }
         
+        link(treeNode, null);
+        return true;
+    }
+    
+    /**
+     * Returns the child at the input index.
+     * 
+     * @param index the index of the child.
+     * @return the child at the index.
+     * @throws IndexOutOfBoundsException if the index is out of range.
+     */
+    public TreeNode<E> get(int index) {
+        checkIndex(index, ownerTreeNode.childCount);
+        return childAt(index);
+    }
+    
+    /**
+     * Returns the index of the input tree node among the children, or -1 if
+     * it is not a child of the owner tree node.
+     * 
+     * @param o the tree node to locate.
+     * @return the index of the tree node, or -1.
+     */
+    @SuppressWarnings("unchecked")
+    public int indexOf(Object o) {
+        if (!contains(o)) {
+            return -1;
+        }
+        
+        TreeNode<E> treeNode = (TreeNode<E>) o;
+        
+        if (ownerTreeNode.childCount < MINIMUM_INDEXED_CHILD_COUNT) {
+            int index = 0;
+            
+            for (TreeNode<E> node = treeNode.previousSibling; 
+                    node != null; 
+                    node = node.previousSibling) {
+                index++;
+            }
+            
+            return index;
+        }
+        
+        return getChildIndex().indexOf(treeNode);
+    }
+    
+    /**
+     * Inserts the input tree node so that it becomes the child at the input 
+     * index, disconnecting it from its previous parent, if any. If the tree
+     * node is already a child, it is moved to the index.
+     * 
+     * @param index    the index the tree node will have.
+     * @param treeNode the tree node to insert.
+     * @throws IndexOutOfBoundsException if the index is out of range.
+     */
+    public void insert(int index, TreeNode<E> treeNode) {
+        checkInputTreeNode(treeNode);
+        
+        if (treeNode.parent == ownerTreeNode) {
+            checkIndex(index, ownerTreeNode.childCount);
+            move(indexOf(treeNode), index);
+            return;
+        }
+        
+        checkIndex(index, ownerTreeNode.childCount + 1);
+        link(treeNode, 
+             index == ownerTreeNode.childCount ? null : childAt(index));
+    }
+    
+    /**
+     * Moves the child at the index {@code from} so that it ends up at the 
+     * index {@code to}, shifting the children in between by one.
+     * 
+     * @param from the current index of the child.
+     * @param to   the new index of the child.
+     * @throws IndexOutOfBoundsException if either index is out of range.
+     */
+    public void move(int from, int to) {
+        int size = ownerTreeNode.childCount;
+        checkIndex(from, size);
+        checkIndex(to, size);
+        
+        if (from == to) {
+            return;
+        }
+        
+        TreeNode<E> treeNode = childAt(from);
+        TreeNode<E> successor;
+        
+        if (to < from) {
+            successor = childAt(to);
+        } else {
+            successor = to == size - 1 ? null : childAt(to + 1);
+        }
+        
+        ownerTreeNode.unlinkChild(treeNode, true);
+        ownerTreeNode.linkChildBefore(treeNode, successor, ownerTreeNode);
+    }
+    
+    /**
+     * Returns a read-only list view over the children between the index 
+     * {@code from}, inclusive, and the index {@code to}, exclusive. The view
+     * becomes invalid once the child list is modified, after which it throws
+     * {@link ConcurrentModificationException}.
+     * 
+     * @param from the index of the first child in the view.
+     * @param to   the index one past the last child in the view.
+     * @return the view over the children in the range.
+     * @throws IndexOutOfBoundsException if the range is invalid.
+     */
+    public List<TreeNode<E>> subList(int from, int to) {
+        if (from < 0 || to > ownerTreeNode.childCount || from > to) {
+            throw new IndexOutOfBoundsException(
+                    "Invalid range [" + from + ", " + to + ") for " + 
+                    ownerTreeNode.childCount + " children.");
+        }
+        
+        return new ChildRange(from, to);
+    }
+    
+    /**
+     * Links the input tree node, checked to be a valid new child, before the
+     * input successor, or at the end if the successor is {@code null}.
+     * 
+     * @param treeNode  the tree node to link.
+     * @param successor the child to link before, or {@code null}.
+     */
+    private void link(TreeNode<E> treeNode, TreeNode<E> successor) {
+        // Check the element index before any modification:
+        ownerTreeNode.checkHooks(treeNode);
+        
         // If the input tree node belongs to a parent, disconnect it from it:
-        if (treeNode.parent != null) {
-            treeNode.parent.children.remove(treeNode);
+        TreeNode<E> oldParent = treeNode.parent;
+        
+        if (oldParent != null) {
+            oldParent.unlinkChild(treeNode, true);
+            
+            if (TreeInstrumentation.ENABLED) {
+                TreeInstrumentation.increment(
+                        TreeInstrumentation.Counter.REPARENTS);
+            }
         }
         
         // Connect the input tree node as the child of this view.
-        ownerTreeNode.children.add(treeNode);
-        treeNode.parent = ownerTreeNode;
-        return true;
+        ownerTreeNode.linkChildBefore(treeNode, successor, oldParent);
     }
-
+    
     @Override
+    @SuppressWarnings("unchecked")
     public boolean remove(Object o) {
-        if (o == null) {
-            return false;
-        } else if (!(o instanceof TreeNode)) {
+        if (!contains(o)) {
             return false;
         }
         
-        TreeNode<E> treeNode = (TreeNode<E>) o;
-        treeNode.parent = null;
-        return ownerTreeNode.children.remove(treeNode);
+        ownerTreeNode.unlinkChild((TreeNode<E>) o);
+        countRemoval();
+        return true;
     }
-
+    
     @Override
     public boolean containsAll(Collection<?> c) {
         for (Object o : c) {
@@ -123,7 +285,7 @@ public final class TreeNodeChildrenView<E> implements Set<TreeNode<E>> {
         
         return true;
     }
-
+    
     @Override
     public boolean addAll(Collection<? extends TreeNode<E>> c) {
         boolean modified = false;
@@ -136,64 +298,328 @@ public final class TreeNodeChildrenView<E> implements Set<TreeNode<E>> {
         
         return modified;
     }
-
+    
     @Override
     public boolean retainAll(Collection<?> c) {
         int numberOfChildrenBefore = size();
         
         Set<?> collectionAsSet = 
-                (c instanceof HashSet) ? (Set<?>) c : new HashSet(c);
+                (c instanceof HashSet) ? (Set<?>) c : new HashSet<>(c);
         
-        Iterator<TreeNode<E>> iterator =
-                ownerTreeNode.children.iterator();
+        TreeNode<E> currentTreeNode = ownerTreeNode.firstChild;
         
-        while (iterator.hasNext()) {
-            TreeNode<E> currentTreeNode = iterator.next();
+        while (currentTreeNode != null) {
+            TreeNode<E> nextTreeNode = currentTreeNode.nextSibling;
             
             if (!collectionAsSet.contains(currentTreeNode)) {
-                iterator.remove();
+                ownerTreeNode.unlinkChild(currentTreeNode);
+                countRemoval();
             }
+            
+            currentTreeNode = nextTreeNode;
         }
         
         return size() < numberOfChildrenBefore;
     }
-
+    
     @Override
     public boolean removeAll(Collection<?> c) {
-        return ownerTreeNode.children.removeAll(c);
+        boolean modified = false;
+        
+        for (Object o : c) {
+            if (remove(o)) {
+                modified = true;
+            }
+        }
+        
+        return modified;
     }
-
+    
+    /**
+     * Removes all the children from this view. Each removed child is 
+     * disconnected from the owner tree node so that it does not keep the rest
+     * of the tree reachable.
+     */
     @Override
     public void clear() {
-        ownerTreeNode.children.clear();
+        // Dropping the index is cheaper than updating it per child.
+        childIndex = null;
+        
+        while (ownerTreeNode.firstChild != null) {
+            ownerTreeNode.unlinkChild(ownerTreeNode.firstChild);
+        }
+        
+        if (TreeInstrumentation.ENABLED) {
+            TreeInstrumentation.increment(TreeInstrumentation.Counter.CLEARS);
+        }
     }
-
+    
+    /**
+     * Returns an array holding the children in their order.
+     * 
+     * @return the array of the children.
+     */
     @Override
     public Object[] toArray() {
-        throw new UnsupportedOperationException();
+        return copyChildren(new Object[ownerTreeNode.childCount]);
     }
-
+    
+    /**
+     * Returns an array holding the children in their order, using the input
+     * array if it is large enough.
+     * 
+     * @param <T> the component type of the array.
+     * @param a   the array to fill, if large enough.
+     * @return the array of the children.
+     */
     @Override
+    @SuppressWarnings("unchecked")
     public <T> T[] toArray(T[] a) {
-        throw new UnsupportedOperationException();
+        int size = ownerTreeNode.childCount;
+        
+        if (a.length < size) {
+            a = (T[]) Array.newInstance(a.getClass().getComponentType(), 
+                                        size);
+        } else if (a.length > size) {
+            a[size] = null;
+        }
+        
+        return copyChildren(a);
+    }
+    
+    /**
+     * Copies the children to the beginning of the input array.
+     */
+    private <T> T[] copyChildren(T[] array) {
+        Object[] objects = array;
+        int index = 0;
+        
+        for (TreeNode<E> node = ownerTreeNode.firstChild; 
+                node != null; 
+                node = node.nextSibling) {
+            objects[index++] = node;
+        }
+        
+        return array;
+    }
+    
+    /**
+     * Returns the child at the input index, which must be within range. A 
+     * short child list is walked from its nearer end.
+     */
+    private TreeNode<E> childAt(int index) {
+        int size = ownerTreeNode.childCount;
+        
+        if (size >= MINIMUM_INDEXED_CHILD_COUNT) {
+            return getChildIndex().get(index);
+        }
+        
+        TreeNode<E> node;
+        
+        if (index < size / 2) {
+            node = ownerTreeNode.firstChild;
+            
+            for (int i = 0; i < index; i++) {
+                node = node.nextSibling;
+            }
+        } else {
+            node = ownerTreeNode.lastChild;
+            
+            for (int i = size - 1; i > index; i--) {
+                node = node.previousSibling;
+            }
+        }
+        
+        return node;
+    }
+    
+    /**
+     * Returns the current positional index over the children, building it if
+     * there is none or it has gone stale.
+     */
+    private TreeNodeChildIndex<E> getChildIndex() {
+        if (childIndex == null || !childIndex.isCurrent()) {
+            childIndex = new TreeNodeChildIndex<>(ownerTreeNode);
+        }
+        
+        return childIndex;
+    }
+    
+    /**
+     * Checks that the input tree node may become a child of the owner tree 
+     * node.
+     * 
+     * @param treeNode the tree node to check.
+     */
+    private void checkInputTreeNode(TreeNode<E> treeNode) {
+        Objects.requireNonNull(treeNode, "The input tree node is null.");
+        
+        if (treeNode.isPseudoRoot()) {
+            throw new IllegalArgumentException(
+                    "The pseudoroot of a tree cannot be a child.");
+        }
+        
+        checkInputTreeNodeIsNotPredecessorOfThisTreeNode(treeNode);
+    }
+    
+    private static void checkIndex(int index, int size) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException(
+                    "Index " + index + " is out of range [0, " + size + ").");
+        }
     }
     
     /**
-     * Checks that the input tree node is not a predecessor of itself.
+     * Checks that the input tree node is not a predecessor of itself. If the
+     * tree has the ancestor index enabled, this runs in amortized logarithmic
+     * time, otherwise the parent chain of the owner tree node is walked.
      * 
      * @param treeNode the tree node to check.
      */
     private void checkInputTreeNodeIsNotPredecessorOfThisTreeNode(
             TreeNode<E> treeNode) {
-        TreeNode<E> currentTreeNode = ownerTreeNode;
+        if (treeNode.isAncestorOrSelfOf(ownerTreeNode)) {
+            throw new IllegalStateException(
+                    "Trying to create a cycle in this tree.");
+        }
+    }
+    
+    private static void countRemoval() {
+        if (TreeInstrumentation.ENABLED) {
+            TreeInstrumentation.increment(
+                    TreeInstrumentation.Counter.REMOVALS);
+        }
+    }
+    
+    /**
+     * This inner class implements a fail-fast iterator over the child list of
+     * the owner tree node.
+     */
+    private final class ChildIterator implements Iterator<TreeNode<E>> {
         
-        while (currentTreeNode != null) {
-            if (currentTreeNode == treeNode) {
+        /**
+         * The next child to return or {@code null} if the iteration is over.
+         */
+        private TreeNode<E> nextTreeNode = ownerTreeNode.firstChild;
+        
+        /**
+         * The most recently returned child. Set to {@code null} after removal.
+         */
+        private TreeNode<E> lastReturnedTreeNode;
+        
+        /**
+         * The modification count of the child list this iterator expects.
+         */
+        private int expectedModCount = ownerTreeNode.modCount;
+        
+        @Override
+        public boolean hasNext() {
+            return nextTreeNode != null;
+        }
+        
+        @Override
+        public TreeNode<E> next() {
+            checkForComodification();
+            
+            if (nextTreeNode == null) {
+                throw new NoSuchElementException("No more children.");
+            }
+            
+            lastReturnedTreeNode = nextTreeNode;
+            nextTreeNode = nextTreeNode.nextSibling;
+            return lastReturnedTreeNode;
+        }
+        
+        @Override
+        public void remove() {
+            if (lastReturnedTreeNode == null) {
                 throw new IllegalStateException(
-                        "Trying to create a cycle in this tree.");
+                        "There is no child to remove.");
             }
             
-            currentTreeNode = currentTreeNode.parent;
+            checkForComodification();
+            ownerTreeNode.unlinkChild(lastReturnedTreeNode);
+            countRemoval();
+            lastReturnedTreeNode = null;
+            expectedModCount = ownerTreeNode.modCount;
+        }
+        
+        private void checkForComodification() {
+            if (expectedModCount != ownerTreeNode.modCount) {
+                throw new ConcurrentModificationException();
+            }
+        }
+    }
+    
+    /**
+     * This inner class implements a read-only view over a range of the 
+     * children. It accesses the children by their index in logarithmic time
+     * and iterates over them by following the sibling links.
+     */
+    private final class ChildRange extends AbstractList<TreeNode<E>> {
+        
+        private final int from;
+        private final int to;
+        
+        /**
+         * The modification count of the child list this view expects.
+         */
+        private final int expectedModCount = ownerTreeNode.modCount;
+        
+        ChildRange(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+        
+        @Override
+        public TreeNode<E> get(int index) {
+            checkForComodification();
+            checkIndex(index, to - from);
+            return childAt(from + index);
+        }
+        
+        @Override
+        public int size() {
+            checkForComodification();
+            return to - from;
+        }
+        
+        @Override
+        public Iterator<TreeNode<E>> iterator() {
+            checkForComodification();
+            
+            return new Iterator<TreeNode<E>>() {
+                
+                private TreeNode<E> nextTreeNode = 
+                        from == to ? null : childAt(from);
+                private int remaining = to - from;
+                
+                @Override
+                public boolean hasNext() {
+                    return remaining > 0;
+                }
+                
+                @Override
+                public TreeNode<E> next() {
+                    checkForComodification();
+                    
+                    if (remaining == 0) {
+                        throw new NoSuchElementException(
+                                "No more children in the range.");
+                    }
+                    
+                    TreeNode<E> treeNode = nextTreeNode;
+                    nextTreeNode = nextTreeNode.nextSibling;
+                    remaining--;
+                    return treeNode;
+                }
+            };
+        }
+        
+        private void checkForComodification() {
+            if (expectedModCount != ownerTreeNode.modCount) {
+                throw new ConcurrentModificationException();
+            }
         }
     }
 }
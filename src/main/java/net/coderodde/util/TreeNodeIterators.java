@@ -0,0 +1,474 @@
+package net.coderodde.util;
+
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * This class contains the lazy, non-recursive iterators over tree nodes. All
+ * subtree iterators walk the intrusive child lists of the nodes and need no
+ * per-node allocation. They are fail-fast: a structural modification of a 
+ * child list the iterator is walking, or of a child list on the path from the
+ * traversal root to the current node, results in a 
+ * {@link ConcurrentModificationException} at the latest when the iterator 
+ * moves through the modified list.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+final class TreeNodeIterators {
+    
+    /**
+     * The characteristics of all the traversal spliterators.
+     */
+    static final int CHARACTERISTICS = Spliterator.ORDERED |
+                                       Spliterator.DISTINCT |
+                                       Spliterator.NONNULL;
+    
+    private TreeNodeIterators() {}
+    
+    /**
+     * Returns a spliterator over the input iterator.
+     * 
+     * @param <E>      the tree node element type.
+     * @param iterator the iterator to wrap.
+     * @return a spliterator.
+     */
+    static <E> Spliterator<TreeNode<E>> 
+        spliterator(Iterator<TreeNode<E>> iterator) {
+        return Spliterators.spliteratorUnknownSize(iterator, CHARACTERISTICS);
+    }
+    
+    /**
+     * Returns a sequential stream over the input iterator.
+     * 
+     * @param <E>      the tree node element type.
+     * @param iterator the iterator to wrap.
+     * @return a stream.
+     */
+    static <E> Stream<TreeNode<E>> stream(Iterator<TreeNode<E>> iterator) {
+        return StreamSupport.stream(spliterator(iterator), false);
+    }
+    
+    /**
+     * This class holds the stack of expected modification counts of the child
+     * lists on the path from the traversal root to the current node.
+     */
+    private abstract static class PathIterator<E> 
+            implements Iterator<TreeNode<E>> {
+        
+        /**
+         * The root of the traversed subtree.
+         */
+        final TreeNode<E> root;
+        
+        /**
+         * The expected modification counts of the child lists on the current
+         * path. The topmost entry belongs to the parent of the current node.
+         */
+        private int[] expectedModCounts = new int[8];
+        
+        /**
+         * The number of entries in {@link #expectedModCounts}.
+         */
+        private int stackSize;
+        
+        PathIterator(TreeNode<E> root) {
+            this.root = root;
+        }
+        
+        /**
+         * Records that the iterator entered the child list of the input node.
+         * 
+         * @param parent the node whose child list is entered.
+         */
+        final void push(TreeNode<E> parent) {
+            if (stackSize == expectedModCounts.length) {
+                int[] newExpectedModCounts = new int[2 * stackSize];
+                System.arraycopy(expectedModCounts, 
+                                 0, 
+                                 newExpectedModCounts,
+                                 0, 
+                                 stackSize);
+                expectedModCounts = newExpectedModCounts;
+            }
+            
+            expectedModCounts[stackSize++] = parent.modCount;
+        }
+        
+        /**
+         * Records that the iterator left the child list of the input node.
+         * 
+         * @param parent the node whose child list is left.
+         */
+        final void pop(TreeNode<E> parent) {
+            check(parent);
+            stackSize--;
+        }
+        
+        /**
+         * Checks that the child list of the input node, which must be the
+         * topmost list on the path, has not been modified.
+         * 
+         * @param parent the parent node of the current node.
+         */
+        final void check(TreeNode<E> parent) {
+            if (parent == null ||
+                    stackSize == 0 ||
+                    expectedModCounts[stackSize - 1] != parent.modCount) {
+                throw new ConcurrentModificationException();
+            }
+        }
+        
+        final boolean isPathEmpty() {
+            return stackSize == 0;
+        }
+    }
+    
+    /**
+     * This class implements the pre-order iterator over a subtree.
+     */
+    static final class PreorderIterator<E> extends PathIterator<E> {
+        
+        /**
+         * The next node to return or {@code null} if the iteration is over.
+         */
+        private TreeNode<E> next;
+        
+        /**
+         * Constructs the iterator.
+         * 
+         * @param root        the root of the subtree to traverse.
+         * @param includeRoot whether to return the root itself.
+         */
+        PreorderIterator(TreeNode<E> root, boolean includeRoot) {
+            super(root);
+            
+            if (includeRoot) {
+                next = root;
+            } else if (root.firstChild != null) {
+                push(root);
+                next = root.firstChild;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public TreeNode<E> next() {
+            TreeNode<E> current = next;
+            
+            if (current == null) {
+                throw new NoSuchElementException("The traversal is over.");
+            }
+            
+            if (current != root) {
+                check(current.parent);
+            }
+            
+            if (current.firstChild != null) {
+                push(current);
+                next = current.firstChild;
+                return current;
+            }
+            
+            TreeNode<E> node = current;
+            
+            while (node != root) {
+                if (node.nextSibling != null) {
+                    next = node.nextSibling;
+                    return current;
+                }
+                
+                node = node.parent;
+                pop(node);
+            }
+            
+            next = null;
+            return current;
+        }
+    }
+    
+    /**
+     * This class implements the post-order iterator over a subtree.
+     */
+    static final class PostorderIterator<E> extends PathIterator<E> {
+        
+        /**
+         * Whether to return the root of the subtree.
+         */
+        private final boolean includeRoot;
+        
+        /**
+         * The next node to return or {@code null} if the iteration is over.
+         */
+        private TreeNode<E> next;
+        
+        /**
+         * Constructs the iterator.
+         * 
+         * @param root        the root of the subtree to traverse.
+         * @param includeRoot whether to return the root itself.
+         */
+        PostorderIterator(TreeNode<E> root, boolean includeRoot) {
+            super(root);
+            this.includeRoot = includeRoot;
+            this.next = descend(root);
+            
+            if (next == root && !includeRoot) {
+                next = null;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public TreeNode<E> next() {
+            TreeNode<E> current = next;
+            
+            if (current == null) {
+                throw new NoSuchElementException("The traversal is over.");
+            }
+            
+            if (current == root) {
+                next = null;
+                return current;
+            }
+            
+            check(current.parent);
+            
+            if (current.nextSibling != null) {
+                next = descend(current.nextSibling);
+            } else {
+                next = current.parent;
+                pop(next);
+                
+                if (next == root && !includeRoot) {
+                    next = null;
+                }
+            }
+            
+            return current;
+        }
+        
+        /**
+         * Returns the leftmost leaf of the subtree rooted at the input node.
+         * 
+         * @param node the root of the subtree.
+         * @return the first node of the subtree in post-order.
+         */
+        private TreeNode<E> descend(TreeNode<E> node) {
+            while (node.firstChild != null) {
+                push(node);
+                node = node.firstChild;
+            }
+            
+            return node;
+        }
+    }
+    
+    /**
+     * This class implements the breadth-first iterator over a subtree. The
+     * iterator keeps a queue of the nodes whose child lists are still to be
+     * walked along with their modification counts at the time they were 
+     * enqueued.
+     */
+    static final class LevelOrderIterator<E> implements Iterator<TreeNode<E>> {
+        
+        /**
+         * The circular queue of nodes whose children are yet to be returned.
+         */
+        private TreeNode<E>[] queue;
+        
+        /**
+         * The modification counts of the nodes in {@link #queue}.
+         */
+        private int[] queueModCounts;
+        
+        private int queueHead;
+        private int queueSize;
+        
+        /**
+         * The node whose child list is currently walked.
+         */
+        private TreeNode<E> currentParent;
+        
+        /**
+         * The expected modification count of {@link #currentParent}.
+         */
+        private int expectedModCount;
+        
+        /**
+         * The next node to return or {@code null} if the iteration is over.
+         */
+        private TreeNode<E> next;
+        
+        /**
+         * Constructs the iterator.
+         * 
+         * @param root        the root of the subtree to traverse.
+         * @param includeRoot whether to return the root itself.
+         */
+        @SuppressWarnings("unchecked")
+        LevelOrderIterator(TreeNode<E> root, boolean includeRoot) {
+            queue = (TreeNode<E>[]) new TreeNode<?>[8];
+            queueModCounts = new int[8];
+            
+            if (includeRoot) {
+                next = root;
+            } else {
+                enqueue(root);
+                advanceToNextList();
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public TreeNode<E> next() {
+            TreeNode<E> current = next;
+            
+            if (current == null) {
+                throw new NoSuchElementException("The traversal is over.");
+            }
+            
+            if (currentParent != null && 
+                    (current.parent != currentParent ||
+                     currentParent.modCount != expectedModCount)) {
+                throw new ConcurrentModificationException();
+            }
+            
+            enqueue(current);
+            
+            if (currentParent != null && current.nextSibling != null) {
+                next = current.nextSibling;
+            } else {
+                advanceToNextList();
+            }
+            
+            return current;
+        }
+        
+        /**
+         * Moves to the first child of the next node in the queue that has any
+         * children.
+         */
+        private void advanceToNextList() {
+            while (queueSize > 0) {
+                TreeNode<E> parent = queue[queueHead];
+                int modCount = queueModCounts[queueHead];
+                queue[queueHead] = null;
+                queueHead = (queueHead + 1) & (queue.length - 1);
+                queueSize--;
+                
+                if (parent.modCount != modCount) {
+                    throw new ConcurrentModificationException();
+                }
+                
+                if (parent.firstChild != null) {
+                    currentParent = parent;
+                    expectedModCount = modCount;
+                    next = parent.firstChild;
+                    return;
+                }
+            }
+            
+            currentParent = null;
+            next = null;
+        }
+        
+        private void enqueue(TreeNode<E> node) {
+            if (node.firstChild == null) {
+                // Nothing to walk later.
+                return;
+            }
+            
+            if (queueSize == queue.length) {
+                grow();
+            }
+            
+            int index = (queueHead + queueSize) & (queue.length - 1);
+            queue[index] = node;
+            queueModCounts[index] = node.modCount;
+            queueSize++;
+        }
+        
+        @SuppressWarnings("unchecked")
+        private void grow() {
+            TreeNode<E>[] newQueue = 
+                    (TreeNode<E>[]) new TreeNode<?>[2 * queueSize];
+            int[] newQueueModCounts = new int[2 * queueSize];
+            
+            for (int i = 0; i < queueSize; i++) {
+                int index = (queueHead + i) & (queue.length - 1);
+                newQueue[i] = queue[index];
+                newQueueModCounts[i] = queueModCounts[index];
+            }
+            
+            queue = newQueue;
+            queueModCounts = newQueueModCounts;
+            queueHead = 0;
+        }
+    }
+    
+    /**
+     * This class implements the iterator over the proper ancestors of a node,
+     * starting from its parent and ending at the root of its tree. The 
+     * pseudoroot of a tree is never returned.
+     */
+    static final class AncestorIterator<E> implements Iterator<TreeNode<E>> {
+        
+        /**
+         * The most recently returned node or the start node.
+         */
+        private TreeNode<E> current;
+        
+        /**
+         * The next node to return or {@code null} if the iteration is over.
+         */
+        private TreeNode<E> next;
+        
+        AncestorIterator(TreeNode<E> node) {
+            this.current = node;
+            this.next = nextAncestor(node);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public TreeNode<E> next() {
+            if (next == null) {
+                throw new NoSuchElementException("The traversal is over.");
+            }
+            
+            if (current.parent != next) {
+                throw new ConcurrentModificationException();
+            }
+            
+            current = next;
+            next = nextAncestor(current);
+            return current;
+        }
+        
+        private static <E> TreeNode<E> nextAncestor(TreeNode<E> node) {
+            TreeNode<E> parent = node.parent;
+            return parent == null || parent.isPseudoRoot() ? null : parent;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package net.coderodde.util;
+
+/**
+ * This class implements a fixed-capacity map from tree nodes to non-negative
+ * integers, compared by identity. It uses open addressing with linear probing
+ * over two parallel arrays, so that it needs no objects per entry, unlike an
+ * {@link java.util.IdentityHashMap} with boxed values.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+final class TreeNodeNumberMap {
+    
+    private final TreeNode<?>[] keys;
+    private final int[] values;
+    private final int mask;
+    
+    /**
+     * Constructs a map with room for the input number of entries.
+     * 
+     * @param capacity the maximum number of entries.
+     */
+    TreeNodeNumberMap(int capacity) {
+        // Keep the load factor at most one half.
+        int tableSize = Integer.highestOneBit(Math.max(2, capacity) * 2 - 1) 
+                        << 1;
+        this.keys = new TreeNode<?>[tableSize];
+        this.values = new int[tableSize];
+        this.mask = tableSize - 1;
+    }
+    
+    /**
+     * Maps the input tree node to the input number.
+     * 
+     * @param node   the key node.
+     * @param number the number to map to.
+     */
+    void put(TreeNode<?> node, int number) {
+        int index = indexOf(node);
+        
+        while (keys[index] != null && keys[index] != node) {
+            index = (index + 1) & mask;
+        }
+        
+        keys[index] = node;
+        values[index] = number;
+    }
+    
+    /**
+     * Returns the number the input tree node maps to, or -1 if there is none.
+     * 
+     * @param node the key node.
+     * @return the mapped number or -1.
+     */
+    int get(TreeNode<?> node) {
+        for (int index = indexOf(node); 
+                keys[index] != null; 
+                index = (index + 1) & mask) {
+            if (keys[index] == node) {
+                return values[index];
+            }
+        }
+        
+        return -1;
+    }
+    
+    private int indexOf(TreeNode<?> node) {
+        // Spread the identity hash code with the golden ratio.
+        int hash = System.identityHashCode(node) * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+}
@@ -0,0 +1,80 @@
+package net.coderodde.util;
+
+/**
+ * This class implements the node pool of a {@link Tree}: a bounded free list
+ * of released tree nodes, threaded through their {@code nextSibling} fields,
+ * from which {@link TreeNode#addChild(Object)} takes its new children. The
+ * released tree nodes keep their children views, so that a recycled tree
+ * node allocates nothing when its children are accessed. The pool is a 
+ * stack, which hands out the nodes of a released subtree in pre-order.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ * @param <E> the tree node element type.
+ */
+final class TreeNodePool<E> {
+    
+    /**
+     * The maximum number of the pooled tree nodes.
+     */
+    private final int capacity;
+    
+    /**
+     * The first pooled tree node, or {@code null} if the pool is empty.
+     */
+    private TreeNode<E> head;
+    
+    /**
+     * The number of the pooled tree nodes.
+     */
+    private int size;
+    
+    TreeNodePool(int capacity) {
+        this.capacity = capacity;
+    }
+    
+    /**
+     * Returns a detached tree node holding the input element, taken from
+     * this pool if it is not empty.
+     * 
+     * @param element the element of the tree node.
+     * @return the tree node.
+     */
+    TreeNode<E> allocate(E element) {
+        TreeNode<E> node = head;
+        
+        if (node == null) {
+            return new TreeNode<>(element);
+        }
+        
+        head = node.nextSibling;
+        node.nextSibling = null;
+        size--;
+        node.reuse(element);
+        
+        if (TreeInstrumentation.ENABLED) {
+            TreeInstrumentation.increment(
+                    TreeInstrumentation.Counter.POOLED_ALLOCATIONS);
+        }
+        
+        return node;
+    }
+    
+    /**
+     * Adds the input released tree node to this pool unless the pool is
+     * full.
+     * 
+     * @param node the released tree node.
+     */
+    void free(TreeNode<E> node) {
+        if (size < capacity) {
+            node.nextSibling = head;
+            head = node;
+            size++;
+        }
+    }
+    
+    int size() {
+        return size;
+    }
+}
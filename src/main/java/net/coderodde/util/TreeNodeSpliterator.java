@@ -0,0 +1,305 @@
+package net.coderodde.util;
+
+import java.util.ConcurrentModificationException;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * This class implements a pre-order spliterator over a subtree that splits 
+ * at child list boundaries. The state of the spliterator is an optional 
+ * <i>head</i> node, which is returned first, followed by a stack of 
+ * <i>frames</i>. Each frame is a contiguous range of sibling subtrees that 
+ * have not been visited yet; the topmost frame comes first in pre-order, and
+ * the bottommost frame comes last. The children of the head, if any, always
+ * form the topmost frame.
+ * 
+ * <p>
+ * Splitting hands over the head, all frames but the bottommost one and the
+ * first half of the bottommost frame to the returned prefix spliterator; this
+ * spliterator keeps the second half of the bottommost frame. The halves are
+ * balanced by the estimated sizes of the sibling subtrees. When only a single
+ * subtree remains, it is opened: its root becomes the head of the prefix, and
+ * its children are split as above.
+ * </p>
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ * @param <E> the tree node element type.
+ */
+final class TreeNodeSpliterator<E> implements Spliterator<TreeNode<E>> {
+    
+    /**
+     * The node to return before any of the frames, or {@code null}.
+     */
+    private TreeNode<E> head;
+    
+    /**
+     * The next unvisited subtree root of each frame.
+     */
+    private TreeNode<E>[] frameFirsts;
+    
+    /**
+     * The last subtree root of each frame.
+     */
+    private TreeNode<E>[] frameLasts;
+    
+    /**
+     * The expected modification counts of the child lists of the frames.
+     */
+    private int[] frameModCounts;
+    
+    /**
+     * The number of frames. The frame at index {@code frameCount - 1} is the
+     * topmost one.
+     */
+    private int frameCount;
+    
+    /**
+     * The estimated number of the remaining nodes.
+     */
+    private long estimatedSize;
+    
+    /**
+     * Constructs a spliterator over the subtree rooted at the input node.
+     * 
+     * @param root        the root of the subtree.
+     * @param includeRoot whether to return the root.
+     */
+    TreeNodeSpliterator(TreeNode<E> root, boolean includeRoot) {
+        this(4);
+        
+        if (includeRoot) {
+            head = root;
+        }
+        
+        if (root.firstChild != null) {
+            pushFrame(root.firstChild, root.lastChild, root.modCount);
+        }
+        
+        // Use the exact size if it is known without a traversal:
+        this.estimatedSize = root.subtreeSize != 0 ?
+                             root.subtreeSize - (includeRoot ? 0 : 1) :
+                             Long.MAX_VALUE;
+    }
+    
+    private TreeNodeSpliterator(int capacity) {
+        this.frameFirsts = newNodeArray(capacity);
+        this.frameLasts = newNodeArray(capacity);
+        this.frameModCounts = new int[capacity];
+    }
+    
+    @Override
+    public boolean tryAdvance(Consumer<? super TreeNode<E>> action) {
+        TreeNode<E> node = nextNode();
+        
+        if (node == null) {
+            return false;
+        }
+        
+        action.accept(node);
+        return true;
+    }
+    
+    @Override
+    public void forEachRemaining(Consumer<? super TreeNode<E>> action) {
+        TreeNode<E> node;
+        
+        while ((node = nextNode()) != null) {
+            action.accept(node);
+        }
+    }
+    
+    @Override
+    public Spliterator<TreeNode<E>> trySplit() {
+        if (frameCount == 0) {
+            return null;
+        }
+        
+        if (head == null && 
+                frameCount == 1 && 
+                frameFirsts[0] == frameLasts[0]) {
+            // Open the only remaining subtree.
+            TreeNode<E> root = frameFirsts[0];
+            checkFrame(0);
+            
+            if (root.firstChild == null) {
+                return null;
+            }
+            
+            head = root;
+            frameFirsts[0] = root.firstChild;
+            frameLasts[0] = root.lastChild;
+            frameModCounts[0] = root.modCount;
+        }
+        
+        TreeNodeSpliterator<E> prefix = new TreeNodeSpliterator<>(
+                Math.max(4, frameCount));
+        prefix.head = head;
+        head = null;
+        
+        checkFrame(0);
+        TreeNode<E> bottomFirst = frameFirsts[0];
+        TreeNode<E> bottomLast = frameLasts[0];
+        
+        if (bottomFirst != bottomLast) {
+            TreeNode<E> splitNode = findSplitNode(bottomFirst, bottomLast);
+            prefix.pushFrame(bottomFirst, splitNode, frameModCounts[0]);
+            frameFirsts[0] = splitNode.nextSibling;
+        }
+        
+        // Hand over all the frames above the bottommost one.
+        for (int i = 1; i < frameCount; i++) {
+            prefix.pushFrame(frameFirsts[i], frameLasts[i], frameModCounts[i]);
+            frameFirsts[i] = null;
+            frameLasts[i] = null;
+        }
+        
+        frameCount = 1;
+        
+        if (prefix.head == null && prefix.frameCount == 0) {
+            return null;
+        }
+        
+        prefix.estimatedSize = estimatedSize >>> 1;
+        estimatedSize -= prefix.estimatedSize;
+        return prefix;
+    }
+    
+    @Override
+    public long estimateSize() {
+        return estimatedSize;
+    }
+    
+    @Override
+    public int characteristics() {
+        return TreeNodeIterators.CHARACTERISTICS;
+    }
+    
+    /**
+     * Returns the number of nodes in the subtree rooted at the input node. 
+     * This is used for balancing the splits. A stale subtree size is 
+     * recomputed, which visits the subtree once; as the sizes stay up to date
+     * afterwards, all the splits of an unmodified tree take linear time in 
+     * total. Counting only the node and its children instead would make every
+     * subtree of a freshly built tree look small, and nothing would be split.
+     * 
+     * @param node the root of the subtree.
+     * @return the subtree size.
+     */
+    static long estimateSubtreeSize(TreeNode<?> node) {
+        return node.getSubtreeSize();
+    }
+    
+    /**
+     * Returns the last node of the first half of the input sibling range. The
+     * halves are balanced by the estimated subtree sizes.
+     * 
+     * @param first the first sibling of the range.
+     * @param last  the last sibling of the range.
+     * @return the last sibling of the first half.
+     */
+    private static <E> TreeNode<E> findSplitNode(TreeNode<E> first,
+                                                 TreeNode<E> last) {
+        long totalSize = 0;
+        
+        for (TreeNode<E> node = first; ; node = node.nextSibling) {
+            totalSize += estimateSubtreeSize(node);
+            
+            if (node == last) {
+                break;
+            }
+        }
+        
+        long prefixSize = 0;
+        TreeNode<E> node = first;
+        
+        while (true) {
+            prefixSize += estimateSubtreeSize(node);
+            
+            if (2 * prefixSize >= totalSize || node.nextSibling == last) {
+                return node;
+            }
+            
+            node = node.nextSibling;
+        }
+    }
+    
+    /**
+     * Returns the next node in pre-order or {@code null} if there is none.
+     * 
+     * @return the next node.
+     */
+    private TreeNode<E> nextNode() {
+        TreeNode<E> node;
+        
+        if (head != null) {
+            // The children of the head are already in the topmost frame.
+            node = head;
+            head = null;
+            return node;
+        } else if (frameCount > 0) {
+            int top = frameCount - 1;
+            checkFrame(top);
+            node = frameFirsts[top];
+            
+            if (node == frameLasts[top]) {
+                frameFirsts[top] = null;
+                frameLasts[top] = null;
+                frameCount--;
+            } else {
+                frameFirsts[top] = node.nextSibling;
+            }
+        } else {
+            return null;
+        }
+        
+        if (node.firstChild != null) {
+            pushFrame(node.firstChild, node.lastChild, node.modCount);
+        }
+        
+        return node;
+    }
+    
+    private void pushFrame(TreeNode<E> first, TreeNode<E> last, int modCount) {
+        if (frameCount == frameFirsts.length) {
+            int capacity = 2 * frameCount;
+            TreeNode<E>[] newFrameFirsts = newNodeArray(capacity);
+            TreeNode<E>[] newFrameLasts = newNodeArray(capacity);
+            int[] newFrameModCounts = new int[capacity];
+            System.arraycopy(frameFirsts, 0, newFrameFirsts, 0, frameCount);
+            System.arraycopy(frameLasts, 0, newFrameLasts, 0, frameCount);
+            System.arraycopy(frameModCounts, 
+                             0, 
+                             newFrameModCounts,
+                             0, 
+                             frameCount);
+            frameFirsts = newFrameFirsts;
+            frameLasts = newFrameLasts;
+            frameModCounts = newFrameModCounts;
+        }
+        
+        frameFirsts[frameCount] = first;
+        frameLasts[frameCount] = last;
+        frameModCounts[frameCount] = modCount;
+        frameCount++;
+    }
+    
+    /**
+     * Checks that the child list holding the input frame has not been 
+     * modified.
+     * 
+     * @param frameIndex the index of the frame.
+     */
+    private void checkFrame(int frameIndex) {
+        TreeNode<E> parent = frameFirsts[frameIndex].parent;
+        
+        if (parent == null || parent.modCount != frameModCounts[frameIndex]) {
+            throw new ConcurrentModificationException();
+        }
+    }
+    
+    @SuppressWarnings("unchecked")
+    private static <E> TreeNode<E>[] newNodeArray(int capacity) {
+        return (TreeNode<E>[]) new TreeNode<?>[capacity];
+    }
+}
@@ -0,0 +1,402 @@
+package net.coderodde.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * This class implements a compiled path pattern selecting tree nodes. A
+ * pattern is a sequence of steps separated by slashes, each matching one
+ * level of the tree below the context node:
+ * 
+ * <ul>
+ *   <li>a name matches the nodes whose element has that name, by default its
+ *       {@link String#valueOf(Object)}; a backslash escapes the next
+ *       character,</li>
+ *   <li>{@code *} matches any node,</li>
+ *   <li>{@code **} matches any number of levels, including none, and
+ *       {@code **{m,n}}, {@code **{m,}}, {@code **{,n}} and {@code **{n}}
+ *       limit the number of levels,</li>
+ *   <li>a step may be followed by predicates on the element,
+ *       {@code [name]} or the negated {@code [!name]}, defined in the
+ *       {@link TreeSelectorCompiler}; a predicate of {@code **} applies to
+ *       every level it matches.</li>
+ * </ul>
+ * 
+ * <p>
+ * For example, <code>root/*&#47;config/**</code> selects the nodes named
+ * {@code config} on the third level below the roots named {@code root}, and
+ * all their descendants. Applied to a tree, a pattern starts at the roots;
+ * applied to a tree node, it starts at the children of the node.
+ * </p>
+ * 
+ * <p>
+ * A pattern is compiled into a nondeterministic automaton whose states are
+ * the numbers of matched steps, kept as a bit set in a single {@code long},
+ * which limits a pattern to 63 steps after expanding the level limits. A
+ * selection is a single, non-recursive pre-order pass computing the state
+ * set of each node from that of its parent, and it skips the entire subtree
+ * of a node at which no step can match any more. The matches are produced
+ * lazily. A selector is immutable and may be shared by threads; the tree
+ * must not be modified during a selection.
+ * </p>
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ * @param <E> the tree node element type.
+ */
+public final class TreeSelector<E> {
+    
+    /**
+     * The maximum number of steps of a pattern after expanding the level
+     * limits.
+     */
+    public static final int MAXIMUM_STEPS = 63;
+    
+    private static final TreeSelectorCompiler<Object> DEFAULT_COMPILER =
+            new TreeSelectorCompiler<>();
+    
+    private final String pattern;
+    private final Function<? super E, String> namer;
+    
+    /**
+     * The names the steps require, or {@code null} for the steps matching any
+     * name.
+     */
+    private final String[] names;
+    
+    /**
+     * The predicates of the steps.
+     */
+    private final List<List<Predicate<? super E>>> predicates;
+    
+    /**
+     * The steps that loop on their state when they match a node, and the
+     * steps that may be skipped without matching a node.
+     */
+    private final long loopSteps;
+    private final long skippableSteps;
+    private final long namedSteps;
+    
+    /**
+     * The state in which all the steps are matched.
+     */
+    private final long acceptState;
+    private final long initialStates;
+    
+    TreeSelector(String pattern,
+                 Function<? super E, String> namer,
+                 List<Step<E>> steps) {
+        this.pattern = pattern;
+        this.namer = namer;
+        this.names = new String[steps.size()];
+        this.predicates = new ArrayList<>(steps.size());
+        long loopSteps = 0L;
+        long skippableSteps = 0L;
+        long namedSteps = 0L;
+        
+        for (int i = 0; i < steps.size(); i++) {
+            Step<E> step = steps.get(i);
+            names[i] = step.name;
+            predicates.add(step.predicates);
+            
+            if (step.loop) {
+                loopSteps |= 1L << i;
+            }
+            
+            if (step.skippable) {
+                skippableSteps |= 1L << i;
+            }
+            
+            if (step.name != null) {
+                namedSteps |= 1L << i;
+            }
+        }
+        
+        this.loopSteps = loopSteps;
+        this.skippableSteps = skippableSteps;
+        this.namedSteps = namedSteps;
+        this.acceptState = 1L << steps.size();
+        this.initialStates = close(1L);
+    }
+    
+    /**
+     * Compiles the input pattern without predicates, naming the elements by
+     * {@link String#valueOf(Object)}. The compiled selectors are cached.
+     * 
+     * @param <E>     the tree node element type.
+     * @param pattern the pattern to compile.
+     * @return the selector.
+     * @throws IllegalArgumentException if the pattern is malformed.
+     */
+    @SuppressWarnings("unchecked")
+    public static <E> TreeSelector<E> compile(String pattern) {
+        // The default compiler has no predicates and names any element, so
+        // its selectors work for all element types.
+        return (TreeSelector<E>) DEFAULT_COMPILER.compile(pattern);
+    }
+    
+    /**
+     * Returns the pattern of this selector.
+     * 
+     * @return the pattern.
+     */
+    public String getPattern() {
+        return pattern;
+    }
+    
+    /**
+     * Returns a lazy iterator over the nodes of the input tree matching this
+     * selector, in pre-order.
+     * 
+     * @param tree the tree to select from.
+     * @return the iterator over the matching nodes.
+     */
+    public Iterator<TreeNode<E>> iterator(Tree<E> tree) {
+        Objects.requireNonNull(tree, "The input tree is null.");
+        return iterator(tree.getPseudoRoot());
+    }
+    
+    /**
+     * Returns a lazy iterator over the descendants of the input node matching
+     * this selector, in pre-order.
+     * 
+     * @param context the node whose children the first step matches.
+     * @return the iterator over the matching nodes.
+     */
+    public Iterator<TreeNode<E>> iterator(TreeNode<E> context) {
+        Objects.requireNonNull(context, "The context node is null.");
+        return new MatchIterator(context);
+    }
+    
+    /**
+     * Returns a sequential stream over the nodes of the input tree matching
+     * this selector, in pre-order.
+     * 
+     * @param tree the tree to select from.
+     * @return the stream of the matching nodes.
+     */
+    public Stream<TreeNode<E>> select(Tree<E> tree) {
+        return TreeNodeIterators.stream(iterator(tree));
+    }
+    
+    /**
+     * Returns a sequential stream over the descendants of the input node
+     * matching this selector, in pre-order.
+     * 
+     * @param context the node whose children the first step matches.
+     * @return the stream of the matching nodes.
+     */
+    public Stream<TreeNode<E>> select(TreeNode<E> context) {
+        return TreeNodeIterators.stream(iterator(context));
+    }
+    
+    /**
+     * Returns the first node of the input tree in pre-order matching this
+     * selector, if any. The selection stops at the first match.
+     * 
+     * @param tree the tree to select from.
+     * @return the first matching node.
+     */
+    public Optional<TreeNode<E>> selectFirst(Tree<E> tree) {
+        Iterator<TreeNode<E>> iterator = iterator(tree);
+        return iterator.hasNext() ?
+               Optional.of(iterator.next()) :
+               Optional.empty();
+    }
+    
+    /**
+     * Returns {@code true} only if the input node matches this selector
+     * applied to its tree. This runs in time proportional to the depth of
+     * the node.
+     * 
+     * @param node the node to test.
+     * @return {@code true} if the node is selected.
+     */
+    public boolean matches(TreeNode<E> node) {
+        Objects.requireNonNull(node, "The input tree node is null.");
+        
+        if (node.isPseudoRoot()) {
+            return false;
+        }
+        
+        List<TreeNode<E>> path = new ArrayList<>();
+        
+        for (; node != null && !node.isPseudoRoot(); node = node.parent) {
+            path.add(node);
+        }
+        
+        long states = initialStates;
+        
+        for (int i = path.size() - 1; i >= 0 && states != 0L; i--) {
+            states = step(states, path.get(i));
+        }
+        
+        return (states & acceptState) != 0L;
+    }
+    
+    @Override
+    public String toString() {
+        return pattern;
+    }
+    
+    /**
+     * Returns the states after matching the input node in the input states.
+     */
+    private long step(long states, TreeNode<E> node) {
+        E element = node.getElement();
+        String name = (states & namedSteps) != 0L ?
+                      namer.apply(element) :
+                      null;
+        long nextStates = 0L;
+        
+        for (long bits = states & (acceptState - 1);
+                bits != 0L;
+                bits &= bits - 1) {
+            int i = Long.numberOfTrailingZeros(bits);
+            
+            if (names[i] != null && !names[i].equals(name)) {
+                continue;
+            }
+            
+            if (!test(predicates.get(i), element)) {
+                continue;
+            }
+            
+            nextStates |= (loopSteps & (1L << i)) != 0L ? 1L << i :
+                                                          1L << (i + 1);
+        }
+        
+        return close(nextStates);
+    }
+    
+    /**
+     * Adds to the input states the states reachable by skipping steps.
+     */
+    private long close(long states) {
+        long pending = states & skippableSteps;
+        
+        while (pending != 0L) {
+            int i = Long.numberOfTrailingZeros(pending);
+            long next = 1L << (i + 1);
+            states |= next;
+            pending = (pending & ~(1L << i)) | (next & skippableSteps);
+        }
+        
+        return states;
+    }
+    
+    private static <E> boolean test(List<Predicate<? super E>> predicates,
+                                    E element) {
+        for (Predicate<? super E> predicate : predicates) {
+            if (!predicate.test(element)) {
+                return false;
+            }
+        }
+        
+        return true;
+    }
+    
+    /**
+     * This class describes a single step of a compiled pattern.
+     */
+    static final class Step<E> {
+        
+        final String name;
+        final List<Predicate<? super E>> predicates;
+        final boolean loop;
+        final boolean skippable;
+        
+        Step(String name,
+             List<Predicate<? super E>> predicates,
+             boolean loop,
+             boolean skippable) {
+            this.name = name;
+            this.predicates = predicates;
+            this.loop = loop;
+            this.skippable = skippable;
+        }
+    }
+    
+    /**
+     * This class iterates over the matching nodes in pre-order. The states
+     * of the parent of the current node are kept in a stack indexed by the
+     * depth below the context node, and a node whose states cannot match
+     * another step is not descended into.
+     */
+    private final class MatchIterator implements Iterator<TreeNode<E>> {
+        
+        private long[] parentStates = new long[16];
+        private int depth;
+        
+        /**
+         * The next node to examine, or {@code null} if the traversal is over.
+         */
+        private TreeNode<E> node;
+        private TreeNode<E> next;
+        
+        MatchIterator(TreeNode<E> context) {
+            parentStates[0] = initialStates;
+            node = (initialStates & (acceptState - 1)) != 0L ?
+                   context.firstChild :
+                   null;
+            advance();
+        }
+        
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+        
+        @Override
+        public TreeNode<E> next() {
+            if (next == null) {
+                throw new NoSuchElementException(
+                        "No nodes left in this iteration.");
+            }
+            
+            TreeNode<E> match = next;
+            advance();
+            return match;
+        }
+        
+        private void advance() {
+            next = null;
+            
+            while (node != null && next == null) {
+                TreeNode<E> current = node;
+                long states = step(parentStates[depth], current);
+                
+                if ((states & acceptState) != 0L) {
+                    next = current;
+                }
+                
+                if ((states & (acceptState - 1)) != 0L &&
+                        current.firstChild != null) {
+                    if (++depth == parentStates.length) {
+                        parentStates = Arrays.copyOf(parentStates,
+                                                     2 * depth);
+                    }
+                    
+                    parentStates[depth] = states;
+                    node = current.firstChild;
+                    continue;
+                }
+                
+                while (node.nextSibling == null && depth > 0) {
+                    node = node.parent;
+                    depth--;
+                }
+                
+                node = node.nextSibling;
+            }
+        }
+    }
+}
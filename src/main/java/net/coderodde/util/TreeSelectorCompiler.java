@@ -0,0 +1,321 @@
+package net.coderodde.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * This class compiles the patterns of {@link TreeSelector}s. A compiler
+ * holds the naming function of the elements and the named predicates the
+ * patterns may refer to, and caches the compiled selectors by pattern, so
+ * that a pattern used repeatedly is parsed only once. The cache evicts the
+ * least recently used selector when it is full, and it is cleared when a
+ * predicate is defined. A compiler may be shared by threads.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ * @param <E> the tree node element type.
+ */
+public final class TreeSelectorCompiler<E> {
+    
+    /**
+     * The default maximum number of the cached selectors.
+     */
+    public static final int DEFAULT_CACHE_CAPACITY = 256;
+    
+    private final Function<? super E, String> namer;
+    private final Map<String, Predicate<? super E>> predicates =
+            new HashMap<>();
+    private final Map<String, TreeSelector<E>> cache;
+    
+    /**
+     * Constructs a compiler naming the elements by
+     * {@link String#valueOf(Object)}, with the default cache capacity.
+     */
+    public TreeSelectorCompiler() {
+        this(String::valueOf, DEFAULT_CACHE_CAPACITY);
+    }
+    
+    /**
+     * Constructs a compiler naming the elements by the input function.
+     * 
+     * @param namer         the function returning the name of an element.
+     * @param cacheCapacity the maximum number of the cached selectors.
+     */
+    public TreeSelectorCompiler(Function<? super E, String> namer,
+                                int cacheCapacity) {
+        this.namer = Objects.requireNonNull(namer, "The namer is null.");
+        
+        if (cacheCapacity < 0) {
+            throw new IllegalArgumentException(
+                    "The cache capacity must not be negative, was " +
+                    cacheCapacity + ".");
+        }
+        
+        this.cache = new LinkedHashMap<String, TreeSelector<E>>(16,
+                                                                0.75f,
+                                                                true) {
+            @Override
+            protected boolean removeEldestEntry(
+                    Map.Entry<String, TreeSelector<E>> eldest) {
+                return size() > cacheCapacity;
+            }
+        };
+    }
+    
+    /**
+     * Defines a predicate the patterns may refer to by the input name, or
+     * replaces the predicate defined by that name. The cached selectors are
+     * dropped.
+     * 
+     * @param name      the name of the predicate.
+     * @param predicate the predicate on the elements.
+     */
+    public synchronized void definePredicate(
+            String name,
+            Predicate<? super E> predicate) {
+        Objects.requireNonNull(name, "The predicate name is null.");
+        Objects.requireNonNull(predicate, "The predicate is null.");
+        predicates.put(name, predicate);
+        cache.clear();
+    }
+    
+    /**
+     * Returns the selector of the input pattern, compiling it unless it is
+     * cached.
+     * 
+     * @param pattern the pattern to compile.
+     * @return the selector.
+     * @throws IllegalArgumentException if the pattern is malformed or refers
+     *                                  to an undefined predicate.
+     */
+    public synchronized TreeSelector<E> compile(String pattern) {
+        Objects.requireNonNull(pattern, "The pattern is null.");
+        TreeSelector<E> selector = cache.get(pattern);
+        
+        if (selector == null) {
+            selector = new TreeSelector<>(pattern,
+                                          namer,
+                                          new Parser(pattern).parse());
+            cache.put(pattern, selector);
+        }
+        
+        return selector;
+    }
+    
+    /**
+     * Returns the number of the cached selectors.
+     * 
+     * @return the cache size.
+     */
+    public synchronized int getCacheSize() {
+        return cache.size();
+    }
+    
+    /**
+     * This class parses a pattern into the steps of a selector, expanding
+     * the level limits of {@code **}: {@code **{m,n}} becomes {@code m}
+     * steps matching a node followed by {@code n - m} skippable ones, or by
+     * a single looping one if there is no upper limit.
+     */
+    private final class Parser {
+        
+        private final String pattern;
+        private final List<TreeSelector.Step<E>> steps = new ArrayList<>();
+        private int index;
+        
+        Parser(String pattern) {
+            this.pattern = pattern;
+        }
+        
+        List<TreeSelector.Step<E>> parse() {
+            if (pattern.isEmpty()) {
+                throw error("The pattern is empty");
+            }
+            
+            while (true) {
+                parseStep();
+                
+                if (index == pattern.length()) {
+                    return steps;
+                }
+                
+                expect('/');
+            }
+        }
+        
+        private void parseStep() {
+            if (pattern.startsWith("**", index)) {
+                index += 2;
+                int minimum = 0;
+                int maximum = -1;
+                
+                if (peek() == '{') {
+                    index++;
+                    minimum = peek() == ',' ? 0 : parseInt();
+                    
+                    if (peek() == ',') {
+                        index++;
+                        maximum = peek() == '}' ? -1 : parseInt();
+                    } else {
+                        maximum = minimum;
+                    }
+                    
+                    expect('}');
+                    
+                    if (maximum != -1 && maximum < minimum) {
+                        throw error("The level limits are reversed");
+                    }
+                }
+                
+                List<Predicate<? super E>> predicates = parsePredicates();
+                
+                for (int i = 0; i < minimum; i++) {
+                    addStep(null, predicates, false, false);
+                }
+                
+                if (maximum == -1) {
+                    addStep(null, predicates, true, true);
+                } else {
+                    for (int i = minimum; i < maximum; i++) {
+                        addStep(null, predicates, false, true);
+                    }
+                }
+            } else if (peek() == '*') {
+                index++;
+                addStep(null, parsePredicates(), false, false);
+            } else {
+                String name = parseName();
+                addStep(name, parsePredicates(), false, false);
+            }
+        }
+        
+        private String parseName() {
+            StringBuilder sb = new StringBuilder();
+            
+            while (index < pattern.length()) {
+                char c = pattern.charAt(index);
+                
+                if (c == '/' || c == '[') {
+                    break;
+                }
+                
+                if (c == '*' || c == ']' || c == '{' || c == '}') {
+                    throw error("Unescaped '" + c + "' in a name");
+                }
+                
+                if (c == '\\') {
+                    if (++index == pattern.length()) {
+                        throw error("Dangling escape");
+                    }
+                    
+                    c = pattern.charAt(index);
+                }
+                
+                sb.append(c);
+                index++;
+            }
+            
+            if (sb.length() == 0) {
+                throw error("Empty step");
+            }
+            
+            return sb.toString();
+        }
+        
+        private List<Predicate<? super E>> parsePredicates() {
+            if (peek() != '[') {
+                return Collections.emptyList();
+            }
+            
+            List<Predicate<? super E>> stepPredicates = new ArrayList<>();
+            
+            while (peek() == '[') {
+                index++;
+                boolean negated = peek() == '!';
+                
+                if (negated) {
+                    index++;
+                }
+                
+                int end = pattern.indexOf(']', index);
+                
+                if (end == -1) {
+                    throw error("Unclosed predicate");
+                }
+                
+                String name = pattern.substring(index, end);
+                Predicate<? super E> predicate = predicates.get(name);
+                
+                if (predicate == null) {
+                    throw error("Undefined predicate '" + name + "'");
+                }
+                
+                stepPredicates.add(negated ?
+                                   element -> !predicate.test(element) :
+                                   predicate);
+                index = end + 1;
+            }
+            
+            return stepPredicates;
+        }
+        
+        private int parseInt() {
+            int start = index;
+            
+            while (index < pattern.length() &&
+                    Character.isDigit(pattern.charAt(index))) {
+                index++;
+            }
+            
+            if (start == index) {
+                throw error("Expected a number");
+            }
+            
+            try {
+                return Integer.parseInt(pattern.substring(start, index));
+            } catch (NumberFormatException ex) {
+                throw error("The number is too large");
+            }
+        }
+        
+        private void addStep(String name,
+                             List<Predicate<? super E>> predicates,
+                             boolean loop,
+                             boolean skippable) {
+            if (steps.size() == TreeSelector.MAXIMUM_STEPS) {
+                throw error("More than " + TreeSelector.MAXIMUM_STEPS +
+                            " steps");
+            }
+            
+            steps.add(new TreeSelector.Step<>(name,
+                                              predicates,
+                                              loop,
+                                              skippable));
+        }
+        
+        private char peek() {
+            return index < pattern.length() ? pattern.charAt(index) : 0;
+        }
+        
+        private void expect(char c) {
+            if (peek() != c) {
+                throw error("Expected '" + c + "'");
+            }
+            
+            index++;
+        }
+        
+        private IllegalArgumentException error(String message) {
+            return new IllegalArgumentException(
+                    message + " at index " + index + " of the pattern \"" +
+                    pattern + "\".");
+        }
+    }
+}
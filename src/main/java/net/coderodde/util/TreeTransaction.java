@@ -0,0 +1,54 @@
+package net.coderodde.util;
+
+/**
+ * This class implements a batch of the changes of a {@link Tree}, started 
+ * with {@link Tree#beginTransaction()}. Until the transaction is committed, 
+ * the changes of the tree are collected instead of being delivered to the
+ * {@link TreeChangeListener}s, and on commit, they are delivered as a single
+ * coalesced batch. Transactions may nest, in which case the batch is 
+ * delivered when the outermost one is committed. A transaction does not 
+ * isolate nor roll back the modifications; they take effect immediately.
+ * 
+ * <p>
+ * Closing a transaction commits it unless it is already committed, so a 
+ * transaction is best used in a try-with-resources statement.
+ * </p>
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+public final class TreeTransaction implements AutoCloseable {
+    
+    private final TreeHooks<?> hooks;
+    private boolean committed;
+    
+    TreeTransaction(TreeHooks<?> hooks) {
+        this.hooks = hooks;
+    }
+    
+    /**
+     * Commits this transaction.
+     * 
+     * @throws IllegalStateException if this transaction is already 
+     *                               committed.
+     */
+    public void commit() {
+        if (committed) {
+            throw new IllegalStateException(
+                    "The transaction is already committed.");
+        }
+        
+        committed = true;
+        hooks.commitTransaction();
+    }
+    
+    /**
+     * Commits this transaction unless it is already committed.
+     */
+    @Override
+    public void close() {
+        if (!committed) {
+            commit();
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package net.coderodde.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ * This test class contains the unit tests for {@link BinaryTreeWriter} and 
+ * {@link BinaryTreeReader}.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+public final class BinaryTreeFormatTest {
+    
+    private final StreamingTreeToStringConverter<String> converter = 
+            new StreamingTreeToStringConverter<>();
+    
+    @Test
+    public void testEmptyTree() throws IOException {
+        byte[] bytes = write(new Tree<>(), 16);
+        assertEquals(6, bytes.length);
+        assertEquals(0, reader(16).read(new ByteArrayInputStream(bytes))
+                                  .size());
+    }
+    
+    @Test
+    public void testRoundTrip() throws IOException {
+        Tree<String> tree = createRandomTree(new Random(3L), 3_000);
+        String expected = converter.toString(tree);
+        
+        for (int bufferSize : new int[]{ 16, 1000, 8192 }) {
+            byte[] bytes = write(tree, bufferSize);
+            Tree<String> result = 
+                    reader(bufferSize).read(new ByteArrayInputStream(bytes));
+            assertEquals(expected, converter.toString(result));
+            assertEquals(tree.size(), result.size());
+        }
+    }
+    
+    @Test
+    public void testChannels() throws IOException {
+        Tree<String> tree = createRandomTree(new Random(5L), 1_000);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        new BinaryTreeWriter<>(TreeElementCodecs.strings())
+                .write(tree, Channels.newChannel(outputStream));
+        
+        Tree<String> result = 
+                new BinaryTreeReader<>(TreeElementCodecs.strings(), 100)
+                        .read(Channels.newChannel(
+                                new ByteArrayInputStream(
+                                        outputStream.toByteArray())));
+        assertEquals(converter.toString(tree), converter.toString(result));
+    }
+    
+    @Test
+    public void testDeepChain() throws IOException {
+        Tree<Integer> tree = new Tree<>();
+        TreeNode<Integer> node = tree.getPseudoRoot();
+        
+        for (int i = 0; i < 200_000; i++) {
+            node = node.addChild(i);
+        }
+        
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        new BinaryTreeWriter<>(TreeElementCodecs.integers())
+                .write(tree, outputStream);
+        Tree<Integer> result = 
+                new BinaryTreeReader<>(TreeElementCodecs.integers())
+                        .read(new ByteArrayInputStream(
+                                outputStream.toByteArray()));
+        
+        assertEquals(200_000, result.size());
+        assertEquals(199_999, result.getPseudoRoot().getHeight() - 1);
+    }
+    
+    @Test
+    public void testIncrementalParsing() throws IOException {
+        Tree<String> tree = new Tree<>();
+        TreeNode<String> a = tree.getPseudoRoot().addChild("a");
+        a.addChild("b").addChild("c");
+        a.addChild("d");
+        tree.getPseudoRoot().addChild("e");
+        byte[] bytes = write(tree, 16);
+        
+        List<String> events = new ArrayList<>();
+        Tree<String> target = new Tree<>();
+        TreeNode<String> targetNode = target.getPseudoRoot().addChild("x");
+        BinaryTreeReader<String>.Parser parser = 
+                reader(16).newParser(targetNode, 
+                                     new BinaryTreeReader.Listener<String>() {
+            @Override
+            public void nodeRead(TreeNode<String> node) {
+                events.add("+" + node.getElement());
+            }
+            
+            @Override
+            public void subtreeRead(TreeNode<String> node) {
+                events.add("-" + node.getElement());
+            }
+        });
+        
+        // Feed a byte at a time, followed by trailing garbage:
+        ByteBuffer input = ByteBuffer.wrap(Arrays.copyOf(bytes, 
+                                                         bytes.length + 3));
+        
+        for (int i = 0; i < bytes.length; i++) {
+            assertFalse(parser.isFinished());
+            input.limit(i + 1);
+            assertEquals(i == bytes.length - 1, parser.feed(input));
+        }
+        
+        input.limit(input.capacity());
+        assertTrue(parser.feed(input));
+        assertEquals(3, input.remaining());
+        assertEquals(Arrays.asList("+a", "+b", "+c", "-c", "-b", "+d", 
+                                   "-d", "-a", "+e", "-e"), 
+                     events);
+        assertEquals("x\n a\n  b\n   c\n  d\n e\n", 
+                     converter.toString(target));
+    }
+    
+    @Test(expected = EOFException.class)
+    public void testThrowsOnPrematureEnd() throws IOException {
+        byte[] bytes = write(createRandomTree(new Random(1L), 10), 16);
+        reader(16).read(new ByteArrayInputStream(
+                Arrays.copyOf(bytes, bytes.length - 1)));
+    }
+    
+    @Test(expected = StreamCorruptedException.class)
+    public void testThrowsOnForeignStream() throws IOException {
+        reader(16).read(new ByteArrayInputStream("TREE\1\0".getBytes()));
+    }
+    
+    @Test(expected = StreamCorruptedException.class)
+    public void testThrowsOnClimbingAboveTarget() throws IOException {
+        // A root followed by a node two levels above it:
+        byte[] bytes = { 'T', 'R', 'E', 'S', 1, 1, 1, 'a', 3, 1, 'b', 0 };
+        reader(16).read(new ByteArrayInputStream(bytes));
+    }
+    
+    private static byte[] write(Tree<String> tree, int bufferSize) 
+            throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        new BinaryTreeWriter<>(TreeElementCodecs.strings(), bufferSize)
+                .write(tree, outputStream);
+        return outputStream.toByteArray();
+    }
+    
+    private static BinaryTreeReader<String> reader(int bufferSize) {
+        return new BinaryTreeReader<>(TreeElementCodecs.strings(), bufferSize);
+    }
+    
+    private static Tree<String> createRandomTree(Random random, int size) {
+        Tree<String> tree = new Tree<>();
+        List<TreeNode<String>> nodes = new ArrayList<>();
+        
+        for (int i = 0; i < size; i++) {
+            // Elements up to a few hundred bytes span the small buffers.
+            char[] chars = new char[random.nextInt(300)];
+            Arrays.fill(chars, 'ö');
+            String element = i + new String(chars);
+            
+            if (nodes.isEmpty() || random.nextInt(30) == 0) {
+                nodes.add(tree.getPseudoRoot().addChild(element));
+            } else {
+                nodes.add(nodes.get(random.nextInt(nodes.size()))
+                               .addChild(element));
+            }
+        }
+        
+        return tree;
+    }
+}
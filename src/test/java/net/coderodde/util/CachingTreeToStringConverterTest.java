@@ -0,0 +1,169 @@
+package net.coderodde.util;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import org.junit.Test;
+
+/**
+ * This test class contains the unit tests for 
+ * {@link CachingTreeToStringConverter}.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+public final class CachingTreeToStringConverterTest {
+    
+    private final StreamingTreeToStringConverter<Integer> expectedConverter =
+            new StreamingTreeToStringConverter<>();
+    
+    @Test
+    public void testEmptyTree() {
+        Tree<Integer> tree = new Tree<>();
+        assertEquals("", new CachingTreeToStringConverter<>(tree)
+                                 .toString(tree));
+    }
+    
+    @Test
+    public void testUnchangedTreeReturnsCachedText() throws IOException {
+        Tree<Integer> tree = TreeTraversalTest.createBalancedTree(5_000, 3);
+        CachingTreeToStringConverter<Integer> converter = 
+                new CachingTreeToStringConverter<>(tree);
+        String text = converter.toString(tree);
+        
+        assertEquals(expectedConverter.toString(tree), text);
+        assertSame(text, converter.toString(tree));
+        
+        StringBuilder stringBuilder = new StringBuilder();
+        converter.write(tree, stringBuilder);
+        assertEquals(text, stringBuilder.toString());
+    }
+    
+    @Test
+    public void testRandomModifications() throws IOException {
+        Random random = new Random(18L);
+        Tree<Integer> tree = TreeTraversalTest.createBalancedTree(3_000, 4);
+        CachingTreeToStringConverter<Integer> converter = 
+                new CachingTreeToStringConverter<>(tree);
+        List<TreeNode<Integer>> nodes = new ArrayList<>();
+        nodes.add(tree.getPseudoRoot());
+        tree.preorderIterator().forEachRemaining(nodes::add);
+        
+        for (int round = 0; round < 300; round++) {
+            try (TreeTransaction transaction = tree.beginTransaction()) {
+                for (int i = random.nextInt(3); i >= 0; i--) {
+                    mutate(random, nodes);
+                }
+            }
+            
+            String expected = expectedConverter.toString(tree);
+            
+            if (round % 2 == 0) {
+                assertEquals(expected, converter.toString(tree));
+            } else {
+                StringBuilder stringBuilder = new StringBuilder();
+                converter.write(tree, stringBuilder);
+                assertEquals(expected, stringBuilder.toString());
+            }
+        }
+    }
+    
+    /**
+     * The modifications of a subtree detached within a transaction are not 
+     * recorded, so the fragments of a tree node moved out of it and attached
+     * again must not be reused.
+     */
+    @Test
+    public void testNodeDetachedWithinTransaction() {
+        Tree<Integer> tree = new Tree<>();
+        TreeNode<Integer> a = tree.getPseudoRoot().addChild(1);
+        TreeNode<Integer> b = a.addChild(2);
+        TreeNode<Integer> c = b.addChild(3);
+        TreeNode<Integer> d = a.addChild(4);
+        CachingTreeToStringConverter<Integer> converter = 
+                new CachingTreeToStringConverter<>(tree);
+        assertEquals("1\n 2\n  3\n 4\n", converter.toString(tree));
+        
+        try (TreeTransaction transaction = tree.beginTransaction()) {
+            a.getChildren().remove(b);
+            b.getChildren().remove(c);
+            c.setElement(5);
+            d.getChildren().add(c);
+        }
+        
+        assertEquals(expectedConverter.toString(tree), 
+                     converter.toString(tree));
+        assertEquals("1\n 4\n  5\n", converter.toString(tree));
+    }
+    
+    @Test
+    public void testDeepChain() {
+        Tree<Integer> tree = new Tree<>();
+        TreeNode<Integer> node = tree.getPseudoRoot();
+        
+        for (int i = 0; i < 3_000; i++) {
+            node = node.addChild(i);
+        }
+        
+        CachingTreeToStringConverter<Integer> converter = 
+                new CachingTreeToStringConverter<>(tree);
+        assertEquals(expectedConverter.toString(tree), 
+                     converter.toString(tree));
+        
+        node.setElement(-1);
+        assertEquals(expectedConverter.toString(tree), 
+                     converter.toString(tree));
+    }
+    
+    @Test
+    public void testDetach() {
+        Tree<Integer> tree = TreeTraversalTest.createBalancedTree(10, 2);
+        CachingTreeToStringConverter<Integer> converter = 
+                new CachingTreeToStringConverter<>(tree);
+        converter.toString(tree);
+        converter.detach();
+        assertEquals(0, tree.getPseudoRoot().hooks.isRecording() ? 1 : 0);
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testForeignTreeThrows() {
+        new CachingTreeToStringConverter<Integer>(new Tree<>())
+                .toString(new Tree<>());
+    }
+    
+    private static void mutate(Random random, List<TreeNode<Integer>> nodes) {
+        TreeNode<Integer> node = nodes.get(random.nextInt(nodes.size()));
+        TreeNode<Integer> other = nodes.get(random.nextInt(nodes.size()));
+        
+        switch (random.nextInt(4)) {
+            case 0:
+                nodes.add(node.addChild(random.nextInt(1_000_000)));
+                break;
+            
+            case 1:
+                if (!node.isPseudoRoot()) {
+                    node.setElement(random.nextInt(1_000_000));
+                }
+                
+                break;
+            
+            case 2:
+                if (!node.isPseudoRoot() && node != other && 
+                        !node.isAncestorOf(other)) {
+                    other.getChildren().add(node);
+                }
+                
+                break;
+            
+            case 3:
+                if (node.parent != null) {
+                    node.parent.getChildren().remove(node);
+                }
+                
+                break;
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package net.coderodde.util;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ * This test class contains the unit tests for {@link CompactTree}.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+public final class CompactTreeTest {
+    
+    private final StreamingTreeToStringConverter<Integer> converter =
+            new StreamingTreeToStringConverter<>();
+    
+    @Test
+    public void testEmptyTree() {
+        CompactTree<Integer> compactTree = CompactTree.of(new Tree<>());
+        assertEquals(0, compactTree.size());
+        assertEquals(0, compactTree.getDistinctSubtreeCount());
+        assertTrue(compactTree.getRoots().isEmpty());
+        assertFalse(compactTree.preorderIterator().hasNext());
+        assertFalse(compactTree.postorderIterator().hasNext());
+        assertEquals(0, compactTree.toTree().size());
+    }
+    
+    @Test
+    public void testRepeatedSectionsAreStoredOnce() {
+        Tree<Integer> tree = createRepetitiveTree(1_000, 100, 3);
+        CompactTree<Integer> compactTree = CompactTree.of(tree);
+        
+        assertEquals(tree.size(), compactTree.size());
+        assertEquals(101_000, compactTree.size());
+        // The section root of each root, plus the 100 distinct subtrees of a
+        // section:
+        assertEquals(101, compactTree.getDistinctSubtreeCount());
+        
+        List<CompactTreeNode<Integer>> roots = compactTree.getRoots();
+        assertEquals(1_000, roots.size());
+        assertTrue(roots.get(0).sharesSubtreeWith(roots.get(999)));
+        assertFalse(roots.get(0).equals(roots.get(999)));
+        assertEquals(101, roots.get(999).getSubtreeSize());
+    }
+    
+    @Test
+    public void testElementEqualityDecides() {
+        // "Aa" and "BB" have the same hash code.
+        Tree<String> tree = new Tree<>();
+        tree.getPseudoRoot().addChild("x").addChild("Aa");
+        tree.getPseudoRoot().addChild("x").addChild("BB");
+        tree.getPseudoRoot().addChild("x").addChild("Aa");
+        CompactTree<String> compactTree = CompactTree.of(tree);
+        List<CompactTreeNode<String>> roots = compactTree.getRoots();
+        
+        assertEquals(4, compactTree.getDistinctSubtreeCount());
+        assertFalse(roots.get(0).sharesSubtreeWith(roots.get(1)));
+        assertTrue(roots.get(0).sharesSubtreeWith(roots.get(2)));
+        assertEquals("BB", roots.get(1).getChild(0).getElement());
+    }
+    
+    @Test
+    public void testTraversalsMatchTree() {
+        Random random = new Random(13L);
+        
+        for (int iteration = 0; iteration < 20; iteration++) {
+            Tree<Integer> tree = createRandomTree(random, 500, 3);
+            CompactTree<Integer> compactTree = CompactTree.of(tree);
+            
+            assertTrue(compactTree.getDistinctSubtreeCount() < tree.size());
+            assertEquals(elements(tree.preorderIterator()),
+                         compactElements(compactTree.preorderIterator()));
+            assertEquals(elements(tree.postorderIterator()),
+                         compactElements(compactTree.postorderIterator()));
+            assertEquals(elements(tree.levelOrderIterator()),
+                         compactElements(compactTree.levelOrderIterator()));
+            assertEquals(elements(tree.preorderIterator()),
+                         compactTree.elementStream()
+                                    .collect(Collectors.toList()));
+            assertEquals(
+                    map(tree.preorderStream(), TreeNode::getDepth),
+                    map(compactTree.preorderStream(),
+                        CompactTreeNode::getDepth));
+            assertEquals(
+                    map(tree.preorderStream(), TreeNode::getSubtreeSize),
+                    map(compactTree.preorderStream(),
+                        CompactTreeNode::getSubtreeSize));
+            assertEquals(
+                    map(tree.preorderStream(), TreeNode::getHeight),
+                    map(compactTree.preorderStream(),
+                        CompactTreeNode::getHeight));
+            assertEquals(converter.toString(tree),
+                         converter.toString(compactTree.toTree()));
+        }
+    }
+    
+    @Test
+    public void testSubtreeTraversals() {
+        Tree<Integer> tree = createRepetitiveTree(3, 20, 2);
+        Iterator<TreeNode<Integer>> roots =
+                tree.getPseudoRoot().getChildren().iterator();
+        roots.next();
+        TreeNode<Integer> root = roots.next();
+        CompactTreeNode<Integer> compactRoot =
+                CompactTree.of(tree).getRoots().get(1);
+        
+        assertEquals(elements(root.preorderIterator()),
+                     compactElements(compactRoot.preorderIterator()));
+        assertEquals(elements(root.postorderIterator()),
+                     compactElements(compactRoot.postorderIterator()));
+        assertEquals(elements(root.levelOrderIterator()),
+                     compactElements(compactRoot.levelOrderIterator()));
+        assertEquals(root.getSubtreeSize(),
+                     compactRoot.postorderStream().count());
+    }
+    
+    @Test
+    public void testNodeHandles() {
+        Tree<Integer> tree = createRepetitiveTree(2, 10, 2);
+        CompactTree<Integer> compactTree = CompactTree.of(tree);
+        CompactTreeNode<Integer> root = compactTree.getRoots().get(1);
+        CompactTreeNode<Integer> child = root.getChild(0);
+        CompactTreeNode<Integer> grandchild = child.getChild(1);
+        
+        assertNull(root.getParent());
+        assertEquals(root, child.getParent());
+        assertEquals(child, grandchild.getParent());
+        assertEquals(1, grandchild.getIndex());
+        assertEquals(2, grandchild.getDepth());
+        assertTrue(root.isAncestorOf(grandchild));
+        assertTrue(child.isAncestorOf(grandchild));
+        assertFalse(grandchild.isAncestorOf(child));
+        assertFalse(grandchild.isAncestorOf(grandchild));
+        assertFalse(compactTree.getRoots().get(0).isAncestorOf(grandchild));
+        
+        // Handles of the same position are equal:
+        CompactTreeNode<Integer> again =
+                compactTree.getRoots().get(1).getChildren().get(0)
+                           .getChildren().get(1);
+        assertEquals(grandchild, again);
+        assertEquals(grandchild.hashCode(), again.hashCode());
+        assertFalse(grandchild.equals(
+                compactTree.getRoots().get(0).getChild(0).getChild(1)));
+    }
+    
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testChildIndexOutOfBoundsThrows() {
+        Tree<Integer> tree = new Tree<>();
+        tree.getPseudoRoot().addChild(1);
+        CompactTree.of(tree).getRoots().get(0).getChild(0);
+    }
+    
+    @Test
+    public void testDeepChainCompaction() {
+        Tree<Integer> tree = new Tree<>();
+        TreeNode<Integer> node = tree.getPseudoRoot();
+        
+        for (int i = 0; i < 100_000; i++) {
+            node = node.addChild(i % 2);
+        }
+        
+        CompactTree<Integer> compactTree = CompactTree.of(tree);
+        assertEquals(100_000, compactTree.size());
+        assertEquals(100_000, compactTree.getDistinctSubtreeCount());
+        assertEquals(99_999, compactTree.getRoots().get(0).getHeight());
+        assertEquals(100_000, compactTree.postorderStream().count());
+        assertEquals(100_000, compactTree.toTree().size());
+    }
+    
+    /**
+     * Creates a tree of the input number of roots, each with the same
+     * balanced section of the input size below it.
+     */
+    static Tree<Integer> createRepetitiveTree(int roots,
+                                              int sectionSize,
+                                              int branchingFactor) {
+        Tree<Integer> tree = new Tree<>();
+        
+        for (int i = 0; i < roots; i++) {
+            List<TreeNode<Integer>> nodes = new ArrayList<>(sectionSize);
+            TreeNode<Integer> root = tree.getPseudoRoot().addChild(-1);
+            
+            for (int j = 0; j < sectionSize; j++) {
+                TreeNode<Integer> parent =
+                        j == 0 ? root : nodes.get((j - 1) / branchingFactor);
+                nodes.add(parent.addChild(j));
+            }
+        }
+        
+        return tree;
+    }
+    
+    /**
+     * Creates a random tree whose elements are drawn from a small range, so
+     * that many small subtrees repeat.
+     */
+    private static Tree<Integer> createRandomTree(Random random,
+                                                  int size,
+                                                  int elementRange) {
+        Tree<Integer> tree = new Tree<>();
+        List<TreeNode<Integer>> nodes = new ArrayList<>(size);
+        nodes.add(tree.getPseudoRoot());
+        
+        for (int i = 0; i < size; i++) {
+            TreeNode<Integer> parent = nodes.get(random.nextInt(nodes.size()));
+            nodes.add(parent.addChild(random.nextInt(elementRange)));
+        }
+        
+        return tree;
+    }
+    
+    private static List<Integer> elements(Iterator<TreeNode<Integer>> it) {
+        List<Integer> elements = new ArrayList<>();
+        it.forEachRemaining(node -> elements.add(node.getElement()));
+        return elements;
+    }
+    
+    private static List<Integer> compactElements(
+            Iterator<CompactTreeNode<Integer>> it) {
+        List<Integer> elements = new ArrayList<>();
+        it.forEachRemaining(node -> elements.add(node.getElement()));
+        return elements;
+    }
+    
+    private static <T> List<Integer> map(
+            Stream<T> stream,
+            Function<T, Integer> function) {
+        return stream.map(function).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,187 @@
+package net.coderodde.util;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import org.junit.Test;
+
+/**
+ * This test class contains the unit tests for {@link ConcurrentTree}.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+public final class ConcurrentTreeTest {
+    
+    @Test
+    public void testStructure() {
+        ConcurrentTree<Integer> tree = new ConcurrentTree<>();
+        ConcurrentTreeNode<Integer> a = tree.getPseudoRoot().addChild(1);
+        ConcurrentTreeNode<Integer> b = a.addChild(2);
+        ConcurrentTreeNode<Integer> c = a.addChild(3);
+        ConcurrentTreeNode<Integer> d = b.addChild(4);
+        
+        assertNull(a.getParent());
+        assertSame(a, b.getParent());
+        assertEquals(2, a.getChildCount());
+        assertEquals("[1, 2, 4, 3]", elements(tree.preorderSnapshot()));
+        assertTrue(a.isAncestorOf(d));
+        assertFalse(d.isAncestorOf(a));
+        
+        assertTrue(c.adoptChild(d));
+        assertFalse(c.adoptChild(d));
+        assertSame(c, d.getParent());
+        assertTrue(b.getChildren().isEmpty());
+        assertEquals("[1, 2, 3, 4]", elements(tree.preorderSnapshot()));
+        
+        assertTrue(a.removeChild(c));
+        assertFalse(a.removeChild(c));
+        assertNull(c.getParent());
+        assertEquals("[1, 2]", elements(tree.preorderSnapshot()));
+        assertEquals("[3, 4]", elements(c.preorderSnapshot()));
+        
+        // A detached subtree may be adopted again:
+        assertTrue(b.adoptChild(c));
+        assertEquals("[1, 2, 3, 4]", elements(tree.preorderSnapshot()));
+        
+        d.setElement(5);
+        assertEquals(Integer.valueOf(5), d.getElement());
+    }
+    
+    @Test(expected = IllegalStateException.class)
+    public void testThrowsOnCycle() {
+        ConcurrentTree<Integer> tree = new ConcurrentTree<>();
+        ConcurrentTreeNode<Integer> a = tree.getPseudoRoot().addChild(1);
+        a.addChild(2).addChild(3).adoptChild(a);
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testThrowsOnForeignNode() {
+        ConcurrentTree<Integer> tree = new ConcurrentTree<>();
+        new ConcurrentTree<Integer>().getPseudoRoot()
+                                     .adoptChild(tree.getPseudoRoot()
+                                                     .addChild(1));
+    }
+    
+    @Test(expected = UnsupportedOperationException.class)
+    public void testChildListIsUnmodifiable() {
+        ConcurrentTree<Integer> tree = new ConcurrentTree<>();
+        tree.getPseudoRoot().addChild(1);
+        tree.getPseudoRoot().getChildren().clear();
+    }
+    
+    /**
+     * Several threads move random nodes under random nodes while others take
+     * snapshots. Every snapshot must contain every node exactly once, and
+     * the child lists must agree with the parents afterwards.
+     */
+    @Test
+    public void testConcurrentMovesAndSnapshots() throws Exception {
+        int nodeCount = 300;
+        ConcurrentTree<Integer> tree = new ConcurrentTree<>();
+        List<ConcurrentTreeNode<Integer>> nodes = new ArrayList<>();
+        
+        for (int i = 0; i < nodeCount; i++) {
+            nodes.add(tree.getPseudoRoot().addChild(i));
+        }
+        
+        AtomicBoolean stop = new AtomicBoolean();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        List<Thread> threads = new ArrayList<>();
+        
+        for (int t = 0; t < 4; t++) {
+            long seed = t;
+            threads.add(new Thread(() -> {
+                Random random = new Random(seed);
+                
+                try {
+                    while (!stop.get()) {
+                        ConcurrentTreeNode<Integer> child = 
+                                nodes.get(random.nextInt(nodeCount));
+                        ConcurrentTreeNode<Integer> parent = 
+                                random.nextInt(10) == 0 ?
+                                tree.getPseudoRoot() :
+                                nodes.get(random.nextInt(nodeCount));
+                        
+                        try {
+                            parent.adoptChild(child);
+                        } catch (IllegalStateException ex) {
+                            // A cycle was rejected.
+                        }
+                    }
+                } catch (Throwable throwable) {
+                    failure.compareAndSet(null, throwable);
+                }
+            }));
+        }
+        
+        for (int t = 0; t < 2; t++) {
+            threads.add(new Thread(() -> {
+                try {
+                    while (!stop.get()) {
+                        checkSnapshot(tree.preorderSnapshot(), nodeCount);
+                    }
+                } catch (Throwable throwable) {
+                    failure.compareAndSet(null, throwable);
+                }
+            }));
+        }
+        
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        
+        Thread.sleep(1000L);
+        stop.set(true);
+        
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        
+        if (failure.get() != null) {
+            throw new AssertionError(failure.get());
+        }
+        
+        checkSnapshot(tree.preorderSnapshot(), nodeCount);
+        
+        for (ConcurrentTreeNode<Integer> node : nodes) {
+            for (ConcurrentTreeNode<Integer> child : node.getChildren()) {
+                assertSame(node, child.getParent());
+            }
+        }
+    }
+    
+    private static void checkSnapshot(
+            List<ConcurrentTreeNode<Integer>> snapshot, 
+            int nodeCount) {
+        assertEquals(nodeCount, snapshot.size());
+        Map<ConcurrentTreeNode<Integer>, Boolean> seen = 
+                new IdentityHashMap<>();
+        
+        for (ConcurrentTreeNode<Integer> node : snapshot) {
+            if (seen.put(node, Boolean.TRUE) != null) {
+                fail("A node occurs twice in a snapshot.");
+            }
+        }
+    }
+    
+    private static String elements(List<ConcurrentTreeNode<Integer>> nodes) {
+        List<Integer> elements = new ArrayList<>();
+        
+        for (ConcurrentTreeNode<Integer> node : nodes) {
+            elements.add(node.getElement());
+        }
+        
+        return elements.toString();
+    }
+}
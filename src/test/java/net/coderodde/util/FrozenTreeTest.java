@@ -0,0 +1,113 @@
+package net.coderodde.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PrimitiveIterator;
+import java.util.stream.Collectors;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ * This test class contains the unit tests for {@link FrozenTree}.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+public final class FrozenTreeTest {
+    
+    @Test
+    public void testEmptyTree() {
+        FrozenTree<Integer> frozen = new Tree<Integer>().freeze();
+        assertEquals(0, frozen.size());
+        assertFalse(frozen.postorderIterator().hasNext());
+        assertEquals(0, frozen.elementStream().count());
+    }
+    
+    @Test
+    public void testStructure() {
+        Tree<Integer> tree = new Tree<>();
+        TreeNode<Integer> a = tree.getPseudoRoot().addChild(1);
+        TreeNode<Integer> b = a.addChild(2);
+        b.addChild(3);
+        a.addChild(4);
+        tree.getPseudoRoot().addChild(5).addChild(6);
+        
+        FrozenTree<Integer> frozen = tree.freeze();
+        
+        // Pre-order: 1 2 3 4 5 6
+        assertEquals(Arrays.asList(1, 2, 3, 4, 5, 6), 
+                     frozen.elementStream().collect(Collectors.toList()));
+        assertEquals(6, frozen.size());
+        assertEquals(FrozenTree.NONE, frozen.getParent(0));
+        assertEquals(0, frozen.getParent(1));
+        assertEquals(1, frozen.getParent(2));
+        assertEquals(0, frozen.getParent(3));
+        assertEquals(FrozenTree.NONE, frozen.getParent(4));
+        assertEquals(1, frozen.getFirstChild(0));
+        assertEquals(3, frozen.getNextSibling(1));
+        assertEquals(4, frozen.getNextSibling(0));
+        assertEquals(FrozenTree.NONE, frozen.getNextSibling(4));
+        assertEquals(FrozenTree.NONE, frozen.getFirstChild(3));
+        assertEquals(4, frozen.getSubtreeEnd(0));
+        assertEquals(4, frozen.getSubtreeSize(0));
+        assertEquals(2, frozen.getDepth(2));
+        assertTrue(frozen.isAncestor(0, 2));
+        assertFalse(frozen.isAncestor(2, 0));
+        assertFalse(frozen.isAncestor(1, 3));
+        
+        List<Integer> children = new ArrayList<>();
+        frozen.forEachChild(0, children::add);
+        assertEquals(Arrays.asList(1, 3), children);
+        
+        List<Integer> ancestors = new ArrayList<>();
+        frozen.forEachAncestor(2, ancestors::add);
+        assertEquals(Arrays.asList(1, 0), ancestors);
+        
+        // The snapshot is not affected by modifications:
+        a.getChildren().clear();
+        assertEquals(6, frozen.size());
+        assertEquals(Integer.valueOf(3), frozen.getElement(2));
+    }
+    
+    @Test
+    public void testAgainstTreeTraversals() {
+        Tree<Integer> tree = TreeTraversalTest.createBalancedTree(5_000, 3);
+        tree.getPseudoRoot().addChild(-1).addChild(-2);
+        FrozenTree<Integer> frozen = tree.freeze();
+        
+        List<Integer> preorder = new ArrayList<>();
+        tree.preorderIterator()
+            .forEachRemaining(node -> preorder.add(node.getElement()));
+        
+        List<Integer> frozenPreorder = new ArrayList<>();
+        frozen.preorderIndexStream()
+              .forEach(i -> frozenPreorder.add(frozen.getElement(i)));
+        assertEquals(preorder, frozenPreorder);
+        
+        List<Integer> postorder = new ArrayList<>();
+        tree.postorderIterator()
+            .forEachRemaining(node -> postorder.add(node.getElement()));
+        
+        List<Integer> frozenPostorder = new ArrayList<>();
+        PrimitiveIterator.OfInt iterator = frozen.postorderIterator();
+        
+        while (iterator.hasNext()) {
+            frozenPostorder.add(frozen.getElement(iterator.nextInt()));
+        }
+        
+        assertEquals(postorder, frozenPostorder);
+        
+        // Subtree sizes and depths:
+        List<TreeNode<Integer>> nodes = tree.stream()
+                                            .collect(Collectors.toList());
+        
+        for (int i = 0; i < nodes.size(); i++) {
+            assertEquals(nodes.get(i).getSubtreeSize(), 
+                         frozen.getSubtreeSize(i));
+            assertEquals(nodes.get(i).getDepth(), frozen.getDepth(i));
+        }
+    }
+}
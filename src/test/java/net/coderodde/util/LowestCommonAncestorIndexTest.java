@@ -0,0 +1,160 @@
+package net.coderodde.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.List;
+import java.util.Random;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ * This test class contains the unit tests for 
+ * {@link LowestCommonAncestorIndex}.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+public final class LowestCommonAncestorIndexTest {
+    
+    @Test
+    public void testSimpleQueries() {
+        Tree<Integer> tree = new Tree<>();
+        TreeNode<Integer> a = tree.getPseudoRoot().addChild(1);
+        TreeNode<Integer> b = a.addChild(2);
+        TreeNode<Integer> c = b.addChild(3);
+        TreeNode<Integer> d = a.addChild(4);
+        TreeNode<Integer> e = tree.getPseudoRoot().addChild(5);
+        
+        LowestCommonAncestorIndex<Integer> index = 
+                new LowestCommonAncestorIndex<>(tree);
+        
+        assertEquals(5, index.size());
+        assertEquals(a, index.lowestCommonAncestor(c, d));
+        assertEquals(b, index.lowestCommonAncestor(b, c));
+        assertEquals(c, index.lowestCommonAncestor(c, c));
+        assertNull(index.lowestCommonAncestor(c, e));
+        
+        assertTrue(index.isAncestor(a, c));
+        assertFalse(index.isAncestor(c, a));
+        assertFalse(index.isAncestor(c, c));
+        assertFalse(index.isAncestor(d, c));
+        
+        assertEquals(3, index.distance(c, d));
+        assertEquals(0, index.distance(d, d));
+        assertEquals(-1, index.distance(d, e));
+        
+        assertEquals(Arrays.asList(a, null), 
+                     index.lowestCommonAncestors(Arrays.asList(c, a), 
+                                                 Arrays.asList(d, e)));
+        assertArrayEquals(new int[]{ 3, -1 }, 
+                          index.distances(Arrays.asList(c, a), 
+                                          Arrays.asList(d, e)));
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testThrowsOnForeignNode() {
+        Tree<Integer> tree = new Tree<>();
+        TreeNode<Integer> a = tree.getPseudoRoot().addChild(1);
+        TreeNode<Integer> b = new Tree<Integer>().getPseudoRoot().addChild(2);
+        LowestCommonAncestorIndex<Integer> index = 
+                new LowestCommonAncestorIndex<>(tree);
+        index.distance(a, b);
+    }
+    
+    @Test
+    public void testInvalidatedByModification() {
+        Tree<Integer> tree = new Tree<>();
+        TreeNode<Integer> a = tree.getPseudoRoot().addChild(1);
+        TreeNode<Integer> b = a.addChild(2);
+        LowestCommonAncestorIndex<Integer> index = 
+                new LowestCommonAncestorIndex<>(tree);
+        
+        a.setElement(10);
+        assertTrue(index.isValid());
+        
+        a.getChildren().remove(b);
+        assertFalse(index.isValid());
+        
+        try {
+            index.isAncestor(a, b);
+        } catch (ConcurrentModificationException ex) {
+            return;
+        }
+        
+        throw new AssertionError("The index was not invalidated.");
+    }
+    
+    @Test
+    public void testNotInvalidatedByOtherTrees() {
+        Tree<Integer> tree = new Tree<>();
+        tree.getPseudoRoot().addChild(1).addChild(2);
+        Tree<Integer> other = new Tree<>();
+        TreeNode<Integer> node = other.getPseudoRoot().addChild(3);
+        LowestCommonAncestorIndex<Integer> index = 
+                new LowestCommonAncestorIndex<>(tree);
+        LowestCommonAncestorIndex<Integer> otherIndex = 
+                new LowestCommonAncestorIndex<>(other);
+        
+        node.addChild(4);
+        new TreeNode<>(5).addChild(6);
+        assertTrue(index.isValid());
+        assertFalse(otherIndex.isValid());
+    }
+    
+    @Test
+    public void testRandomTreesAgainstParentWalk() {
+        Random random = new Random(5L);
+        
+        for (int round = 0; round < 20; round++) {
+            Tree<Integer> tree = new Tree<>();
+            List<TreeNode<Integer>> nodes = new ArrayList<>();
+            int size = 1 + random.nextInt(2_000);
+            
+            for (int i = 0; i < size; i++) {
+                TreeNode<Integer> parent = 
+                        nodes.isEmpty() || random.nextInt(20) == 0 ?
+                        tree.getPseudoRoot() :
+                        nodes.get(nodes.size() - 1 - 
+                                  random.nextInt(Math.min(nodes.size(), 5)));
+                nodes.add(parent.addChild(i));
+            }
+            
+            LowestCommonAncestorIndex<Integer> index = 
+                    new LowestCommonAncestorIndex<>(tree);
+            
+            for (int i = 0; i < 2_000; i++) {
+                TreeNode<Integer> x = nodes.get(random.nextInt(size));
+                TreeNode<Integer> y = nodes.get(random.nextInt(size));
+                TreeNode<Integer> expected = lowestCommonAncestorByWalk(x, y);
+                
+                assertEquals(expected, index.lowestCommonAncestor(x, y));
+                assertEquals(x != y && x.isAncestorOf(y), 
+                             index.isAncestor(x, y));
+                assertEquals(expected == null ? 
+                             -1 : 
+                             x.getDepth() + y.getDepth() - 
+                                     2 * expected.getDepth(),
+                             index.distance(x, y));
+            }
+        }
+    }
+    
+    private static TreeNode<Integer> lowestCommonAncestorByWalk(
+            TreeNode<Integer> x, 
+            TreeNode<Integer> y) {
+        for (TreeNode<Integer> node = x; 
+                node != null; 
+                node = node.getParent()) {
+            if (node == y || node.isAncestorOf(y)) {
+                return node;
+            }
+        }
+        
+        return null;
+    }
+}
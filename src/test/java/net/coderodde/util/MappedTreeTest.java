@@ -0,0 +1,162 @@
+package net.coderodde.util;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * This test class contains the unit tests for {@link MappedTree}.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+public final class MappedTreeTest {
+    
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+    
+    @Test
+    public void testEmptyTree() throws IOException {
+        Path path = temporaryFolder.newFile().toPath();
+        MappedTree.write(new Tree<Integer>(), 
+                         path, 
+                         TreeElementCodecs.integers());
+        
+        MappedTree<Integer> mapped = 
+                MappedTree.open(path, TreeElementCodecs.integers());
+        assertEquals(0, mapped.size());
+        assertEquals(MappedTree.HEADER_SIZE + 8, Files.size(path));
+    }
+    
+    @Test
+    public void testStructure() throws IOException {
+        Tree<Integer> tree = new Tree<>();
+        TreeNode<Integer> a = tree.getPseudoRoot().addChild(1);
+        TreeNode<Integer> b = a.addChild(2);
+        b.addChild(3);
+        a.addChild(4);
+        tree.getPseudoRoot().addChild(5).addChild(6);
+        
+        Path path = temporaryFolder.newFile().toPath();
+        MappedTree.write(tree, path, TreeElementCodecs.integers());
+        MappedTree<Integer> mapped = 
+                MappedTree.open(path, TreeElementCodecs.integers());
+        
+        // Pre-order: 1 2 3 4 5 6
+        assertEquals(6, mapped.size());
+        
+        for (int i = 0; i < 6; i++) {
+            assertEquals(Integer.valueOf(i + 1), mapped.getElement(i));
+        }
+        
+        assertEquals(MappedTree.NONE, mapped.getParent(0));
+        assertEquals(1, mapped.getParent(2));
+        assertEquals(0, mapped.getParent(3));
+        assertEquals(1, mapped.getFirstChild(0));
+        assertEquals(MappedTree.NONE, mapped.getFirstChild(3));
+        assertEquals(3, mapped.getNextSibling(1));
+        assertEquals(4, mapped.getNextSibling(0));
+        assertEquals(MappedTree.NONE, mapped.getNextSibling(3));
+        assertEquals(MappedTree.NONE, mapped.getNextSibling(4));
+        assertEquals(4, mapped.getSubtreeSize(0));
+        assertEquals(2, mapped.getDepth(2));
+        assertTrue(mapped.isAncestor(0, 2));
+        assertFalse(mapped.isAncestor(1, 3));
+        
+        List<Integer> children = new ArrayList<>();
+        mapped.forEachChild(0, children::add);
+        assertEquals(Arrays.asList(1, 3), children);
+        
+        List<Integer> ancestors = new ArrayList<>();
+        mapped.forEachAncestor(2, ancestors::add);
+        assertEquals(Arrays.asList(1, 0), ancestors);
+        
+        List<Integer> subtree = new ArrayList<>();
+        mapped.forEachInSubtree(1, subtree::add);
+        assertEquals(Arrays.asList(1, 2), subtree);
+    }
+    
+    @Test
+    public void testAgainstFrozenTreeWithSmallChunks() throws IOException {
+        Random random = new Random(7L);
+        Tree<String> tree = new Tree<>();
+        List<TreeNode<String>> nodes = new ArrayList<>();
+        
+        for (int i = 0; i < 2_000; i++) {
+            // Elements of varying lengths, so that some span chunk boundaries.
+            char[] chars = new char[random.nextInt(40)];
+            Arrays.fill(chars, (char) ('a' + random.nextInt(26)));
+            String element = i + new String(chars) + "ä";
+            
+            if (nodes.isEmpty() || random.nextInt(20) == 0) {
+                nodes.add(tree.getPseudoRoot().addChild(element));
+            } else {
+                TreeNode<String> parent = 
+                        nodes.get(random.nextInt(nodes.size()));
+                nodes.add(parent.addChild(element));
+            }
+        }
+        
+        Path path = temporaryFolder.newFile().toPath();
+        MappedTree.write(tree, path, TreeElementCodecs.strings());
+        FrozenTree<String> frozen = tree.freeze();
+        
+        for (int chunkShift : new int[]{ 4, 7, 
+                                         MappedTree.DEFAULT_CHUNK_SHIFT }) {
+            MappedTree<String> mapped = 
+                    MappedTree.open(path, 
+                                    TreeElementCodecs.strings(), 
+                                    chunkShift);
+            assertEquals(frozen.size(), mapped.size());
+            
+            for (int i = 0; i < frozen.size(); i++) {
+                assertEquals(frozen.getElement(i), mapped.getElement(i));
+                assertEquals(frozen.getParent(i), mapped.getParent(i));
+                assertEquals(frozen.getFirstChild(i), 
+                             mapped.getFirstChild(i));
+                assertEquals(frozen.getNextSibling(i), 
+                             mapped.getNextSibling(i));
+                assertEquals(frozen.getSubtreeEnd(i), 
+                             mapped.getSubtreeEnd(i));
+            }
+        }
+    }
+    
+    @Test(expected = IOException.class)
+    public void testRejectsForeignFile() throws IOException {
+        Path path = temporaryFolder.newFile().toPath();
+        Files.write(path, new byte[64]);
+        MappedTree.open(path, TreeElementCodecs.integers());
+    }
+    
+    @Test(expected = IOException.class)
+    public void testRejectsTruncatedFile() throws IOException {
+        Tree<Long> tree = new Tree<>();
+        tree.getPseudoRoot().addChild(1L).addChild(2L);
+        Path path = temporaryFolder.newFile().toPath();
+        MappedTree.write(tree, path, TreeElementCodecs.longs());
+        
+        byte[] bytes = Files.readAllBytes(path);
+        Files.write(path, Arrays.copyOf(bytes, bytes.length - 1));
+        MappedTree.open(path, TreeElementCodecs.longs());
+    }
+    
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testThrowsOnInvalidNode() throws IOException {
+        Tree<Integer> tree = new Tree<>();
+        tree.getPseudoRoot().addChild(1);
+        Path path = temporaryFolder.newFile().toPath();
+        MappedTree.write(tree, path, TreeElementCodecs.integers());
+        MappedTree.open(path, TreeElementCodecs.integers()).getParent(1);
+    }
+}
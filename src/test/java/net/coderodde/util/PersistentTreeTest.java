@@ -0,0 +1,159 @@
+package net.coderodde.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ * This test class contains the unit tests for {@link PersistentTree}.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+public final class PersistentTreeTest {
+    
+    private static final int[] PSEUDOROOT = {};
+    
+    private final StreamingTreeToStringConverter<Integer> converter = 
+            new StreamingTreeToStringConverter<>();
+    
+    @Test
+    public void testEmptyTree() {
+        PersistentTree<Integer> tree = PersistentTree.empty();
+        assertEquals(0, tree.size());
+        assertTrue(tree.getRoots().isEmpty());
+        assertEquals(0, tree.toTree().size());
+        assertEquals(0, PersistentTree.of(new Tree<Integer>()).size());
+    }
+    
+    @Test
+    public void testOldVersionsRemainUnchanged() {
+        PersistentTree<Integer> version0 = PersistentTree.empty();
+        PersistentTree<Integer> version1 = version0.addChild(PSEUDOROOT, 1);
+        PersistentTree<Integer> version2 = version1.addChild(new int[]{ 0 }, 2);
+        PersistentTree<Integer> version3 = 
+                version2.setElement(new int[]{ 0, 0 }, 3);
+        PersistentTree<Integer> version4 = version3.remove(new int[]{ 0 });
+        
+        assertEquals(0, version0.size());
+        assertEquals(1, version1.size());
+        assertEquals(0, version1.getNode(0).getChildCount());
+        assertEquals(2, version2.size());
+        assertEquals(Integer.valueOf(2), version2.getNode(0, 0).getElement());
+        assertEquals(Integer.valueOf(3), version3.getNode(0, 0).getElement());
+        assertEquals(0, version4.size());
+        assertEquals(2, version3.getNode(0).getSubtreeSize());
+    }
+    
+    @Test
+    public void testUntouchedSubtreesAreShared() {
+        PersistentTree<Integer> tree = 
+                PersistentTree.of(TreeTraversalTest.createBalancedTree(100, 3));
+        PersistentTree<Integer> updated = 
+                tree.setElement(new int[]{ 0, 1, 2 }, -1);
+        
+        assertEquals(Integer.valueOf(-1), 
+                     updated.getNode(0, 1, 2).getElement());
+        assertEquals(tree.size(), updated.size());
+        
+        // Only the nodes on the path are copied:
+        assertTrue(tree.getNode(0) != updated.getNode(0));
+        assertTrue(tree.getNode(0, 1) != updated.getNode(0, 1));
+        assertSame(tree.getNode(0, 0), updated.getNode(0, 0));
+        assertSame(tree.getNode(0, 2), updated.getNode(0, 2));
+        assertSame(tree.getNode(0, 1, 0), updated.getNode(0, 1, 0));
+        assertSame(tree.getNode(0, 1, 2).getChild(0), 
+                   updated.getNode(0, 1, 2).getChild(0));
+    }
+    
+    @Test
+    public void testConversionRoundTrip() {
+        Tree<Integer> tree = TreeTraversalTest.createBalancedTree(1_000, 4);
+        tree.getPseudoRoot().addChild(-1).addChild(-2);
+        PersistentTree<Integer> persistentTree = PersistentTree.of(tree);
+        
+        assertEquals(tree.size(), persistentTree.size());
+        assertEquals(tree.getPseudoRoot().getChildren().size(), 
+                     persistentTree.getRoots().size());
+        assertEquals(converter.toString(tree), 
+                     converter.toString(persistentTree.toTree()));
+    }
+    
+    @Test
+    public void testDeepChainConversion() {
+        Tree<Integer> tree = new Tree<>();
+        TreeNode<Integer> node = tree.getPseudoRoot();
+        
+        for (int i = 0; i < 100_000; i++) {
+            node = node.addChild(i);
+        }
+        
+        PersistentTree<Integer> persistentTree = PersistentTree.of(tree);
+        assertEquals(100_000, persistentTree.size());
+        assertEquals(100_000, persistentTree.getRoots().get(0)
+                                            .getSubtreeSize());
+        assertEquals(100_000, persistentTree.toTree().size());
+    }
+    
+    @Test
+    public void testMove() {
+        // 1 (2 3 (4)) 5
+        PersistentTree<Integer> tree = PersistentTree.<Integer>empty()
+                .addChild(PSEUDOROOT, 1)
+                .addChild(new int[]{ 0 }, 2)
+                .addChild(new int[]{ 0 }, 3)
+                .addChild(new int[]{ 0, 1 }, 4)
+                .addChild(PSEUDOROOT, 5);
+        
+        // Moving 2 under 4 shifts 3 to the first position:
+        PersistentTree<Integer> moved = 
+                tree.move(new int[]{ 0, 0 }, new int[]{ 0, 1, 0 });
+        assertEquals(5, moved.size());
+        assertEquals(1, moved.getNode(0).getChildCount());
+        assertEquals(Integer.valueOf(2), moved.getNode(0, 0, 0, 0)
+                                              .getElement());
+        
+        // Moving the first root under the second one:
+        moved = tree.move(new int[]{ 0 }, new int[]{ 1 });
+        assertEquals(1, moved.getRoots().size());
+        assertEquals(5, moved.getNode(0).getSubtreeSize());
+        assertSame(tree.getNode(0), moved.getNode(0, 0));
+        
+        // Moving a node to the root level:
+        moved = tree.move(new int[]{ 0, 1, 0 }, PSEUDOROOT);
+        assertEquals(3, moved.getRoots().size());
+        assertEquals(Integer.valueOf(4), moved.getNode(2).getElement());
+        assertEquals(0, moved.getNode(0, 1).getChildCount());
+    }
+    
+    @Test(expected = IllegalStateException.class)
+    public void testMoveIntoOwnSubtreeThrows() {
+        PersistentTree.<Integer>empty()
+                      .addChild(PSEUDOROOT, 1)
+                      .addChild(new int[]{ 0 }, 2)
+                      .move(new int[]{ 0 }, new int[]{ 0, 0 });
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testRemovePseudoRootThrows() {
+        PersistentTree.<Integer>empty().addChild(PSEUDOROOT, 1)
+                                       .remove(PSEUDOROOT);
+    }
+    
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testRemoveMissingNodeThrows() {
+        PersistentTree.<Integer>empty().addChild(PSEUDOROOT, 1)
+                                       .remove(new int[]{ 1 });
+    }
+    
+    @Test
+    public void testNullElements() {
+        PersistentTree<Integer> tree = 
+                PersistentTree.<Integer>empty().addChild(PSEUDOROOT, null);
+        assertNull(tree.getNode(0).getElement());
+        assertNull(tree.toTree().getPseudoRoot().getChildren().iterator()
+                                                 .next().getElement());
+    }
+}
@@ -0,0 +1,245 @@
+package net.coderodde.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Random;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+import org.junit.Test;
+
+/**
+ * This test class contains the unit tests for {@link IntTree}, 
+ * {@link LongTree} and {@link PrimitiveTreeToStringConverter}.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+public final class PrimitiveTreeTest {
+    
+    private final PrimitiveTreeToStringConverter converter = 
+            new PrimitiveTreeToStringConverter(16);
+    
+    @Test
+    public void testStructure() {
+        IntTree tree = new IntTree();
+        IntTreeNode root = tree.getPseudoRoot().addChild(1);
+        IntTreeNode child1 = root.addChild(11);
+        IntTreeNode child2 = root.addChild(12);
+        IntTreeNode grandchild = child2.addChild(121);
+        
+        assertNull(root.getParent());
+        assertSame(root, child1.getParent());
+        assertSame(child2, grandchild.getParent());
+        assertEquals(2, root.getChildren().size());
+        assertTrue(root.getChildren().contains(child1));
+        assertFalse(child1.getChildren().contains(grandchild));
+        assertTrue(root.isAncestorOf(grandchild));
+        assertFalse(grandchild.isAncestorOf(root));
+        assertFalse(root.isAncestorOf(root));
+        
+        // Moving a node detaches it from its old parent:
+        assertTrue(child1.getChildren().add(grandchild));
+        assertSame(child1, grandchild.getParent());
+        assertTrue(child2.getChildren().isEmpty());
+        assertFalse(child1.getChildren().add(grandchild));
+        
+        grandchild.setElement(-5);
+        assertEquals(-5, grandchild.getElement());
+        
+        assertTrue(root.getChildren().remove(child2));
+        assertNull(child2.getParent());
+        assertEquals(1, root.getChildren().size());
+    }
+    
+    @Test(expected = IllegalStateException.class)
+    public void testThrowsOnCycle() {
+        LongTree tree = new LongTree();
+        LongTreeNode root = tree.getPseudoRoot().addChild(1L);
+        LongTreeNode leaf = root.addChild(2L).addChild(3L);
+        leaf.getChildren().add(root);
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testThrowsOnAddingPseudoRoot() {
+        IntTree tree = new IntTree();
+        tree.getPseudoRoot().addChild(1).getChildren()
+                                        .add(new IntTree().getPseudoRoot());
+    }
+    
+    @Test
+    public void testTraversals() {
+        IntTree tree = createIntTree();
+        StringBuilder stringBuilder = new StringBuilder();
+        tree.forEachElement(e -> stringBuilder.append(e).append(' '));
+        assertEquals("1 11 12 121 1211 2 21 ", stringBuilder.toString());
+        
+        Iterator<IntTreeNode> iterator = tree.preorderIterator();
+        
+        for (int expected : new int[]{ 1, 11, 12, 121, 1211, 2, 21 }) {
+            assertTrue(iterator.hasNext());
+            assertEquals(expected, iterator.next().getElement());
+        }
+        
+        assertFalse(iterator.hasNext());
+        
+        IntTreeNode node12 = tree.getPseudoRoot()
+                                 .getChildren()
+                                 .iterator()
+                                 .next()
+                                 .getChildren()
+                                 .iterator()
+                                 .next()
+                                 .nextSibling;
+        stringBuilder.setLength(0);
+        node12.forEachElementInSubtree(
+                e -> stringBuilder.append(e).append(' '));
+        assertEquals("12 121 1211 ", stringBuilder.toString());
+    }
+    
+    @Test
+    public void testToArrayAndToString() {
+        LongTree tree = new LongTree();
+        LongTreeNode root = tree.getPseudoRoot().addChild(1L);
+        LongTreeNode a = root.addChild(Long.MIN_VALUE);
+        LongTreeNode b = root.addChild(3L);
+        
+        assertArrayEquals(new Object[]{ a, b }, root.getChildren().toArray());
+        
+        LongTreeNode[] array = 
+                root.getChildren().toArray(new LongTreeNode[0]);
+        assertArrayEquals(new LongTreeNode[]{ a, b }, array);
+        
+        LongTreeNode[] larger = new LongTreeNode[]{ b, b, b };
+        assertSame(larger, root.getChildren().toArray(larger));
+        assertSame(a, larger[0]);
+        assertSame(b, larger[1]);
+        assertNull(larger[2]);
+        
+        assertEquals(String.valueOf(Long.MIN_VALUE), a.toString());
+        assertEquals("-7", new IntTree().getPseudoRoot()
+                                        .addChild(-7)
+                                        .toString());
+        assertEquals(new TreeNode<>(-7).toString(), 
+                     new IntTree().getPseudoRoot().addChild(-7).toString());
+    }
+    
+    @Test(expected = ConcurrentModificationException.class)
+    public void testChildIteratorIsFailFast() {
+        IntTree tree = createIntTree();
+        IntTreeNode root = tree.getPseudoRoot().firstChild;
+        
+        for (IntTreeNode child : root.getChildren()) {
+            root.addChild(0);
+        }
+    }
+    
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testConverterMatchesGenericConverter() throws IOException {
+        Random random = new Random(13L);
+        IntTree intTree = new IntTree();
+        LongTree longTree = new LongTree();
+        Tree<Integer> tree = new Tree<>();
+        IntTreeNode[] intNodes = new IntTreeNode[500];
+        LongTreeNode[] longNodes = new LongTreeNode[500];
+        TreeNode<Integer>[] nodes = (TreeNode<Integer>[]) new TreeNode<?>[500];
+        
+        for (int i = 0; i < nodes.length; i++) {
+            int element = random.nextInt();
+            
+            if (i == 0 || random.nextInt(10) == 0) {
+                intNodes[i] = intTree.getPseudoRoot().addChild(element);
+                longNodes[i] = longTree.getPseudoRoot().addChild(element);
+                nodes[i] = tree.getPseudoRoot().addChild(element);
+            } else {
+                int parent = random.nextInt(i);
+                intNodes[i] = intNodes[parent].addChild(element);
+                longNodes[i] = longNodes[parent].addChild(element);
+                nodes[i] = nodes[parent].addChild(element);
+            }
+        }
+        
+        String expected = 
+                new StreamingTreeToStringConverter<Integer>().toString(tree);
+        
+        assertEquals(expected, converter.toString(intTree));
+        assertEquals(expected, converter.toString(longTree));
+        
+        StringWriter stringWriter = new StringWriter();
+        converter.write(intTree, stringWriter);
+        assertEquals(expected, stringWriter.toString());
+        
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        converter.write(longTree, outputStream, StandardCharsets.UTF_8);
+        assertEquals(expected, 
+                     new String(outputStream.toByteArray(), 
+                                StandardCharsets.UTF_8));
+    }
+    
+    @Test
+    public void testExtremeElements() {
+        IntTree intTree = new IntTree();
+        IntTreeNode intRoot = intTree.getPseudoRoot().addChild(0);
+        intRoot.addChild(Integer.MIN_VALUE);
+        intRoot.addChild(Integer.MAX_VALUE);
+        assertEquals("0\n -2147483648\n 2147483647\n", 
+                     converter.toString(intTree));
+        
+        LongTree longTree = new LongTree();
+        LongTreeNode longRoot = longTree.getPseudoRoot().addChild(-7L);
+        longRoot.addChild(Long.MIN_VALUE);
+        longRoot.addChild(Long.MAX_VALUE);
+        assertEquals("-7\n -9223372036854775808\n 9223372036854775807\n", 
+                     converter.toString(longTree));
+    }
+    
+    @Test
+    public void testFootprint() {
+        assumeTrue(ManagementFactory.getThreadMXBean() 
+                instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean threadMXBean = 
+                (com.sun.management.ThreadMXBean) 
+                ManagementFactory.getThreadMXBean();
+        assumeTrue(threadMXBean.isThreadAllocatedMemorySupported());
+        threadMXBean.setThreadAllocatedMemoryEnabled(true);
+        
+        int nodes = 100_000;
+        long threadId = Thread.currentThread().getId();
+        IntTree tree = new IntTree();
+        IntTreeNode root = tree.getPseudoRoot().addChild(0);
+        long before = threadMXBean.getThreadAllocatedBytes(threadId);
+        
+        for (int i = 0; i < nodes; i++) {
+            root.addChild(i);
+        }
+        
+        long bytesPerNode = 
+                (threadMXBean.getThreadAllocatedBytes(threadId) - before) / 
+                nodes;
+        
+        // An IntTreeNode with compressed references takes 56 bytes, whereas a
+        // TreeNode<Integer> takes 80 bytes plus 16 bytes per boxed element.
+        assertTrue("Expected at most 56 bytes per node, got " + bytesPerNode,
+                   bytesPerNode <= 56);
+    }
+    
+    private static IntTree createIntTree() {
+        IntTree tree = new IntTree();
+        IntTreeNode root1 = tree.getPseudoRoot().addChild(1);
+        IntTreeNode root2 = tree.getPseudoRoot().addChild(2);
+        root1.addChild(11);
+        root1.addChild(12).addChild(121).addChild(1211);
+        root2.addChild(21);
+        return tree;
+    }
+}
@@ -0,0 +1,109 @@
+package net.coderodde.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ * This test class contains the unit tests for 
+ * {@link StreamingTreeToStringConverter}.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+public final class StreamingTreeToStringConverterTest {
+    
+    private final StreamingTreeToStringConverter<Integer> converter = 
+            new StreamingTreeToStringConverter<>(16);
+    
+    @Test
+    public void testMatchesSimpleConverter() throws IOException {
+        Tree<Integer> tree = createTree();
+        String expected = new SimpleTreeToStringConverter<Integer>()
+                .toString(tree);
+        
+        assertEquals("1\n 11\n 12\n  121\n   1211\n2\n 21\n", expected);
+        assertEquals(expected, converter.toString(tree));
+        
+        StringWriter stringWriter = new StringWriter();
+        converter.write(tree, stringWriter);
+        assertEquals(expected, stringWriter.toString());
+        
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        converter.write(tree, outputStream, StandardCharsets.UTF_8);
+        assertEquals(expected, 
+                     new String(outputStream.toByteArray(), 
+                                StandardCharsets.UTF_8));
+    }
+    
+    @Test
+    public void testEmptyTree() {
+        assertEquals("", converter.toString(new Tree<>()));
+    }
+    
+    @Test
+    public void testDeepChain() throws IOException {
+        int length = 20_000;
+        Tree<Integer> tree = new Tree<>();
+        TreeNode<Integer> node = tree.getPseudoRoot();
+        
+        for (int i = 0; i < length; i++) {
+            node = node.addChild(i);
+        }
+        
+        CountingWriter writer = new CountingWriter();
+        converter.write(tree, writer);
+        
+        // Each line holds the indentation, the element and a new line:
+        long expectedCharacters = (long) length * (length - 1) / 2;
+        
+        for (int i = 0; i < length; i++) {
+            expectedCharacters += Integer.toString(i).length() + 1;
+        }
+        
+        assertEquals(expectedCharacters, writer.characters);
+        assertEquals(length, writer.lines);
+        
+        // The indentation of the chain is not kept after the conversion:
+        assertTrue(StreamingTreeToStringConverter.getIndentation(0).length() <= 
+                   StreamingTreeToStringConverter.MAXIMUM_SHARED_INDENTATION);
+    }
+    
+    private static Tree<Integer> createTree() {
+        Tree<Integer> tree = new Tree<>();
+        TreeNode<Integer> root1 = tree.getPseudoRoot().addChild(1);
+        TreeNode<Integer> root2 = tree.getPseudoRoot().addChild(2);
+        root1.addChild(11);
+        root1.addChild(12).addChild(121).addChild(1211);
+        root2.addChild(21);
+        return tree;
+    }
+    
+    private static final class CountingWriter extends Writer {
+
+        long characters;
+        long lines;
+        
+        @Override
+        public void write(char[] cbuf, int off, int len) {
+            characters += len;
+            
+            for (int i = off; i < off + len; i++) {
+                if (cbuf[i] == '\n') {
+                    lines++;
+                }
+            }
+        }
+
+        @Override
+        public void flush() {}
+
+        @Override
+        public void close() {}
+    }
+}
@@ -0,0 +1,197 @@
+package net.coderodde.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import org.junit.Test;
+
+/**
+ * This test class contains the unit tests for the ancestor index enabled by
+ * {@link Tree#enableAncestorIndex()}.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+public final class TreeAncestorIndexTest {
+    
+    @Test
+    public void testEnableIndexesExistingNodes() {
+        Tree<Integer> tree = new Tree<>();
+        TreeNode<Integer> a = tree.getPseudoRoot().addChild(1);
+        TreeNode<Integer> b = a.addChild(2);
+        TreeNode<Integer> c = b.addChild(3);
+        
+        assertFalse(tree.isAncestorIndexEnabled());
+        tree.enableAncestorIndex();
+        assertTrue(tree.isAncestorIndexEnabled());
+        assertNotNull(a.linkCutNode);
+        assertNotNull(c.linkCutNode);
+        
+        assertTrue(a.isAncestorOf(c));
+        assertTrue(b.isAncestorOf(c));
+        assertFalse(c.isAncestorOf(a));
+        assertFalse(c.isAncestorOf(c));
+        assertTrue(tree.getPseudoRoot().isAncestorOf(c));
+    }
+    
+    @Test
+    public void testCycleDetectedOnLongChain() {
+        Tree<Integer> tree = new Tree<>();
+        tree.enableAncestorIndex();
+        TreeNode<Integer> root = tree.getPseudoRoot().addChild(0);
+        TreeNode<Integer> node = root;
+        
+        for (int i = 1; i < 200_000; i++) {
+            node = node.addChild(i);
+        }
+        
+        try {
+            node.getChildren().add(root);
+            fail("A cycle was not detected.");
+        } catch (IllegalStateException ex) {
+        }
+        
+        // Moving the deepest node under the root is fine.
+        assertTrue(root.getChildren().add(node));
+        assertTrue(root.isAncestorOf(node));
+    }
+    
+    @Test
+    public void testIndexFollowsRemovalOperations() {
+        Tree<Integer> tree = new Tree<>();
+        tree.enableAncestorIndex();
+        TreeNode<Integer> root = tree.getPseudoRoot().addChild(0);
+        TreeNode<Integer> a = root.addChild(1);
+        TreeNode<Integer> b = root.addChild(2);
+        TreeNode<Integer> c = root.addChild(3);
+        TreeNode<Integer> d = root.addChild(4);
+        TreeNode<Integer> aa = a.addChild(5);
+        
+        root.getChildren().remove(a);
+        assertFalse(root.isAncestorOf(aa));
+        assertTrue(a.isAncestorOf(aa));
+        // The detached subtree may now take the root as a child.
+        assertTrue(aa.getChildren().add(root));
+        assertTrue(a.isAncestorOf(d));
+        assertTrue(aa.getChildren().remove(root));
+        
+        root.getChildren().removeAll(Arrays.asList(b));
+        assertFalse(root.isAncestorOf(b));
+        
+        root.getChildren().retainAll(Arrays.asList(c));
+        assertFalse(root.isAncestorOf(d));
+        assertTrue(root.isAncestorOf(c));
+        
+        root.getChildren().clear();
+        assertFalse(root.isAncestorOf(c));
+        
+        // Reattaching the detached nodes keeps them indexed.
+        root.getChildren().add(b);
+        b.getChildren().add(c);
+        assertTrue(root.isAncestorOf(c));
+        
+        try {
+            c.getChildren().add(root);
+            fail("A cycle was not detected.");
+        } catch (IllegalStateException ex) {
+        }
+    }
+    
+    @Test
+    public void testMovingBetweenIndexedAndPlainTrees() {
+        Tree<Integer> indexedTree = new Tree<>();
+        indexedTree.enableAncestorIndex();
+        Tree<Integer> plainTree = new Tree<>();
+        
+        TreeNode<Integer> indexedRoot = 
+                indexedTree.getPseudoRoot().addChild(0);
+        TreeNode<Integer> plainRoot = plainTree.getPseudoRoot().addChild(1);
+        TreeNode<Integer> plainChild = plainRoot.addChild(2);
+        plainChild.addChild(3);
+        
+        indexedRoot.getChildren().add(plainRoot);
+        assertNotNull(plainRoot.linkCutNode);
+        assertNotNull(plainChild.getChildren().iterator().next().linkCutNode);
+        assertTrue(indexedRoot.isAncestorOf(plainChild));
+        
+        TreeNode<Integer> plainRoot2 = plainTree.getPseudoRoot().addChild(4);
+        plainRoot2.getChildren().add(plainChild);
+        assertNull(plainChild.linkCutNode);
+        assertNull(plainChild.getChildren().iterator().next().linkCutNode);
+        assertFalse(indexedRoot.isAncestorOf(plainChild));
+        assertTrue(plainRoot2.isAncestorOf(plainChild));
+    }
+    
+    @Test
+    public void testRandomOperationsAgainstParentWalk() {
+        Random random = new Random(13L);
+        Tree<Integer> tree = new Tree<>();
+        tree.enableAncestorIndex();
+        List<TreeNode<Integer>> nodes = new ArrayList<>();
+        
+        for (int i = 0; i < 300; i++) {
+            TreeNode<Integer> parent = 
+                    nodes.isEmpty() || random.nextInt(10) == 0 ?
+                    tree.getPseudoRoot() :
+                    nodes.get(random.nextInt(nodes.size()));
+            nodes.add(parent.addChild(i));
+        }
+        
+        for (int i = 0; i < 20_000; i++) {
+            TreeNode<Integer> x = nodes.get(random.nextInt(nodes.size()));
+            TreeNode<Integer> y = nodes.get(random.nextInt(nodes.size()));
+            
+            switch (random.nextInt(5)) {
+                case 0:
+                case 1:
+                    boolean cycle = isAncestorOrSelfByWalk(y, x);
+                    
+                    try {
+                        x.getChildren().add(y);
+                        assertFalse(cycle);
+                    } catch (IllegalStateException ex) {
+                        assertTrue(cycle);
+                    }
+                    
+                    break;
+                
+                case 2:
+                    x.getChildren().remove(y);
+                    break;
+                
+                case 3:
+                    if (random.nextInt(20) == 0) {
+                        x.getChildren().retainAll(Arrays.asList(y));
+                    } else {
+                        tree.getPseudoRoot().getChildren().add(x);
+                    }
+                    
+                    break;
+                
+                default:
+                    assertEquals(isAncestorOrSelfByWalk(x, y) && x != y,
+                                 x.isAncestorOf(y));
+            }
+        }
+    }
+    
+    private static boolean isAncestorOrSelfByWalk(TreeNode<Integer> ancestor,
+                                                  TreeNode<Integer> node) {
+        for (TreeNode<Integer> current = node;
+                current != null;
+                current = current.parent) {
+            if (current == ancestor) {
+                return true;
+            }
+        }
+        
+        return false;
+    }
+}
@@ -0,0 +1,333 @@
+package net.coderodde.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * This test class contains the unit tests for {@link TreeAsyncVisitor}.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+public final class TreeAsyncVisitorTest {
+    
+    private static final long TIMEOUT_SECONDS = 30;
+    
+    private ExecutorService executor;
+    private ScheduledExecutorService timer;
+    
+    @Before
+    public void before() {
+        executor = Executors.newFixedThreadPool(8);
+        timer = Executors.newSingleThreadScheduledExecutor();
+    }
+    
+    @After
+    public void after() {
+        executor.shutdownNow();
+        timer.shutdownNow();
+    }
+    
+    @Test
+    public void testVisitsEveryNodeOnce() throws Exception {
+        Tree<Integer> tree = TreeTraversalTest.createBalancedTree(5_000, 3);
+        
+        for (TreeAsyncVisitor.Order order : TreeAsyncVisitor.Order.values()) {
+            Set<TreeNode<Integer>> visited = ConcurrentHashMap.newKeySet();
+            AtomicInteger visits = new AtomicInteger();
+            new TreeAsyncVisitor(executor, 4)
+                    .visit(tree, order, node -> {
+                        visited.add(node);
+                        visits.incrementAndGet();
+                    })
+                    .get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            
+            assertEquals(tree.size(), visits.get());
+            assertEquals(tree.size(), visited.size());
+            assertFalse(visited.contains(tree.getPseudoRoot()));
+        }
+    }
+    
+    @Test
+    public void testVisitsOnlyTheSubtree() throws Exception {
+        Tree<Integer> tree = TreeTraversalTest.createBalancedTree(100, 2);
+        TreeNode<Integer> root = tree.getPseudoRoot().firstChild.lastChild;
+        tree.getPseudoRoot().addChild(-1);
+        AtomicInteger visits = new AtomicInteger();
+        
+        new TreeAsyncVisitor(executor, 3)
+                .visit(root,
+                       TreeAsyncVisitor.Order.UNORDERED,
+                       node -> {
+                           assertTrue(node == root || root.isAncestorOf(node));
+                           visits.incrementAndGet();
+                       })
+                .get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        
+        assertEquals(root.getSubtreeSize(), visits.get());
+    }
+    
+    @Test
+    public void testEmptyTree() throws Exception {
+        CompletableFuture<Void> future =
+                new TreeAsyncVisitor(executor, 2)
+                        .visit(new Tree<Integer>(),
+                               TreeAsyncVisitor.Order.UNORDERED,
+                               node -> fail());
+        
+        assertTrue(future.isDone());
+        future.get();
+    }
+    
+    @Test
+    public void testParallelismBoundsVisitsInProgress() throws Exception {
+        Tree<Integer> tree = TreeTraversalTest.createBalancedTree(300, 4);
+        AtomicInteger inProgress = new AtomicInteger();
+        AtomicInteger maximum = new AtomicInteger();
+        
+        new TreeAsyncVisitor(executor, 5)
+                .visitAsync(tree,
+                            TreeAsyncVisitor.Order.UNORDERED,
+                            node -> {
+                                maximum.accumulateAndGet(
+                                        inProgress.incrementAndGet(),
+                                        Math::max);
+                                return completeLater(() -> {
+                                    inProgress.decrementAndGet();
+                                    return null;
+                                });
+                            })
+                .get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        
+        assertEquals(5, maximum.get());
+        assertEquals(0, inProgress.get());
+    }
+    
+    @Test
+    public void testParentsFirst() throws Exception {
+        Tree<Integer> tree = TreeTraversalTest.createBalancedTree(1_000, 3);
+        Set<TreeNode<Integer>> completed = ConcurrentHashMap.newKeySet();
+        List<TreeNode<Integer>> violations =
+                Collections.synchronizedList(new ArrayList<>());
+        
+        new TreeAsyncVisitor(executor, 8)
+                .visitAsync(tree,
+                            TreeAsyncVisitor.Order.PARENTS_FIRST,
+                            node -> {
+                                TreeNode<Integer> parent = node.getParent();
+                                
+                                if (parent != null &&
+                                        !completed.contains(parent)) {
+                                    violations.add(node);
+                                }
+                                
+                                return completeLater(() -> {
+                                    completed.add(node);
+                                    return null;
+                                });
+                            })
+                .get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        
+        assertEquals(tree.size(), completed.size());
+        assertTrue(violations.isEmpty());
+    }
+    
+    @Test
+    public void testAggregateSubtreeSizes() throws Exception {
+        Tree<Integer> tree = TreeTraversalTest.createBalancedTree(2_000, 5);
+        TreeNode<Integer> root = tree.getPseudoRoot().firstChild;
+        Set<TreeNode<Integer>> combined = ConcurrentHashMap.newKeySet();
+        
+        int size = new TreeAsyncVisitor(executor, 6)
+                .<Integer, Integer>aggregate(root, (node, childSizes) -> {
+                    assertEquals(node.getChildren().size(),
+                                 childSizes.size());
+                    
+                    for (TreeNode<Integer> child : node.getChildren()) {
+                        assertTrue(combined.contains(child));
+                    }
+                    
+                    int sum = 1;
+                    
+                    for (int childSize : childSizes) {
+                        sum += childSize;
+                    }
+                    
+                    int subtreeSize = sum;
+                    return completeLater(() -> {
+                        combined.add(node);
+                        return subtreeSize;
+                    });
+                })
+                .get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        
+        assertEquals(2_000, size);
+    }
+    
+    @Test
+    public void testAggregateChildOrder() throws Exception {
+        Tree<Integer> tree = TreeTraversalTest.createBalancedTree(500, 4);
+        String expected = preorderString(tree.getPseudoRoot().firstChild);
+        
+        String actual = new TreeAsyncVisitor(executor, 4)
+                .<Integer, String>aggregate(
+                        tree.getPseudoRoot().firstChild,
+                        (node, children) -> {
+                            StringBuilder sb = new StringBuilder();
+                            sb.append(node.getElement()).append(' ');
+                            children.forEach(sb::append);
+                            return completeLater(sb::toString);
+                        })
+                .get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        
+        assertEquals(expected, actual);
+    }
+    
+    @Test
+    public void testCallerRunsExecutorOnDeepChain() throws Exception {
+        Tree<Integer> tree = new Tree<>();
+        TreeNode<Integer> node = tree.getPseudoRoot();
+        
+        for (int i = 0; i < 100_000; i++) {
+            node = node.addChild(i);
+        }
+        
+        TreeAsyncVisitor visitor = new TreeAsyncVisitor(Runnable::run, 4);
+        AtomicInteger visits = new AtomicInteger();
+        
+        for (TreeAsyncVisitor.Order order : TreeAsyncVisitor.Order.values()) {
+            CompletableFuture<Void> future =
+                    visitor.visit(tree, order, n -> visits.incrementAndGet());
+            assertTrue(future.isDone());
+            future.get();
+        }
+        
+        assertEquals(200_000, visits.get());
+        assertEquals(Integer.valueOf(100_000),
+                     visitor.<Integer, Integer>aggregate(
+                             tree.getPseudoRoot().firstChild,
+                             (n, sizes) -> CompletableFuture.completedFuture(
+                                     sizes.isEmpty() ? 1 : sizes.get(0) + 1))
+                            .get());
+    }
+    
+    @Test
+    public void testFailureStopsTraversal() throws Exception {
+        Tree<Integer> tree = TreeTraversalTest.createBalancedTree(10_000, 2);
+        AtomicInteger visits = new AtomicInteger();
+        IllegalStateException failure = new IllegalStateException();
+        CompletableFuture<Void> future =
+                new TreeAsyncVisitor(executor, 2)
+                        .visit(tree,
+                               TreeAsyncVisitor.Order.PARENTS_FIRST,
+                               node -> {
+                                   if (visits.incrementAndGet() == 10) {
+                                       throw failure;
+                                   }
+                               });
+        
+        try {
+            future.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            fail();
+        } catch (ExecutionException ex) {
+            assertSame(failure, ex.getCause());
+        }
+        
+        executor.shutdown();
+        executor.awaitTermination(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        assertTrue(visits.get() < 10 + 2);
+    }
+    
+    @Test
+    public void testFailedStageFailsAggregation() throws Exception {
+        Tree<Integer> tree = TreeTraversalTest.createBalancedTree(100, 3);
+        CompletableFuture<Integer> future =
+                new TreeAsyncVisitor(executor, 4)
+                        .<Integer, Integer>aggregate(
+                                tree.getPseudoRoot().firstChild,
+                                (node, children) -> {
+                                    CompletableFuture<Integer> stage =
+                                            new CompletableFuture<>();
+                                    
+                                    if (node.getElement() == 50) {
+                                        stage.completeExceptionally(
+                                                new ArithmeticException());
+                                    } else {
+                                        stage.complete(0);
+                                    }
+                                    
+                                    return stage;
+                                });
+        
+        try {
+            future.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            fail();
+        } catch (ExecutionException ex) {
+            assertTrue(ex.getCause() instanceof ArithmeticException);
+        }
+    }
+    
+    @Test
+    public void testDefaultExecutor() throws Exception {
+        Tree<Integer> tree = TreeTraversalTest.createBalancedTree(200, 3);
+        AtomicInteger visits = new AtomicInteger();
+        new TreeAsyncVisitor(16)
+                .visit(tree,
+                       TreeAsyncVisitor.Order.UNORDERED,
+                       node -> visits.incrementAndGet())
+                .get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        
+        assertEquals(200, visits.get());
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testNonPositiveParallelismThrows() {
+        new TreeAsyncVisitor(executor, 0);
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testAggregatePseudoRootThrows() {
+        new TreeAsyncVisitor(executor, 1)
+                .aggregate(new Tree<Integer>().getPseudoRoot(),
+                           (node, children) -> null);
+    }
+    
+    /**
+     * Returns a stage completed with the value of the input supplier by the
+     * timer thread shortly after.
+     */
+    private <T> CompletableFuture<T> completeLater(
+            Supplier<T> supplier) {
+        CompletableFuture<T> stage = new CompletableFuture<>();
+        timer.schedule(() -> stage.complete(supplier.get()),
+                       100,
+                       TimeUnit.MICROSECONDS);
+        return stage;
+    }
+    
+    private static String preorderString(TreeNode<Integer> root) {
+        StringBuilder sb = new StringBuilder();
+        root.preorderIterator().forEachRemaining(
+                node -> sb.append(node.getElement()).append(' '));
+        return sb.toString();
+    }
+}
@@ -0,0 +1,202 @@
+package net.coderodde.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+import static org.junit.Assert.assertEquals;
+import org.junit.Test;
+
+/**
+ * This test class contains the unit tests for {@link TreeBuilders}.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+public final class TreeBuildersTest {
+    
+    private final StreamingTreeToStringConverter<Integer> converter = 
+            new StreamingTreeToStringConverter<>();
+    
+    @Test
+    public void testEmptyInput() {
+        assertEquals(0, TreeBuilders.fromParentArray(
+                Collections.<Integer>emptyList(), new int[0]).size());
+        assertEquals(0, TreeBuilders.fromPreorder(
+                Collections.<Integer>emptyList(), new int[0]).size());
+        assertEquals(0, TreeBuilders.<int[], Integer, Integer>fromEdges(
+                Stream.empty(), r -> r[0], r -> r[1], r -> r[0]).size());
+    }
+    
+    @Test
+    public void testFromParentArray() {
+        // 0 (2 (3) 4) 1 (5)
+        Tree<Integer> tree = TreeBuilders.fromParentArray(
+                Arrays.asList(0, 1, 2, 3, 4, 5), 
+                new int[]{ -1, -1, 0, 2, 0, 1 });
+        
+        assertEquals(converter.toString(expectedTree()), 
+                     converter.toString(tree));
+        assertEquals(6, tree.size());
+        
+        TreeNode<Integer> root = tree.getPseudoRoot().firstChild;
+        assertEquals(4, root.getSubtreeSize());
+        assertEquals(2, root.getHeight());
+        assertEquals(0, root.lastChild.getHeight());
+        assertEquals(2, root.firstChild.getSubtreeSize());
+        
+        // The built tree behaves as a regular one:
+        root.firstChild.addChild(6);
+        assertEquals(5, root.getSubtreeSize());
+        assertEquals(7, tree.size());
+        tree.getPseudoRoot().lastChild.getChildren().add(root.firstChild);
+        assertEquals(2, root.getSubtreeSize());
+        assertEquals(1, root.getHeight());
+    }
+    
+    @Test
+    public void testFromEdges() {
+        List<String[]> records = new ArrayList<>(Arrays.asList(
+                new String[]{ "e", "a", "4" },
+                new String[]{ "a", null, "0" },
+                new String[]{ "f", "b", "5" },
+                new String[]{ "b", null, "1" },
+                new String[]{ "d", "c", "3" },
+                new String[]{ "c", "a", "2" }));
+        Tree<Integer> tree = TreeBuilders.fromEdges(records.stream(), 
+                                                    r -> r[0], 
+                                                    r -> r[1], 
+                                                    r -> Integer.valueOf(r[2]));
+        
+        // The children follow the order of the records:
+        assertEquals(converter.toString(TreeBuilders.fromParentArray(
+                             Arrays.asList(4, 0, 5, 1, 3, 2), 
+                             new int[]{ 1, -1, 3, -1, 5, 1 })), 
+                     converter.toString(tree));
+        assertEquals(6, tree.size());
+    }
+    
+    @Test
+    public void testFromPreorder() {
+        Tree<Integer> tree = TreeBuilders.fromPreorder(
+                Arrays.asList(0, 2, 3, 4, 1, 5), 
+                new int[]{ 0, 1, 2, 1, 0, 1 });
+        assertEquals(converter.toString(expectedTree()), 
+                     converter.toString(tree));
+    }
+    
+    @Test
+    public void testAgainstIncrementalBuild() {
+        Random random = new Random(13L);
+        int size = 10_000;
+        int[] parents = new int[size];
+        List<Integer> elements = new ArrayList<>();
+        Tree<Integer> expected = new Tree<>();
+        List<TreeNode<Integer>> nodes = new ArrayList<>();
+        
+        for (int i = 0; i < size; i++) {
+            parents[i] = random.nextInt(i + 1) - 1;
+            elements.add(i);
+            TreeNode<Integer> parent = parents[i] == TreeBuilders.NO_PARENT ?
+                                       expected.getPseudoRoot() :
+                                       nodes.get(parents[i]);
+            nodes.add(parent.addChild(i));
+        }
+        
+        Tree<Integer> tree = TreeBuilders.fromParentArray(elements, parents);
+        assertEquals(converter.toString(expected), converter.toString(tree));
+        
+        List<TreeNode<Integer>> expectedNodes = new ArrayList<>();
+        expected.preorderIterator().forEachRemaining(expectedNodes::add);
+        List<Integer> preorderElements = new ArrayList<>();
+        int[] depths = new int[size];
+        
+        for (int i = 0; i < size; i++) {
+            preorderElements.add(expectedNodes.get(i).getElement());
+            depths[i] = expectedNodes.get(i).getDepth();
+        }
+        
+        Tree<Integer> preorderTree = 
+                TreeBuilders.fromPreorder(preorderElements, depths);
+        assertEquals(converter.toString(expected), 
+                     converter.toString(preorderTree));
+        
+        List<TreeNode<Integer>> builtNodes = new ArrayList<>();
+        tree.preorderIterator().forEachRemaining(builtNodes::add);
+        
+        for (int i = 0; i < size; i++) {
+            assertEquals(expectedNodes.get(i).getSubtreeSize(), 
+                         builtNodes.get(i).getSubtreeSize());
+            assertEquals(expectedNodes.get(i).getHeight(), 
+                         builtNodes.get(i).getHeight());
+        }
+    }
+    
+    @Test
+    public void testDeepChain() {
+        int size = 100_000;
+        int[] parents = new int[size];
+        List<Integer> elements = new ArrayList<>();
+        
+        for (int i = 0; i < size; i++) {
+            parents[i] = i - 1;
+            elements.add(i);
+        }
+        
+        Tree<Integer> tree = TreeBuilders.fromParentArray(elements, parents);
+        assertEquals(size, tree.size());
+        assertEquals(size - 1, tree.getPseudoRoot().firstChild.getHeight());
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testCycleThrows() {
+        TreeBuilders.fromParentArray(Arrays.asList(0, 1, 2, 3), 
+                                     new int[]{ -1, 2, 3, 1 });
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testSelfLoopThrows() {
+        TreeBuilders.fromParentArray(Arrays.asList(0, 1), 
+                                     new int[]{ -1, 1 });
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testParentOutOfRangeThrows() {
+        TreeBuilders.fromParentArray(Arrays.asList(0, 1), 
+                                     new int[]{ -1, 2 });
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testMissingParentThrows() {
+        TreeBuilders.fromEdges(Stream.of(new String[][]{ { "a", "b" } }), 
+                               r -> r[0], 
+                               r -> r[1], 
+                               r -> r[0]);
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testDuplicateIdentifierThrows() {
+        TreeBuilders.fromEdges(Stream.of(new String[]{ "a", null }, 
+                                         new String[]{ "a", null }), 
+                               r -> r[0], 
+                               r -> r[1], 
+                               r -> r[0]);
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidDepthThrows() {
+        TreeBuilders.fromPreorder(Arrays.asList(0, 1), new int[]{ 0, 2 });
+    }
+    
+    private static Tree<Integer> expectedTree() {
+        Tree<Integer> tree = new Tree<>();
+        TreeNode<Integer> root0 = tree.getPseudoRoot().addChild(0);
+        TreeNode<Integer> root1 = tree.getPseudoRoot().addChild(1);
+        root0.addChild(2).addChild(3);
+        root0.addChild(4);
+        root1.addChild(5);
+        return tree;
+    }
+}
@@ -0,0 +1,573 @@
+package net.coderodde.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ * This test class contains the unit tests for the {@link TreeChangeListener}s
+ * and the {@link TreeTransaction}s.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+public final class TreeChangeListenerTest {
+    
+    private final List<List<TreeChange<String>>> batches = new ArrayList<>();
+    
+    @Test
+    public void testNoHooksWithoutListeners() {
+        Tree<String> tree = new Tree<>();
+        TreeNode<String> node = tree.getPseudoRoot().addChild("a");
+        node.addChild("b").setElement("c");
+        assertNull(tree.getPseudoRoot().hooks);
+        assertNull(node.hooks);
+    }
+    
+    @Test
+    public void testImmediateDelivery() {
+        Tree<String> tree = new Tree<>();
+        TreeNode<String> pseudoroot = tree.getPseudoRoot();
+        TreeNode<String> a = pseudoroot.addChild("a");
+        tree.addChangeListener(batches::add);
+        
+        TreeNode<String> b = a.addChild("b");
+        assertChange(TreeChange.Type.ADDED, b, null, a);
+        
+        b.setElement("x");
+        TreeChange<String> change = assertChange(
+                TreeChange.Type.ELEMENT_CHANGED, b, null, null);
+        assertEquals("b", change.getOldElement());
+        assertEquals("x", change.getNewElement());
+        
+        pseudoroot.getChildren().add(b);
+        assertChange(TreeChange.Type.MOVED, b, a, pseudoroot);
+        
+        pseudoroot.getChildren().remove(b);
+        assertChange(TreeChange.Type.REMOVED, b, pseudoroot, null);
+        
+        // A detached node is no longer observed:
+        b.setElement("y");
+        b.addChild("z");
+        assertTrue(batches.isEmpty());
+        
+        a.getChildren().add(b);
+        assertChange(TreeChange.Type.ADDED, b, null, a);
+        
+        Iterator<TreeNode<String>> iterator = a.getChildren().iterator();
+        iterator.next();
+        iterator.remove();
+        assertChange(TreeChange.Type.REMOVED, b, a, null);
+        
+        a.addChild("c");
+        a.addChild("d");
+        batches.clear();
+        a.getChildren().clear();
+        assertEquals(2, batches.size());
+    }
+    
+    @Test
+    public void testMovesBetweenTrees() {
+        Tree<String> tree1 = new Tree<>();
+        Tree<String> tree2 = new Tree<>();
+        Tree<String> tree3 = new Tree<>();
+        List<List<TreeChange<String>>> batches2 = new ArrayList<>();
+        tree1.addChangeListener(batches::add);
+        tree2.addChangeListener(batches2::add);
+        
+        TreeNode<String> a = tree1.getPseudoRoot().addChild("a");
+        TreeNode<String> b = a.addChild("b");
+        batches.clear();
+        
+        tree2.getPseudoRoot().getChildren().add(a);
+        assertChange(TreeChange.Type.REMOVED, a, tree1.getPseudoRoot(), null);
+        assertEquals(1, batches2.size());
+        assertEquals(TreeChange.Type.ADDED, batches2.get(0).get(0).getType());
+        assertSame(tree2.getPseudoRoot().hooks, b.hooks);
+        
+        batches2.clear();
+        tree3.getPseudoRoot().getChildren().add(a);
+        assertEquals(TreeChange.Type.REMOVED, batches2.get(0).get(0).getType());
+        assertNull(b.hooks);
+    }
+    
+    @Test
+    public void testTransactionCoalescing() {
+        Tree<String> tree = new Tree<>();
+        TreeNode<String> pseudoroot = tree.getPseudoRoot();
+        TreeNode<String> a = pseudoroot.addChild("a");
+        TreeNode<String> b = pseudoroot.addChild("b");
+        TreeNode<String> c = a.addChild("c");
+        tree.addChangeListener(batches::add);
+        
+        try (TreeTransaction transaction = tree.beginTransaction()) {
+            // Added and modified: a single addition.
+            TreeNode<String> d = a.addChild("d");
+            d.setElement("dd");
+            
+            // Added and removed: nothing.
+            TreeNode<String> e = b.addChild("e");
+            b.getChildren().remove(e);
+            
+            // Changed back and forth: nothing.
+            a.setElement("x");
+            a.setElement("a");
+            
+            // Moved twice and changed: a move from the first parent to the
+            // last one, plus the element change.
+            b.getChildren().add(c);
+            c.setElement("y");
+            c.setElement("z");
+            pseudoroot.getChildren().add(c);
+            
+            // Nested transactions deliver nothing on their own.
+            try (TreeTransaction nested = tree.beginTransaction()) {
+                b.setElement("bb");
+            }
+            
+            assertTrue(batches.isEmpty());
+        }
+        
+        assertEquals(1, batches.size());
+        List<TreeChange<String>> changes = batches.get(0);
+        assertEquals(4, changes.size());
+        
+        assertEquals(TreeChange.Type.ADDED, changes.get(0).getType());
+        assertEquals("dd", changes.get(0).getNode().getElement());
+        
+        assertEquals(TreeChange.Type.MOVED, changes.get(1).getType());
+        assertSame(c, changes.get(1).getNode());
+        assertSame(a, changes.get(1).getOldParent());
+        assertSame(pseudoroot, changes.get(1).getNewParent());
+        
+        assertEquals(TreeChange.Type.ELEMENT_CHANGED, 
+                     changes.get(2).getType());
+        assertEquals("c", changes.get(2).getOldElement());
+        assertEquals("z", changes.get(2).getNewElement());
+        
+        assertEquals(TreeChange.Type.ELEMENT_CHANGED, 
+                     changes.get(3).getType());
+        assertSame(b, changes.get(3).getNode());
+    }
+    
+    @Test
+    public void testTransactionReattachedSubtree() {
+        Tree<String> tree = new Tree<>();
+        TreeNode<String> pseudoroot = tree.getPseudoRoot();
+        TreeNode<String> a = pseudoroot.addChild("a");
+        TreeNode<String> b = a.addChild("b");
+        tree.addChangeListener(batches::add);
+        
+        try (TreeTransaction transaction = tree.beginTransaction()) {
+            // Changes of a detached subtree are not recorded, so the 
+            // reattached subtree is reported as replaced, not moved.
+            pseudoroot.getChildren().remove(a);
+            a.getChildren().remove(b);
+            pseudoroot.getChildren().add(a);
+        }
+        
+        List<TreeChange<String>> changes = batches.get(0);
+        assertEquals(2, changes.size());
+        assertEquals(TreeChange.Type.REMOVED, changes.get(0).getType());
+        assertSame(a, changes.get(0).getNode());
+        assertSame(pseudoroot, changes.get(0).getOldParent());
+        assertEquals(TreeChange.Type.ADDED, changes.get(1).getType());
+        assertSame(a, changes.get(1).getNode());
+        assertSame(pseudoroot, changes.get(1).getNewParent());
+    }
+    
+    @Test(expected = IllegalStateException.class)
+    public void testDoubleCommitThrows() {
+        TreeTransaction transaction = new Tree<String>().beginTransaction();
+        transaction.commit();
+        transaction.commit();
+    }
+    
+    @Test
+    public void testReplicaFollowsTree() {
+        Random random = new Random(17L);
+        Tree<String> tree = new Tree<>();
+        Replica replica = new Replica();
+        tree.addChangeListener(replica);
+        List<TreeNode<String>> nodes = new ArrayList<>();
+        nodes.add(tree.getPseudoRoot());
+        
+        for (int round = 0; round < 50; round++) {
+            try (TreeTransaction transaction = tree.beginTransaction()) {
+                for (int i = 0; i < 20; i++) {
+                    mutate(random, nodes);
+                }
+            }
+            
+            Map<TreeNode<String>, TreeNode<String>> expected = 
+                    new HashMap<>();
+            tree.preorderIterator().forEachRemaining(
+                    node -> expected.put(node, node.parent));
+            assertEquals(expected, replica.parents);
+            
+            for (TreeNode<String> node : expected.keySet()) {
+                assertEquals(node.getElement(), replica.elements.get(node));
+            }
+        }
+    }
+    
+    /**
+     * An element change must not move the addition of its tree node past a
+     * later structural change.
+     */
+    @Test
+    public void testElementChangeKeepsStructuralOrder() {
+        Tree<String> tree = new Tree<>();
+        TreeNode<String> p = tree.getPseudoRoot().addChild("P");
+        TreeNode<String> q = tree.getPseudoRoot().addChild("Q");
+        TreeNode<String> b = q.addChild("B");
+        Mirror mirror = new Mirror(tree);
+        tree.addChangeListener(batches::add);
+        tree.addChangeListener(mirror);
+        
+        try (TreeTransaction transaction = tree.beginTransaction()) {
+            TreeNode<String> a = p.addChild("A");
+            p.getChildren().add(b);
+            a.setElement("A2");
+        }
+        
+        List<TreeChange<String>> changes = batches.get(0);
+        assertEquals(2, changes.size());
+        assertEquals(TreeChange.Type.ADDED, changes.get(0).getType());
+        assertEquals(TreeChange.Type.MOVED, changes.get(1).getType());
+        assertSame(b, changes.get(1).getNode());
+        assertEquals("P\n A2\n B\nQ\n", mirror.toString());
+        mirror.assertMirrors(tree);
+    }
+    
+    @Test
+    public void testPositionalChanges() {
+        Tree<String> tree = new Tree<>();
+        TreeNode<String> p = tree.getPseudoRoot().addChild("P");
+        TreeNode<String> a = p.addChild("A");
+        TreeNode<String> b = p.addChild("B");
+        TreeNode<String> c = p.addChild("C");
+        Mirror mirror = new Mirror(tree);
+        tree.addChangeListener(batches::add);
+        tree.addChangeListener(mirror);
+        
+        p.getChildren().move(2, 0);
+        TreeChange<String> change = 
+                assertChange(TreeChange.Type.MOVED, c, p, p);
+        assertSame(a, change.getSuccessor());
+        
+        TreeNode<String> d = new TreeNode<>("D");
+        p.getChildren().insert(2, d);
+        change = assertChange(TreeChange.Type.ADDED, d, null, p);
+        assertSame(b, change.getSuccessor());
+        assertEquals("ADDED D to P before B", change.toString());
+        mirror.assertMirrors(tree);
+        
+        try (TreeTransaction transaction = tree.beginTransaction()) {
+            // Inserted before a child that is moved later on:
+            TreeNode<String> e = new TreeNode<>("E");
+            p.getChildren().insert(0, e);
+            p.getChildren().move(1, 4);
+            p.getChildren().insert(1, new TreeNode<>("F"));
+        }
+        
+        assertEquals("P\n E\n F\n A\n D\n B\n C\n", mirror.toString());
+        mirror.assertMirrors(tree);
+    }
+    
+    @Test
+    public void testMirrorFollowsTree() {
+        Random random = new Random(29L);
+        Tree<String> tree = new Tree<>();
+        Mirror mirror = new Mirror(tree);
+        tree.addChangeListener(mirror);
+        List<TreeNode<String>> nodes = new ArrayList<>();
+        nodes.add(tree.getPseudoRoot());
+        
+        for (int round = 0; round < 200; round++) {
+            if (round % 4 == 0) {
+                mutate(random, nodes);
+            } else {
+                try (TreeTransaction transaction = tree.beginTransaction()) {
+                    for (int i = 0; i < 20; i++) {
+                        mutate(random, nodes);
+                    }
+                }
+            }
+            
+            mirror.assertMirrors(tree);
+        }
+    }
+    
+    private static void mutate(Random random, List<TreeNode<String>> nodes) {
+        TreeNode<String> node = nodes.get(random.nextInt(nodes.size()));
+        TreeNode<String> other = nodes.get(random.nextInt(nodes.size()));
+        
+        switch (random.nextInt(6)) {
+            case 0:
+                nodes.add(node.addChild("n" + nodes.size()));
+                break;
+            
+            case 1:
+                if (!node.isPseudoRoot()) {
+                    node.setElement("e" + random.nextInt(100));
+                }
+                
+                break;
+            
+            case 2:
+                if (!node.isPseudoRoot() && node != other && 
+                        !node.isAncestorOf(other)) {
+                    other.getChildren().add(node);
+                }
+                
+                break;
+            
+            case 3:
+                if (node.parent != null) {
+                    node.parent.getChildren().remove(node);
+                }
+                
+                break;
+            
+            case 4:
+                if (!node.isPseudoRoot() && node != other && 
+                        !node.isAncestorOf(other)) {
+                    int size = other.getChildren().size();
+                    other.getChildren().insert(
+                            random.nextInt(node.parent == other ? 
+                                           size : 
+                                           size + 1), 
+                            node);
+                }
+                
+                break;
+            
+            case 5:
+                int size = node.getChildren().size();
+                
+                if (size > 0) {
+                    node.getChildren().move(random.nextInt(size), 
+                                            random.nextInt(size));
+                }
+                
+                break;
+        }
+    }
+    
+    private TreeChange<String> assertChange(TreeChange.Type type, 
+                                            TreeNode<String> node,
+                                            TreeNode<String> oldParent,
+                                            TreeNode<String> newParent) {
+        assertEquals(1, batches.size());
+        assertEquals(1, batches.get(0).size());
+        TreeChange<String> change = batches.get(0).get(0);
+        assertEquals(type, change.getType());
+        assertSame(node, change.getNode());
+        assertSame(oldParent, change.getOldParent());
+        assertSame(newParent, change.getNewParent());
+        batches.clear();
+        return change;
+    }
+    
+    /**
+     * This static nested class implements a copy of a tree, following the 
+     * changes by the contract of the listeners.
+     */
+    private static final class Mirror implements TreeChangeListener<String> {
+        
+        private final TreeNode<String> pseudoroot;
+        private final Tree<String> copy = new Tree<>();
+        private final Map<TreeNode<String>, TreeNode<String>> copies = 
+                new IdentityHashMap<>();
+        private final Map<TreeNode<String>, TreeNode<String>> originals = 
+                new IdentityHashMap<>();
+        
+        Mirror(Tree<String> tree) {
+            pseudoroot = tree.getPseudoRoot();
+            map(tree.getPseudoRoot(), copy.getPseudoRoot());
+            
+            for (TreeNode<String> root : tree.getPseudoRoot().getChildren()) {
+                copy.getPseudoRoot().getChildren().add(copySubtree(root));
+            }
+        }
+        
+        @Override
+        public void treeChanged(List<TreeChange<String>> changes) {
+            for (TreeChange<String> change : changes) {
+                TreeNode<String> node = change.getNode();
+                
+                switch (change.getType()) {
+                    case ELEMENT_CHANGED:
+                        if (copies.containsKey(node)) {
+                            copies.get(node)
+                                  .setElement(change.getNewElement());
+                        }
+                        
+                        break;
+                    
+                    case REMOVED:
+                        removeSubtree(node);
+                        break;
+                    
+                    default:
+                        // A subtree detached later on may have changed 
+                        // without recording anything.
+                        if (!isInTree(node)) {
+                            removeSubtree(node);
+                            break;
+                        }
+                        
+                        // Copying the subtree may drop a stale copy of the
+                        // new parent, so the parent is looked up afterwards.
+                        TreeNode<String> nodeCopy = copySubtree(node);
+                        TreeNode<String> parent = 
+                                copies.get(change.getNewParent());
+                        
+                        if (parent == null) {
+                            removeSubtree(node);
+                            break;
+                        }
+                        
+                        TreeNode<String> successor = 
+                                copies.get(change.getSuccessor());
+                        
+                        // A successor never seen is in a subtree copied 
+                        // later on.
+                        if (successor == null) {
+                            parent.getChildren().add(nodeCopy);
+                        } else {
+                            assertSame(parent, successor.parent);
+                            parent.getChildren().insert(
+                                    parent.getChildren().indexOf(successor),
+                                    nodeCopy);
+                        }
+                }
+            }
+        }
+        
+        void assertMirrors(Tree<String> tree) {
+            assertEquals(new SimpleTreeToStringConverter<String>()
+                                 .toString(tree),
+                         toString());
+        }
+        
+        @Override
+        public String toString() {
+            return new SimpleTreeToStringConverter<String>().toString(copy);
+        }
+        
+        /**
+         * Copies the current subtree rooted at the input tree node, dropping
+         * the earlier copies of its tree nodes.
+         */
+        private TreeNode<String> copySubtree(TreeNode<String> node) {
+            removeSubtree(node);
+            TreeNode<String> nodeCopy = new TreeNode<>(node.getElement());
+            map(node, nodeCopy);
+            
+            for (TreeNode<String> child : node.getChildren()) {
+                nodeCopy.getChildren().add(copySubtree(child));
+            }
+            
+            return nodeCopy;
+        }
+        
+        private boolean isInTree(TreeNode<String> node) {
+            while (node.parent != null) {
+                node = node.parent;
+            }
+            
+            return node == pseudoroot;
+        }
+        
+        private void removeSubtree(TreeNode<String> node) {
+            TreeNode<String> nodeCopy = copies.get(node);
+            
+            if (nodeCopy == null) {
+                return;
+            }
+            
+            if (nodeCopy.parent != null) {
+                nodeCopy.parent.getChildren().remove(nodeCopy);
+            }
+            
+            nodeCopy.preorderIterator().forEachRemaining(
+                    descendant -> copies.remove(originals.remove(descendant)));
+        }
+        
+        private void map(TreeNode<String> node, TreeNode<String> nodeCopy) {
+            copies.put(node, nodeCopy);
+            originals.put(nodeCopy, node);
+        }
+    }
+    
+    /**
+     * This static nested class implements a replica of the tree nodes of a 
+     * tree, following the changes by the contract of the listeners.
+     */
+    private static final class Replica implements TreeChangeListener<String> {
+        
+        final Map<TreeNode<String>, TreeNode<String>> parents = 
+                new HashMap<>();
+        final Map<TreeNode<String>, String> elements = new HashMap<>();
+        
+        @Override
+        public void treeChanged(List<TreeChange<String>> changes) {
+            for (TreeChange<String> change : changes) {
+                TreeNode<String> node = change.getNode();
+                
+                switch (change.getType()) {
+                    case ELEMENT_CHANGED:
+                        elements.put(node, change.getNewElement());
+                        break;
+                    
+                    case REMOVED:
+                        removeSubtree(node);
+                        break;
+                    
+                    default:
+                        removeSubtree(node);
+                        
+                        if (parents.containsKey(change.getNewParent()) || 
+                                change.getNewParent().isPseudoRoot()) {
+                            node.preorderIterator().forEachRemaining(
+                                    descendant -> {
+                                parents.put(descendant, descendant.parent);
+                                elements.put(descendant, 
+                                             descendant.getElement());
+                            });
+                        }
+                }
+            }
+        }
+        
+        private void removeSubtree(TreeNode<String> root) {
+            List<TreeNode<String>> removed = new ArrayList<>();
+            removed.add(root);
+            
+            for (int i = 0; i < removed.size(); i++) {
+                for (Map.Entry<TreeNode<String>, TreeNode<String>> entry : 
+                        parents.entrySet()) {
+                    if (entry.getValue() == removed.get(i)) {
+                        removed.add(entry.getKey());
+                    }
+                }
+            }
+            
+            for (TreeNode<String> node : removed) {
+                parents.remove(node);
+                elements.remove(node);
+            }
+        }
+    }
+}
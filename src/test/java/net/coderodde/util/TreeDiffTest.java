@@ -0,0 +1,173 @@
+package net.coderodde.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ * This test class contains the unit tests for {@link TreeDiff}.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+public final class TreeDiffTest {
+    
+    private final StreamingTreeToStringConverter<Integer> converter =
+            new StreamingTreeToStringConverter<>();
+    
+    @Test
+    public void testEqualTrees() {
+        assertTrue(TreeDiff.compute(
+                TreeTraversalTest.createBalancedTree(1_000, 3),
+                TreeTraversalTest.createBalancedTree(1_000, 3)).isEmpty());
+        assertTrue(TreeDiff.compute(new Tree<Integer>(), new Tree<Integer>())
+                           .isEmpty());
+    }
+    
+    @Test
+    public void testUpdate() {
+        Tree<Integer> source = TreeTraversalTest.createBalancedTree(100, 3);
+        Tree<Integer> target = TreeTraversalTest.createBalancedTree(100, 3);
+        TreeNode<Integer> node = findNode(target, 50);
+        node.setElement(-50);
+        TreeNode<Integer> sourceNode = findNode(source, 50);
+        
+        TreeEdit<Integer> edit = assertSingleEdit(source, target);
+        assertEquals(TreeEdit.Type.UPDATE, edit.getType());
+        assertSame(sourceNode, edit.getSourceNode());
+        assertSame(node, edit.getTargetNode());
+    }
+    
+    @Test
+    public void testDelete() {
+        Tree<Integer> source = TreeTraversalTest.createBalancedTree(100, 3);
+        Tree<Integer> target = TreeTraversalTest.createBalancedTree(100, 3);
+        TreeNode<Integer> node = findNode(target, 5);
+        node.parent.getChildren().remove(node);
+        TreeNode<Integer> sourceNode = findNode(source, 5);
+        
+        TreeEdit<Integer> edit = assertSingleEdit(source, target);
+        assertEquals(TreeEdit.Type.DELETE, edit.getType());
+        assertSame(sourceNode, edit.getSourceNode());
+    }
+    
+    @Test
+    public void testInsert() {
+        Tree<Integer> source = TreeTraversalTest.createBalancedTree(100, 3);
+        Tree<Integer> target = TreeTraversalTest.createBalancedTree(100, 3);
+        TreeNode<Integer> node = findNode(target, 7).addChild(-1);
+        node.addChild(-2);
+        node.addChild(-3);
+        
+        TreeEdit<Integer> edit = assertSingleEdit(source, target);
+        assertEquals(TreeEdit.Type.INSERT, edit.getType());
+        assertSame(node, edit.getTargetNode());
+        assertSame(findNode(source, 7), edit.getSourceParent());
+        assertEquals(3, edit.getIndex());
+    }
+    
+    @Test
+    public void testMoveToAnotherParent() {
+        Tree<Integer> source = TreeTraversalTest.createBalancedTree(100, 3);
+        Tree<Integer> target = TreeTraversalTest.createBalancedTree(100, 3);
+        // Move the subtree of 4 under the leaf 60.
+        findNode(target, 60).getChildren().add(findNode(target, 4));
+        
+        TreeEdit<Integer> edit = assertSingleEdit(source, target);
+        assertEquals(TreeEdit.Type.MOVE, edit.getType());
+        assertSame(findNode(source, 4), edit.getSourceNode());
+        assertSame(findNode(source, 60), edit.getSourceParent());
+        assertEquals(0, edit.getIndex());
+    }
+    
+    @Test
+    public void testReorder() {
+        Tree<Integer> source = TreeTraversalTest.createBalancedTree(100, 3);
+        Tree<Integer> target = TreeTraversalTest.createBalancedTree(100, 3);
+        TreeNode<Integer> node = findNode(target, 1);
+        node.parent.getChildren().remove(node);
+        findNode(target, 0).getChildren().add(node);
+        
+        TreeEdit<Integer> edit = assertSingleEdit(source, target);
+        assertEquals(TreeEdit.Type.MOVE, edit.getType());
+        assertSame(findNode(source, 1), edit.getSourceNode());
+        assertSame(findNode(source, 0), edit.getSourceParent());
+        assertEquals(2, edit.getIndex());
+    }
+    
+    @Test
+    public void testRandomVersions() {
+        Random random = new Random(20L);
+        Tree<Integer> source = TreeTraversalTest.createBalancedTree(500, 3);
+        Tree<Integer> target = TreeTraversalTest.createBalancedTree(500, 3);
+        TreeHashCache<Integer> sourceCache = new TreeHashCache<>(source);
+        TreeHashCache<Integer> targetCache = new TreeHashCache<>(target);
+        List<TreeNode<Integer>> nodes = new ArrayList<>();
+        nodes.add(target.getPseudoRoot());
+        target.preorderIterator().forEachRemaining(nodes::add);
+        
+        for (int round = 0; round < 200; round++) {
+            for (int i = random.nextInt(5); i >= 0; i--) {
+                TreeHashCacheTest.mutate(random, nodes);
+            }
+            
+            TreeDiff<Integer> diff = TreeDiff.compute(sourceCache, 
+                                                      targetCache);
+            diff.apply();
+            
+            assertEquals(converter.toString(target), 
+                         converter.toString(source));
+            assertEquals(targetCache.getTreeHash(), 
+                         sourceCache.getTreeHash());
+            assertTrue(TreeDiff.compute(sourceCache, targetCache).isEmpty());
+        }
+    }
+    
+    @Test
+    public void testRandomTrees() {
+        Random random = new Random(21L);
+        
+        for (int round = 0; round < 100; round++) {
+            Tree<Integer> source = createRandomTree(random, 50);
+            Tree<Integer> target = createRandomTree(random, 50);
+            TreeDiff.compute(source, target).apply();
+            assertEquals(converter.toString(target), 
+                         converter.toString(source));
+        }
+    }
+    
+    private static TreeEdit<Integer> assertSingleEdit(Tree<Integer> source,
+                                                      Tree<Integer> target) {
+        TreeDiff<Integer> diff = TreeDiff.compute(source, target);
+        assertEquals(1, diff.getEdits().size());
+        diff.apply();
+        assertTrue(TreeDiff.compute(source, target).isEmpty());
+        return diff.getEdits().get(0);
+    }
+    
+    private static TreeNode<Integer> findNode(Tree<Integer> tree, 
+                                              int element) {
+        return tree.stream()
+                   .filter(node -> node.getElement() == element)
+                   .findFirst()
+                   .get();
+    }
+    
+    private static Tree<Integer> createRandomTree(Random random, int size) {
+        Tree<Integer> tree = new Tree<>();
+        List<TreeNode<Integer>> nodes = new ArrayList<>();
+        nodes.add(tree.getPseudoRoot());
+        
+        for (int i = 0; i < size; i++) {
+            // Few distinct elements make many subtrees equal.
+            nodes.add(nodes.get(random.nextInt(nodes.size()))
+                           .addChild(random.nextInt(4)));
+        }
+        
+        return tree;
+    }
+}
@@ -0,0 +1,262 @@
+package net.coderodde.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import org.junit.Test;
+
+/**
+ * This test class contains the unit tests for {@link TreeElementIndex}.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+public final class TreeElementIndexTest {
+    
+    @Test
+    public void testEnableOnExistingTree() {
+        Tree<Integer> tree = TreeTraversalTest.createBalancedTree(100, 3);
+        TreeElementIndex<Integer, Integer> index = 
+                tree.enableElementIndex(Function.identity(), true);
+        
+        assertSame(index, tree.getElementIndex());
+        assertEquals(100, index.size());
+        tree.preorderIterator().forEachRemaining(
+                node -> assertSame(node, index.get(node.getElement())));
+        assertNull(index.get(100));
+        
+        tree.disableElementIndex();
+        assertNull(tree.getElementIndex());
+        assertEquals(0, index.size());
+        tree.getPseudoRoot().addChild(1);
+        assertEquals(0, index.size());
+    }
+    
+    @Test
+    public void testMutations() {
+        Tree<String> tree = new Tree<>();
+        TreeElementIndex<String, String> index = 
+                tree.enableElementIndex(Function.identity(), true);
+        TreeNode<String> a = tree.getPseudoRoot().addChild("a");
+        TreeNode<String> b = a.addChild("b");
+        TreeNode<String> c = b.addChild("c");
+        TreeNode<String> d = tree.getPseudoRoot().addChild("d");
+        assertEquals(4, index.size());
+        assertSame(c, index.get("c"));
+        
+        c.setElement("x");
+        assertNull(index.get("c"));
+        assertSame(c, index.get("x"));
+        
+        // Moving within the tree keeps the nodes indexed:
+        d.getChildren().add(b);
+        assertSame(b, index.get("b"));
+        assertSame(c, index.get("x"));
+        assertEquals(4, index.size());
+        
+        // Removing drops the subtree:
+        d.getChildren().remove(b);
+        assertNull(index.get("b"));
+        assertNull(index.get("x"));
+        assertEquals(2, index.size());
+        
+        // Detached nodes are no longer tracked:
+        c.setElement("y");
+        assertNull(index.get("y"));
+        
+        // Reattaching adds the subtree back:
+        a.getChildren().add(b);
+        assertEquals(4, index.size());
+        assertSame(b, index.get("b"));
+        assertSame(c, index.get("y"));
+        
+        a.getChildren().clear();
+        assertEquals(2, index.size());
+        
+        Iterator<TreeNode<String>> iterator = 
+                tree.getPseudoRoot().getChildren().iterator();
+        iterator.next();
+        iterator.remove();
+        assertEquals(1, index.size());
+        assertNull(index.get("a"));
+        assertSame(d, index.get("d"));
+    }
+    
+    @Test
+    public void testMovesBetweenTrees() {
+        Tree<Integer> tree1 = new Tree<>();
+        Tree<Integer> tree2 = new Tree<>();
+        Tree<Integer> tree3 = new Tree<>();
+        TreeElementIndex<Integer, Integer> index1 = 
+                tree1.enableElementIndex(Function.identity(), true);
+        TreeElementIndex<Integer, Integer> index2 = 
+                tree2.enableElementIndex(Function.identity(), true);
+        
+        TreeNode<Integer> node = tree1.getPseudoRoot().addChild(1);
+        node.addChild(2).addChild(3);
+        tree2.getPseudoRoot().getChildren().add(node);
+        assertEquals(0, index1.size());
+        assertEquals(3, index2.size());
+        assertSame(node, index2.get(1));
+        
+        tree3.getPseudoRoot().getChildren().add(node);
+        assertEquals(0, index2.size());
+        assertNull(node.hooks);
+        
+        tree1.getPseudoRoot().getChildren().add(node);
+        assertEquals(3, index1.size());
+    }
+    
+    @Test
+    public void testUniqueViolationLeavesTreeUnchanged() {
+        Tree<Integer> tree1 = new Tree<>();
+        TreeElementIndex<Integer, Integer> index = 
+                tree1.enableElementIndex(Function.identity(), true);
+        TreeNode<Integer> root = tree1.getPseudoRoot().addChild(1);
+        root.addChild(2);
+        
+        try {
+            root.addChild(2);
+            fail();
+        } catch (IllegalArgumentException ex) {
+            // Expected.
+        }
+        
+        assertEquals(1, root.getChildren().size());
+        assertEquals(2, index.size());
+        
+        try {
+            root.getChildren().iterator().next().setElement(1);
+            fail();
+        } catch (IllegalArgumentException ex) {
+            // Expected.
+        }
+        
+        assertSame(root, index.get(1));
+        assertEquals(Integer.valueOf(2), index.get(2).getElement());
+        
+        Tree<Integer> tree2 = new Tree<>();
+        TreeNode<Integer> other = tree2.getPseudoRoot().addChild(3);
+        other.addChild(1);
+        
+        try {
+            root.getChildren().add(other);
+            fail();
+        } catch (IllegalArgumentException ex) {
+            // Expected.
+        }
+        
+        assertSame(tree2.getPseudoRoot().firstChild, other);
+        assertEquals(2, index.size());
+        assertEquals(2, tree2.size());
+    }
+    
+    @Test
+    public void testMultiValuedIndexWithKeyExtractor() {
+        Tree<String> tree = new Tree<>();
+        TreeElementIndex<String, Integer> index = 
+                tree.enableElementIndex(String::length, false);
+        TreeNode<String> a = tree.getPseudoRoot().addChild("a");
+        TreeNode<String> b = a.addChild("b");
+        TreeNode<String> cc = a.addChild("cc");
+        
+        assertFalse(index.isUnique());
+        assertEquals(new HashSet<>(Arrays.asList(a, b)), 
+                     new HashSet<>(index.getAll(1)));
+        assertEquals(Arrays.asList(cc), index.getAll(2));
+        assertTrue(index.getAll(3).isEmpty());
+        
+        b.setElement("bbb");
+        assertSame(a, index.get(1));
+        assertSame(b, index.get(3));
+        
+        a.getChildren().remove(cc);
+        assertFalse(index.containsKey(2));
+        assertEquals(2, index.size());
+    }
+    
+    @Test
+    public void testAgainstScan() {
+        Random random = new Random(16L);
+        Tree<Integer> tree = new Tree<>();
+        TreeElementIndex<Integer, Integer> index = 
+                tree.enableElementIndex(element -> element % 50, false);
+        List<TreeNode<Integer>> nodes = new ArrayList<>();
+        nodes.add(tree.getPseudoRoot());
+        
+        for (int i = 0; i < 2_000; i++) {
+            TreeNode<Integer> node = nodes.get(random.nextInt(nodes.size()));
+            
+            switch (random.nextInt(4)) {
+                case 0:
+                    nodes.add(node.addChild(random.nextInt(1000)));
+                    break;
+                
+                case 1:
+                    if (!node.isPseudoRoot()) {
+                        node.setElement(random.nextInt(1000));
+                    }
+                    
+                    break;
+                
+                case 2:
+                    TreeNode<Integer> other = 
+                            nodes.get(random.nextInt(nodes.size()));
+                    
+                    if (!node.isPseudoRoot() && !node.isAncestorOf(other) && 
+                            node != other) {
+                        other.getChildren().add(node);
+                    }
+                    
+                    break;
+                
+                case 3:
+                    if (node.parent != null) {
+                        node.parent.getChildren().remove(node);
+                    }
+                    
+                    break;
+            }
+        }
+        
+        assertEquals(tree.size(), index.size());
+        
+        for (int key = 0; key < 50; key++) {
+            List<TreeNode<Integer>> expected = new ArrayList<>();
+            
+            for (TreeNode<Integer> node : (Iterable<TreeNode<Integer>>) 
+                    tree::preorderIterator) {
+                if (node.getElement() % 50 == key) {
+                    expected.add(node);
+                }
+            }
+            
+            assertEquals(new HashSet<>(expected), 
+                         new HashSet<>(index.getAll(key)));
+        }
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testEnableUniqueWithDuplicatesThrows() {
+        Tree<Integer> tree = new Tree<>();
+        tree.getPseudoRoot().addChild(1).addChild(1);
+        tree.enableElementIndex(Function.identity(), true);
+    }
+    
+    @Test(expected = IllegalStateException.class)
+    public void testEnableTwiceThrows() {
+        Tree<Integer> tree = new Tree<>();
+        tree.enableElementIndex(Function.identity(), true);
+        tree.enableElementIndex(Function.identity(), false);
+    }
+}
@@ -0,0 +1,161 @@
+package net.coderodde.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import org.junit.Test;
+
+/**
+ * This test class contains the unit tests for {@link TreeHashCache}.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+public final class TreeHashCacheTest {
+    
+    @Test
+    public void testEqualTreesHaveEqualHashes() {
+        TreeHashCache<Integer> cache1 = new TreeHashCache<>(
+                TreeTraversalTest.createBalancedTree(1_000, 3));
+        TreeHashCache<Integer> cache2 = new TreeHashCache<>(
+                TreeTraversalTest.createBalancedTree(1_000, 3));
+        assertEquals(cache1.getTreeHash(), cache2.getTreeHash());
+        assertNotEquals(cache1.getTreeHash(), 
+                        new TreeHashCache<>(new Tree<Integer>())
+                                .getTreeHash());
+    }
+    
+    @Test
+    public void testStructureChangesHash() {
+        // a(b, c) vs a(b(c)) vs a(c, b):
+        Tree<String> tree1 = new Tree<>();
+        TreeNode<String> a1 = tree1.getPseudoRoot().addChild("a");
+        a1.addChild("b");
+        a1.addChild("c");
+        
+        Tree<String> tree2 = new Tree<>();
+        tree2.getPseudoRoot().addChild("a").addChild("b").addChild("c");
+        
+        Tree<String> tree3 = new Tree<>();
+        TreeNode<String> a3 = tree3.getPseudoRoot().addChild("a");
+        a3.addChild("c");
+        a3.addChild("b");
+        
+        TreeHashCache<String> cache1 = new TreeHashCache<>(tree1);
+        TreeHashCache<String> cache2 = new TreeHashCache<>(tree2);
+        TreeHashCache<String> cache3 = new TreeHashCache<>(tree3);
+        
+        assertNotEquals(cache1.getTreeHash(), cache2.getTreeHash());
+        assertNotEquals(cache1.getTreeHash(), cache3.getTreeHash());
+        
+        // The hash of a subtree does not depend on its position:
+        assertEquals(cache1.getHash(a1.firstChild), 
+                     cache3.getHash(a3.lastChild));
+        
+        long hash = cache1.getTreeHash();
+        a1.firstChild.setElement("x");
+        assertNotEquals(hash, cache1.getTreeHash());
+        a1.firstChild.setElement("b");
+        assertEquals(hash, cache1.getTreeHash());
+        
+        TreeNode<String> c3 = a3.firstChild;
+        a3.getChildren().remove(c3);
+        a3.getChildren().add(c3);
+        assertEquals(hash, cache3.getTreeHash());
+    }
+    
+    @Test
+    public void testRandomModificationsAgainstFreshHashes() {
+        Random random = new Random(20L);
+        Tree<Integer> tree = TreeTraversalTest.createBalancedTree(2_000, 4);
+        TreeHashCache<Integer> cache = new TreeHashCache<>(tree);
+        List<TreeNode<Integer>> nodes = new ArrayList<>();
+        nodes.add(tree.getPseudoRoot());
+        tree.preorderIterator().forEachRemaining(nodes::add);
+        
+        for (int round = 0; round < 300; round++) {
+            // Hash a random subtree so that the cache is partially filled:
+            TreeNode<Integer> node = nodes.get(random.nextInt(nodes.size()));
+            
+            if (tree.getPseudoRoot().isAncestorOf(node)) {
+                cache.getHash(node);
+            }
+            
+            try (TreeTransaction transaction = tree.beginTransaction()) {
+                for (int i = random.nextInt(3); i >= 0; i--) {
+                    mutate(random, nodes);
+                }
+            }
+            
+            TreeHashCache<Integer> freshCache = new TreeHashCache<>(tree);
+            assertEquals(freshCache.getTreeHash(), cache.getTreeHash());
+            freshCache.detach();
+        }
+    }
+    
+    @Test
+    public void testSubtreeModifiedWhileDetachedInTransaction() {
+        Tree<Integer> tree = TreeTraversalTest.createBalancedTree(20, 2);
+        TreeHashCache<Integer> cache = new TreeHashCache<>(tree);
+        TreeNode<Integer> root = tree.getPseudoRoot().firstChild;
+        TreeNode<Integer> child = root.firstChild;
+        TreeNode<Integer> grandchild = child.firstChild;
+        cache.getTreeHash();
+        
+        try (TreeTransaction transaction = tree.beginTransaction()) {
+            root.getChildren().remove(child);
+            child.getChildren().remove(grandchild);
+            grandchild.setElement(-1);
+            root.getChildren().add(child);
+        }
+        
+        root.lastChild.getChildren().add(grandchild);
+        
+        TreeHashCache<Integer> freshCache = new TreeHashCache<>(tree);
+        assertEquals(freshCache.getTreeHash(), cache.getTreeHash());
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testForeignNodeThrows() {
+        Tree<Integer> tree = TreeTraversalTest.createBalancedTree(10, 2);
+        new TreeHashCache<>(tree).getHash(
+                TreeTraversalTest.createBalancedTree(10, 2)
+                                 .getPseudoRoot()
+                                 .firstChild);
+    }
+    
+    static void mutate(Random random, List<TreeNode<Integer>> nodes) {
+        TreeNode<Integer> node = nodes.get(random.nextInt(nodes.size()));
+        TreeNode<Integer> other = nodes.get(random.nextInt(nodes.size()));
+        
+        switch (random.nextInt(4)) {
+            case 0:
+                nodes.add(node.addChild(random.nextInt(100)));
+                break;
+            
+            case 1:
+                if (!node.isPseudoRoot()) {
+                    node.setElement(random.nextInt(100));
+                }
+                
+                break;
+            
+            case 2:
+                if (!node.isPseudoRoot() && node != other && 
+                        !node.isAncestorOf(other)) {
+                    other.getChildren().add(node);
+                }
+                
+                break;
+            
+            case 3:
+                if (node.parent != null) {
+                    node.parent.getChildren().remove(node);
+                }
+                
+                break;
+        }
+    }
+}
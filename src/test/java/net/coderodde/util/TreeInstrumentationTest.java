@@ -0,0 +1,135 @@
+package net.coderodde.util;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import net.coderodde.util.TreeInstrumentation.Counter;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * This test class contains the unit tests for {@link TreeInstrumentation}. 
+ * The build runs these tests in a separate JVM with the instrumentation 
+ * enabled, and the rest of the tests with the instrumentation disabled.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+public final class TreeInstrumentationTest {
+    
+    @Before
+    public void before() {
+        assertTrue(TreeInstrumentation.isEnabled());
+        TreeInstrumentation.reset();
+    }
+    
+    @Test
+    public void testStructureCounters() {
+        Tree<Integer> tree = new Tree<>();
+        TreeNode<Integer> a = tree.getPseudoRoot().addChild(1);
+        TreeNode<Integer> b = a.addChild(2);
+        TreeNode<Integer> c = b.addChild(3);
+        TreeNode<Integer> d = a.addChild(4);
+        
+        // The pseudoroot and the four nodes:
+        assertEquals(5, TreeInstrumentation.get(Counter.NODE_ALLOCATIONS));
+        
+        // Moving 'c' under 'd' walks from 'd' to the pseudoroot: 3 steps.
+        TreeInstrumentation.reset();
+        assertTrue(d.getChildren().add(c));
+        assertEquals(3, TreeInstrumentation.get(Counter.ANCESTOR_STEPS));
+        assertEquals(1, TreeInstrumentation.get(Counter.REPARENTS));
+        
+        // Adding a detached node is not a reparent.
+        TreeNode<Integer> e = d.addChild(5);
+        d.getChildren().remove(e);
+        b.getChildren().add(e);
+        assertEquals(1, TreeInstrumentation.get(Counter.REPARENTS));
+        assertEquals(1, TreeInstrumentation.get(Counter.REMOVALS));
+        
+        a.getChildren().retainAll(Collections.singleton(b));
+        assertEquals(2, TreeInstrumentation.get(Counter.REMOVALS));
+        
+        b.getChildren().clear();
+        assertEquals(1, TreeInstrumentation.get(Counter.CLEARS));
+        assertEquals(2, TreeInstrumentation.get(Counter.REMOVALS));
+        
+        TreeInstrumentation.reset();
+        
+        for (Counter counter : Counter.values()) {
+            assertEquals(0, TreeInstrumentation.get(counter));
+        }
+    }
+    
+    @Test
+    public void testPoolCounters() {
+        Tree<Integer> tree = new Tree<>();
+        tree.enableNodePool(10);
+        TreeNode<Integer> root = tree.getPseudoRoot().addChild(0);
+        root.addChild(1);
+        root.addChild(2);
+        tree.release(root);
+        tree.getPseudoRoot().addChild(3).addChild(4);
+        
+        assertEquals(3, TreeInstrumentation.get(Counter.RELEASED_NODES));
+        assertEquals(2, TreeInstrumentation.get(Counter.POOLED_ALLOCATIONS));
+    }
+    
+    @Test
+    public void testRenderCounters() {
+        Tree<Integer> tree = TreeTraversalTest.createBalancedTree(100, 3);
+        List<TreeToStringConverter<Integer>> converters = Arrays.asList(
+                new SimpleTreeToStringConverter<>(),
+                new StreamingTreeToStringConverter<>(),
+                new CachingTreeToStringConverter<>(tree));
+        
+        for (TreeToStringConverter<Integer> converter : converters) {
+            TreeInstrumentation.reset();
+            String text = converter.toString(tree);
+            assertEquals(100, 
+                         TreeInstrumentation.get(Counter.RENDERED_NODES));
+            assertEquals(text.length(), 
+                         TreeInstrumentation.get(
+                                 Counter.RENDERED_CHARACTERS));
+        }
+    }
+    
+    @Test
+    public void testRenderEvents() throws IOException {
+        Tree<Integer> tree = TreeTraversalTest.createBalancedTree(50, 2);
+        Path file = Files.createTempFile("tree", ".jfr");
+        
+        try (Recording recording = new Recording()) {
+            recording.enable("net.coderodde.util.TreeRender");
+            recording.start();
+            new StreamingTreeToStringConverter<Integer>().toString(tree);
+            recording.stop();
+            recording.dump(file);
+            
+            List<RecordedEvent> events = 
+                    RecordingFile.readAllEvents(file)
+                                 .stream()
+                                 .filter(event -> event.getEventType()
+                                                       .getName()
+                                                       .equals(
+                                         "net.coderodde.util.TreeRender"))
+                                 .collect(Collectors.toList());
+            
+            assertEquals(1, events.size());
+            assertEquals(50, events.get(0).getLong("nodes"));
+            assertEquals(StreamingTreeToStringConverter.class.getName(),
+                         events.get(0).getString("converter"));
+        } finally {
+            Files.delete(file);
+        }
+    }
+}
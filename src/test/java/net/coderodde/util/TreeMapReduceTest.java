@@ -0,0 +1,134 @@
+package net.coderodde.util;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.locks.LockSupport;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ * This test class contains the unit tests for {@link TreeMapReduce}.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+public final class TreeMapReduceTest {
+    
+    @Test
+    public void testSum() {
+        Tree<Integer> tree = TreeTraversalTest.createBalancedTree(100_000, 4);
+        long expected = tree.stream().mapToLong(TreeNode::getElement).sum();
+        
+        assertEquals(Long.valueOf(expected), 
+                     TreeMapReduce.mapReduce(tree, 
+                                             0L,
+                                             node -> (long) node.getElement(),
+                                             Long::sum));
+    }
+    
+    @Test
+    public void testCombinesInPreorder() {
+        Tree<Integer> tree = TreeTraversalTest.createBalancedTree(2_000, 3);
+        StringBuilder expected = new StringBuilder();
+        tree.stream().forEach(node -> expected.append(node.getElement())
+                                              .append(','));
+        
+        ForkJoinPool pool = new ForkJoinPool(4);
+        
+        try {
+            assertEquals(expected.toString(),
+                         TreeMapReduce.mapReduce(pool,
+                                                 tree,
+                                                 "",
+                                                 node -> node.getElement() + 
+                                                         ",",
+                                                 String::concat));
+        } finally {
+            pool.shutdown();
+        }
+    }
+    
+    /**
+     * The subtree sizes of a freshly built tree are stale; the work must be
+     * split nevertheless.
+     */
+    @Test
+    public void testFreshTreeRunsOnSeveralWorkers() {
+        Tree<Integer> tree = TreeTraversalTest.createBalancedTree(100_000, 4);
+        Set<Thread> threads = 
+                Collections.synchronizedSet(
+                        Collections.newSetFromMap(new IdentityHashMap<>()));
+        ForkJoinPool pool = new ForkJoinPool(4);
+        
+        try {
+            int size = TreeMapReduce.mapReduce(pool, 
+                                               tree,
+                                               0,
+                                               node -> {
+                threads.add(Thread.currentThread());
+                
+                // Slow down until another worker joins in:
+                if (threads.size() < 2) {
+                    LockSupport.parkNanos(100_000L);
+                }
+                
+                return 1;
+            }, Integer::sum);
+            
+            assertEquals(100_000, size);
+            assertTrue(threads.size() > 1);
+        } finally {
+            pool.shutdown();
+        }
+    }
+    
+    @Test
+    public void testSubtree() {
+        Tree<Integer> tree = new Tree<>();
+        TreeNode<Integer> root = tree.getPseudoRoot().addChild(1);
+        TreeNode<Integer> child = root.addChild(2);
+        child.addChild(3);
+        child.addChild(4);
+        root.addChild(5);
+        
+        assertEquals(Integer.valueOf(9), 
+                     TreeMapReduce.mapReduce(child, 
+                                             TreeNode::getElement, 
+                                             Integer::sum));
+    }
+    
+    @Test
+    public void testEmptyTree() {
+        assertEquals(Integer.valueOf(0), 
+                     TreeMapReduce.mapReduce(new Tree<Integer>(), 
+                                             0,
+                                             TreeNode::getElement, 
+                                             Integer::sum));
+    }
+    
+    @Test
+    public void testDeepChain() {
+        Tree<Integer> tree = new Tree<>();
+        TreeNode<Integer> node = tree.getPseudoRoot();
+        
+        for (int i = 0; i < 200_000; i++) {
+            node = node.addChild(1);
+        }
+        
+        assertEquals(Integer.valueOf(200_000),
+                     TreeMapReduce.mapReduce(tree,
+                                             0,
+                                             TreeNode::getElement,
+                                             Integer::sum));
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testRejectsPseudoRoot() {
+        TreeMapReduce.mapReduce(new Tree<Integer>().getPseudoRoot(), 
+                                TreeNode::getElement,
+                                Integer::sum);
+    }
+}
@@ -0,0 +1,231 @@
+package net.coderodde.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import static org.junit.Assert.assertEquals;
+import org.junit.Test;
+
+/**
+ * This test class contains the unit tests for the subtree sizes, heights and
+ * depths maintained by {@link TreeNode}.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+public final class TreeNodeAggregatesTest {
+    
+    @Test
+    public void testSimpleTree() {
+        Tree<Integer> tree = new Tree<>();
+        assertEquals(0, tree.size());
+        
+        TreeNode<Integer> a = tree.getPseudoRoot().addChild(1);
+        TreeNode<Integer> b = a.addChild(2);
+        TreeNode<Integer> c = b.addChild(3);
+        TreeNode<Integer> d = a.addChild(4);
+        tree.getPseudoRoot().addChild(5);
+        
+        assertEquals(5, tree.size());
+        assertEquals(4, a.getSubtreeSize());
+        assertEquals(2, b.getSubtreeSize());
+        assertEquals(1, d.getSubtreeSize());
+        assertEquals(2, a.getHeight());
+        assertEquals(0, c.getHeight());
+        assertEquals(0, a.getDepth());
+        assertEquals(2, c.getDepth());
+        
+        // Move 'b' under 'd':
+        d.getChildren().add(b);
+        assertEquals(3, d.getSubtreeSize());
+        assertEquals(3, a.getHeight());
+        assertEquals(3, c.getDepth());
+        assertEquals(2, b.getDepth());
+        
+        // Detach 'd':
+        a.getChildren().clear();
+        assertEquals(1, a.getSubtreeSize());
+        assertEquals(0, a.getHeight());
+        assertEquals(2, tree.size());
+        assertEquals(0, d.getDepth());
+        assertEquals(2, c.getDepth());
+        assertEquals(3, d.getSubtreeSize());
+    }
+    
+    @Test
+    public void testLongChain() {
+        Tree<Integer> tree = new Tree<>();
+        TreeNode<Integer> root = tree.getPseudoRoot().addChild(0);
+        TreeNode<Integer> node = root;
+        
+        for (int i = 1; i < 200_000; i++) {
+            node = node.addChild(i);
+        }
+        
+        assertEquals(200_000, tree.size());
+        assertEquals(199_999, root.getHeight());
+        assertEquals(199_999, node.getDepth());
+        
+        root.getChildren().iterator().next().getChildren().clear();
+        assertEquals(2, tree.size());
+        assertEquals(199_997, node.getDepth());
+    }
+    
+    @Test
+    public void testRandomOperationsAgainstBruteForce() {
+        Random random = new Random(7L);
+        Tree<Integer> tree = new Tree<>();
+        List<TreeNode<Integer>> nodes = new ArrayList<>();
+        
+        for (int i = 0; i < 200; i++) {
+            TreeNode<Integer> parent = 
+                    nodes.isEmpty() || random.nextInt(10) == 0 ?
+                    tree.getPseudoRoot() :
+                    nodes.get(random.nextInt(nodes.size()));
+            nodes.add(parent.addChild(i));
+        }
+        
+        for (int i = 0; i < 10_000; i++) {
+            TreeNode<Integer> x = nodes.get(random.nextInt(nodes.size()));
+            TreeNode<Integer> y = nodes.get(random.nextInt(nodes.size()));
+            
+            switch (random.nextInt(6)) {
+                case 0:
+                    if (!y.isAncestorOf(x) && x != y) {
+                        x.getChildren().add(y);
+                    }
+                    
+                    break;
+                
+                case 1:
+                    x.getChildren().remove(y);
+                    break;
+                
+                case 2:
+                    if (random.nextInt(10) == 0) {
+                        x.getChildren().retainAll(Arrays.asList(y));
+                    } else {
+                        tree.getPseudoRoot().getChildren().add(x);
+                    }
+                    
+                    break;
+                
+                case 3:
+                    nodes.add(x.addChild(nodes.size()));
+                    break;
+                
+                default:
+                    assertEquals(bruteForceSize(x), x.getSubtreeSize());
+                    assertEquals(bruteForceHeight(x), x.getHeight());
+                    assertEquals(bruteForceDepth(x), x.getDepth());
+                    assertEquals(bruteForceSize(tree.getPseudoRoot()) - 1, 
+                                 tree.size());
+            }
+        }
+    }
+    
+    /**
+     * Moves subtrees between a tree with hooks, a tree without hooks and 
+     * detached tree nodes, which validate their cached depths against 
+     * different versions.
+     */
+    @Test
+    public void testDepthsAcrossTrees() {
+        Random random = new Random(11L);
+        Tree<Integer> hookedTree = new Tree<>();
+        hookedTree.addChangeListener(changes -> {});
+        Tree<Integer> plainTree = new Tree<>();
+        List<TreeNode<Integer>> nodes = new ArrayList<>();
+        
+        for (int i = 0; i < 300; i++) {
+            TreeNode<Integer> parent;
+            
+            switch (i < 3 ? i : random.nextInt(8)) {
+                case 0:
+                    parent = hookedTree.getPseudoRoot();
+                    break;
+                
+                case 1:
+                    parent = plainTree.getPseudoRoot();
+                    break;
+                
+                case 2:
+                    parent = new TreeNode<>(-1);
+                    break;
+                
+                default:
+                    parent = nodes.get(random.nextInt(nodes.size()));
+            }
+            
+            nodes.add(parent.addChild(i));
+        }
+        
+        for (int i = 0; i < 20_000; i++) {
+            TreeNode<Integer> x = nodes.get(random.nextInt(nodes.size()));
+            TreeNode<Integer> y = nodes.get(random.nextInt(nodes.size()));
+            
+            switch (random.nextInt(4)) {
+                case 0:
+                    if (!y.isAncestorOf(x) && x != y) {
+                        x.getChildren().add(y);
+                    }
+                    
+                    break;
+                
+                case 1:
+                    (random.nextBoolean() ? hookedTree : plainTree)
+                            .getPseudoRoot().getChildren().add(x);
+                    break;
+                
+                default:
+                    assertEquals(bruteForceDepth(x), x.getDepth());
+                    assertEquals(bruteForceDepth(y), y.getDepth());
+            }
+        }
+    }
+    
+    @Test
+    public void testParallelDepths() {
+        Random random = new Random(5L);
+        Tree<Integer> tree = new Tree<>();
+        List<TreeNode<Integer>> nodes = new ArrayList<>();
+        nodes.add(tree.getPseudoRoot());
+        
+        for (int i = 0; i < 20_000; i++) {
+            nodes.add(nodes.get(random.nextInt(nodes.size())).addChild(i));
+        }
+        
+        for (int round = 0; round < 20; round++) {
+            // Drop the cached depths:
+            TreeNode<Integer> node = nodes.get(1 + random.nextInt(20_000));
+            tree.getPseudoRoot().getChildren().add(node);
+            
+            assertEquals(tree.stream()
+                             .mapToLong(TreeNodeAggregatesTest::bruteForceDepth)
+                             .sum(),
+                         tree.parallelStream()
+                             .mapToLong(TreeNode::getDepth)
+                             .sum());
+        }
+    }
+    
+    private static int bruteForceSize(TreeNode<Integer> node) {
+        return (int) node.preorderStream().count() + 
+               (node.isPseudoRoot() ? 1 : 0);
+    }
+    
+    private static int bruteForceHeight(TreeNode<Integer> node) {
+        int height = 0;
+        
+        for (TreeNode<Integer> child : node.getChildren()) {
+            height = Math.max(height, bruteForceHeight(child) + 1);
+        }
+        
+        return height;
+    }
+    
+    private static int bruteForceDepth(TreeNode<Integer> node) {
+        return (int) node.ancestorStream().count();
+    }
+}
@@ -0,0 +1,267 @@
+package net.coderodde.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.List;
+import java.util.Random;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+import org.junit.Test;
+
+/**
+ * This test class contains the unit tests for the positional operations of
+ * {@link TreeNodeChildrenView} and for {@link TreeNodeChildIndex}.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+public final class TreeNodeChildIndexTest {
+    
+    @Test
+    public void testGetAndIndexOf() {
+        for (int size : new int[]{ 0, 1, 5, 1000 }) {
+            TreeNode<Integer> parent = new TreeNode<>(-1);
+            
+            for (int i = 0; i < size; i++) {
+                parent.addChild(i);
+            }
+            
+            TreeNodeChildrenView<Integer> children = parent.getChildren();
+            
+            for (int i = 0; i < size; i++) {
+                TreeNode<Integer> child = children.get(i);
+                assertEquals(Integer.valueOf(i), child.getElement());
+                assertEquals(i, children.indexOf(child));
+            }
+            
+            assertEquals(-1, children.indexOf(new TreeNode<>(0)));
+            assertEquals(-1, children.indexOf("0"));
+            assertEquals(-1, children.indexOf(null));
+        }
+    }
+    
+    @Test
+    public void testInsert() {
+        TreeNode<String> parent = new TreeNode<>("p");
+        TreeNodeChildrenView<String> children = parent.getChildren();
+        children.insert(0, new TreeNode<>("b"));
+        children.insert(0, new TreeNode<>("a"));
+        children.insert(2, new TreeNode<>("d"));
+        children.insert(2, new TreeNode<>("c"));
+        assertEquals(Arrays.asList("a", "b", "c", "d"), elements(parent));
+        
+        // Inserting a child from another parent moves it here:
+        TreeNode<String> other = new TreeNode<>("q");
+        TreeNode<String> x = other.addChild("x");
+        children.insert(1, x);
+        assertSame(parent, x.getParent());
+        assertEquals(0, other.getChildren().size());
+        assertEquals(Arrays.asList("a", "x", "b", "c", "d"), elements(parent));
+        
+        // Inserting an existing child moves it to the index:
+        children.insert(4, x);
+        assertEquals(Arrays.asList("a", "b", "c", "d", "x"), elements(parent));
+        assertEquals(6, parent.getSubtreeSize());
+    }
+    
+    @Test
+    public void testMove() {
+        TreeNode<String> parent = new TreeNode<>("p");
+        
+        for (String s : new String[]{ "a", "b", "c", "d" }) {
+            parent.addChild(s);
+        }
+        
+        TreeNodeChildrenView<String> children = parent.getChildren();
+        children.move(0, 3);
+        assertEquals(Arrays.asList("b", "c", "d", "a"), elements(parent));
+        children.move(3, 0);
+        assertEquals(Arrays.asList("a", "b", "c", "d"), elements(parent));
+        children.move(1, 2);
+        assertEquals(Arrays.asList("a", "c", "b", "d"), elements(parent));
+        children.move(2, 2);
+        assertEquals(Arrays.asList("a", "c", "b", "d"), elements(parent));
+    }
+    
+    @Test
+    public void testOutOfRangeThrows() {
+        TreeNode<String> parent = new TreeNode<>("p");
+        parent.addChild("a");
+        TreeNodeChildrenView<String> children = parent.getChildren();
+        
+        for (Runnable operation : Arrays.<Runnable>asList(
+                () -> children.get(1),
+                () -> children.get(-1),
+                () -> children.insert(2, new TreeNode<>("b")),
+                () -> children.move(0, 1),
+                () -> children.subList(0, 2),
+                () -> children.subList(1, 0))) {
+            try {
+                operation.run();
+                fail("The index was accepted.");
+            } catch (IndexOutOfBoundsException ex) {
+            }
+        }
+    }
+    
+    @Test(expected = IllegalStateException.class)
+    public void testInsertAncestorThrows() {
+        TreeNode<String> parent = new TreeNode<>("p");
+        TreeNode<String> child = parent.addChild("c");
+        child.getChildren().insert(0, parent);
+    }
+    
+    @Test
+    public void testSubList() {
+        TreeNode<Integer> parent = new TreeNode<>(-1);
+        
+        for (int i = 0; i < 100; i++) {
+            parent.addChild(i);
+        }
+        
+        List<TreeNode<Integer>> page = parent.getChildren().subList(40, 50);
+        assertEquals(10, page.size());
+        assertEquals(Integer.valueOf(45), page.get(5).getElement());
+        List<Integer> elements = new ArrayList<>();
+        page.forEach(node -> elements.add(node.getElement()));
+        assertEquals(Arrays.asList(40, 41, 42, 43, 44, 45, 46, 47, 48, 49),
+                     elements);
+        assertEquals(Integer.valueOf(42),
+                     page.subList(2, 4).get(0).getElement());
+        assertEquals(0, parent.getChildren().subList(7, 7).size());
+        
+        try {
+            page.add(new TreeNode<>(0));
+            fail("The range view is modifiable.");
+        } catch (UnsupportedOperationException ex) {
+        }
+        
+        parent.addChild(100);
+        
+        try {
+            page.get(0);
+            fail("The range view did not detect the modification.");
+        } catch (ConcurrentModificationException ex) {
+        }
+    }
+    
+    @Test
+    public void testToArray() {
+        TreeNode<String> parent = new TreeNode<>("p");
+        TreeNode<String> a = parent.addChild("a");
+        TreeNode<String> b = parent.addChild("b");
+        TreeNodeChildrenView<String> children = parent.getChildren();
+        
+        assertArrayEquals(new Object[]{ a, b }, children.toArray());
+        
+        TreeNode<?>[] array = children.toArray(new TreeNode<?>[0]);
+        assertEquals(TreeNode[].class, array.getClass());
+        assertArrayEquals(new TreeNode<?>[]{ a, b }, array);
+        
+        TreeNode<?>[] larger = new TreeNode<?>[]{ b, b, b, b };
+        assertSame(larger, children.toArray(larger));
+        assertSame(a, larger[0]);
+        assertSame(b, larger[1]);
+        assertNull(larger[2]);
+    }
+    
+    /**
+     * Applies random positional and set operations, through the view and
+     * directly on the tree nodes, to a wide tree node and compares its
+     * children to a list after each one.
+     */
+    @Test
+    public void testAgainstList() {
+        Random random = new Random(24L);
+        TreeNode<Integer> parent = new TreeNode<>(-1);
+        TreeNode<Integer> elsewhere = new TreeNode<>(-2);
+        TreeNodeChildrenView<Integer> children = parent.getChildren();
+        List<TreeNode<Integer>> expected = new ArrayList<>();
+        
+        for (int i = 0; i < 200; i++) {
+            expected.add(parent.addChild(i));
+        }
+        
+        for (int operation = 0; operation < 20_000; operation++) {
+            int size = expected.size();
+            
+            switch (random.nextInt(size == 0 ? 3 : 8)) {
+                case 0:
+                case 1: {
+                    TreeNode<Integer> node = new TreeNode<>(operation);
+                    int index = random.nextInt(size + 1);
+                    children.insert(index, node);
+                    expected.add(index, node);
+                    break;
+                }
+                
+                case 2: {
+                    expected.add(parent.addChild(operation));
+                    break;
+                }
+                
+                case 3: {
+                    int from = random.nextInt(size);
+                    int to = random.nextInt(size);
+                    children.move(from, to);
+                    expected.add(to, expected.remove(from));
+                    break;
+                }
+                
+                case 4: {
+                    TreeNode<Integer> node =
+                            expected.remove(random.nextInt(size));
+                    children.remove(node);
+                    break;
+                }
+                
+                case 5: {
+                    // Reparent to and from another tree node:
+                    TreeNode<Integer> node =
+                            expected.remove(random.nextInt(size));
+                    elsewhere.getChildren().add(node);
+                    int index = random.nextInt(size);
+                    children.insert(index, node);
+                    expected.add(index, node);
+                    break;
+                }
+                
+                default: {
+                    int index = random.nextInt(size);
+                    assertSame(expected.get(index), children.get(index));
+                    assertEquals(index,
+                                 children.indexOf(expected.get(index)));
+                    break;
+                }
+            }
+            
+            assertEquals(expected.size(), children.size());
+        }
+        
+        assertEquals(expected, Arrays.asList(children.toArray()));
+        
+        for (int i = 0; i < expected.size(); i++) {
+            assertSame(expected.get(i), children.get(i));
+            assertEquals(i, children.indexOf(expected.get(i)));
+        }
+        
+        children.clear();
+        assertEquals(0, children.subList(0, 0).size());
+        children.insert(0, new TreeNode<>(1));
+        assertEquals(Integer.valueOf(1), children.get(0).getElement());
+    }
+    
+    private static <E> List<E> elements(TreeNode<E> parent) {
+        List<E> elements = new ArrayList<>();
+        
+        for (TreeNode<E> child : parent.getChildren()) {
+            elements.add(child.getElement());
+        }
+        
+        return elements;
+    }
+}
@@ -0,0 +1,98 @@
+package net.coderodde.util;
+
+import java.lang.management.ManagementFactory;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * This test class measures the number of bytes allocated per tree node. With
+ * the child sets backed by {@link java.util.LinkedHashSet}, a node cost about
+ * 110 bytes in a star and 130 bytes in a balanced tree, and about 260 bytes in
+ * a chain (in which every node had its own child set). With the intrusive 
+ * child lists, every node costs a single {@link TreeNode} object regardless of
+ * the shape of the tree.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+public final class TreeNodeFootprintTest {
+    
+    /**
+     * The number of nodes to allocate per measurement.
+     */
+    private static final int NODES = 100_000;
+    
+    /**
+     * The upper bound on the number of bytes per node. A {@link TreeNode} with
+     * compressed references takes 80 bytes.
+     */
+    private static final long MAXIMUM_BYTES_PER_NODE = 80;
+    
+    private com.sun.management.ThreadMXBean threadMXBean;
+    
+    @Before
+    public void before() {
+        assumeTrue(ManagementFactory.getThreadMXBean() 
+                instanceof com.sun.management.ThreadMXBean);
+        
+        threadMXBean = (com.sun.management.ThreadMXBean) 
+                ManagementFactory.getThreadMXBean();
+        
+        assumeTrue(threadMXBean.isThreadAllocatedMemorySupported());
+        threadMXBean.setThreadAllocatedMemoryEnabled(true);
+    }
+    
+    @Test
+    public void testStarFootprint() {
+        Tree<Object> tree = new Tree<>();
+        TreeNode<Object> root = tree.getPseudoRoot().addChild(null);
+        long before = allocatedBytes();
+        
+        for (int i = 0; i < NODES; i++) {
+            root.addChild(null);
+        }
+        
+        assertFootprint(allocatedBytes() - before);
+    }
+    
+    @Test
+    public void testChainFootprint() {
+        Tree<Object> tree = new Tree<>();
+        TreeNode<Object> node = tree.getPseudoRoot().addChild(null);
+        long before = allocatedBytes();
+        
+        for (int i = 0; i < NODES; i++) {
+            node = node.addChild(null);
+        }
+        
+        assertFootprint(allocatedBytes() - before);
+    }
+    
+    @Test
+    public void testLeavesAllocateNothingOnQueries() {
+        Tree<Object> tree = new Tree<>();
+        TreeNode<Object> leaf = tree.getPseudoRoot().addChild(null);
+        leaf.getChildren();
+        long before = allocatedBytes();
+        
+        for (int i = 0; i < NODES; i++) {
+            assertTrue(leaf.getChildren().isEmpty());
+        }
+        
+        assertTrue(allocatedBytes() - before < NODES);
+    }
+    
+    private void assertFootprint(long bytes) {
+        long bytesPerNode = bytes / NODES;
+        assertTrue("Expected at most " + MAXIMUM_BYTES_PER_NODE + 
+                   " bytes per node, got " + bytesPerNode + ".",
+                   bytesPerNode <= MAXIMUM_BYTES_PER_NODE);
+    }
+    
+    private long allocatedBytes() {
+        return threadMXBean.getThreadAllocatedBytes(
+                Thread.currentThread().getId());
+    }
+}
@@ -0,0 +1,278 @@
+package net.coderodde.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.ConcurrentModificationException;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import org.junit.Test;
+
+/**
+ * This test class contains the unit tests for the node pool of a
+ * {@link Tree} and {@link Tree#release(TreeNode)}.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+public final class TreeNodePoolTest {
+    
+    @Test
+    public void testReleaseClearsTheSubtree() {
+        Tree<Integer> tree = TreeTraversalTest.createBalancedTree(40, 3);
+        TreeNode<Integer> root = tree.getPseudoRoot().getChildren().get(0);
+        TreeNode<Integer> child = root.getChildren().get(1);
+        List<TreeNode<Integer>> released = subtree(child);
+        int size = tree.size();
+        
+        tree.release(child);
+        
+        assertEquals(size - released.size(), tree.size());
+        assertFalse(root.getChildren().contains(child));
+        assertFalse(tree.isNodePoolEnabled());
+        assertEquals(0, tree.getPooledNodeCount());
+        
+        for (TreeNode<Integer> node : released) {
+            assertNull(node.getParent());
+            assertNull(node.getElement());
+            assertTrue(node.getChildren().isEmpty());
+            assertEquals(1, node.getSubtreeSize());
+            assertEquals(0, node.getHeight());
+            assertEquals(0, node.getDepth());
+        }
+    }
+    
+    @Test
+    public void testReleasedNodesAreReused() {
+        Tree<String> tree = new Tree<>();
+        tree.enableNodePool(100);
+        assertTrue(tree.isNodePoolEnabled());
+        TreeNode<String> a = tree.getPseudoRoot().addChild("a");
+        TreeNode<String> b = a.addChild("b");
+        b.addChild("c");
+        b.addChild("d");
+        Set<TreeNode<String>> released =
+                Collections.newSetFromMap(new IdentityHashMap<>());
+        released.addAll(subtree(b));
+        
+        tree.release(b);
+        assertEquals(3, tree.getPooledNodeCount());
+        
+        TreeNode<String> x = a.addChild("x");
+        TreeNode<String> y = x.addChild("y");
+        TreeNode<String> z = y.addChild("z");
+        TreeNode<String> w = z.addChild("w");
+        
+        assertTrue(released.contains(x));
+        assertTrue(released.contains(y));
+        assertTrue(released.contains(z));
+        assertFalse(released.contains(w));
+        assertEquals(0, tree.getPooledNodeCount());
+        assertEquals("z", z.getElement());
+        assertEquals(3, z.getDepth());
+        assertEquals(3, x.getHeight());
+        assertEquals(5, tree.size());
+        assertEquals("a\n" +
+                     " x\n" +
+                     "  y\n" +
+                     "   z\n" +
+                     "    w\n",
+                     new StreamingTreeToStringConverter<String>()
+                             .toString(tree));
+    }
+    
+    @Test
+    public void testCapacity() {
+        Tree<Integer> tree = new Tree<>();
+        tree.enableNodePool(5);
+        TreeNode<Integer> root = tree.getPseudoRoot().addChild(0);
+        
+        for (int i = 1; i <= 10; i++) {
+            root.addChild(i);
+        }
+        
+        tree.release(root);
+        assertEquals(5, tree.getPooledNodeCount());
+        
+        tree.disableNodePool();
+        assertFalse(tree.isNodePoolEnabled());
+        assertEquals(0, tree.getPooledNodeCount());
+    }
+    
+    @Test
+    public void testEnablingTwiceThrows() {
+        Tree<Integer> tree = new Tree<>();
+        tree.enableNodePool(0);
+        
+        try {
+            tree.enableNodePool(1);
+            fail("The node pool was enabled twice.");
+        } catch (IllegalStateException ex) {
+        }
+        
+        try {
+            new Tree<Integer>().enableNodePool(-1);
+            fail("A negative capacity was accepted.");
+        } catch (IllegalArgumentException ex) {
+        }
+    }
+    
+    @Test
+    public void testReleasingForeignNodesThrows() {
+        Tree<Integer> tree = new Tree<>();
+        Tree<Integer> other = new Tree<>();
+        other.enableNodePool(10);
+        TreeNode<Integer> node = tree.getPseudoRoot().addChild(1);
+        TreeNode<Integer> otherNode = other.getPseudoRoot().addChild(2);
+        TreeNode<Integer> detached = new TreeNode<>(3);
+        List<Runnable> releases = new ArrayList<>();
+        releases.add(() -> tree.release(tree.getPseudoRoot()));
+        releases.add(() -> tree.release(otherNode));
+        releases.add(() -> tree.release(detached));
+        releases.add(() -> other.release(node));
+        releases.add(() -> other.release(detached));
+        
+        for (Runnable release : releases) {
+            try {
+                release.run();
+                fail("A foreign tree node was released.");
+            } catch (IllegalArgumentException ex) {
+            }
+        }
+        
+        assertEquals(1, tree.size());
+        assertEquals(1, other.size());
+    }
+    
+    @Test
+    public void testIndexesAndListeners() {
+        Tree<String> tree = new Tree<>();
+        TreeElementIndex<String, ?> index =
+                tree.enableElementIndex(s -> s, true);
+        tree.enableAncestorIndex();
+        tree.enableNodePool(10);
+        List<TreeChange<String>> changes = new ArrayList<>();
+        TreeNode<String> a = tree.getPseudoRoot().addChild("a");
+        TreeNode<String> b = a.addChild("b");
+        b.addChild("c");
+        tree.addChangeListener(changes::addAll);
+        
+        tree.release(b);
+        
+        assertEquals(1, changes.size());
+        assertEquals(TreeChange.Type.REMOVED, changes.get(0).getType());
+        assertSame(b, changes.get(0).getNode());
+        assertFalse(index.containsKey("b"));
+        assertFalse(index.containsKey("c"));
+        
+        // The reused tree nodes are indexed again:
+        TreeNode<String> c = a.addChild("c");
+        TreeNode<String> d = c.addChild("d");
+        assertSame(c, index.get("c"));
+        assertSame(d, index.get("d"));
+        assertTrue(a.isAncestorOf(d));
+        assertFalse(d.isAncestorOf(a));
+        
+        try {
+            a.addChild("d");
+            fail("A duplicate key was accepted.");
+        } catch (IllegalArgumentException ex) {
+        }
+        
+        assertEquals(3, tree.size());
+    }
+    
+    /**
+     * The caches walk a removed subtree to drop its entries, so the released
+     * subtrees must reach the listeners intact, also in transactions.
+     */
+    @Test
+    public void testCachesAcrossReleaseCycles() {
+        Tree<Integer> tree = new Tree<>();
+        tree.enableNodePool(1000);
+        TreeNode<Integer> root = tree.getPseudoRoot().addChild(0);
+        TreeHashCache<Integer> hashCache = new TreeHashCache<>(tree);
+        CachingTreeToStringConverter<Integer> converter =
+                new CachingTreeToStringConverter<>(tree);
+        List<TreeChange<Integer>> changes = new ArrayList<>();
+        tree.addChangeListener(batch -> {
+            for (TreeChange<Integer> change : batch) {
+                if (change.getType() == TreeChange.Type.REMOVED) {
+                    // The removed subtree is still intact:
+                    assertEquals(100, change.getNode().getSubtreeSize());
+                    assertEquals(Integer.valueOf(1), 
+                                 change.getNode().getElement());
+                }
+            }
+            
+            changes.addAll(batch);
+        });
+        
+        for (int cycle = 0; cycle < 10; cycle++) {
+            TreeNode<Integer> subtree = root.addChild(1);
+            
+            for (int i = 0; i < 99; i++) {
+                subtree.addChild(i);
+            }
+            
+            hashCache.getTreeHash();
+            converter.toString(tree);
+            assertEquals(102, hashCache.size());
+            assertEquals(102, converter.size());
+            
+            if (cycle % 2 == 0) {
+                tree.release(subtree);
+            } else {
+                try (TreeTransaction transaction = tree.beginTransaction()) {
+                    tree.release(subtree);
+                    
+                    // The subtree is released on commit:
+                    assertEquals(Integer.valueOf(1), subtree.getElement());
+                }
+                
+                assertNull(subtree.getElement());
+            }
+            
+            assertEquals(0, hashCache.size());
+            assertEquals(2, converter.size());
+            assertEquals("0\n", converter.toString(tree));
+        }
+        
+        assertEquals(100, tree.getPooledNodeCount());
+        assertEquals(10, changes.stream()
+                                .filter(change -> change.getType() == 
+                                                  TreeChange.Type.REMOVED)
+                                .count());
+    }
+    
+    @Test
+    public void testIteratorOverReleasedNodeFailsFast() {
+        Tree<Integer> tree = new Tree<>();
+        TreeNode<Integer> root = tree.getPseudoRoot().addChild(0);
+        TreeNode<Integer> child = root.addChild(1);
+        child.addChild(2);
+        Iterator<TreeNode<Integer>> iterator =
+                child.getChildren().iterator();
+        
+        tree.release(root);
+        
+        try {
+            iterator.next();
+            fail("The iterator did not detect the release.");
+        } catch (ConcurrentModificationException ex) {
+        }
+    }
+    
+    private static <E> List<TreeNode<E>> subtree(TreeNode<E> node) {
+        List<TreeNode<E>> nodes = new ArrayList<>();
+        node.preorderIterator().forEachRemaining(nodes::add);
+        return nodes;
+    }
+}
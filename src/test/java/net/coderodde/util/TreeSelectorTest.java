@@ -0,0 +1,269 @@
+package net.coderodde.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * This test class contains the unit tests for {@link TreeSelector} and
+ * {@link TreeSelectorCompiler}.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+public final class TreeSelectorTest {
+    
+    private Tree<String> tree;
+    private TreeNode<String> root;
+    private TreeNode<String> config;
+    
+    /**
+     * Builds the tree
+     * <pre>
+     * root
+     *   a
+     *     config
+     *       x
+     *         y
+     *     other
+     *   b
+     *     config
+     * other
+     *   a
+     *     config
+     * </pre>
+     */
+    @Before
+    public void before() {
+        tree = new Tree<>();
+        root = tree.getPseudoRoot().addChild("root");
+        TreeNode<String> a = root.addChild("a");
+        config = a.addChild("config");
+        config.addChild("x").addChild("y");
+        a.addChild("other");
+        root.addChild("b").addChild("config");
+        tree.getPseudoRoot().addChild("other").addChild("a")
+                                              .addChild("config");
+    }
+    
+    @Test
+    public void testChildSteps() {
+        assertEquals(Arrays.asList("root"), select("root"));
+        assertEquals(Arrays.asList("a", "b"), select("root/*"));
+        assertEquals(Arrays.asList("config", "config"),
+                     select("root/*/config"));
+        assertEquals(Arrays.asList("config"), select("other/a/config"));
+        assertEquals(Arrays.asList("a", "a"), select("*/a"));
+        assertTrue(select("root/config").isEmpty());
+        assertTrue(select("root/a/config/x/y/*").isEmpty());
+    }
+    
+    @Test
+    public void testDescendantSteps() {
+        assertEquals(Arrays.asList("config", "x", "y", "config"),
+                     select("root/*/config/**"));
+        assertEquals(Arrays.asList("config", "config", "config"),
+                     select("**/config"));
+        assertEquals(tree.size(), select("**").size());
+        assertEquals(Arrays.asList("y"), select("root/**/y"));
+        assertEquals(Arrays.asList("config", "config"),
+                     select("root/**/config"));
+    }
+    
+    @Test
+    public void testLevelLimits() {
+        assertEquals(Arrays.asList("root", "other"), select("**{1}"));
+        assertEquals(Arrays.asList("x"), select("root/**{2}/x"));
+        assertTrue(select("root/**{3}/x").isEmpty());
+        assertEquals(Arrays.asList("config", "x", "config"),
+                     select("root/*/config/**{,1}"));
+        assertEquals(Arrays.asList("x", "y"),
+                     select("root/*/config/**{1,}"));
+        assertEquals(Arrays.asList("a", "config", "other", "b", "config"),
+                     select("root/**{1,2}"));
+        assertEquals(Arrays.asList("y"), select("**{4,}/y"));
+        assertTrue(select("**{5,}/y").isEmpty());
+    }
+    
+    @Test
+    public void testPredicates() {
+        TreeSelectorCompiler<String> compiler = new TreeSelectorCompiler<>();
+        compiler.definePredicate("short", s -> s.length() == 1);
+        compiler.definePredicate("configured", s -> s.startsWith("conf"));
+        
+        assertEquals(Arrays.asList("a", "x", "y", "b", "a"),
+                     names(compiler.compile("**/*[short]")));
+        assertEquals(Arrays.asList("a", "b"),
+                     names(compiler.compile("root/*[short]")));
+        assertEquals(Arrays.asList("other"),
+                     names(compiler.compile("root/*/*[!configured]")));
+        // The predicate of '**' holds on every level it matches:
+        assertEquals(Arrays.asList("root", "a", "b", "other", "a"),
+                     names(compiler.compile("*/**[short]")));
+        assertTrue(names(compiler.compile("**[short]")).isEmpty());
+        assertTrue(names(compiler.compile("**[short][configured]"))
+                           .isEmpty());
+    }
+    
+    @Test
+    public void testCustomNamer() {
+        TreeSelectorCompiler<String> compiler =
+                new TreeSelectorCompiler<>(s -> s.toUpperCase(), 4);
+        assertEquals(Arrays.asList("config", "config"),
+                     names(compiler.compile("ROOT/*/CONFIG")));
+    }
+    
+    @Test
+    public void testEscapes() {
+        Tree<String> tree = new Tree<>();
+        tree.getPseudoRoot().addChild("a/b").addChild("*");
+        TreeSelector<String> selector = TreeSelector.compile("a\\/b/\\*");
+        assertEquals(Arrays.asList("*"),
+                     selector.select(tree)
+                             .map(TreeNode::getElement)
+                             .collect(Collectors.toList()));
+    }
+    
+    @Test
+    public void testSelectFromContextNode() {
+        TreeSelector<String> selector = TreeSelector.compile("*/config");
+        List<TreeNode<String>> matches =
+                selector.select(root).collect(Collectors.toList());
+        assertEquals(2, matches.size());
+        assertSame(config, matches.get(0));
+        assertSame(config,
+                   TreeSelector.<String>compile("root/*/config")
+                               .selectFirst(tree)
+                               .get());
+        assertFalse(TreeSelector.<String>compile("nothing")
+                                .selectFirst(tree)
+                                .isPresent());
+    }
+    
+    @Test
+    public void testMatches() {
+        TreeSelector<String> selector =
+                TreeSelector.compile("root/*/config/**");
+        Iterator<TreeNode<String>> iterator = tree.preorderIterator();
+        
+        while (iterator.hasNext()) {
+            TreeNode<String> node = iterator.next();
+            boolean selected = selector.select(tree)
+                                       .anyMatch(match -> match == node);
+            assertEquals(selected, selector.matches(node));
+        }
+        
+        assertFalse(selector.matches(tree.getPseudoRoot()));
+    }
+    
+    @Test
+    public void testMatchesAgreeWithSelectionOnRandomTrees() {
+        Random random = new Random(23L);
+        String[] patterns = {
+            "**/1/*", "0/**{1,3}/2", "*/*/**{2,}", "**/0/**/1/**", "2/**{,2}"
+        };
+        
+        for (int iteration = 0; iteration < 10; iteration++) {
+            Tree<Integer> tree = new Tree<>();
+            List<TreeNode<Integer>> nodes = new ArrayList<>();
+            nodes.add(tree.getPseudoRoot());
+            
+            for (int i = 0; i < 500; i++) {
+                TreeNode<Integer> parent =
+                        nodes.get(random.nextInt(nodes.size()));
+                nodes.add(parent.addChild(random.nextInt(3)));
+            }
+            
+            for (String pattern : patterns) {
+                TreeSelector<Integer> selector = TreeSelector.compile(pattern);
+                List<TreeNode<Integer>> expected = new ArrayList<>();
+                tree.preorderIterator().forEachRemaining(node -> {
+                    if (selector.matches(node)) {
+                        expected.add(node);
+                    }
+                });
+                
+                assertEquals(expected,
+                             selector.select(tree)
+                                     .collect(Collectors.toList()));
+            }
+        }
+    }
+    
+    @Test
+    public void testDeepChain() {
+        Tree<String> tree = new Tree<>();
+        TreeNode<String> node = tree.getPseudoRoot();
+        
+        for (int i = 0; i < 100_000; i++) {
+            node = node.addChild(i % 1000 == 0 ? "mark" : "node");
+        }
+        
+        TreeSelector<String> marks = TreeSelector.compile("**/mark");
+        assertEquals(100, marks.select(tree).count());
+        // The subtree below the fourth level is not visited:
+        TreeSelector<String> shallow = TreeSelector.compile("*/*/*/mark");
+        assertEquals(0, shallow.select(tree).count());
+    }
+    
+    @Test
+    public void testCache() {
+        TreeSelectorCompiler<String> compiler =
+                new TreeSelectorCompiler<>(String::valueOf, 2);
+        TreeSelector<String> selector = compiler.compile("a/b");
+        assertSame(selector, compiler.compile("a/b"));
+        compiler.compile("c");
+        compiler.compile("a/b");
+        compiler.compile("d");
+        // "c" was the least recently used one:
+        assertEquals(2, compiler.getCacheSize());
+        assertSame(selector, compiler.compile("a/b"));
+        
+        compiler.definePredicate("p", s -> true);
+        assertEquals(0, compiler.getCacheSize());
+        assertTrue(selector != compiler.compile("a/b"));
+    }
+    
+    @Test
+    public void testMalformedPatterns() {
+        TreeSelectorCompiler<String> compiler = new TreeSelectorCompiler<>();
+        String[] patterns = {
+            "", "a//b", "/a", "a/", "a*", "**{2,1}", "**{x}", "**{1",
+            "a[p]", "a[p", "a]", "\\", "*x"
+        };
+        
+        for (String pattern : patterns) {
+            try {
+                compiler.compile(pattern);
+                fail("Pattern \"" + pattern + "\" was accepted.");
+            } catch (IllegalArgumentException ex) {
+                assertTrue(ex.getMessage().contains(pattern));
+            }
+        }
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testTooManyStepsThrows() {
+        TreeSelector.compile("**{64}");
+    }
+    
+    private List<String> select(String pattern) {
+        return names(TreeSelector.compile(pattern));
+    }
+    
+    private List<String> names(TreeSelector<String> selector) {
+        return selector.select(tree)
+                       .map(TreeNode::getElement)
+                       .collect(Collectors.toList());
+    }
+}
@@ -3,6 +3,7 @@ package net.coderodde.util;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.ConcurrentModificationException;
 import java.util.Iterator;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
@@ -275,4 +276,110 @@ public final class TreeTest {
         assertEquals(0, root.getChildren().size());
         assertTrue(root.getChildren().isEmpty());
     }
+    
+    @Test
+    public void testClearDetachesChildren() {
+        Tree<Integer> tree = new Tree<>();
+        TreeNode<Integer> root = tree.getPseudoRoot().addChild(1);
+        TreeNode<Integer> child1 = root.addChild(11);
+        TreeNode<Integer> child2 = root.addChild(12);
+        
+        root.getChildren().clear();
+        
+        assertNull(child1.parent);
+        assertNull(child2.parent);
+        
+        // The cleared children may be attached elsewhere:
+        assertTrue(tree.getPseudoRoot().getChildren().add(child1));
+        assertTrue(tree.getPseudoRoot().getChildren().contains(child1));
+    }
+    
+    @Test
+    public void testRemoveOfNonChildDoesNotDetachIt() {
+        Tree<Integer> tree = new Tree<>();
+        TreeNode<Integer> root1 = tree.getPseudoRoot().addChild(1);
+        TreeNode<Integer> root2 = tree.getPseudoRoot().addChild(2);
+        TreeNode<Integer> child = root1.addChild(11);
+        
+        assertFalse(root2.getChildren().remove(child));
+        assertEquals(root1, child.parent);
+        assertTrue(root1.getChildren().contains(child));
+    }
+    
+    @Test
+    public void testRemoveAllAndRetainAllDetachChildren() {
+        Tree<Integer> tree = new Tree<>();
+        TreeNode<Integer> root = tree.getPseudoRoot().addChild(1);
+        TreeNode<Integer> child1 = root.addChild(11);
+        TreeNode<Integer> child2 = root.addChild(12);
+        TreeNode<Integer> child3 = root.addChild(13);
+        
+        assertTrue(root.getChildren().removeAll(Arrays.asList(child1)));
+        assertNull(child1.parent);
+        
+        assertTrue(root.getChildren().retainAll(Arrays.asList(child3)));
+        assertNull(child2.parent);
+        assertEquals(root, child3.parent);
+        assertEquals(1, root.getChildren().size());
+    }
+    
+    @Test
+    public void testReparentingKeepsInsertionOrder() {
+        Tree<Integer> tree = new Tree<>();
+        TreeNode<Integer> root1 = tree.getPseudoRoot().addChild(1);
+        TreeNode<Integer> root2 = tree.getPseudoRoot().addChild(2);
+        TreeNode<Integer> child1 = root1.addChild(11);
+        TreeNode<Integer> child2 = root1.addChild(12);
+        TreeNode<Integer> child3 = root1.addChild(13);
+        TreeNode<Integer> child4 = root2.addChild(21);
+        
+        assertTrue(root2.getChildren().add(child2));
+        
+        Iterator<TreeNode<Integer>> iterator = root1.getChildren().iterator();
+        assertEquals(child1, iterator.next());
+        assertEquals(child3, iterator.next());
+        assertFalse(iterator.hasNext());
+        
+        iterator = root2.getChildren().iterator();
+        assertEquals(child4, iterator.next());
+        assertEquals(child2, iterator.next());
+        assertFalse(iterator.hasNext());
+        
+        assertEquals(2, root1.getChildren().size());
+        assertEquals(2, root2.getChildren().size());
+    }
+    
+    @Test
+    public void testIteratorRemove() {
+        Tree<Integer> tree = new Tree<>();
+        TreeNode<Integer> root = tree.getPseudoRoot().addChild(1);
+        TreeNode<Integer> child1 = root.addChild(11);
+        TreeNode<Integer> child2 = root.addChild(12);
+        TreeNode<Integer> child3 = root.addChild(13);
+        
+        Iterator<TreeNode<Integer>> iterator = root.getChildren().iterator();
+        iterator.next();
+        iterator.next();
+        iterator.remove();
+        
+        assertEquals(child3, iterator.next());
+        assertFalse(iterator.hasNext());
+        assertNull(child2.parent);
+        assertTrue(root.getChildren().containsAll(Arrays.asList(child1, 
+                                                                child3)));
+        assertEquals(2, root.getChildren().size());
+    }
+    
+    @Test(expected = ConcurrentModificationException.class)
+    public void testIteratorIsFailFast() {
+        Tree<Integer> tree = new Tree<>();
+        TreeNode<Integer> root = tree.getPseudoRoot().addChild(1);
+        root.addChild(11);
+        root.addChild(12);
+        
+        Iterator<TreeNode<Integer>> iterator = root.getChildren().iterator();
+        iterator.next();
+        root.addChild(13);
+        iterator.next();
+    }
 }
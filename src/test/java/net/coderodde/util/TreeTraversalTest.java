@@ -0,0 +1,270 @@
+package net.coderodde.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * This test class contains the unit tests for the traversals of {@link Tree}
+ * and {@link TreeNode}.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+public final class TreeTraversalTest {
+    
+    private Tree<Integer> tree;
+    private TreeNode<Integer> root1;
+    private TreeNode<Integer> root2;
+    private TreeNode<Integer> root1Child2;
+    private TreeNode<Integer> root1Child2Child1;
+    
+    //  1
+    //   11
+    //   12
+    //    121
+    //    122
+    //  2
+    //   21
+    @Before
+    public void before() {
+        tree = new Tree<>();
+        root1 = tree.getPseudoRoot().addChild(1);
+        root2 = tree.getPseudoRoot().addChild(2);
+        root1.addChild(11);
+        root1Child2 = root1.addChild(12);
+        root1Child2Child1 = root1Child2.addChild(121);
+        root1Child2.addChild(122);
+        root2.addChild(21);
+    }
+    
+    @Test
+    public void testPreorder() {
+        assertEquals(Arrays.asList(1, 11, 12, 121, 122, 2, 21),
+                     elements(tree.preorderIterator()));
+        assertEquals(Arrays.asList(12, 121, 122), 
+                     elements(root1Child2.preorderIterator()));
+        assertEquals(Arrays.asList(121), 
+                     elements(root1Child2Child1.preorderIterator()));
+    }
+    
+    @Test
+    public void testPostorder() {
+        assertEquals(Arrays.asList(11, 121, 122, 12, 1, 21, 2),
+                     elements(tree.postorderIterator()));
+        assertEquals(Arrays.asList(121, 122, 12), 
+                     elements(root1Child2.postorderIterator()));
+        assertEquals(Arrays.asList(121), 
+                     elements(root1Child2Child1.postorderIterator()));
+    }
+    
+    @Test
+    public void testLevelOrder() {
+        assertEquals(Arrays.asList(1, 2, 11, 12, 21, 121, 122),
+                     elements(tree.levelOrderIterator()));
+        assertEquals(Arrays.asList(1, 11, 12, 121, 122), 
+                     elements(root1.levelOrderIterator()));
+    }
+    
+    @Test
+    public void testAncestors() {
+        assertEquals(Arrays.asList(12, 1), 
+                     elements(root1Child2Child1.ancestorIterator()));
+        assertFalse(root1.ancestorIterator().hasNext());
+        assertEquals(root1, root1Child2.getParent());
+        assertEquals(null, root1.getParent());
+    }
+    
+    @Test
+    public void testEmptyTree() {
+        Tree<Integer> emptyTree = new Tree<>();
+        assertFalse(emptyTree.preorderIterator().hasNext());
+        assertFalse(emptyTree.postorderIterator().hasNext());
+        assertFalse(emptyTree.levelOrderIterator().hasNext());
+        assertEquals(0, emptyTree.preorderStream().count());
+    }
+    
+    @Test
+    public void testStreams() {
+        assertEquals(Arrays.asList(1, 11, 12, 121, 122, 2, 21), 
+                     tree.preorderStream()
+                         .map(TreeNode::getElement)
+                         .collect(Collectors.toList()));
+        assertEquals(Arrays.asList(11, 121, 122, 12, 1, 21, 2), 
+                     tree.postorderStream()
+                         .map(TreeNode::getElement)
+                         .collect(Collectors.toList()));
+        assertEquals(Arrays.asList(1, 2, 11, 12, 21, 121, 122),
+                     tree.levelOrderStream()
+                         .map(TreeNode::getElement)
+                         .collect(Collectors.toList()));
+        assertEquals(Arrays.asList(12, 1), 
+                     root1Child2Child1.ancestorStream()
+                                      .map(TreeNode::getElement)
+                                      .collect(Collectors.toList()));
+    }
+    
+    @Test
+    public void testSpliteratorCharacteristics() {
+        Spliterator<TreeNode<Integer>> spliterator = 
+                tree.preorderSpliterator();
+        
+        assertTrue(spliterator.hasCharacteristics(Spliterator.ORDERED));
+        assertTrue(spliterator.hasCharacteristics(Spliterator.DISTINCT));
+        assertTrue(spliterator.hasCharacteristics(Spliterator.NONNULL));
+    }
+    
+    @Test
+    public void testDeepChainDoesNotOverflow() {
+        Tree<Integer> chainTree = new Tree<>();
+        TreeNode<Integer> node = chainTree.getPseudoRoot();
+        int length = 200_000;
+        
+        for (int i = 0; i < length; i++) {
+            node = node.addChild(i);
+        }
+        
+        assertEquals(length, chainTree.preorderStream().count());
+        assertEquals(length, chainTree.postorderStream().count());
+        assertEquals(length, chainTree.levelOrderStream().count());
+        assertEquals(length - 1, node.ancestorStream().count());
+        assertEquals(Integer.valueOf(length - 1), 
+                     chainTree.postorderIterator().next().getElement());
+    }
+    
+    @Test
+    public void testParallelStreamKeepsPreorder() {
+        Tree<Integer> bigTree = createBalancedTree(100_000, 3);
+        List<Integer> expected = elements(bigTree.preorderIterator());
+        
+        assertEquals(expected, 
+                     bigTree.parallelStream()
+                            .map(TreeNode::getElement)
+                            .collect(Collectors.toList()));
+        assertEquals(expected.size(), bigTree.parallelStream().count());
+    }
+    
+    @Test
+    public void testSpliteratorSplitsCoverAllNodes() {
+        Tree<Integer> bigTree = createBalancedTree(1_000, 2);
+        List<Spliterator<TreeNode<Integer>>> spliterators = new ArrayList<>();
+        spliterators.add(bigTree.preorderSpliterator());
+        
+        // Split repeatedly; the prefixes come before the suffixes.
+        for (int round = 0; round < 6; round++) {
+            List<Spliterator<TreeNode<Integer>>> next = new ArrayList<>();
+            
+            for (Spliterator<TreeNode<Integer>> spliterator : spliterators) {
+                Spliterator<TreeNode<Integer>> prefix = spliterator.trySplit();
+                
+                if (prefix != null) {
+                    next.add(prefix);
+                }
+                
+                next.add(spliterator);
+            }
+            
+            spliterators = next;
+        }
+        
+        assertTrue(spliterators.size() > 16);
+        List<Integer> elements = new ArrayList<>();
+        
+        for (Spliterator<TreeNode<Integer>> spliterator : spliterators) {
+            spliterator.forEachRemaining(node -> 
+                    elements.add(node.getElement()));
+        }
+        
+        assertEquals(elements(bigTree.preorderIterator()), elements);
+    }
+    
+    @Test(expected = ConcurrentModificationException.class)
+    public void testPreorderIsFailFast() {
+        Iterator<TreeNode<Integer>> iterator = tree.preorderIterator();
+        iterator.next(); // 1
+        iterator.next(); // 11
+        root1.addChild(13);
+        iterator.next();
+    }
+    
+    @Test(expected = ConcurrentModificationException.class)
+    public void testPreorderDetectsModificationOnPath() {
+        Iterator<TreeNode<Integer>> iterator = tree.preorderIterator();
+        iterator.next(); // 1
+        iterator.next(); // 11
+        iterator.next(); // 12
+        iterator.next(); // 121
+        tree.getPseudoRoot().addChild(3);
+        
+        while (iterator.hasNext()) {
+            iterator.next();
+        }
+    }
+    
+    @Test(expected = ConcurrentModificationException.class)
+    public void testPostorderIsFailFast() {
+        Iterator<TreeNode<Integer>> iterator = tree.postorderIterator();
+        iterator.next(); // 11
+        root1Child2.getChildren().clear();
+        
+        while (iterator.hasNext()) {
+            iterator.next();
+        }
+    }
+    
+    @Test(expected = ConcurrentModificationException.class)
+    public void testLevelOrderIsFailFast() {
+        Iterator<TreeNode<Integer>> iterator = tree.levelOrderIterator();
+        iterator.next(); // 1
+        root1.addChild(13);
+        
+        while (iterator.hasNext()) {
+            iterator.next();
+        }
+    }
+    
+    @Test(expected = ConcurrentModificationException.class)
+    public void testAncestorsAreFailFast() {
+        Iterator<TreeNode<Integer>> iterator = 
+                root1Child2Child1.ancestorIterator();
+        iterator.next(); // 12
+        root2.getChildren().add(root1Child2);
+        iterator.next();
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testPseudoRootCannotBeAChild() {
+        root1.getChildren().add(new Tree<Integer>().getPseudoRoot());
+    }
+    
+    static Tree<Integer> createBalancedTree(int size, int branchingFactor) {
+        Tree<Integer> balancedTree = new Tree<>();
+        List<TreeNode<Integer>> nodes = new ArrayList<>(size);
+        nodes.add(balancedTree.getPseudoRoot().addChild(0));
+        
+        for (int i = 1; i < size; i++) {
+            nodes.add(nodes.get((i - 1) / branchingFactor).addChild(i));
+        }
+        
+        return balancedTree;
+    }
+    
+    private static List<Integer> elements(Iterator<TreeNode<Integer>> it) {
+        List<Integer> elements = new ArrayList<>();
+        
+        while (it.hasNext()) {
+            elements.add(it.next().getElement());
+        }
+        
+        return elements;
+    }
+}